@@ -0,0 +1,30 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.core.db.api.iec61850.application.services;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import org.opensmartgridplatform.core.db.api.iec61850.entities.Device;
+import org.opensmartgridplatform.core.db.api.iec61850.repositories.DeviceDataRepository;
+
+@Service
+@Transactional(value = "iec61850OsgpCoreDbApiTransactionManager", readOnly = true)
+public class DeviceDataService {
+
+    @Autowired
+    private DeviceDataRepository deviceDataRepository;
+
+    public List<Device> findDevices(final Collection<String> deviceIdentifications) {
+        return this.deviceDataRepository.findByDeviceIdentificationIn(deviceIdentifications);
+    }
+}
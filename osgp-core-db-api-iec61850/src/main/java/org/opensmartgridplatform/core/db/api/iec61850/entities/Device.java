@@ -87,6 +87,12 @@ public class Device implements Serializable {
     @Column()
     protected String deviceType;
 
+    /**
+     * IP address of the device, maintained by the platform.
+     */
+    @Column(insertable = false, updatable = false)
+    private String networkAddress;
+
     public Device() {
         // Default constructor
     }
@@ -123,6 +129,14 @@ public class Device implements Serializable {
         return this.gpsLongitude;
     }
 
+    public String getDeviceType() {
+        return this.deviceType;
+    }
+
+    public String getNetworkAddress() {
+        return this.networkAddress;
+    }
+
     public final Long getId() {
         return this.id;
     }
@@ -0,0 +1,21 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.core.db.api.iec61850.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import org.opensmartgridplatform.core.db.api.iec61850.entities.Device;
+
+@Repository
+public interface DeviceDataRepository extends JpaRepository<Device, Long> {
+    List<Device> findByDeviceIdentificationIn(Collection<String> deviceIdentifications);
+}
@@ -16,6 +16,7 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.FirmwareLocation;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.RetryPolicy;
 import org.opensmartgridplatform.core.db.api.iec61850.application.config.Iec61850OsgpCoreDbApiPersistenceConfig;
 import org.opensmartgridplatform.shared.application.config.AbstractConfig;
 
@@ -32,6 +33,9 @@ import org.opensmartgridplatform.shared.application.config.AbstractConfig;
 public class ApplicationContext extends AbstractConfig {
 
     private static final String PROPERTY_NAME_MAX_RETRY_COUNT = "retrycount.max";
+    private static final String PROPERTY_NAME_RETRY_BACKOFF_INITIAL = "retry.backoff.initial";
+    private static final String PROPERTY_NAME_RETRY_BACKOFF_MAX = "retry.backoff.max";
+    private static final String PROPERTY_NAME_RETRY_DEADLINE = "retry.deadline";
     private static final String PROPERTY_NAME_SELFTEST_TIMEOUT = "selftest.timeout";
 
     private static final String PROPERTY_NAME_CONNECTION_RESPONSE_TIMEOUT = "connection.response.timeout";
@@ -59,6 +63,19 @@ public class ApplicationContext extends AbstractConfig {
         return Integer.parseInt(this.environment.getProperty(PROPERTY_NAME_MAX_RETRY_COUNT));
     }
 
+    /**
+     * The policy for retrying failed communication with a device: at most
+     * {@link #maxRetryCount()} retries, with exponential backoff and jitter,
+     * all started within the deadline after the first attempt.
+     */
+    @Bean
+    public RetryPolicy iec61850RetryPolicy() {
+        return new RetryPolicy(this.maxRetryCount(),
+                this.environment.getProperty(PROPERTY_NAME_RETRY_BACKOFF_INITIAL, Long.class, 500L),
+                this.environment.getProperty(PROPERTY_NAME_RETRY_BACKOFF_MAX, Long.class, 10000L), 0.2,
+                this.environment.getProperty(PROPERTY_NAME_RETRY_DEADLINE, Long.class, 60000L));
+    }
+
     /**
      * The amount of time, in milliseconds, the library will wait for a
      * response.
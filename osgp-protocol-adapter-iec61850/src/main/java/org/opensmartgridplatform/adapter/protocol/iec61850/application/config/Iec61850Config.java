@@ -7,9 +7,20 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.application.config;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
 import java.util.concurrent.Executors;
 
+import javax.net.SocketFactory;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
 import org.apache.commons.lang3.StringUtils;
 import org.jboss.netty.bootstrap.ServerBootstrap;
 import org.jboss.netty.channel.ChannelFactory;
@@ -26,18 +37,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.annotation.PropertySources;
+import org.springframework.jmx.support.RegistrationPolicy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Device;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ChannelHandlerServer;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850SocketFactory;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850TlsSocketFactory;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.RegisterDeviceRequestDecoder;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services.Iec61850ConnectionAttemptLimiter;
 import org.opensmartgridplatform.shared.application.config.AbstractConfig;
 
 @Configuration
 @EnableTransactionManagement()
+@EnableMBeanExport(registration = RegistrationPolicy.IGNORE_EXISTING)
 @PropertySources({ @PropertySource("classpath:osgp-adapter-protocol-iec61850.properties"),
         @PropertySource(value = "file:${osgp/Global/config}", ignoreResourceNotFound = true),
         @PropertySource(value = "file:${osgp/AdapterProtocolIec61850/config}", ignoreResourceNotFound = true), })
@@ -49,6 +68,29 @@ public class Iec61850Config extends AbstractConfig {
     private static final String PROPERTY_IS_VALUE = "{}={}";
 
     private static final String PROPERTY_NAME_IEC61850_TIMEOUT_CONNECT = "iec61850.timeout.connect";
+    private static final String PROPERTY_NAME_IEC61850_TIMEOUT_SOCKET_CONNECT = "iec61850.timeout.socket.connect";
+    private static final String PROPERTY_NAME_IEC61850_TLS_ENABLED = "iec61850.tls.enabled";
+    private static final String PROPERTY_NAME_IEC61850_TLS_PROTOCOL = "iec61850.tls.protocol";
+    private static final String PROPERTY_NAME_IEC61850_TLS_KEY_STORE_PATH = "iec61850.tls.key.store.path";
+    private static final String PROPERTY_NAME_IEC61850_TLS_KEY_STORE_PASSWORD = "iec61850.tls.key.store.password";
+    private static final String PROPERTY_NAME_IEC61850_TLS_KEY_STORE_TYPE = "iec61850.tls.key.store.type";
+    private static final String PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_PATH = "iec61850.tls.trust.store.path";
+    private static final String PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_PASSWORD = "iec61850.tls.trust.store.password";
+    private static final String PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_TYPE = "iec61850.tls.trust.store.type";
+    private static final String PROPERTY_NAME_IEC61850_TLS_SESSION_CACHE_SIZE = "iec61850.tls.session.cache.size";
+    private static final String PROPERTY_NAME_IEC61850_TLS_SESSION_TIMEOUT = "iec61850.tls.session.timeout";
+    private static final String PROPERTY_NAME_IEC61850_CONNECT_THREADS = "iec61850.connect.threads";
+    private static final String PROPERTY_NAME_IEC61850_CONNECT_MAX_ATTEMPTS_PER_SUBNET = "iec61850.connect.max.attempts.per.subnet";
+    private static final String PROPERTY_NAME_IEC61850_DEVICE_EXECUTOR_THREADS = "iec61850.device.executor.threads";
+    private static final String PROPERTY_NAME_IEC61850_REPORT_EXECUTOR_THREADS = "iec61850.report.executor.threads";
+    private static final String PROPERTY_NAME_IEC61850_REPORT_QUEUE_CAPACITY = "iec61850.report.queue.capacity";
+    private static final String PROPERTY_NAME_IEC61850_REPORT_QUEUE_OVERFLOW_POLICY = "iec61850.report.queue.overflow.policy";
+    private static final String PROPERTY_NAME_IEC61850_REPORT_ENTRY_FLUSH_INTERVAL = "iec61850.report.entry.flush.interval";
+    private static final String PROPERTY_NAME_IEC61850_MEASUREMENT_BATCH_SIZE = "iec61850.measurement.batch.size";
+    private static final String PROPERTY_NAME_IEC61850_MEASUREMENT_BATCH_MAX_DELAY = "iec61850.measurement.batch.max.delay";
+    private static final String PROPERTY_NAME_IEC61850_REPORT_TRACE_SIZE = "iec61850.report.trace.size";
+    private static final String PROPERTY_NAME_IEC61850_LIGHT_MEASUREMENT_DEVICE_REFRESH_INTERVAL = "iec61850.light.measurement.device.refresh.interval";
+    private static final String PROPERTY_NAME_IEC61850_REPORT_RESYNC_MIN_INTERVAL = "iec61850.report.resync.min.interval";
     private static final String PROPERTY_NAME_IEC61850_PORT_CLIENT = "iec61850.port.client";
     private static final String PROPERTY_NAME_IEC61850_PORT_CLIENTLOCAL = "iec61850.port.clientlocal";
     private static final String PROPERTY_NAME_IEC61850_SSLD_PORT_SERVER = "iec61850.ssld.port.server";
@@ -64,6 +106,40 @@ public class Iec61850Config extends AbstractConfig {
 
     private static final String PROPERTY_NAME_IEC61850_ICD_FILES_FOLDER = "iec61850.icd.files.folder";
 
+    private static final String PROPERTY_NAME_IEC61850_SERVER_MODEL_SNAPSHOT_FOLDER = "iec61850.server.model.snapshot.folder";
+
+    private static final String PROPERTY_NAME_IEC61850_SCHEDULER_POOL_SIZE = "iec61850.scheduler.pool.size";
+
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_POOL_MAX_SIZE = "iec61850.connection.pool.max.size";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_POOL_IDLE_TIMEOUT = "iec61850.connection.pool.idle.timeout";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_POOL_EVICTION_INTERVAL = "iec61850.connection.pool.eviction.interval";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_POOL_QUOTA_FLEX_OVL = "iec61850.connection.pool.quota.flex.ovl";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_POOL_QUOTA_ZOWN_RTU = "iec61850.connection.pool.quota.zown.rtu";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_POOL_QUOTA_DA_RTU = "iec61850.connection.pool.quota.da.rtu";
+
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_PROBE_ENABLED = "iec61850.connection.probe.enabled";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_PROBE_INTERVAL_MIN = "iec61850.connection.probe.interval.min";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_PROBE_INTERVAL_MAX = "iec61850.connection.probe.interval.max";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_PROBE_MAX_AGE = "iec61850.connection.probe.max.age";
+    private static final String PROPERTY_NAME_IEC61850_CONNECTION_PROBE_THREADS = "iec61850.connection.probe.threads";
+
+    private static final String PROPERTY_NAME_IEC61850_CIRCUIT_BREAKER_FAILURE_THRESHOLD = "iec61850.circuit.breaker.failure.threshold";
+    private static final String PROPERTY_NAME_IEC61850_CIRCUIT_BREAKER_OPEN_DURATION = "iec61850.circuit.breaker.open.duration";
+
+    private static final String PROPERTY_NAME_IEC61850_WARM_UP_ENABLED = "iec61850.warm.up.enabled";
+    private static final String PROPERTY_NAME_IEC61850_WARM_UP_CONNECT_DEVICE_TYPES = "iec61850.warm.up.connect.device.types";
+    private static final String PROPERTY_NAME_IEC61850_WARM_UP_MAX_CONCURRENT_CONNECTS = "iec61850.warm.up.max.concurrent.connects";
+    private static final String PROPERTY_NAME_IEC61850_WARM_UP_CONNECTS_PER_SECOND = "iec61850.warm.up.connects.per.second";
+
+    private static final String PROPERTY_NAME_IEC61850_DATA_SET_CACHE_MAX_SIZE = "iec61850.data.set.cache.max.size";
+    private static final String PROPERTY_NAME_IEC61850_DATA_SET_CACHE_IDLE_TIMEOUT = "iec61850.data.set.cache.idle.timeout";
+
+    private static final String PROPERTY_NAME_IEC61850_LAST_VALUE_MAX_AGE = "iec61850.last.value.max.age";
+    private static final String PROPERTY_NAME_IEC61850_LAST_VALUE_MAX_AGE_PER_ATTRIBUTE = "iec61850.last.value.max.age.per.attribute";
+    private static final String PROPERTY_NAME_IEC61850_LAST_VALUE_MAX_ENTRIES_PER_DEVICE = "iec61850.last.value.max.entries.per.device";
+
+    private static final String PROPERTY_NAME_IEC61850_READ_CACHE_TIME_TO_LIVE_PER_FC = "iec61850.read.cache.time.to.live.per.fc";
+
     private static final String PROPERTY_NAME_IEC61850_IS_BUFFERED_REPORTING_ENABLED = "iec61850.is.buffered.reporting.enabled";
 
     private static final String PROPERTY_NAME_OSLP_DEFAULT_LATITUDE = "iec61850.default.latitude";
@@ -73,11 +149,241 @@ public class Iec61850Config extends AbstractConfig {
         InternalLoggerFactory.setDefaultFactory(new Slf4JLoggerFactory());
     }
 
+    /**
+     * The time (in milliseconds) a connection attempt may take, including the
+     * association and reading of the ServerModel. When it takes longer, the
+     * attempt is cancelled.
+     */
     @Bean
     public int connectionTimeout() {
         return Integer.parseInt(this.environment.getRequiredProperty(PROPERTY_NAME_IEC61850_TIMEOUT_CONNECT));
     }
 
+    /**
+     * The time (in milliseconds) to wait for the TCP connection with a device
+     * to be established. If this property is not set, the default value of
+     * 10000 milliseconds is used.
+     */
+    @Bean
+    public int socketConnectTimeout() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_TIMEOUT_SOCKET_CONNECT, 10000);
+    }
+
+    /**
+     * Socket factory for associations with devices. When TLS is enabled, all
+     * associations are TLS secured, using the configured key and trust stores.
+     * A trust store is required, the certificates trusted by default by the
+     * JVM should not be trusted for devices. Sessions are kept in a shared cache, so reconnects to a device can
+     * resume the previous session. If the session cache properties are not
+     * set, the default values of 1000 sessions and a session timeout of 86400
+     * seconds are used.
+     */
+    @Bean
+    public SocketFactory iec61850SocketFactory() throws GeneralSecurityException, IOException {
+        if (!this.getOptionalBooleanProperty(PROPERTY_NAME_IEC61850_TLS_ENABLED, false)) {
+            return new Iec61850SocketFactory(this.socketConnectTimeout());
+        }
+
+        final String protocol = this.environment.getProperty(PROPERTY_NAME_IEC61850_TLS_PROTOCOL, "TLSv1.2");
+        LOGGER.info(PROPERTY_IS_VALUE, PROPERTY_NAME_IEC61850_TLS_PROTOCOL, protocol);
+        final SSLContext sslContext = SSLContext.getInstance(protocol);
+
+        KeyManagerFactory keyManagerFactory = null;
+        final KeyStore keyStore = this.loadKeyStore(PROPERTY_NAME_IEC61850_TLS_KEY_STORE_PATH,
+                PROPERTY_NAME_IEC61850_TLS_KEY_STORE_PASSWORD, PROPERTY_NAME_IEC61850_TLS_KEY_STORE_TYPE);
+        if (keyStore != null) {
+            keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, this.getPassword(PROPERTY_NAME_IEC61850_TLS_KEY_STORE_PASSWORD));
+        }
+
+        final KeyStore trustStore = this.loadKeyStore(PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_PATH,
+                PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_PASSWORD, PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_TYPE);
+        if (trustStore == null) {
+            throw new IllegalStateException("TLS is enabled, but property "
+                    + PROPERTY_NAME_IEC61850_TLS_TRUST_STORE_PATH + " is not set");
+        }
+        final TrustManagerFactory trustManagerFactory = TrustManagerFactory
+                .getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+
+        // Without a configured key store, the default key managers of the JVM
+        // are used.
+        sslContext.init(keyManagerFactory == null ? null : keyManagerFactory.getKeyManagers(),
+                trustManagerFactory.getTrustManagers(), null);
+        sslContext.getClientSessionContext()
+                .setSessionCacheSize(this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_TLS_SESSION_CACHE_SIZE, 1000));
+        sslContext.getClientSessionContext()
+                .setSessionTimeout(this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_TLS_SESSION_TIMEOUT, 86400));
+
+        return new Iec61850TlsSocketFactory(this.socketConnectTimeout(), sslContext);
+    }
+
+    private KeyStore loadKeyStore(final String pathPropertyName, final String passwordPropertyName,
+            final String typePropertyName) throws GeneralSecurityException, IOException {
+        final String path = this.environment.getProperty(pathPropertyName);
+        if (StringUtils.isEmpty(path)) {
+            LOGGER.info("No store configured for property {}, using JVM default", pathPropertyName);
+            return null;
+        }
+        LOGGER.info(PROPERTY_IS_VALUE, pathPropertyName, path);
+
+        final KeyStore keyStore = KeyStore
+                .getInstance(this.environment.getProperty(typePropertyName, KeyStore.getDefaultType()));
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            keyStore.load(in, this.getPassword(passwordPropertyName));
+        }
+        return keyStore;
+    }
+
+    private char[] getPassword(final String propertyName) {
+        final String password = this.environment.getProperty(propertyName);
+        return password == null ? null : password.toCharArray();
+    }
+
+    /**
+     * Executor on which connections to devices are set up. If the number of
+     * threads is not set, the default value of 50 is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor iec61850ConnectExecutor() {
+        final int threads = this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECT_THREADS, 50);
+        final ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setThreadNamePrefix("iec61850-connect-");
+        return taskExecutor;
+    }
+
+    /**
+     * Limits the connection attempts in progress per subnet, so an unreachable
+     * subnet cannot occupy all threads of the connect executor. If the maximum
+     * is not set, the default value of 10 attempts per subnet is used.
+     */
+    @Bean
+    public Iec61850ConnectionAttemptLimiter iec61850ConnectionAttemptLimiter() {
+        return new Iec61850ConnectionAttemptLimiter(this.iec61850ConnectExecutor(),
+                this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECT_MAX_ATTEMPTS_PER_SUBNET, 10));
+    }
+
+    /**
+     * Executor on which the operations on device connections run, one at a
+     * time per device. The number of threads limits the number of devices
+     * that are communicated with at the same time. If the number of threads is
+     * not set, the default value of 100 is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor iec61850DeviceTaskExecutor() {
+        final int threads = this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_DEVICE_EXECUTOR_THREADS, 100);
+        final ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setAllowCoreThreadTimeOut(true);
+        taskExecutor.setThreadNamePrefix("iec61850-device-");
+        return taskExecutor;
+    }
+
+    /**
+     * Executor on which the reports of devices are processed, one at a time
+     * per device. If the number of threads is not set, the default value of 20
+     * is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor iec61850ReportTaskExecutor() {
+        final int threads = this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_REPORT_EXECUTOR_THREADS, 20);
+        final ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setAllowCoreThreadTimeOut(true);
+        taskExecutor.setThreadNamePrefix("iec61850-report-");
+        return taskExecutor;
+    }
+
+    /**
+     * Maximum number of reports waiting to be processed per device. If the
+     * capacity is not set, the default value of 1000 is used.
+     */
+    @Bean
+    public int reportQueueCapacity() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_REPORT_QUEUE_CAPACITY, 1000);
+    }
+
+    /**
+     * What to do with a report when the queue of its device is full: BLOCK,
+     * DROP_OLDEST or DROP_NEWEST. If the policy is not set, BLOCK is used.
+     */
+    @Bean
+    public String reportQueueOverflowPolicy() {
+        final String policy = this.environment.getProperty(PROPERTY_NAME_IEC61850_REPORT_QUEUE_OVERFLOW_POLICY,
+                "BLOCK");
+        LOGGER.info(PROPERTY_IS_VALUE, PROPERTY_NAME_IEC61850_REPORT_QUEUE_OVERFLOW_POLICY, policy);
+        return policy;
+    }
+
+    /**
+     * The time (in milliseconds) between writes of the last entries of
+     * buffered reports to the database. Entries received in between are kept
+     * in memory, and only the latest entry per report is written. When set to
+     * 0, every entry is written immediately. If the interval is not set, the
+     * default value of 1000 milliseconds is used.
+     */
+    @Bean
+    public int reportEntryFlushInterval() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_REPORT_ENTRY_FLUSH_INTERVAL, 1000);
+    }
+
+    /**
+     * Maximum number of measurement messages from reports that are sent
+     * together. If the batch size is not set, the default value of 1 is used,
+     * which means every message is sent immediately.
+     */
+    @Bean
+    public int measurementBatchSize() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_MEASUREMENT_BATCH_SIZE, 1);
+    }
+
+    /**
+     * The time (in milliseconds) a measurement message may wait for a batch to
+     * be completed. If the delay is not set, the default value of 100
+     * milliseconds is used.
+     */
+    @Bean
+    public int measurementBatchMaxDelay() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_MEASUREMENT_BATCH_MAX_DELAY, 100);
+    }
+
+    /**
+     * The number of received reports kept per device, to be inspected over
+     * JMX. A value of 0 disables the report trace. If this property is not
+     * set, the default value of 20 is used.
+     */
+    @Bean
+    public int reportTraceSize() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_REPORT_TRACE_SIZE, 20);
+    }
+
+    /**
+     * The interval (in milliseconds) at which the light measurement devices
+     * used to route light sensor reports are reloaded from the database. A
+     * value of 0 disables the periodic reload, the devices are then only
+     * reloaded when reporting is enabled. If this property is not set, the
+     * default value of 60000 milliseconds is used.
+     */
+    @Bean
+    public int lightMeasurementDeviceRefreshInterval() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_LIGHT_MEASUREMENT_DEVICE_REFRESH_INTERVAL, 60000);
+    }
+
+    /**
+     * The minimum time (in milliseconds) between two resyncs of a buffered
+     * report because of missed reports. Reports missed within this time after
+     * a resync are only logged. If this property is not set, the default
+     * value of 60000 milliseconds is used.
+     */
+    @Bean
+    public int reportResyncMinInterval() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_REPORT_RESYNC_MIN_INTERVAL, 60000);
+    }
+
     @Bean
     public int iec61850PortClient() {
         return Integer.parseInt(this.environment.getRequiredProperty(PROPERTY_NAME_IEC61850_PORT_CLIENT));
@@ -256,6 +562,289 @@ public class Iec61850Config extends AbstractConfig {
         return filesFolder;
     }
 
+    /**
+     * File path for a directory in which snapshots of ServerModels retrieved
+     * from devices are stored. If this property is not set, no snapshots are
+     * used and the ServerModel is retrieved from the device on every new
+     * connection.
+     */
+    @Bean
+    public String serverModelSnapshotFolder() {
+        final String snapshotFolder = this.environment
+                .getProperty(PROPERTY_NAME_IEC61850_SERVER_MODEL_SNAPSHOT_FOLDER, "");
+        if (StringUtils.isEmpty(snapshotFolder)) {
+            LOGGER.info("No folder configured for property {}, ServerModel snapshots are not used",
+                    PROPERTY_NAME_IEC61850_SERVER_MODEL_SNAPSHOT_FOLDER);
+        } else {
+            LOGGER.info(PROPERTY_IS_VALUE, PROPERTY_NAME_IEC61850_SERVER_MODEL_SNAPSHOT_FOLDER, snapshotFolder);
+        }
+        return snapshotFolder;
+    }
+
+    /**
+     * Scheduler for periodic background tasks, like the eviction of idle
+     * connections. If the pool size is not set, the default value of 4 threads
+     * is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler iec61850TaskScheduler() {
+        final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_SCHEDULER_POOL_SIZE, 4));
+        taskScheduler.setThreadNamePrefix("iec61850-scheduler-");
+        taskScheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return taskScheduler;
+    }
+
+    /**
+     * The maximum number of connections kept open by the connection pool. When
+     * the pool is full, the least recently used connection is closed. If this
+     * property is not set, the default value of 10000 is used.
+     */
+    @Bean
+    public int connectionPoolMaxSize() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_POOL_MAX_SIZE, 10000);
+    }
+
+    /**
+     * The time (in milliseconds) a pooled connection may be idle before it is
+     * closed. Receiving reports counts as activity. A value of 0 disables idle
+     * eviction. If this property is not set, the default value of 3600000
+     * milliseconds is used.
+     */
+    @Bean
+    public int connectionPoolIdleTimeout() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_POOL_IDLE_TIMEOUT, 3600000);
+    }
+
+    /**
+     * The interval (in milliseconds) at which the connection pool checks for
+     * idle connections and logs its statistics. If this property is not set,
+     * the default value of 60000 milliseconds is used.
+     */
+    @Bean
+    public int connectionPoolEvictionInterval() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_POOL_EVICTION_INTERVAL, 60000);
+    }
+
+    /**
+     * The maximum number of pooled connections to SSLD devices (IED
+     * FLEX_OVL). A value of 0 means only the maximum size of the pool applies.
+     */
+    @Bean
+    public int connectionPoolQuotaFlexOvl() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_POOL_QUOTA_FLEX_OVL, 0);
+    }
+
+    /**
+     * The maximum number of pooled connections to RTU devices (IED ZOWN_RTU).
+     * A value of 0 means only the maximum size of the pool applies.
+     */
+    @Bean
+    public int connectionPoolQuotaZownRtu() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_POOL_QUOTA_ZOWN_RTU, 0);
+    }
+
+    /**
+     * The maximum number of pooled connections to DA RTU devices (IED
+     * DA_RTU). A value of 0 means only the maximum size of the pool applies.
+     */
+    @Bean
+    public int connectionPoolQuotaDaRtu() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_POOL_QUOTA_DA_RTU, 0);
+    }
+
+    /**
+     * Used to configure if pooled connections are checked in the background.
+     * If this property is not set, the default value of true is used.
+     */
+    @Bean
+    public boolean isConnectionProbeEnabled() {
+        return this.getOptionalBooleanProperty(PROPERTY_NAME_IEC61850_CONNECTION_PROBE_ENABLED, true);
+    }
+
+    /**
+     * The interval (in milliseconds) at which a pooled connection is checked
+     * after it has been connected. The interval doubles with every successful
+     * check, up to the maximum interval. If this property is not set, the
+     * default value of 10000 milliseconds is used.
+     */
+    @Bean
+    public int connectionProbeMinInterval() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_PROBE_INTERVAL_MIN, 10000);
+    }
+
+    /**
+     * The maximum interval (in milliseconds) at which a pooled connection is
+     * checked. If this property is not set, the default value of 45000
+     * milliseconds is used.
+     */
+    @Bean
+    public int connectionProbeMaxInterval() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_PROBE_INTERVAL_MAX, 45000);
+    }
+
+    /**
+     * The time (in milliseconds) a successful background check of a
+     * connection is trusted by requests. Within this time requests use the
+     * pooled connection without checking it first. If this property is not
+     * set, the default value of 60000 milliseconds is used.
+     */
+    @Bean
+    public int connectionProbeMaxAge() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_PROBE_MAX_AGE, 60000);
+    }
+
+    /**
+     * Executor running the background checks of pooled connections. If the
+     * number of threads is not set, the default value of 4 is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor iec61850ProbeExecutor() {
+        final int threads = this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CONNECTION_PROBE_THREADS, 4);
+        final ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(1000);
+        taskExecutor.setThreadNamePrefix("iec61850-probe-");
+        return taskExecutor;
+    }
+
+    /**
+     * The number of consecutive connection failures after which requests for a
+     * device fail fast. Use 0 to disable the circuit breaker. Default value is
+     * 5.
+     */
+    @Bean
+    public int circuitBreakerFailureThreshold() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CIRCUIT_BREAKER_FAILURE_THRESHOLD, 5);
+    }
+
+    /**
+     * The time in milliseconds requests for a device fail fast, before a
+     * single request is allowed to contact the device again. Default value is
+     * 60000.
+     */
+    @Bean
+    public int circuitBreakerOpenDuration() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_CIRCUIT_BREAKER_OPEN_DURATION, 60000);
+    }
+
+    /**
+     * Enables the warm-up after start-up, which preloads the ServerModel
+     * templates of the configured ICD files and connects to devices. Default
+     * value is false.
+     */
+    @Bean
+    public boolean isWarmUpEnabled() {
+        return this.getOptionalBooleanProperty(PROPERTY_NAME_IEC61850_WARM_UP_ENABLED, false);
+    }
+
+    /**
+     * The device types to connect to during warm-up, as comma-separated
+     * deviceType:IED pairs. If this property is not set, no connections are
+     * set up during warm-up.
+     */
+    @Bean
+    public String warmUpConnectDeviceTypes() {
+        return this.environment.getProperty(PROPERTY_NAME_IEC61850_WARM_UP_CONNECT_DEVICE_TYPES, "");
+    }
+
+    @Bean
+    public int warmUpMaxConcurrentConnects() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_WARM_UP_MAX_CONCURRENT_CONNECTS, 10);
+    }
+
+    @Bean
+    public int warmUpConnectsPerSecond() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_WARM_UP_CONNECTS_PER_SECOND, 5);
+    }
+
+    /**
+     * The maximum number of data sets kept on a device for recurring reads of
+     * the same nodes. Use 0 to create a data set for every read. Default value
+     * is 8.
+     */
+    @Bean
+    public int dataSetCacheMaxSize() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_DATA_SET_CACHE_MAX_SIZE, 8);
+    }
+
+    /**
+     * The time in milliseconds after which an unused data set is deleted from
+     * the device. Default value is 600000.
+     */
+    @Bean
+    public int dataSetCacheIdleTimeout() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_DATA_SET_CACHE_IDLE_TIMEOUT, 600000);
+    }
+
+    /**
+     * The time in milliseconds values received in reports are used to answer
+     * reads of the same nodes, instead of reading them from the device. Use 0
+     * to always read from the device. Default value is 0.
+     */
+    @Bean
+    public int lastValueMaxAge() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_LAST_VALUE_MAX_AGE, 0);
+    }
+
+    /**
+     * The time in milliseconds reported values are used for specific data
+     * attributes, as comma-separated name:maxAge pairs, overriding
+     * {@link #lastValueMaxAge()}.
+     */
+    @Bean
+    public String lastValueMaxAgePerAttribute() {
+        return this.environment.getProperty(PROPERTY_NAME_IEC61850_LAST_VALUE_MAX_AGE_PER_ATTRIBUTE, "");
+    }
+
+    /**
+     * The maximum number of reported values kept per device. Values of nodes
+     * that are not kept yet, are not kept when the maximum has been reached.
+     * Default value is 10000.
+     */
+    @Bean
+    public int lastValueMaxEntriesPerDevice() {
+        return this.getOptionalIntProperty(PROPERTY_NAME_IEC61850_LAST_VALUE_MAX_ENTRIES_PER_DEVICE, 10000);
+    }
+
+    /**
+     * The time in milliseconds values read from devices are used for later
+     * reads of the same nodes, as comma-separated FC:timeToLive pairs, e.g.
+     * CF:300000,DC:300000. If this property is not set, values are always read
+     * from the device.
+     */
+    @Bean
+    public String readCacheTimeToLivePerFc() {
+        return this.environment.getProperty(PROPERTY_NAME_IEC61850_READ_CACHE_TIME_TO_LIVE_PER_FC, "");
+    }
+
+    private boolean getOptionalBooleanProperty(final String propertyName, final boolean defaultValue) {
+        final String property = this.environment.getProperty(propertyName);
+        boolean value;
+        if (StringUtils.isEmpty(property)) {
+            value = defaultValue;
+            LOGGER.info(DEFAULT_PROPERTY_MESSAGE, value, propertyName);
+        } else {
+            value = Boolean.parseBoolean(property);
+            LOGGER.info(PROPERTY_IS_VALUE, propertyName, value);
+        }
+        return value;
+    }
+
+    private int getOptionalIntProperty(final String propertyName, final int defaultValue) {
+        final String property = this.environment.getProperty(propertyName);
+        int value;
+        if (StringUtils.isEmpty(property)) {
+            value = defaultValue;
+            LOGGER.info(DEFAULT_PROPERTY_MESSAGE, value, propertyName);
+        } else {
+            value = Integer.parseInt(property);
+            LOGGER.info(PROPERTY_IS_VALUE, propertyName, value);
+        }
+        return value;
+    }
+
     @Bean
     public Boolean isBufferedReportingEnabled() {
         final Boolean isBufferedReportingEnabled = Boolean.parseBoolean(
@@ -18,6 +18,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -76,6 +77,17 @@ public class Iec61850PersistenceConfig extends AbstractPersistenceConfig {
         return super.createFlyway(this.getDataSourceIec61850());
     }
 
+    /**
+     * JDBC access to the osgp_adapter_protocol_iec61850 database, for batched
+     * statements that do not need entities. Statements take part in the
+     * transactions of the {@link #transactionManager()}.
+     */
+    @Bean
+    @DependsOn("iec61850Flyway")
+    public JdbcTemplate iec61850JdbcTemplate() {
+        return new JdbcTemplate(this.getDataSourceIec61850());
+    }
+
     @Override
     @Bean(name = "iec61850EntityManagerFactory")
     @DependsOn("iec61850Flyway")
@@ -20,7 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850DeviceReportGroup;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceReportGroupRepository;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
-import org.opensmartgridplatform.adapter.protocol.iec61850.infra.messaging.DeviceResponseMessageSender;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.messaging.MeasurementBatchPublisher;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.messaging.OsgpRequestMessageSender;
 import org.opensmartgridplatform.core.db.api.iec61850.entities.DeviceOutputSetting;
 import org.opensmartgridplatform.core.db.api.iec61850.entities.LightMeasurementDevice;
@@ -53,7 +53,7 @@ public class DeviceManagementService {
     private OsgpRequestMessageSender osgpRequestMessageSender;
 
     @Autowired
-    private DeviceResponseMessageSender responseSender;
+    private MeasurementBatchPublisher measurementBatchPublisher;
 
     public DeviceManagementService() {
         // Parameterless constructor required for transactions...
@@ -147,7 +147,7 @@ public class DeviceManagementService {
                 .deviceMessageMetadata(new DeviceMessageMetadata(deviceIdentification, "no-organisation",
                         "no-correlationUid", DeviceFunctionDto.GET_DATA.name(), 0))
                 .result(ResponseMessageResultType.OK).domain("MICROGRIDS").domainVersion("1.0").build();
-        this.responseSender.send(responseMessage);
+        this.measurementBatchPublisher.publish(responseMessage);
     }
 
     public void sendPqValues(final String deviceIdentification, final String reportDataSet,
@@ -159,6 +159,6 @@ public class DeviceManagementService {
                         "no-correlationUid", DeviceFunctionDto.GET_POWER_QUALITY_VALUES.name(), 0))
                 .result(ResponseMessageResultType.OK).domain(deviceReportGroup.getDomain())
                 .domainVersion(deviceReportGroup.getDomainVersion()).build();
-        this.responseSender.send(responseMessage);
+        this.measurementBatchPublisher.publish(responseMessage);
     }
 }
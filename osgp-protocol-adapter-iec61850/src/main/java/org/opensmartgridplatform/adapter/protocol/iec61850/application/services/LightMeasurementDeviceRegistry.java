@@ -0,0 +1,142 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.application.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.core.db.api.iec61850.entities.LightMeasurementDevice;
+
+/**
+ * Keeps the real light measurement devices in memory, indexed by the digital
+ * input (the number of the SPGGIO logical node) they are connected to, so
+ * reports with light sensor events can be routed to their device without
+ * querying the database for every report. More than one device can be
+ * connected to the same digital input.
+ * <p>
+ * The devices are loaded when first needed, and reloaded periodically and
+ * after {@link #invalidate()}. Threads looking up a device while the devices
+ * are being loaded wait for that load, instead of loading the devices again.
+ * If reloading fails, the devices loaded before are kept.
+ */
+@Component
+public class LightMeasurementDeviceRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LightMeasurementDeviceRegistry.class);
+
+    /**
+     * Digital inputs are numbered 1 to 16, like the SPGGIO logical nodes.
+     */
+    private static final int MAX_DIGITAL_INPUT = 16;
+
+    @Autowired
+    private DeviceManagementService deviceManagementService;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private int lightMeasurementDeviceRefreshInterval;
+
+    private volatile List<List<LightMeasurementDevice>> devicesByDigitalInput;
+
+    private final AtomicLong refreshes = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        if (this.lightMeasurementDeviceRefreshInterval > 0) {
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(this::refresh,
+                    this.lightMeasurementDeviceRefreshInterval);
+        }
+    }
+
+    /**
+     * @return The light measurement devices connected to the digital input,
+     *         an empty list if there are none.
+     */
+    public List<LightMeasurementDevice> get(final int digitalInput) {
+        if (digitalInput < 1 || digitalInput > MAX_DIGITAL_INPUT) {
+            return Collections.emptyList();
+        }
+        List<List<LightMeasurementDevice>> devices = this.devicesByDigitalInput;
+        if (devices == null) {
+            devices = this.load();
+        }
+        return devices.get(digitalInput);
+    }
+
+    /**
+     * Makes the next lookup reload the devices, e.g. when reporting is
+     * (re-)enabled and the devices may have been changed.
+     */
+    public void invalidate() {
+        this.devicesByDigitalInput = null;
+    }
+
+    /**
+     * Loads the devices, unless another thread loaded them while this thread
+     * was waiting for the lock.
+     */
+    private synchronized List<List<LightMeasurementDevice>> load() {
+        final List<List<LightMeasurementDevice>> devices = this.devicesByDigitalInput;
+        return devices == null ? this.refresh() : devices;
+    }
+
+    /**
+     * Reloads the devices from the database.
+     *
+     * @return The devices indexed by digital input.
+     */
+    public synchronized List<List<LightMeasurementDevice>> refresh() {
+        final List<LightMeasurementDevice> lmds;
+        try {
+            lmds = this.deviceManagementService.findRealLightMeasurementDevices();
+        } catch (final DataAccessException e) {
+            final List<List<LightMeasurementDevice>> previousDevices = this.devicesByDigitalInput;
+            if (previousDevices != null) {
+                LOGGER.warn("Unable to reload light measurement devices, keeping the devices loaded before", e);
+                return previousDevices;
+            }
+            LOGGER.error("Unable to load light measurement devices", e);
+            return Collections.nCopies(MAX_DIGITAL_INPUT + 1, Collections.emptyList());
+        }
+        final List<List<LightMeasurementDevice>> devices = new ArrayList<>(MAX_DIGITAL_INPUT + 1);
+        for (int i = 0; i <= MAX_DIGITAL_INPUT; i++) {
+            devices.add(new ArrayList<>(1));
+        }
+        for (final LightMeasurementDevice lmd : lmds) {
+            final Short digitalInput = lmd.getDigitalInput();
+            if (digitalInput != null && digitalInput >= 1 && digitalInput <= MAX_DIGITAL_INPUT) {
+                devices.get(digitalInput).add(lmd);
+            }
+        }
+        devices.replaceAll(Collections::unmodifiableList);
+        LOGGER.debug("Loaded {} light measurement devices", lmds.size());
+        this.refreshes.incrementAndGet();
+        this.devicesByDigitalInput = devices;
+        return devices;
+    }
+
+    /**
+     * @return The number of times the devices have been loaded.
+     */
+    public long getRefreshes() {
+        return this.refreshes.get();
+    }
+}
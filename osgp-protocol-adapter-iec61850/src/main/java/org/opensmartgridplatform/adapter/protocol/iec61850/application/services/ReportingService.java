@@ -7,35 +7,95 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.application.services;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.openmuc.openiec61850.Report;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.orm.jpa.JpaOptimisticLockingFailureException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850ReportEntry;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850ReportEntryRepository;
 
+/**
+ * Stores the last entry of buffered reports, so reporting can be resumed from
+ * that entry after a reconnect.
+ * <p>
+ * When a flush interval is configured, entries are kept in memory and written
+ * on that interval, and when the application stops. Only the latest entry of
+ * a report is written, with a single batched statement for all reports. An
+ * entry that has not been written yet is lost when the application stops
+ * unexpectedly, which means the device sends some reports again after the
+ * next reconnect. With a flush interval of 0, every entry is written
+ * immediately.
+ */
 @Service(value = "iec61850ReportingService")
 public class ReportingService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ReportingService.class);
     private static final long IEC61850_ENTRY_TIME_OFFSET = 441763200000L;
 
+    private static final String UPSERT_LAST_REPORT_ENTRY = "INSERT INTO iec61850_last_report_entry "
+            + "(creation_time, modification_time, version, device_identification, report_id, entry_id, time_of_entry) "
+            + "VALUES (?, ?, 0, ?, ?, ?, ?) ON CONFLICT (device_identification, report_id) DO UPDATE SET "
+            + "modification_time = EXCLUDED.modification_time, version = iec61850_last_report_entry.version + 1, "
+            + "entry_id = EXCLUDED.entry_id, time_of_entry = EXCLUDED.time_of_entry";
+
     @Autowired
     private Iec61850ReportEntryRepository iec61850ReportEntryRepository;
 
+    @Autowired
+    private JdbcTemplate iec61850JdbcTemplate;
+
+    @Autowired
+    @Qualifier("transactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private int reportEntryFlushInterval;
+
+    /**
+     * Entries not written yet, by device identification and report id.
+     */
+    private final Map<String, Iec61850ReportEntry> pendingEntries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void init() {
+        if (this.reportEntryFlushInterval > 0) {
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(this::flush, this.reportEntryFlushInterval);
+        }
+    }
+
     @Transactional(value = "transactionManager", readOnly = true)
     public Iec61850ReportEntry retrieveReportEntry(final String deviceIdentification, final String reportId) {
+        final Iec61850ReportEntry pendingEntry = this.pendingEntries.get(getKey(deviceIdentification, reportId));
+        if (pendingEntry != null) {
+            return pendingEntry;
+        }
         return this.iec61850ReportEntryRepository.findByDeviceIdentificationAndReportId(deviceIdentification, reportId);
     }
 
-    @Transactional(value = "transactionManager")
     public void storeLastReportEntry(final Report report, final String deviceIdentification) {
         if (Objects.isNull(report.getEntryId()) || Objects.isNull(report.getTimeOfEntry())) {
             LOGGER.warn(
@@ -43,25 +103,81 @@ public class ReportingService {
                     report.getRptId(), deviceIdentification);
             return;
         }
-        Iec61850ReportEntry reportEntry = this.iec61850ReportEntryRepository
-                .findByDeviceIdentificationAndReportId(deviceIdentification, report.getRptId());
-        if (reportEntry == null) {
-            reportEntry = new Iec61850ReportEntry(deviceIdentification, report.getRptId(),
-                    report.getEntryId().getValue(),
-                    new Date(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET));
-            LOGGER.info("Store new last report entry: {}", reportEntry);
+        final Iec61850ReportEntry reportEntry = new Iec61850ReportEntry(deviceIdentification, report.getRptId(),
+                report.getEntryId().getValue(),
+                new Date(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET));
+        LOGGER.debug("Store last report entry: {}", reportEntry);
+
+        if (this.reportEntryFlushInterval > 0) {
+            this.pendingEntries.put(getKey(deviceIdentification, report.getRptId()), reportEntry);
         } else {
-            reportEntry.updateLastReportEntry(report.getEntryId().getValue(),
-                    new Date(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET));
-            LOGGER.info("Store updated last report entry: {}", reportEntry);
+            this.write(reportEntry);
         }
+    }
+
+    private void write(final Iec61850ReportEntry reportEntry) {
+        final List<Iec61850ReportEntry> reportEntries = new ArrayList<>();
+        reportEntries.add(reportEntry);
         try {
-            this.iec61850ReportEntryRepository.saveAndFlush(reportEntry);
-        } catch (final JpaOptimisticLockingFailureException e) {
-            LOGGER.debug("JpaOptimisticLockingFailureException", e);
-            LOGGER.warn(
-                    "JPA optimistic locking failure exception while saving last report entry: {} with id {} and version {}",
-                    reportEntry, reportEntry.getId(), reportEntry.getVersion());
+            this.write(reportEntries);
+        } catch (final DataAccessException | TransactionException e) {
+            LOGGER.warn("Unable to store last report entry: {}", reportEntry, e);
+        }
+    }
+
+    /**
+     * Writes all entries kept in memory. Entries that cannot be written are
+     * kept, unless a later entry of the same report has been stored in the
+     * meantime.
+     */
+    @PreDestroy
+    public void flush() {
+        final List<String> keys = new ArrayList<>();
+        final List<Iec61850ReportEntry> reportEntries = new ArrayList<>();
+        for (final Map.Entry<String, Iec61850ReportEntry> pendingEntry : this.pendingEntries.entrySet()) {
+            if (this.pendingEntries.remove(pendingEntry.getKey(), pendingEntry.getValue())) {
+                keys.add(pendingEntry.getKey());
+                reportEntries.add(pendingEntry.getValue());
+            }
+        }
+        if (reportEntries.isEmpty()) {
+            return;
+        }
+
+        try {
+            final long startTime = System.currentTimeMillis();
+            this.write(reportEntries);
+            LOGGER.debug("Stored {} last report entries in {} ms", reportEntries.size(),
+                    System.currentTimeMillis() - startTime);
+        } catch (final DataAccessException | TransactionException e) {
+            LOGGER.warn("Unable to store {} last report entries, retrying later", reportEntries.size(), e);
+            for (int i = 0; i < keys.size(); i++) {
+                this.pendingEntries.putIfAbsent(keys.get(i), reportEntries.get(i));
+            }
+        }
+    }
+
+    private void write(final List<Iec61850ReportEntry> reportEntries) {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final List<Object[]> batchArgs = new ArrayList<>();
+        for (final Iec61850ReportEntry reportEntry : reportEntries) {
+            batchArgs.add(new Object[] { now, now, reportEntry.getDeviceIdentification(), reportEntry.getReportId(),
+                    reportEntry.getEntryId(), new Timestamp(reportEntry.getTimeOfEntry().getTime()) });
         }
+        // The connections of the pool do not commit automatically.
+        new TransactionTemplate(this.transactionManager)
+                .execute(status -> this.iec61850JdbcTemplate.batchUpdate(UPSERT_LAST_REPORT_ENTRY, batchArgs));
+    }
+
+    /**
+     * @return The number of entries kept in memory that have not been written
+     *         yet.
+     */
+    public int getPendingEntryCount() {
+        return this.pendingEntries.size();
+    }
+
+    private static String getKey(final String deviceIdentification, final String reportId) {
+        return deviceIdentification + "/" + reportId;
     }
 }
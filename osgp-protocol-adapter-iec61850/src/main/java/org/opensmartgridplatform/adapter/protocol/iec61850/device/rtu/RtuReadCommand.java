@@ -14,8 +14,24 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.help
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.NodeContainer;
 
 public interface RtuReadCommand<T> {
-    T execute(Iec61850Client client, DeviceConnection connection, LogicalDevice logicalDevice, int logicalDeviceIndex)
+
+    /**
+     * Returns the node read by this command.
+     */
+    NodeContainer getNode(DeviceConnection connection, LogicalDevice logicalDevice, int logicalDeviceIndex)
             throws NodeException;
 
+    /**
+     * Reads the node of this command and translates it. The node is not read
+     * again if it has already been read for the current request, see
+     * {@link DeviceConnection#isPrefetched}.
+     */
+    default T execute(final Iec61850Client client, final DeviceConnection connection,
+            final LogicalDevice logicalDevice, final int logicalDeviceIndex) throws NodeException {
+        final NodeContainer containingNode = this.getNode(connection, logicalDevice, logicalDeviceIndex);
+        client.readNodeDataValues(connection, containingNode.getFcmodelNode());
+        return this.translate(containingNode);
+    }
+
     T translate(final NodeContainer containingNode);
 }
@@ -82,7 +82,7 @@ public abstract class BaseMessageProcessor implements MessageProcessor {
         final int jmsxRedeliveryCount = jmsxDeliveryCount - 1;
         LOGGER.info("jmsxDeliveryCount: {}, jmsxRedeliveryCount: {}, maxRedeliveriesForIec61850Requests: {}",
                 jmsxDeliveryCount, jmsxRedeliveryCount, this.maxRedeliveriesForIec61850Requests);
-        if (jmsxRedeliveryCount < this.maxRedeliveriesForIec61850Requests) {
+        if (this.isRedeliveryAllowed(jmsxDeliveryCount)) {
             LOGGER.info(
                     "Redelivering message with messageType: {}, correlationUid: {}, for device: {} - jmsxRedeliveryCount: {} is less than maxRedeliveriesForIec61850Requests: {}",
                     deviceMessageMetadata.getMessageType(), deviceMessageMetadata.getCorrelationUid(),
@@ -104,6 +104,15 @@ public abstract class BaseMessageProcessor implements MessageProcessor {
         }
     }
 
+    /**
+     * @return true if a request message that has been delivered
+     *         'jmsxDeliveryCount' times may be redelivered, according to the
+     *         maximum number of redeliveries.
+     */
+    public boolean isRedeliveryAllowed(final int jmsxDeliveryCount) {
+        return jmsxDeliveryCount - 1 < this.maxRedeliveriesForIec61850Requests;
+    }
+
     /**
      * Handles {@link EmptyDeviceResponse} by default. MessageProcessor
      * implementations can override this function to handle responses containing
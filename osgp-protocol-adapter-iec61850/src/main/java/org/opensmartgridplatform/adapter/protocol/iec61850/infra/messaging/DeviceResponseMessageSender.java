@@ -7,8 +7,12 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.messaging;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.jms.JMSException;
 import javax.jms.Message;
+import javax.jms.MessageProducer;
 import javax.jms.ObjectMessage;
 import javax.jms.Session;
 
@@ -21,6 +25,7 @@ import org.springframework.jms.IllegalStateException;
 import org.springframework.jms.UncategorizedJmsException;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.core.MessageCreator;
+import org.springframework.jms.support.JmsUtils;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services.Iec61850DeviceConnectionService;
 import org.opensmartgridplatform.shared.infra.jms.Constants;
@@ -63,20 +68,48 @@ public class DeviceResponseMessageSender implements ResponseMessageSender {
         try {
             this.sendMessage(msg);
         } catch (final IllegalStateException | UncategorizedJmsException e) {
-            /*
-             * IllegalStateException occurs when activemq connection pool is
-             * exhausted or activemq failover timeout is reached
-             * UncategorizedJmsException might also occur when activemq failover
-             * timeout is reached
-             */
-            if (this.isCloseConnectionsOnBrokerFailure) {
-                LOGGER.error(LOG_MESSAGE_JMS_EXCEPTION, e);
-                this.iec61850deviceConnectionService.closeAllConnections();
+            this.handleBrokerFailure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the messages in the given order, using a single session and
+     * producer. When the session is transacted, the messages are committed
+     * at once.
+     */
+    public void send(final List<ProtocolResponseMessage> responseMessages) {
+        final List<ProtocolResponseMessage> messages = new ArrayList<>(responseMessages.size());
+        for (final ProtocolResponseMessage responseMessage : responseMessages) {
+            if (this.checkMessage(responseMessage)) {
+                messages.add(responseMessage);
             }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.sendMessages(messages);
+        } catch (final IllegalStateException | UncategorizedJmsException e) {
+            this.handleBrokerFailure(e);
             throw e;
         }
     }
 
+    private void handleBrokerFailure(final RuntimeException e) {
+        /*
+         * IllegalStateException occurs when activemq connection pool is
+         * exhausted or activemq failover timeout is reached
+         * UncategorizedJmsException might also occur when activemq failover
+         * timeout is reached
+         */
+        if (this.isCloseConnectionsOnBrokerFailure) {
+            LOGGER.error(LOG_MESSAGE_JMS_EXCEPTION, e);
+            this.iec61850deviceConnectionService.closeAllConnections();
+        }
+    }
+
     private boolean checkMessage(final ProtocolResponseMessage msg) {
         if (StringUtils.isBlank(msg.getOrganisationIdentification())) {
             LOGGER.error(LOG_MESSAGE_BLANK_FIELD, "OrganisationIdentification");
@@ -115,25 +148,52 @@ public class DeviceResponseMessageSender implements ResponseMessageSender {
         this.iec61850ResponsesJmsTemplate.send(new MessageCreator() {
             @Override
             public Message createMessage(final Session session) throws JMSException {
-                final ObjectMessage objectMessage = session.createObjectMessage(responseMessage);
-                objectMessage.setJMSCorrelationID(responseMessage.getCorrelationUid());
-                objectMessage.setStringProperty(Constants.DOMAIN, responseMessage.getDomain());
-                objectMessage.setStringProperty(Constants.DOMAIN_VERSION, responseMessage.getDomainVersion());
-                objectMessage.setJMSType(responseMessage.getMessageType());
-                objectMessage.setJMSPriority(responseMessage.getMessagePriority());
-                objectMessage.setStringProperty(Constants.ORGANISATION_IDENTIFICATION,
-                        responseMessage.getOrganisationIdentification());
-                objectMessage.setStringProperty(Constants.DEVICE_IDENTIFICATION,
-                        responseMessage.getDeviceIdentification());
-                objectMessage.setStringProperty(Constants.RESULT, responseMessage.getResult().toString());
-                if (responseMessage.getOsgpException() != null) {
-                    objectMessage.setStringProperty(Constants.DESCRIPTION,
-                            responseMessage.getOsgpException().getMessage());
-                }
-                objectMessage.setBooleanProperty(Constants.IS_SCHEDULED, responseMessage.isScheduled());
-                objectMessage.setIntProperty(Constants.RETRY_COUNT, responseMessage.getRetryCount());
-                return objectMessage;
+                return DeviceResponseMessageSender.createMessage(session, responseMessage);
             }
         });
     }
+
+    private void sendMessages(final List<ProtocolResponseMessage> responseMessages) {
+        LOGGER.info("Sending {} protocol response messages", responseMessages.size());
+
+        final JmsTemplate template = this.iec61850ResponsesJmsTemplate;
+        template.execute(session -> {
+            final MessageProducer producer = session.createProducer(template.getDefaultDestination());
+            try {
+                for (final ProtocolResponseMessage responseMessage : responseMessages) {
+                    final Message message = createMessage(session, responseMessage);
+                    if (template.isExplicitQosEnabled()) {
+                        producer.send(message, template.getDeliveryMode(), template.getPriority(),
+                                template.getTimeToLive());
+                    } else {
+                        producer.send(message);
+                    }
+                }
+                JmsUtils.commitIfNecessary(session);
+            } finally {
+                JmsUtils.closeMessageProducer(producer);
+            }
+            return null;
+        }, false);
+    }
+
+    private static ObjectMessage createMessage(final Session session, final ProtocolResponseMessage responseMessage)
+            throws JMSException {
+        final ObjectMessage objectMessage = session.createObjectMessage(responseMessage);
+        objectMessage.setJMSCorrelationID(responseMessage.getCorrelationUid());
+        objectMessage.setStringProperty(Constants.DOMAIN, responseMessage.getDomain());
+        objectMessage.setStringProperty(Constants.DOMAIN_VERSION, responseMessage.getDomainVersion());
+        objectMessage.setJMSType(responseMessage.getMessageType());
+        objectMessage.setJMSPriority(responseMessage.getMessagePriority());
+        objectMessage.setStringProperty(Constants.ORGANISATION_IDENTIFICATION,
+                responseMessage.getOrganisationIdentification());
+        objectMessage.setStringProperty(Constants.DEVICE_IDENTIFICATION, responseMessage.getDeviceIdentification());
+        objectMessage.setStringProperty(Constants.RESULT, responseMessage.getResult().toString());
+        if (responseMessage.getOsgpException() != null) {
+            objectMessage.setStringProperty(Constants.DESCRIPTION, responseMessage.getOsgpException().getMessage());
+        }
+        objectMessage.setBooleanProperty(Constants.IS_SCHEDULED, responseMessage.isScheduled());
+        objectMessage.setIntProperty(Constants.RETRY_COUNT, responseMessage.getRetryCount());
+        return objectMessage;
+    }
 }
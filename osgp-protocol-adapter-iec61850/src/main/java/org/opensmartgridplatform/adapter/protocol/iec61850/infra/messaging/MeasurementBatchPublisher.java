@@ -0,0 +1,231 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.messaging;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.JmsException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.shared.infra.jms.ProtocolResponseMessage;
+
+/**
+ * Publishes measurements received in reports in batches, to reduce the cost
+ * of sending a message per report.
+ * <p>
+ * Messages are collected per domain, and sent with a single session when the
+ * batch size is reached, or when the oldest message in the batch has waited
+ * for the maximum delay. Messages are sent in the order they were published,
+ * so the order of the messages of a device is kept. With a batch size of 1 or
+ * less, every message is sent immediately.
+ * <p>
+ * Batches are sent outside the lock of the domain, so publishing is not held
+ * up by a slow broker. Batches that are ready while another batch of the same
+ * domain is being sent are sent by the thread sending that batch.
+ */
+@Component
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=MeasurementBatchPublisher",
+        description = "Batches of measurement messages sent for reports of IEC61850 devices")
+public class MeasurementBatchPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementBatchPublisher.class);
+
+    @Autowired
+    private DeviceResponseMessageSender responseSender;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private int measurementBatchSize;
+
+    @Autowired
+    private int measurementBatchMaxDelay;
+
+    private final ConcurrentHashMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+    private final AtomicLong sentBatches = new AtomicLong();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong flushLatency = new AtomicLong();
+    private final AtomicLong maxFlushLatency = new AtomicLong();
+
+    private static class ReadyBatch {
+        private final List<ProtocolResponseMessage> messages;
+        private final long firstMessageTime;
+
+        ReadyBatch(final List<ProtocolResponseMessage> messages, final long firstMessageTime) {
+            this.messages = messages;
+            this.firstMessageTime = firstMessageTime;
+        }
+    }
+
+    private class Batch {
+        private List<ProtocolResponseMessage> messages = new ArrayList<>();
+        private long firstMessageTime;
+
+        /**
+         * Batches waiting to be sent, in the order they were collected.
+         */
+        private final Deque<ReadyBatch> readyBatches = new ArrayDeque<>();
+
+        /**
+         * Whether a thread is sending the ready batches.
+         */
+        private boolean sending;
+
+        void add(final ProtocolResponseMessage message) {
+            final boolean isFull;
+            synchronized (this) {
+                this.messages.add(message);
+                if (this.messages.size() == 1) {
+                    this.firstMessageTime = System.currentTimeMillis();
+                    MeasurementBatchPublisher.this.iec61850TaskScheduler.schedule(this::flush,
+                            new Date(this.firstMessageTime + MeasurementBatchPublisher.this.measurementBatchMaxDelay));
+                }
+                isFull = this.messages.size() >= MeasurementBatchPublisher.this.measurementBatchSize;
+            }
+            if (isFull) {
+                this.flush();
+            }
+        }
+
+        /**
+         * Sends the collected messages, after the batches collected before.
+         */
+        void flush() {
+            synchronized (this) {
+                if (this.messages.isEmpty()) {
+                    return;
+                }
+                this.readyBatches.add(new ReadyBatch(this.messages, this.firstMessageTime));
+                this.messages = new ArrayList<>();
+                if (this.sending) {
+                    // Sent by the thread sending the previous batch.
+                    return;
+                }
+                this.sending = true;
+            }
+            this.sendReadyBatches();
+        }
+
+        private void sendReadyBatches() {
+            while (true) {
+                final ReadyBatch readyBatch;
+                synchronized (this) {
+                    readyBatch = this.readyBatches.poll();
+                    if (readyBatch == null) {
+                        this.sending = false;
+                        return;
+                    }
+                }
+                MeasurementBatchPublisher.this.send(readyBatch.messages, readyBatch.firstMessageTime);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.measurementBatchSize > 1;
+    }
+
+    /**
+     * Publishes the message, immediately or as part of a batch.
+     */
+    public void publish(final ProtocolResponseMessage message) {
+        if (!this.isEnabled()) {
+            this.responseSender.send(message);
+            return;
+        }
+        this.batches.computeIfAbsent(message.getDomain(), key -> new Batch()).add(message);
+    }
+
+    /**
+     * Sends all collected messages, e.g. when the application stops.
+     */
+    @PreDestroy
+    public void flush() {
+        for (final Batch batch : this.batches.values()) {
+            batch.flush();
+        }
+    }
+
+    private void send(final List<ProtocolResponseMessage> batch, final long firstMessageTime) {
+        try {
+            this.responseSender.send(batch);
+            this.sentBatches.incrementAndGet();
+            this.sentMessages.addAndGet(batch.size());
+        } catch (final JmsException e) {
+            this.failedMessages.addAndGet(batch.size());
+            LOGGER.error("Unable to send batch of {} measurement messages", batch.size(), e);
+        } finally {
+            final long latency = System.currentTimeMillis() - firstMessageTime;
+            this.flushLatency.addAndGet(latency);
+            this.maxFlushLatency.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * @return The number of batches sent.
+     */
+    @ManagedAttribute(description = "Number of batches sent")
+    public long getSentBatches() {
+        return this.sentBatches.get();
+    }
+
+    /**
+     * @return The number of messages sent in batches. Divided by the number
+     *         of batches this gives the average batch size.
+     */
+    @ManagedAttribute(description = "Number of messages sent in batches")
+    public long getSentMessages() {
+        return this.sentMessages.get();
+    }
+
+    /**
+     * @return The number of messages in batches that could not be sent.
+     */
+    @ManagedAttribute(description = "Number of messages in batches that could not be sent")
+    public long getFailedMessages() {
+        return this.failedMessages.get();
+    }
+
+    /**
+     * @return The total time in milliseconds between the first message of a
+     *         batch being published and the batch being sent, for all
+     *         batches.
+     */
+    @ManagedAttribute(description = "Total time in milliseconds between publishing and sending the first message "
+            + "of a batch")
+    public long getFlushLatency() {
+        return this.flushLatency.get();
+    }
+
+    /**
+     * @return The longest time in milliseconds between the first message of a
+     *         batch being published and the batch being sent.
+     */
+    @ManagedAttribute(description = "Longest time in milliseconds between publishing and sending the first message "
+            + "of a batch")
+    public long getMaxFlushLatency() {
+        return this.maxFlushLatency.get();
+    }
+}
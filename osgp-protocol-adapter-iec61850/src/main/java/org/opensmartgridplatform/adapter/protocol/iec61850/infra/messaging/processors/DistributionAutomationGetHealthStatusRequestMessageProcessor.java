@@ -43,8 +43,7 @@ public class DistributionAutomationGetHealthStatusRequestMessageProcessor extend
                     logicalDeviceIndex,
                     org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalNode.PHYSICAL_DEVICE_ONE,
                     DataAttribute.PHYSICAL_HEALTH, Fc.ST);
-            client.readNodeDataValues(connection.getConnection().getClientAssociation(),
-                    containingNode.getFcmodelNode());
+            client.readNodeDataValues(connection, containingNode.getFcmodelNode());
             return new GetHealthStatusResponseDto(
                     Health.fromByte(containingNode.getByte(SubDataAttribute.STATE).getValue()));
         };
@@ -57,11 +57,35 @@ public class DistributionAutomationGetPQValuesRequestMessageProcessor extends Da
             final DeviceConnection connection, final DaDeviceRequest deviceRequest) {
         return (final DeviceMessageLog deviceMessageLog) -> {
             final ServerModel serverModel = connection.getConnection().getServerModel();
-            client.readAllDataValues(connection.getConnection().getClientAssociation());
+            // Only the measured values are used, read them in a single request
+            // instead of reading all data values of the device.
+            final List<FcModelNode> measuredValues = this.getMeasuredValueNodes(serverModel);
+            if (measuredValues.isEmpty()
+                    || !client.readNodesDataValues(connection.getConnection(), measuredValues)) {
+                client.readAllDataValues(connection.getConnection().getClientAssociation());
+            }
             return new GetPQValuesResponseDto(this.processPQValuesLogicalDevice(serverModel));
         };
     }
 
+    private List<FcModelNode> getMeasuredValueNodes(final ServerModel model) {
+        final List<FcModelNode> measuredValues = new ArrayList<>();
+        for (final ModelNode node : model.getChildren()) {
+            if (node instanceof LogicalDevice) {
+                for (final ModelNode subNode : node.getChildren()) {
+                    if (subNode instanceof LogicalNode) {
+                        for (final ModelNode child : subNode.getChildren()) {
+                            if (Fc.MX == ((FcModelNode) child).getFc() && child.getChildren() != null) {
+                                measuredValues.add((FcModelNode) child);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return measuredValues;
+    }
+
     private synchronized List<LogicalDeviceDto> processPQValuesLogicalDevice(final ServerModel model) {
         final List<LogicalDeviceDto> logicalDevices = new ArrayList<>();
         for (final ModelNode node : model.getChildren()) {
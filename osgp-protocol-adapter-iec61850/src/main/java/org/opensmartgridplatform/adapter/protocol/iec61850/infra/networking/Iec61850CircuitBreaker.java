@@ -0,0 +1,162 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.CircuitBreaker;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ConnectionState;
+
+/**
+ * Keeps a {@link CircuitBreaker} per device, so requests for devices that are
+ * offline fail fast instead of waiting for time-outs.
+ * <p>
+ * A {@link ConnectionFailureException} or a {@link NodeException} with
+ * connection state {@link ConnectionState#BROKEN} counts as a failure. Any
+ * other outcome proves the device is reachable and counts as a success.
+ */
+@Component
+public class Iec61850CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850CircuitBreaker.class);
+
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    @Autowired
+    private int circuitBreakerFailureThreshold;
+
+    @Autowired
+    private int circuitBreakerOpenDuration;
+
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Devices for which the current thread is executing an operation. Nested
+     * operations for the same device are covered by the outer operation.
+     */
+    private final ThreadLocal<Set<String>> activeDevices = ThreadLocal.withInitial(HashSet::new);
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public boolean isEnabled() {
+        return this.circuitBreakerFailureThreshold > 0;
+    }
+
+    /**
+     * Executes the operation for the device, unless the circuit for the
+     * device is open.
+     *
+     * @throws ConnectionFailureException
+     *             If the circuit for the device is open.
+     */
+    public <T, E extends Exception> T execute(final String deviceIdentification, final Operation<T, E> operation)
+            throws E, ConnectionFailureException {
+        if (!this.isEnabled() || deviceIdentification == null
+                || this.activeDevices.get().contains(deviceIdentification)) {
+            return operation.execute();
+        }
+
+        final CircuitBreaker circuitBreaker = this.circuitBreakers.computeIfAbsent(deviceIdentification,
+                key -> new CircuitBreaker(this.circuitBreakerFailureThreshold, this.circuitBreakerOpenDuration));
+        final CircuitBreaker.State stateBefore = circuitBreaker.getState();
+        if (!circuitBreaker.tryAcquire(System.currentTimeMillis())) {
+            this.rejectedCalls.incrementAndGet();
+            throw new ConnectionFailureException(
+                    "Circuit breaker is open for device: " + deviceIdentification + ", not contacting the device");
+        }
+        if (stateBefore == CircuitBreaker.State.OPEN) {
+            LOGGER.info("Circuit breaker is half-open for device: {}, probing the device", deviceIdentification);
+        }
+
+        this.activeDevices.get().add(deviceIdentification);
+        boolean connectionFailed = false;
+        try {
+            return operation.execute();
+        } catch (final Exception e) {
+            connectionFailed = isConnectionFailure(e);
+            throw e;
+        } finally {
+            this.activeDevices.get().remove(deviceIdentification);
+            if (connectionFailed) {
+                this.failure(deviceIdentification, circuitBreaker);
+            } else {
+                this.success(deviceIdentification, circuitBreaker);
+            }
+        }
+    }
+
+    /**
+     * @return The state of the circuit for the device, CLOSED if there has
+     *         been no communication with the device.
+     */
+    public CircuitBreaker.State getState(final String deviceIdentification) {
+        final CircuitBreaker circuitBreaker = this.circuitBreakers.get(deviceIdentification);
+        return circuitBreaker == null ? CircuitBreaker.State.CLOSED : circuitBreaker.getState();
+    }
+
+    /**
+     * @return The state of all circuits that are not closed, by device
+     *         identification.
+     */
+    public Map<String, CircuitBreaker.State> getOpenCircuits() {
+        final Map<String, CircuitBreaker.State> openCircuits = new HashMap<>();
+        for (final Map.Entry<String, CircuitBreaker> entry : this.circuitBreakers.entrySet()) {
+            final CircuitBreaker.State state = entry.getValue().getState();
+            if (state != CircuitBreaker.State.CLOSED) {
+                openCircuits.put(entry.getKey(), state);
+            }
+        }
+        return openCircuits;
+    }
+
+    /**
+     * @return The number of calls rejected because the circuit was open.
+     */
+    public long getRejectedCalls() {
+        return this.rejectedCalls.get();
+    }
+
+    private void success(final String deviceIdentification, final CircuitBreaker circuitBreaker) {
+        final CircuitBreaker.State stateBefore = circuitBreaker.getState();
+        circuitBreaker.success();
+        if (stateBefore != CircuitBreaker.State.CLOSED) {
+            LOGGER.info("Circuit breaker closed for device: {}", deviceIdentification);
+        }
+    }
+
+    private void failure(final String deviceIdentification, final CircuitBreaker circuitBreaker) {
+        final CircuitBreaker.State stateBefore = circuitBreaker.getState();
+        circuitBreaker.failure(System.currentTimeMillis());
+        if (stateBefore != CircuitBreaker.State.OPEN && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            LOGGER.warn("Circuit breaker opened for device: {} after {} consecutive failures, failing fast for {} ms",
+                    deviceIdentification, circuitBreaker.getConsecutiveFailures(), this.circuitBreakerOpenDuration);
+        }
+    }
+
+    private static boolean isConnectionFailure(final Exception e) {
+        if (e instanceof ConnectionFailureException) {
+            return true;
+        }
+        return e instanceof NodeException && ConnectionState.BROKEN.equals(((NodeException) e).getConnectionState());
+    }
+}
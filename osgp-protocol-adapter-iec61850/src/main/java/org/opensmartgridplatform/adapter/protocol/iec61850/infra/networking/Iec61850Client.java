@@ -9,14 +9,22 @@ package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
+import javax.net.SocketFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmuc.openiec61850.ClientAssociation;
 import org.openmuc.openiec61850.ClientSap;
+import org.openmuc.openiec61850.DataSet;
 import org.openmuc.openiec61850.FcModelNode;
-import org.openmuc.openiec61850.SclParseException;
 import org.openmuc.openiec61850.ServerModel;
 import org.openmuc.openiec61850.ServiceError;
 import org.slf4j.Logger;
@@ -30,16 +38,39 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeReadEx
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeWriteException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ConnectionState;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.Function;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalDevice;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.Reconnector;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.RetryPolicy;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ClientBaseEventListener;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ClientEventListenerFactory;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ReportDispatcher;
 
 @Component
 public class Iec61850Client {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850Client.class);
+
+    /**
+     * Data sets with a name starting with @ only exist for the association
+     * that created them.
+     */
+    private static final String TEMPORARY_DATA_SET_PREFIX = "@OsgpRead";
+    private static final String CACHED_DATA_SET_PREFIX = "@OsgpCached";
+
+    /**
+     * A single node is read directly. More nodes are read through a data set
+     * that is kept for recurring reads, which takes a single round trip once
+     * it has been created.
+     */
+    private static final int MIN_NODES_TO_PREFETCH = 2;
+    /**
+     * A temporary data set takes three round trips: create, read and delete.
+     * Fewer nodes are read faster one by one.
+     */
+    public static final int MIN_NODES_FOR_TEMPORARY_DATA_SET = 4;
     private static final String COULD_NOT_EXECUTE_COMMAND = "Could not execute command";
 
     @Autowired
@@ -60,6 +91,35 @@ public class Iec61850Client {
     @Autowired
     private int maxRetryCount;
 
+    @Autowired
+    private Iec61850ServerModelTemplateCache serverModelTemplateCache;
+
+    @Autowired
+    private SocketFactory iec61850SocketFactory;
+
+    @Autowired
+    private Iec61850CircuitBreaker iec61850CircuitBreaker;
+
+    @Autowired
+    private Iec61850DeviceExecutor iec61850DeviceExecutor;
+
+    @Autowired
+    private RetryPolicy iec61850RetryPolicy;
+
+    @Autowired
+    private int dataSetCacheMaxSize;
+
+    @Autowired
+    private Iec61850LastValueStore iec61850LastValueStore;
+
+    @Autowired
+    private Iec61850ReadCache iec61850ReadCache;
+
+    @Autowired
+    private Iec61850ReportDispatcher iec61850ReportDispatcher;
+
+    private final AtomicInteger dataSetCounter = new AtomicInteger();
+
     @PostConstruct
     private void init() {
         LOGGER.info(
@@ -90,15 +150,18 @@ public class Iec61850Client {
      */
     public Iec61850ClientAssociation connect(final String deviceIdentification, final InetAddress ipAddress,
             final Iec61850ClientBaseEventListener reportListener, final int port) throws ConnectionFailureException {
-        // Alternatively you could use ClientSap(SocketFactory factory) to e.g.
-        // connect using SSL.
-        final ClientSap clientSap = new ClientSap();
+        // The socket factory limits the time spent on establishing the TCP
+        // connection, and secures the connection with TLS when configured.
+        final ClientSap clientSap = new ClientSap(this.iec61850SocketFactory);
         final Iec61850ClientAssociation clientAssociation;
         LOGGER.info("Attempting to connect to server: {} on port: {}, max redelivery count: {} and max retry count: {}",
                 ipAddress.getHostAddress(), port, this.maxRedeliveriesForIec61850Requests, this.maxRetryCount);
 
         try {
-            final ClientAssociation association = clientSap.associate(ipAddress, port, null, reportListener);
+            // Reports are processed by the dispatcher, so processing does not
+            // hold up the thread receiving messages from the device.
+            final ClientAssociation association = clientSap.associate(ipAddress, port, null,
+                    this.iec61850ReportDispatcher.decorate(deviceIdentification, reportListener));
             clientAssociation = new Iec61850ClientAssociation(association, reportListener);
         } catch (final IOException e) {
             // An IOException will always indicate a fatal exception. It
@@ -142,7 +205,9 @@ public class Iec61850Client {
         try {
             LOGGER.debug("Start reading server model from device");
             // RetrieveModel() will call all GetDirectory and GetDefinition ACSI
-            // services needed to get the complete server model.
+            // services needed to get the complete server model. OpenIEC61850
+            // does not offer these services per logical device, so the model
+            // can only be retrieved as a whole.
             final ServerModel serverModel = clientAssociation.retrieveModel();
             LOGGER.debug("Completed reading server model from device");
             return serverModel;
@@ -155,7 +220,9 @@ public class Iec61850Client {
     }
 
     /**
-     * Use an ICD file (model file) to read the device model.
+     * Use an ICD file (model file) to read the device model. The file is
+     * parsed only once, every association gets its own copy of the parsed
+     * model from the {@link Iec61850ServerModelTemplateCache}.
      *
      * @param clientAssociation
      *            Instance of {@link ClientAssociation}
@@ -165,7 +232,8 @@ public class Iec61850Client {
      * @return Instance of {@link ServerModel}
      *
      * @throws ProtocolAdapterException
-     *             In case the file path is empty.
+     *             In case the file path is empty or the file can not be
+     *             parsed.
      */
     public ServerModel readServerModelFromSclFile(final ClientAssociation clientAssociation, final String filePath)
             throws ProtocolAdapterException {
@@ -173,11 +241,9 @@ public class Iec61850Client {
             throw new ProtocolAdapterException("File path is empty");
         }
 
-        try {
-            return clientAssociation.getModelFromSclFile(filePath);
-        } catch (final SclParseException e) {
-            throw new ProtocolAdapterException("Error parsing SCL file: " + filePath, e);
-        }
+        final ServerModel serverModel = this.serverModelTemplateCache.getServerModel(filePath);
+        clientAssociation.setServerModel(serverModel);
+        return serverModel;
     }
 
     /**
@@ -229,6 +295,190 @@ public class Iec61850Client {
         }
     }
 
+    /**
+     * Reads the data values of the node, unless it has already been read for
+     * the current request using
+     * {@link #prefetchNodeDataValues(DeviceConnection, Collection)}, or its
+     * values have been reported or read recently enough. See
+     * {@link Iec61850LastValueStore} and {@link Iec61850ReadCache}.
+     */
+    public void readNodeDataValues(final DeviceConnection deviceConnection, final FcModelNode modelNode)
+            throws NodeReadException {
+        if (deviceConnection.isPrefetched(modelNode)
+                || this.copyKeptValues(deviceConnection.getDeviceIdentification(), modelNode)) {
+            return;
+        }
+        this.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(), modelNode);
+        this.iec61850ReadCache.put(deviceConnection.getDeviceIdentification(), modelNode,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Copies values reported by the device, or read for an earlier request,
+     * into the node if they are recent enough.
+     */
+    private boolean copyKeptValues(final String deviceIdentification, final FcModelNode modelNode) {
+        final long now = System.currentTimeMillis();
+        return this.iec61850LastValueStore.copyTo(deviceIdentification, modelNode, now)
+                || this.iec61850ReadCache.copyTo(deviceIdentification, modelNode, now);
+    }
+
+    /**
+     * Reads the data values of independent nodes needed for the current
+     * request in a single request, instead of one request per node. Nodes of
+     * which the values have been reported or read recently enough are not
+     * read. If reading the nodes at once is not possible, the nodes are read
+     * one by one when they are needed. Call
+     * {@link DeviceConnection#clearPrefetchedNodes()} when the request is
+     * done.
+     */
+    public void prefetchNodeDataValues(final DeviceConnection deviceConnection,
+            final Collection<FcModelNode> modelNodes) throws NodeReadException {
+        final String deviceIdentification = deviceConnection.getDeviceIdentification();
+        final List<FcModelNode> prefetchedNodes = new ArrayList<>();
+        final List<FcModelNode> nodesToRead = new ArrayList<>();
+        for (final FcModelNode modelNode : modelNodes) {
+            if (this.copyKeptValues(deviceIdentification, modelNode)) {
+                prefetchedNodes.add(modelNode);
+            } else {
+                nodesToRead.add(modelNode);
+            }
+        }
+
+        if (nodesToRead.size() >= MIN_NODES_TO_PREFETCH
+                && this.readNodesDataValues(deviceConnection.getConnection(), nodesToRead)) {
+            LOGGER.info("Read {} nodes at once for device: {}", nodesToRead.size(), deviceIdentification);
+            final long now = System.currentTimeMillis();
+            for (final FcModelNode modelNode : nodesToRead) {
+                this.iec61850ReadCache.put(deviceIdentification, modelNode, now);
+            }
+            prefetchedNodes.addAll(nodesToRead);
+        }
+        if (!prefetchedNodes.isEmpty()) {
+            deviceConnection.setPrefetchedNodes(prefetchedNodes);
+        }
+    }
+
+    /**
+     * Reads the data values of all given nodes at once, using a data set for
+     * the association of the connection. When the same nodes are read again,
+     * the data set is kept for recurring reads, until it is unused for a
+     * while. Nodes read for the first time are read with a temporary data set,
+     * unless there are too few of them to gain from it. When the device does
+     * not support data sets, the nodes have to be read one by one.
+     *
+     * @return true if the data values of all nodes have been read.
+     * @throws NodeReadException
+     *             If the connection with the device is broken.
+     */
+    public boolean readNodesDataValues(final Iec61850Connection connection,
+            final Collection<FcModelNode> modelNodes) throws NodeReadException {
+        final Set<FcModelNode> distinctNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctNodes.addAll(modelNodes);
+        final List<FcModelNode> members = new ArrayList<>(distinctNodes);
+
+        final ClientAssociation clientAssociation = connection.getClientAssociation();
+        final Iec61850DataSetCache dataSetCache = connection.getDataSetCache();
+        final String key = Iec61850DataSetCache.getKey(members);
+        DataSet dataSet = dataSetCache.get(key, System.currentTimeMillis());
+        if (dataSet == null) {
+            if (!dataSetCache.countRead(key) || dataSetCache.size() >= this.dataSetCacheMaxSize) {
+                return members.size() >= MIN_NODES_FOR_TEMPORARY_DATA_SET
+                        && this.readTemporaryDataSet(clientAssociation, members);
+            }
+            dataSet = this.createDataSet(clientAssociation, CACHED_DATA_SET_PREFIX, members);
+            if (dataSet == null) {
+                return false;
+            }
+            dataSetCache.put(key, dataSet, System.currentTimeMillis());
+        }
+
+        try {
+            LOGGER.debug("Start getDataSetValues for {} nodes from device", members.size());
+            clientAssociation.getDataSetValues(dataSet);
+            LOGGER.debug("Completed getDataSetValues for {} nodes from device", members.size());
+            return true;
+        } catch (final ServiceError e) {
+            LOGGER.warn("ServiceError reading data set {}, reading {} nodes one by one", dataSet.getReferenceStr(),
+                    members.size(), e);
+            dataSetCache.remove(key);
+            this.deleteDataSet(clientAssociation, dataSet);
+            return false;
+        } catch (final IOException e) {
+            LOGGER.error("IOException during readNodesDataValues", e);
+            throw new NodeReadException(e.getMessage(), e, ConnectionState.BROKEN);
+        }
+    }
+
+    /**
+     * Deletes the data sets of the connection that have not been used for
+     * more than idleTimeout milliseconds.
+     */
+    public void deleteUnusedDataSets(final Iec61850Connection connection, final long idleTimeout) {
+        final List<DataSet> unused = connection.getDataSetCache().removeUnused(System.currentTimeMillis(),
+                idleTimeout);
+        final ClientAssociation clientAssociation = connection.getClientAssociation();
+        if (clientAssociation == null) {
+            return;
+        }
+        for (final DataSet dataSet : unused) {
+            LOGGER.debug("Deleting unused data set {}", dataSet.getReferenceStr());
+            this.deleteDataSet(clientAssociation, dataSet);
+        }
+    }
+
+    private boolean readTemporaryDataSet(final ClientAssociation clientAssociation, final List<FcModelNode> members)
+            throws NodeReadException {
+        final DataSet dataSet = this.createDataSet(clientAssociation, TEMPORARY_DATA_SET_PREFIX, members);
+        if (dataSet == null) {
+            return false;
+        }
+
+        try {
+            LOGGER.debug("Start getDataSetValues for {} nodes from device", members.size());
+            clientAssociation.getDataSetValues(dataSet);
+            LOGGER.debug("Completed getDataSetValues for {} nodes from device", members.size());
+            return true;
+        } catch (final ServiceError e) {
+            LOGGER.warn("ServiceError reading temporary data set for {} nodes, reading them one by one",
+                    members.size(), e);
+            return false;
+        } catch (final IOException e) {
+            LOGGER.error("IOException during readNodesDataValues", e);
+            throw new NodeReadException(e.getMessage(), e, ConnectionState.BROKEN);
+        } finally {
+            this.deleteDataSet(clientAssociation, dataSet);
+        }
+    }
+
+    /**
+     * @return The data set created on the device, or null if the device does
+     *         not accept it.
+     */
+    private DataSet createDataSet(final ClientAssociation clientAssociation, final String prefix,
+            final List<FcModelNode> members) throws NodeReadException {
+        try {
+            final int dataSetNumber = this.dataSetCounter.incrementAndGet() & Integer.MAX_VALUE;
+            final DataSet dataSet = new DataSet(prefix + dataSetNumber, members);
+            clientAssociation.createDataSet(dataSet);
+            return dataSet;
+        } catch (final IllegalArgumentException | ServiceError e) {
+            LOGGER.warn("Unable to create data set for {} nodes, reading them one by one", members.size(), e);
+            return null;
+        } catch (final IOException e) {
+            LOGGER.error("IOException during createDataSet", e);
+            throw new NodeReadException(e.getMessage(), e, ConnectionState.BROKEN);
+        }
+    }
+
+    private void deleteDataSet(final ClientAssociation clientAssociation, final DataSet dataSet) {
+        try {
+            clientAssociation.deleteDataSet(dataSet);
+        } catch (final ServiceError | IOException e) {
+            LOGGER.debug("Unable to delete data set {}", dataSet.getReferenceStr(), e);
+        }
+    }
+
     /**
      * Executes the apply method of the given {@link Function} with retries.
      *
@@ -236,25 +486,19 @@ public class Iec61850Client {
      */
     public <T> T sendCommandWithRetry(final Function<T> function, final String deviceIdentification)
             throws ProtocolAdapterException {
-        T output = null;
-
-        try {
-            output = function.apply(null);
-        } catch (final NodeWriteException | NodeReadException e) {
-            if (ConnectionState.OK.equals(e.getConnectionState())) {
-                // ServiceError means we have to retry.
-                LOGGER.error("Caught ServiceError, retrying", e);
-                this.sendCommandWithRetry(function, deviceIdentification, 1, null);
-            } else {
-                LOGGER.error("Caught IOException, connection with device is broken.", e);
-            }
-        } catch (final ProtocolAdapterException e) {
-            throw e;
-        } catch (final Exception e) {
-            throw new ProtocolAdapterException(e.getMessage() == null ? COULD_NOT_EXECUTE_COMMAND : e.getMessage(), e);
-        }
+        return this.execute(function, deviceIdentification, null, null);
+    }
 
-        return output;
+    /**
+     * Executes the apply method of the given {@link Function} with retries.
+     * When the connection with the device is broken, the reconnector is used
+     * to set up a new connection before retrying.
+     *
+     * @return The given T.
+     */
+    public <T> T sendCommandWithRetry(final Function<T> function, final String deviceIdentification,
+            final Reconnector reconnector) throws ProtocolAdapterException {
+        return this.execute(function, deviceIdentification, null, reconnector);
     }
 
     /**
@@ -265,51 +509,75 @@ public class Iec61850Client {
      */
     public <T> T sendCommandWithRetry(final Function<T> function, final String functionName,
             final String deviceIdentification) throws ProtocolAdapterException {
-        T output = null;
         final DeviceMessageLog deviceMessageLog = new DeviceMessageLog(IED.FLEX_OVL, LogicalDevice.LIGHTING,
                 functionName);
-        try {
-            output = function.apply(deviceMessageLog);
-        } catch (final NodeWriteException | NodeReadException e) {
-            if (ConnectionState.OK.equals(e.getConnectionState())) {
-                // ServiceError means we have to retry.
-                LOGGER.error("Caught ServiceError, retrying", e);
-                this.sendCommandWithRetry(function, deviceIdentification, 1, deviceMessageLog);
-            } else {
-                LOGGER.error("Caught IOException, connection with device is broken.", e);
-            }
-        } catch (final ProtocolAdapterException e) {
-            throw e;
-        } catch (final Exception e) {
-            throw new ProtocolAdapterException(e.getMessage() == null ? COULD_NOT_EXECUTE_COMMAND : e.getMessage(), e);
-        }
-
-        return output;
+        return this.execute(function, deviceIdentification, deviceMessageLog, null);
     }
 
     /**
-     * Basically the same as sendCommandWithRetry, but with a retry parameter.
+     * Sends the command after all other commands for the device, guarded by
+     * the circuit breaker of the device.
      */
-    private <T> T sendCommandWithRetry(final Function<T> function, final String deviceIdentification,
-            final int retryCount, final DeviceMessageLog deviceMessageLog) throws ProtocolAdapterException {
-
-        T output = null;
-
-        LOGGER.info("retry: {} of {} for deviceIdentification: {}", retryCount, this.maxRetryCount,
-                deviceIdentification);
+    private <T> T execute(final Function<T> function, final String deviceIdentification,
+            final DeviceMessageLog deviceMessageLog, final Reconnector reconnector) throws ProtocolAdapterException {
+        return this.iec61850DeviceExecutor.execute(deviceIdentification,
+                () -> this.iec61850CircuitBreaker.execute(deviceIdentification,
+                        () -> this.sendCommand(function, deviceIdentification, deviceMessageLog, reconnector)));
+    }
 
-        try {
-            output = function.apply(deviceMessageLog);
-        } catch (final ProtocolAdapterException e) {
-            if (retryCount >= this.maxRetryCount) {
+    /**
+     * Applies the function, retrying failed reads and writes according to the
+     * retry policy. ServiceErrors are retried on the same connection. When
+     * the connection is broken, the function is only retried if a
+     * reconnector is given.
+     *
+     * @return The output of the successful attempt.
+     */
+    private <T> T sendCommand(final Function<T> function, final String deviceIdentification,
+            final DeviceMessageLog deviceMessageLog, final Reconnector reconnector) throws ProtocolAdapterException {
+
+        final long startTime = System.currentTimeMillis();
+        int retry = 0;
+        while (true) {
+            try {
+                return function.apply(deviceMessageLog);
+            } catch (final NodeWriteException | NodeReadException e) {
+                final boolean broken = ConnectionState.BROKEN.equals(e.getConnectionState());
+                if (broken && reconnector == null) {
+                    LOGGER.error("Caught IOException, connection with device: {} is broken.", deviceIdentification, e);
+                    throw e;
+                }
+                LOGGER.warn("Caught {} for device: {}", broken ? "IOException" : "ServiceError",
+                        deviceIdentification, e);
+
+                retry++;
+                final long backoff = this.iec61850RetryPolicy.getBackoff(retry);
+                if (!this.iec61850RetryPolicy.isRetryAllowed(retry, startTime, System.currentTimeMillis() + backoff)) {
+                    LOGGER.error("Giving up on device: {} after {} retries in {} ms", deviceIdentification,
+                            retry - 1, System.currentTimeMillis() - startTime);
+                    throw e;
+                }
+                LOGGER.info("retry: {} of {} for deviceIdentification: {} in {} ms", retry,
+                        this.iec61850RetryPolicy.getMaxRetries(), deviceIdentification, backoff);
+                this.backOff(backoff, e);
+                if (broken) {
+                    reconnector.reconnect();
+                }
+            } catch (final ProtocolAdapterException e) {
                 throw e;
-            } else {
-                this.sendCommandWithRetry(function, deviceIdentification, retryCount + 1, deviceMessageLog);
+            } catch (final Exception e) {
+                throw new ProtocolAdapterException(e.getMessage() == null ? COULD_NOT_EXECUTE_COMMAND : e.getMessage(),
+                        e);
             }
-        } catch (final Exception e) {
-            throw new ProtocolAdapterException(e.getMessage() == null ? COULD_NOT_EXECUTE_COMMAND : e.getMessage(), e);
         }
+    }
 
-        return output;
+    private void backOff(final long backoff, final ProtocolAdapterException cause) throws ProtocolAdapterException {
+        try {
+            Thread.sleep(backoff);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
     }
 }
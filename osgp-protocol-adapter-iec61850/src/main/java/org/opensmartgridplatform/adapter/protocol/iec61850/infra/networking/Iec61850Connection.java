@@ -9,9 +9,16 @@ package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
 
 import org.joda.time.DateTime;
 import org.openmuc.openiec61850.ClientAssociation;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.ModelNode;
 import org.openmuc.openiec61850.ServerModel;
 
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceConnectionParameters;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DataAttribute;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalNode;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.NodeIndex;
 
 public class Iec61850Connection {
 
@@ -23,6 +30,14 @@ public class Iec61850Connection {
 
     private IED ied;
 
+    private final Iec61850ConnectionHealth health = new Iec61850ConnectionHealth();
+
+    private final Iec61850DataSetCache dataSetCache = new Iec61850DataSetCache();
+
+    private final NodeIndex nodeIndex = new NodeIndex();
+
+    private DeviceConnectionParameters connectionParameters;
+
     public Iec61850Connection(final Iec61850ClientAssociation clientAssociation, final ServerModel serverModel) {
         this.clientAssociation = clientAssociation;
         this.serverModel = serverModel;
@@ -56,4 +71,48 @@ public class Iec61850Connection {
     public IED getIed() {
         return this.ied;
     }
+
+    public Iec61850ConnectionHealth getHealth() {
+        return this.health;
+    }
+
+    public Iec61850DataSetCache getDataSetCache() {
+        return this.dataSetCache;
+    }
+
+    /**
+     * @return The index of the nodes of the ServerModel of this connection
+     *         that have been used.
+     */
+    public NodeIndex getNodeIndex() {
+        return this.nodeIndex;
+    }
+
+    /**
+     * @return The parameters used to set up this connection, or null if they
+     *         are not known.
+     */
+    public DeviceConnectionParameters getConnectionParameters() {
+        return this.connectionParameters;
+    }
+
+    public void setConnectionParameters(final DeviceConnectionParameters connectionParameters) {
+        this.connectionParameters = connectionParameters;
+    }
+
+    /**
+     * Returns the node that is read to check if the connection is still
+     * alive: LLN0.NamPlt of the first logical device in the ServerModel.
+     *
+     * @return The node, or null if the ServerModel does not contain it.
+     */
+    public FcModelNode getProbeNode() {
+        if (this.serverModel == null || this.serverModel.getChildren().isEmpty()) {
+            return null;
+        }
+        final ModelNode logicalDevice = this.serverModel.getChildren().iterator().next();
+        return (FcModelNode) this.serverModel.findModelNode(logicalDevice.getName() + "/"
+                + LogicalNode.LOGICAL_NODE_ZERO.getDescription() + "." + DataAttribute.NAME_PLATE.getDescription(),
+                Fc.DC);
+    }
 }
\ No newline at end of file
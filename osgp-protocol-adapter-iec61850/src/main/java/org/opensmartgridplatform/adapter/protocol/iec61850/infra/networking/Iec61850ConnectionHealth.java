@@ -0,0 +1,89 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ConnectionState;
+
+/**
+ * Result of the background liveness checks of an {@link Iec61850Connection}.
+ */
+public class Iec61850ConnectionHealth {
+
+    private ConnectionState state = ConnectionState.UNKNOWN;
+    private long lastAliveTime;
+    private long probeInterval;
+    private long nextProbeTime;
+    private boolean probeInProgress;
+
+    /**
+     * Claims the next probe if it is due and no probe is in progress.
+     *
+     * @return true if the caller should probe the connection.
+     */
+    public synchronized boolean startProbeIfDue(final long now) {
+        if (this.probeInProgress || now < this.nextProbeTime) {
+            return false;
+        }
+        this.probeInProgress = true;
+        return true;
+    }
+
+    /**
+     * Marks the connection alive at the given time, and schedules the next
+     * probe after the given delay.
+     */
+    public synchronized void alive(final long aliveTime, final long nextProbeInterval, final long nextProbeDelay) {
+        this.state = ConnectionState.OK;
+        this.lastAliveTime = Math.max(this.lastAliveTime, aliveTime);
+        this.probeInterval = nextProbeInterval;
+        this.nextProbeTime = aliveTime + nextProbeDelay;
+        this.probeInProgress = false;
+    }
+
+    public synchronized void broken() {
+        this.state = ConnectionState.BROKEN;
+        this.probeInProgress = false;
+    }
+
+    /**
+     * Releases a claimed probe without changing the state, and schedules the
+     * next probe at the given time.
+     */
+    public synchronized void postpone(final long nextProbeTime) {
+        this.nextProbeTime = nextProbeTime;
+        this.probeInProgress = false;
+    }
+
+    /**
+     * Releases a claimed probe without changing the state, e.g. when the probe
+     * could not be executed.
+     */
+    public synchronized void probeCancelled() {
+        this.probeInProgress = false;
+    }
+
+    /**
+     * @return true if the connection was found alive no longer than maxAge
+     *         milliseconds ago.
+     */
+    public synchronized boolean isHealthy(final long now, final long maxAge) {
+        return this.state == ConnectionState.OK && now - this.lastAliveTime <= maxAge;
+    }
+
+    public synchronized ConnectionState getState() {
+        return this.state;
+    }
+
+    public synchronized long getLastAliveTime() {
+        return this.lastAliveTime;
+    }
+
+    public synchronized long getProbeInterval() {
+        return this.probeInterval;
+    }
+}
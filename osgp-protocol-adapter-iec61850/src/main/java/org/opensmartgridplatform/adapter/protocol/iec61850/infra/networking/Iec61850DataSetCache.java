@@ -0,0 +1,141 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openmuc.openiec61850.DataSet;
+import org.openmuc.openiec61850.FcModelNode;
+
+/**
+ * Data sets created on the device for recurring reads over an
+ * {@link Iec61850Connection}, by the nodes they contain. The data sets only
+ * exist for the association of the connection.
+ * <p>
+ * The number of reads of the most recently read sets of nodes is counted as
+ * well, so a data set is only kept for nodes that are read again.
+ */
+public class Iec61850DataSetCache {
+
+    /**
+     * Number of reads of the same nodes before a data set is kept for them.
+     */
+    public static final int MIN_READS_TO_CACHE = 2;
+
+    /**
+     * Number of sets of nodes of which the reads are counted.
+     */
+    private static final int MAX_COUNTED_KEYS = 64;
+
+    private static class Entry {
+        private final DataSet dataSet;
+        private long lastUsedTime;
+
+        Entry(final DataSet dataSet, final long lastUsedTime) {
+            this.dataSet = dataSet;
+            this.lastUsedTime = lastUsedTime;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<String, Integer> readCounts = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Integer> eldest) {
+            return this.size() > MAX_COUNTED_KEYS;
+        }
+    };
+
+    /**
+     * @return A key identifying the given nodes, independent of their order.
+     */
+    public static String getKey(final Collection<FcModelNode> nodes) {
+        final List<String> references = new ArrayList<>(nodes.size());
+        for (final FcModelNode node : nodes) {
+            references.add(node.getReference() + "[" + node.getFc() + "]");
+        }
+        references.sort(null);
+        return String.join(",", references);
+    }
+
+    /**
+     * @return The data set for the key, or null if there is none. The data set
+     *         is marked used at the given time.
+     */
+    public synchronized DataSet get(final String key, final long now) {
+        final Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUsedTime = now;
+        return entry.dataSet;
+    }
+
+    /**
+     * Counts a read of the nodes with the given key.
+     *
+     * @return true if the nodes have been read often enough to keep a data set
+     *         for them.
+     */
+    public synchronized boolean countRead(final String key) {
+        final int reads = this.readCounts.merge(key, 1, Integer::sum);
+        return reads >= MIN_READS_TO_CACHE;
+    }
+
+    public synchronized void put(final String key, final DataSet dataSet, final long now) {
+        this.entries.put(key, new Entry(dataSet, now));
+    }
+
+    public synchronized void remove(final String key) {
+        this.entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return true if a data set has not been used for more than idleTimeout
+     *         milliseconds.
+     */
+    public synchronized boolean hasUnused(final long now, final long idleTimeout) {
+        for (final Entry entry : this.entries.values()) {
+            if (now - entry.lastUsedTime > idleTimeout) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the data sets that have not been used for more than idleTimeout
+     * milliseconds.
+     *
+     * @return The removed data sets, which should be deleted on the device.
+     */
+    public synchronized List<DataSet> removeUnused(final long now, final long idleTimeout) {
+        final List<DataSet> unused = new ArrayList<>();
+        final Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (now - entry.lastUsedTime > idleTimeout) {
+                unused.add(entry.dataSet);
+                iterator.remove();
+            }
+        }
+        return unused;
+    }
+}
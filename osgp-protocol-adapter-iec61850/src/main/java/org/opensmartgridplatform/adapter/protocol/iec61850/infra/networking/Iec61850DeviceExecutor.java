@@ -0,0 +1,151 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.SerialExecutor;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services.Iec61850ConnectionPool;
+
+/**
+ * Serializes all operations on the connection with a device, while operations
+ * for different devices run in parallel.
+ * <p>
+ * Every device has its own {@link SerialExecutor}, running on the threads of
+ * a shared executor. Operations that are started from an operation for the
+ * same device run immediately, as they are part of the outer operation.
+ * <p>
+ * The pooled connection of the device is leased while an operation runs, so
+ * the pool does not close a connection that is in use.
+ */
+@Component
+public class Iec61850DeviceExecutor {
+
+    @Autowired
+    private TaskExecutor iec61850DeviceTaskExecutor;
+
+    @Autowired
+    private Iec61850ConnectionPool iec61850ConnectionPool;
+
+    private final ConcurrentHashMap<String, SerialExecutor> serialExecutors = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the operation for the device after all operations for the
+     * device submitted earlier, and waits for the result.
+     *
+     * @throws ConnectionFailureException
+     *             If the operation could not be executed, because the
+     *             executor is shutting down or the current thread was
+     *             interrupted.
+     */
+    public <T, E extends Exception> T execute(final String deviceIdentification,
+            final Iec61850CircuitBreaker.Operation<T, E> operation) throws E, ConnectionFailureException {
+        if (deviceIdentification == null) {
+            return operation.execute();
+        }
+        final SerialExecutor serialExecutor = this.serialExecutors.get(deviceIdentification);
+        if (serialExecutor != null && serialExecutor.isCurrentThread()) {
+            return operation.execute();
+        }
+
+        final FutureTask<T> task = new FutureTask<>(() -> {
+            this.iec61850ConnectionPool.lease(deviceIdentification);
+            try {
+                return operation.execute();
+            } finally {
+                this.iec61850ConnectionPool.release(deviceIdentification);
+            }
+        });
+        try {
+            this.queue(deviceIdentification, task);
+            return task.get();
+        } catch (final RejectedExecutionException | CancellationException e) {
+            throw new ConnectionFailureException(
+                    "Unable to execute operation for device: " + deviceIdentification + ", executor shut down", e);
+        } catch (final InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ConnectionFailureException(
+                    "Interrupted while waiting for operation for device: " + deviceIdentification, e);
+        } catch (final ExecutionException e) {
+            throw Iec61850DeviceExecutor.<E> rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Queues the task for the device, to be run after all operations for the
+     * device submitted earlier, without waiting for it.
+     *
+     * @throws RejectedExecutionException
+     *             If the executor is shutting down.
+     */
+    public void submit(final String deviceIdentification, final Runnable task) {
+        this.queue(deviceIdentification, () -> {
+            this.iec61850ConnectionPool.lease(deviceIdentification);
+            try {
+                task.run();
+            } finally {
+                this.iec61850ConnectionPool.release(deviceIdentification);
+            }
+        });
+    }
+
+    private void queue(final String deviceIdentification, final Runnable task) {
+        // Queue the task while holding the map entry, so the serial executor
+        // cannot be released in between.
+        this.serialExecutors.compute(deviceIdentification, (key, serialExecutor) -> {
+            final SerialExecutor executor = serialExecutor == null
+                    ? new SerialExecutor(this.iec61850DeviceTaskExecutor)
+                    : serialExecutor;
+            executor.execute(task);
+            return executor;
+        });
+    }
+
+    /**
+     * @return The number of operations waiting for the device.
+     */
+    public int getQueueSize(final String deviceIdentification) {
+        final SerialExecutor serialExecutor = this.serialExecutors.get(deviceIdentification);
+        return serialExecutor == null ? 0 : serialExecutor.getQueueSize();
+    }
+
+    /**
+     * Removes the serial executor of the device if no operations are running
+     * or waiting for it, e.g. after the connection with the device has been
+     * closed.
+     */
+    public void release(final String deviceIdentification) {
+        this.serialExecutors.computeIfPresent(deviceIdentification,
+                (key, serialExecutor) -> serialExecutor.isIdle() ? null : serialExecutor);
+    }
+
+    /**
+     * Rethrows the cause of a failed operation. An operation only throws
+     * unchecked exceptions or exceptions of type E.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(final Throwable cause) throws E {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        throw (E) cause;
+    }
+}
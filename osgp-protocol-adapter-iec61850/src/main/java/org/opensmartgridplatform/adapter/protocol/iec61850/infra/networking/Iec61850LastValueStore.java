@@ -0,0 +1,246 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmuc.openiec61850.FcDataObject;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.ModelNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.NodeValues;
+
+/**
+ * Keeps the last values devices sent in reports, so reads of the same nodes
+ * can be answered without contacting the device while the values are recent
+ * enough.
+ * <p>
+ * Values are kept per device by object reference and functional constraint,
+ * so a reported data object matches the node of the ServerModel that would
+ * otherwise be read. The maximum age of a value can be configured per data
+ * attribute name, e.g. TotW, with a default for all other names. A maximum age
+ * of 0 means the values of that name are always read from the device, so they
+ * are not kept. Values older than their maximum age are removed periodically,
+ * and the number of values kept per device is limited.
+ */
+@Component
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=LastValueStore",
+        description = "Last values reported by IEC61850 devices, used to answer reads")
+public class Iec61850LastValueStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850LastValueStore.class);
+
+    private static final long MIN_CLEANUP_INTERVAL = 1000;
+
+    private static class Entry {
+        private final FcModelNode node;
+        private final long time;
+
+        Entry(final FcModelNode node, final long time) {
+            this.node = node;
+            this.time = time;
+        }
+    }
+
+    @Autowired
+    private int lastValueMaxAge;
+
+    @Autowired
+    private String lastValueMaxAgePerAttribute;
+
+    @Autowired
+    private int lastValueMaxEntriesPerDevice;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    private final Map<String, Integer> maxAgePerName = new HashMap<>();
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Entry>> lastValues = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        for (final String pair : StringUtils.split(StringUtils.defaultString(this.lastValueMaxAgePerAttribute), ',')) {
+            final String[] nameAndMaxAge = StringUtils.split(pair, ':');
+            if (nameAndMaxAge.length != 2) {
+                LOGGER.warn("Ignoring last value max age: {}, expected name:maxAge", pair);
+                continue;
+            }
+            try {
+                this.maxAgePerName.put(nameAndMaxAge[0].trim(), Integer.parseInt(nameAndMaxAge[1].trim()));
+            } catch (final NumberFormatException e) {
+                LOGGER.warn("Ignoring last value max age: {}, invalid max age", pair, e);
+            }
+        }
+
+        if (this.isEnabled()) {
+            final int minMaxAge = Collections.min(this.getPositiveMaxAges());
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(() -> this.removeExpired(System.currentTimeMillis()),
+                    Math.max(MIN_CLEANUP_INTERVAL, minMaxAge));
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.lastValueMaxAge > 0 || this.maxAgePerName.values().stream().anyMatch(maxAge -> maxAge > 0);
+    }
+
+    /**
+     * Stores the reported values of the nodes, and of the data objects they
+     * contain. Values are only replaced by values from a later time. Values of
+     * nodes that are not kept yet are dropped while the maximum number of
+     * values is kept for the device, until expired values have been removed.
+     *
+     * @param nodes
+     *            Copies of the nodes, as received in a report. The nodes are
+     *            kept as they are, and must not be changed afterwards.
+     * @param time
+     *            The time the values were valid.
+     */
+    public void put(final String deviceIdentification, final Collection<FcModelNode> nodes, final long time) {
+        if (!this.isEnabled()) {
+            return;
+        }
+        final ConcurrentHashMap<String, Entry> deviceValues = this.lastValues.computeIfAbsent(deviceIdentification,
+                key -> new ConcurrentHashMap<>());
+        for (final FcModelNode node : nodes) {
+            if (node != null) {
+                this.put(deviceValues, node, time);
+            }
+        }
+    }
+
+    private void put(final ConcurrentHashMap<String, Entry> deviceValues, final FcModelNode node, final long time) {
+        if (this.getMaxAge(node.getName()) > 0) {
+            final String key = NodeValues.getKey(node);
+            if (deviceValues.size() < this.lastValueMaxEntriesPerDevice || deviceValues.containsKey(key)) {
+                deviceValues.merge(key, new Entry(node, time),
+                        (oldEntry, newEntry) -> newEntry.time < oldEntry.time ? oldEntry : newEntry);
+            } else {
+                this.dropped.incrementAndGet();
+            }
+        }
+        if (node.getChildren() != null) {
+            for (final ModelNode child : node.getChildren()) {
+                if (child instanceof FcDataObject) {
+                    this.put(deviceValues, (FcDataObject) child, time);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the last reported values into the node, if they are recent
+     * enough.
+     *
+     * @return true if the values have been copied, false if the node has to
+     *         be read from the device.
+     */
+    public boolean copyTo(final String deviceIdentification, final FcModelNode node, final long now) {
+        final Map<String, Entry> deviceValues = this.lastValues.get(deviceIdentification);
+        if (deviceValues == null) {
+            // Nothing is reported by this device.
+            return false;
+        }
+        final int maxAge = this.getMaxAge(node.getName());
+        final Entry entry = deviceValues.get(NodeValues.getKey(node));
+        if (maxAge <= 0 || entry == null || now - entry.time > maxAge || !NodeValues.copy(entry.node, node)) {
+            this.misses.incrementAndGet();
+            return false;
+        }
+        LOGGER.debug("Using value of {} reported {} ms ago by device: {}", node.getReference(), now - entry.time,
+                deviceIdentification);
+        this.hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes the values of the device, for instance when values may have
+     * changed without being reported.
+     */
+    public void remove(final String deviceIdentification) {
+        this.lastValues.remove(deviceIdentification);
+    }
+
+    /**
+     * Removes the values of all devices that are older than their maximum
+     * age.
+     */
+    public void removeExpired(final long now) {
+        for (final Map.Entry<String, ConcurrentHashMap<String, Entry>> deviceValues : this.lastValues.entrySet()) {
+            deviceValues.getValue().values()
+                    .removeIf(entry -> now - entry.time > this.getMaxAge(entry.node.getName()));
+            if (deviceValues.getValue().isEmpty()) {
+                this.lastValues.remove(deviceValues.getKey(), deviceValues.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The number of reads answered from the last reported values.
+     */
+    @ManagedAttribute(description = "Number of reads answered from the last reported values")
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return The number of reads of reporting devices that had to contact
+     *         the device.
+     */
+    @ManagedAttribute(description = "Number of reads of reporting devices that had to contact the device")
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return The number of reported values not kept, because the maximum
+     *         number of values was kept for the device.
+     */
+    @ManagedAttribute(description = "Number of reported values not kept, because the maximum per device was kept")
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    public int size() {
+        return this.lastValues.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private Collection<Integer> getPositiveMaxAges() {
+        final Collection<Integer> maxAges = new ArrayList<>();
+        if (this.lastValueMaxAge > 0) {
+            maxAges.add(this.lastValueMaxAge);
+        }
+        this.maxAgePerName.values().stream().filter(maxAge -> maxAge > 0).forEach(maxAges::add);
+        return maxAges;
+    }
+
+    private int getMaxAge(final String name) {
+        final Integer maxAge = this.maxAgePerName.get(name);
+        return maxAge == null ? this.lastValueMaxAge : maxAge;
+    }
+}
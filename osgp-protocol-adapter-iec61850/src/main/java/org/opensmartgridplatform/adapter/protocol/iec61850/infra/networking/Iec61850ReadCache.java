@@ -0,0 +1,187 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcModelNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.NodeValues;
+
+/**
+ * Keeps the values of nodes read from devices for a configured time per
+ * functional constraint, so subsequent requests reading the same nodes do not
+ * have to contact the device. For instance configuration (CF) and description
+ * (DC) values rarely change, while measured values (MX) should always be read.
+ * <p>
+ * Values are kept per device, for the association that read them. Writing a
+ * node removes the kept values of its logical node, as the write may change
+ * other values of the logical node as well. Setting up a new association with
+ * the device, or disconnecting from it, removes all kept values of the device.
+ */
+@Component
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=ReadCache",
+        description = "Values read from IEC61850 devices, kept per functional constraint")
+public class Iec61850ReadCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ReadCache.class);
+
+    private static final long MIN_CLEANUP_INTERVAL = 1000;
+
+    private static class Entry {
+        private final FcModelNode node;
+        private final long expiryTime;
+
+        Entry(final FcModelNode node, final long expiryTime) {
+            this.node = node;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    @Autowired
+    private String readCacheTimeToLivePerFc;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    private final Map<Fc, Integer> timeToLivePerFc = new EnumMap<>(Fc.class);
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Entry>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        for (final String pair : StringUtils.split(StringUtils.defaultString(this.readCacheTimeToLivePerFc), ',')) {
+            final String[] fcAndTimeToLive = StringUtils.split(pair, ':');
+            if (fcAndTimeToLive.length != 2) {
+                LOGGER.warn("Ignoring read cache time to live: {}, expected FC:timeToLive", pair);
+                continue;
+            }
+            try {
+                final int timeToLive = Integer.parseInt(fcAndTimeToLive[1].trim());
+                if (timeToLive > 0) {
+                    this.timeToLivePerFc.put(Fc.valueOf(fcAndTimeToLive[0].trim()), timeToLive);
+                }
+            } catch (final IllegalArgumentException e) {
+                LOGGER.warn("Ignoring read cache time to live: {}, unknown FC or invalid time to live", pair, e);
+            }
+        }
+
+        if (this.isEnabled()) {
+            LOGGER.info("Keeping read values for {}", this.timeToLivePerFc);
+            final int minTimeToLive = Collections.min(this.timeToLivePerFc.values());
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(() -> this.removeExpired(System.currentTimeMillis()),
+                    Math.max(MIN_CLEANUP_INTERVAL, minTimeToLive));
+        }
+    }
+
+    public boolean isEnabled() {
+        return !this.timeToLivePerFc.isEmpty();
+    }
+
+    /**
+     * Copies the kept values into the node, if they have not expired.
+     *
+     * @return true if the values have been copied, false if the node has to
+     *         be read from the device.
+     */
+    public boolean copyTo(final String deviceIdentification, final FcModelNode node, final long now) {
+        if (!this.timeToLivePerFc.containsKey(node.getFc())) {
+            return false;
+        }
+        final Map<String, Entry> deviceEntries = this.entries.get(deviceIdentification);
+        final Entry entry = deviceEntries == null ? null : deviceEntries.get(NodeValues.getKey(node));
+        if (entry == null || now >= entry.expiryTime || !NodeValues.copy(entry.node, node)) {
+            this.misses.incrementAndGet();
+            return false;
+        }
+        this.hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Keeps a copy of the values of a node that has just been read from the
+     * device, if values with its functional constraint are kept.
+     */
+    public void put(final String deviceIdentification, final FcModelNode node, final long now) {
+        final Integer timeToLive = this.timeToLivePerFc.get(node.getFc());
+        if (timeToLive == null) {
+            return;
+        }
+        this.entries.computeIfAbsent(deviceIdentification, key -> new ConcurrentHashMap<>())
+                .put(NodeValues.getKey(node), new Entry((FcModelNode) node.copy(), now + timeToLive));
+    }
+
+    /**
+     * Removes the kept values of the logical node containing the written node.
+     */
+    public void written(final String deviceIdentification, final FcModelNode node) {
+        final Map<String, Entry> deviceEntries = this.entries.get(deviceIdentification);
+        if (deviceEntries == null) {
+            return;
+        }
+        final String reference = node.getReference().toString();
+        final int separator = reference.indexOf('.');
+        final String logicalNodePrefix = separator < 0 ? reference : reference.substring(0, separator + 1);
+        deviceEntries.keySet().removeIf(key -> key.startsWith(logicalNodePrefix));
+    }
+
+    /**
+     * Removes the kept values of the device, for instance when its
+     * configuration may have changed.
+     */
+    public void remove(final String deviceIdentification) {
+        this.entries.remove(deviceIdentification);
+    }
+
+    /**
+     * Removes expired values of all devices.
+     */
+    public void removeExpired(final long now) {
+        for (final Map.Entry<String, ConcurrentHashMap<String, Entry>> deviceEntries : this.entries.entrySet()) {
+            deviceEntries.getValue().values().removeIf(entry -> now >= entry.expiryTime);
+            if (deviceEntries.getValue().isEmpty()) {
+                this.entries.remove(deviceEntries.getKey(), deviceEntries.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The number of reads answered from kept values.
+     */
+    @ManagedAttribute(description = "Number of reads answered from kept values")
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return The number of reads of cacheable nodes that had to contact the
+     *         device.
+     */
+    @ManagedAttribute(description = "Number of reads of cacheable nodes that had to contact the device")
+    public long getMisses() {
+        return this.misses.get();
+    }
+}
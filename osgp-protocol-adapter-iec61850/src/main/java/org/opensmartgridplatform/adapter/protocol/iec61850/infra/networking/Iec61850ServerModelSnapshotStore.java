@@ -0,0 +1,186 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmuc.openiec61850.ServerModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+
+/**
+ * Stores {@link ServerModelSnapshot}s of ServerModels retrieved from devices,
+ * one file per device, in the configured snapshot folder. When no folder is
+ * configured, nothing is stored and nothing is loaded.
+ */
+@Component
+public class Iec61850ServerModelSnapshotStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ServerModelSnapshotStore.class);
+
+    private static final String FILE_EXTENSION = ".model";
+
+    /**
+     * Access to the device a ServerModel is needed for.
+     */
+    public interface ServerModelSource {
+        /**
+         * Makes the association with the device use the ServerModel.
+         */
+        void useServerModel(ServerModel serverModel);
+
+        /**
+         * @return The configuration revision the device reports for the
+         *         ServerModel, or null if it is not available.
+         */
+        String readConfigRev(ServerModel serverModel) throws ProtocolAdapterException;
+
+        /**
+         * Retrieves the complete ServerModel from the device.
+         */
+        ServerModel retrieveServerModel() throws ProtocolAdapterException;
+    }
+
+    @Autowired
+    private String serverModelSnapshotFolder;
+
+    public boolean isEnabled() {
+        return StringUtils.isNotBlank(this.serverModelSnapshotFolder);
+    }
+
+    /**
+     * Uses the stored snapshot of the ServerModel of the device if the
+     * configuration revision of the device still matches the revision of the
+     * snapshot. Otherwise, e.g. when the snapshot is missing, outdated or
+     * cannot be read, the ServerModel is retrieved from the device and a new
+     * snapshot is stored.
+     */
+    public ServerModel getServerModel(final String deviceIdentification, final ServerModelSource source)
+            throws ProtocolAdapterException {
+
+        final ServerModelSnapshot snapshot = this.load(deviceIdentification);
+        if (snapshot != null) {
+            source.useServerModel(snapshot.getServerModel());
+            final String configRev = source.readConfigRev(snapshot.getServerModel());
+            if (configRev != null && configRev.equals(snapshot.getConfigRev())) {
+                LOGGER.info("Using ServerModel snapshot with configRev: {} for device: {}", configRev,
+                        deviceIdentification);
+                return snapshot.getServerModel();
+            }
+            LOGGER.info("ServerModel snapshot with configRev: {} is outdated for device: {} with configRev: {}",
+                    snapshot.getConfigRev(), deviceIdentification, configRev);
+        }
+
+        LOGGER.info("Reading ServerModel from device: {}", deviceIdentification);
+        final ServerModel serverModel = source.retrieveServerModel();
+
+        if (this.isEnabled()) {
+            final String configRev = source.readConfigRev(serverModel);
+            if (configRev == null) {
+                LOGGER.info("No configRev available for device: {}, not storing a ServerModel snapshot",
+                        deviceIdentification);
+                this.remove(deviceIdentification);
+            } else {
+                this.store(deviceIdentification, new ServerModelSnapshot(serverModel, configRev));
+            }
+        }
+        return serverModel;
+    }
+
+    /**
+     * Loads the snapshot for the given device.
+     *
+     * @return The snapshot, or null if no (usable) snapshot is present.
+     */
+    public ServerModelSnapshot load(final String deviceIdentification) {
+        if (!this.isEnabled()) {
+            return null;
+        }
+
+        final Path path = this.getPath(deviceIdentification);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            final ServerModelSnapshot snapshot = ServerModelSnapshotCodec.decode(in);
+            LOGGER.info("Loaded ServerModel snapshot for device: {} from {} in {} milliseconds", deviceIdentification,
+                    path, System.currentTimeMillis() - startTime);
+            return snapshot;
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("Unable to load ServerModel snapshot for device: {} from {}, removing snapshot",
+                    deviceIdentification, path, e);
+            this.remove(deviceIdentification);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the snapshot for the given device, replacing an existing
+     * snapshot. Failures are logged, but not thrown, as the snapshot is only
+     * used to speed up later connections.
+     */
+    public void store(final String deviceIdentification, final ServerModelSnapshot snapshot) {
+        if (!this.isEnabled()) {
+            return;
+        }
+
+        final Path path = this.getPath(deviceIdentification);
+        Path temporaryPath = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temporaryPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                ServerModelSnapshotCodec.encode(snapshot, out);
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Stored ServerModel snapshot for device: {} with configRev: {} in {}", deviceIdentification,
+                    snapshot.getConfigRev(), path);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("Unable to store ServerModel snapshot for device: {} in {}", deviceIdentification, path, e);
+            this.deleteQuietly(temporaryPath);
+        }
+    }
+
+    public void remove(final String deviceIdentification) {
+        if (this.isEnabled()) {
+            this.deleteQuietly(this.getPath(deviceIdentification));
+        }
+    }
+
+    private Path getPath(final String deviceIdentification) {
+        final String fileName = deviceIdentification.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_EXTENSION;
+        return Paths.get(this.serverModelSnapshotFolder, fileName);
+    }
+
+    private void deleteQuietly(final Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOGGER.debug("Unable to delete {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openmuc.openiec61850.SclParseException;
+import org.openmuc.openiec61850.ServerModel;
+import org.openmuc.openiec61850.ServerSap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+
+/**
+ * Keeps one parsed {@link ServerModel} per SCL / ICD file. Each file is parsed
+ * only once, connections get a copy of the parsed template.
+ * <p>
+ * Templates are keyed by the path of the file. A template is reused as long
+ * as the modification time and size of the file are unchanged. When they
+ * change, the content hash of the file is calculated, and the file is only
+ * parsed again if no template is known for that content.
+ */
+@Component
+public class Iec61850ServerModelTemplateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ServerModelTemplateCache.class);
+
+    private final ConcurrentHashMap<String, ServerModelTemplate> templatesByPath = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ServerModel> templatesByContentHash = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> locksByPath = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a copy of the {@link ServerModel} described by the given SCL /
+     * ICD file. The copy is owned by the caller and can be used for a single
+     * association.
+     *
+     * @param filePath
+     *            The path of the SCL / ICD file.
+     *
+     * @return A new {@link ServerModel} instance.
+     *
+     * @throws ProtocolAdapterException
+     *             In case the file can not be read or parsed.
+     */
+    public ServerModel getServerModel(final String filePath) throws ProtocolAdapterException {
+        return this.getTemplate(filePath).copy();
+    }
+
+    /**
+     * Parses the given SCL / ICD file if no valid template is present yet.
+     * Can be used to warm up the cache.
+     */
+    public void preload(final String filePath) throws ProtocolAdapterException {
+        this.getTemplate(filePath);
+    }
+
+    public int size() {
+        return this.templatesByPath.size();
+    }
+
+    private ServerModel getTemplate(final String filePath) throws ProtocolAdapterException {
+        final Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        final String key = path.toString();
+
+        ServerModelTemplate template = this.templatesByPath.get(key);
+        BasicFileAttributes attributes = this.readAttributes(path);
+        if (template != null && template.isValidFor(attributes)) {
+            return template.getServerModel();
+        }
+
+        synchronized (this.locksByPath.computeIfAbsent(key, k -> new Object())) {
+            // Another thread may have loaded the file while waiting for the
+            // lock.
+            template = this.templatesByPath.get(key);
+            attributes = this.readAttributes(path);
+            if (template != null && template.isValidFor(attributes)) {
+                return template.getServerModel();
+            }
+
+            final String contentHash = this.calculateContentHash(path);
+            ServerModel serverModel = this.templatesByContentHash.get(contentHash);
+            if (serverModel == null) {
+                serverModel = this.parse(key);
+                this.templatesByContentHash.put(contentHash, serverModel);
+            } else {
+                LOGGER.info("Reusing ServerModel template with content hash {} for SCL / ICD file: {}", contentHash,
+                        key);
+            }
+
+            final ServerModelTemplate previous = this.templatesByPath.put(key, new ServerModelTemplate(
+                    attributes.lastModifiedTime().toMillis(), attributes.size(), contentHash, serverModel));
+            if (previous != null && !previous.getContentHash().equals(contentHash)) {
+                this.removeUnusedContentHash(previous.getContentHash());
+            }
+            return serverModel;
+        }
+    }
+
+    private ServerModel parse(final String filePath) throws ProtocolAdapterException {
+        final long startTime = System.currentTimeMillis();
+        try {
+            final List<ServerSap> serverSaps = ServerSap.getSapsFromSclFile(filePath);
+            if (serverSaps == null || serverSaps.isEmpty()) {
+                throw new ProtocolAdapterException("No AccessPoint found in SCL file: " + filePath);
+            }
+            final ServerModel serverModel = serverSaps.get(0).getModelCopy();
+            LOGGER.info("Parsed SCL / ICD file: {} into a ServerModel template in {} milliseconds", filePath,
+                    System.currentTimeMillis() - startTime);
+            return serverModel;
+        } catch (final SclParseException e) {
+            throw new ProtocolAdapterException("Error parsing SCL file: " + filePath, e);
+        }
+    }
+
+    private void removeUnusedContentHash(final String contentHash) {
+        final boolean isUsed = this.templatesByPath.values()
+                .stream()
+                .anyMatch(t -> t.getContentHash().equals(contentHash));
+        if (!isUsed) {
+            this.templatesByContentHash.remove(contentHash);
+        }
+    }
+
+    private BasicFileAttributes readAttributes(final Path path) throws ProtocolAdapterException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            throw new ProtocolAdapterException("Unable to read SCL file: " + path, e);
+        }
+    }
+
+    private String calculateContentHash(final Path path) throws ProtocolAdapterException {
+        try {
+            return DigestUtils.sha256Hex(Files.readAllBytes(path));
+        } catch (final IOException e) {
+            throw new ProtocolAdapterException("Unable to read SCL file: " + path, e);
+        }
+    }
+
+    private static class ServerModelTemplate {
+        private final long lastModified;
+        private final long size;
+        private final String contentHash;
+        private final ServerModel serverModel;
+
+        ServerModelTemplate(final long lastModified, final long size, final String contentHash,
+                final ServerModel serverModel) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.serverModel = serverModel;
+        }
+
+        boolean isValidFor(final BasicFileAttributes attributes) {
+            return this.lastModified == attributes.lastModifiedTime().toMillis() && this.size == attributes.size();
+        }
+
+        String getContentHash() {
+            return this.contentHash;
+        }
+
+        ServerModel getServerModel() {
+            return this.serverModel;
+        }
+    }
+}
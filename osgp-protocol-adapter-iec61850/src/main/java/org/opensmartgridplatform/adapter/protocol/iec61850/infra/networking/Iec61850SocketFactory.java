@@ -0,0 +1,80 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import javax.net.SocketFactory;
+
+/**
+ * {@link SocketFactory} used for associations with devices. Sockets are
+ * connected with a time-out, so an unreachable device does not block a thread
+ * for the (much longer) default time-out of the operating system.
+ */
+public class Iec61850SocketFactory extends SocketFactory {
+
+    private final int connectTimeout;
+
+    /**
+     * @param connectTimeout
+     *            The time-out in milliseconds for establishing a TCP
+     *            connection, 0 means no time-out.
+     */
+    public Iec61850SocketFactory(final int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return new Socket();
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port) throws IOException {
+        return this.connect(new InetSocketAddress(host, port), null);
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port, final InetAddress localHost, final int localPort)
+            throws IOException {
+        return this.connect(new InetSocketAddress(host, port), new InetSocketAddress(localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress host, final int port) throws IOException {
+        return this.connect(new InetSocketAddress(host, port), null);
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress,
+            final int localPort) throws IOException {
+        return this.connect(new InetSocketAddress(address, port), new InetSocketAddress(localAddress, localPort));
+    }
+
+    protected Socket connect(final InetSocketAddress remoteAddress, final InetSocketAddress localAddress)
+            throws IOException {
+        final Socket socket = this.createSocket();
+        try {
+            if (localAddress != null) {
+                socket.bind(localAddress);
+            }
+            socket.connect(remoteAddress, this.connectTimeout);
+            return socket;
+        } catch (final IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    public int getConnectTimeout() {
+        return this.connectTimeout;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * {@link Iec61850SocketFactory} creating TLS secured sockets for associations
+ * with devices.
+ * <p>
+ * All sockets are created from the same {@link SSLContext}, so the key and
+ * trust material is loaded once, and sessions are kept in the shared client
+ * session cache of the context. Sessions are cached by host and port of the
+ * device, which allows a reconnect to resume the previous session with an
+ * abbreviated handshake instead of a full handshake.
+ * <p>
+ * The certificate of the device has to match the host name or IP address used
+ * to connect to the device, so a certificate issued to another host is not
+ * accepted.
+ */
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=TlsSocketFactory",
+        description = "TLS handshakes with IEC61850 devices")
+public class Iec61850TlsSocketFactory extends Iec61850SocketFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850TlsSocketFactory.class);
+
+    private final SSLSocketFactory sslSocketFactory;
+
+    private final AtomicLong handshakes = new AtomicLong();
+    private final AtomicLong resumedHandshakes = new AtomicLong();
+    private final AtomicLong failedHandshakes = new AtomicLong();
+    private final AtomicLong handshakeTime = new AtomicLong();
+
+    /**
+     * @param connectTimeout
+     *            The time-out in milliseconds for establishing a TCP
+     *            connection, and for the TLS handshake that follows. 0 means
+     *            no time-out.
+     * @param sslContext
+     *            The initialized context used for all sockets.
+     */
+    public Iec61850TlsSocketFactory(final int connectTimeout, final SSLContext sslContext) {
+        super(connectTimeout);
+        this.sslSocketFactory = sslContext.getSocketFactory();
+    }
+
+    @Override
+    protected Socket connect(final InetSocketAddress remoteAddress, final InetSocketAddress localAddress)
+            throws IOException {
+        final Socket socket = super.connect(remoteAddress, localAddress);
+        SSLSocket sslSocket = null;
+        try {
+            // Layering on the connected socket with the host and port of the
+            // device, so the session cache can find an earlier session.
+            sslSocket = (SSLSocket) this.sslSocketFactory.createSocket(socket, remoteAddress.getHostString(),
+                    remoteAddress.getPort(), true);
+            this.handshake(sslSocket, remoteAddress);
+            return sslSocket;
+        } catch (final IOException e) {
+            this.failedHandshakes.incrementAndGet();
+            if (sslSocket == null) {
+                socket.close();
+            } else {
+                sslSocket.close();
+            }
+            throw e;
+        }
+    }
+
+    private void handshake(final SSLSocket sslSocket, final InetSocketAddress remoteAddress) throws IOException {
+        final SSLParameters sslParameters = sslSocket.getSSLParameters();
+        sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+        sslSocket.setSSLParameters(sslParameters);
+
+        final int soTimeout = sslSocket.getSoTimeout();
+        sslSocket.setSoTimeout(this.getConnectTimeout());
+
+        final long startTime = System.currentTimeMillis();
+        sslSocket.startHandshake();
+        final long duration = System.currentTimeMillis() - startTime;
+
+        sslSocket.setSoTimeout(soTimeout);
+
+        // A resumed session was created during an earlier handshake.
+        final SSLSession session = sslSocket.getSession();
+        final boolean resumed = session.getCreationTime() < startTime;
+
+        this.handshakes.incrementAndGet();
+        this.handshakeTime.addAndGet(duration);
+        if (resumed) {
+            this.resumedHandshakes.incrementAndGet();
+        }
+        LOGGER.debug("TLS handshake with {} took {} ms, protocol: {}, cipher suite: {}, resumed session: {}",
+                remoteAddress, duration, session.getProtocol(), session.getCipherSuite(), resumed);
+    }
+
+    /**
+     * @return The number of successful handshakes.
+     */
+    @ManagedAttribute(description = "Number of successful handshakes")
+    public long getHandshakes() {
+        return this.handshakes.get();
+    }
+
+    /**
+     * @return The number of successful handshakes that resumed an earlier
+     *         session.
+     */
+    @ManagedAttribute(description = "Number of successful handshakes that resumed an earlier session")
+    public long getResumedHandshakes() {
+        return this.resumedHandshakes.get();
+    }
+
+    /**
+     * @return The number of connections that failed after the TCP connection
+     *         was established, mostly because of a failed handshake.
+     */
+    @ManagedAttribute(description = "Number of connections that failed after the TCP connection was established")
+    public long getFailedHandshakes() {
+        return this.failedHandshakes.get();
+    }
+
+    /**
+     * @return The total time in milliseconds spent on successful handshakes.
+     */
+    @ManagedAttribute(description = "Total time in milliseconds spent on successful handshakes")
+    public long getHandshakeTime() {
+        return this.handshakeTime.get();
+    }
+}
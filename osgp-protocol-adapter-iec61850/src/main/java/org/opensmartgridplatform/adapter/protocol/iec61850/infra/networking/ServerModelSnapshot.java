@@ -0,0 +1,34 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import org.openmuc.openiec61850.ServerModel;
+
+/**
+ * A {@link ServerModel} retrieved from a device, together with the
+ * configuration revision (LLN0.NamPlt.configRev) the device reported when the
+ * model was retrieved.
+ */
+public class ServerModelSnapshot {
+
+    private final ServerModel serverModel;
+    private final String configRev;
+
+    public ServerModelSnapshot(final ServerModel serverModel, final String configRev) {
+        this.serverModel = serverModel;
+        this.configRev = configRev;
+    }
+
+    public ServerModel getServerModel() {
+        return this.serverModel;
+    }
+
+    public String getConfigRev() {
+        return this.configRev;
+    }
+}
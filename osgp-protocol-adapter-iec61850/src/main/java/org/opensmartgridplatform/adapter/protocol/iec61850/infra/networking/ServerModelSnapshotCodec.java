@@ -0,0 +1,356 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.openmuc.openiec61850.Array;
+import org.openmuc.openiec61850.BasicDataAttribute;
+import org.openmuc.openiec61850.BdaBoolean;
+import org.openmuc.openiec61850.BdaCheck;
+import org.openmuc.openiec61850.BdaDoubleBitPos;
+import org.openmuc.openiec61850.BdaEntryTime;
+import org.openmuc.openiec61850.BdaFloat32;
+import org.openmuc.openiec61850.BdaFloat64;
+import org.openmuc.openiec61850.BdaInt16;
+import org.openmuc.openiec61850.BdaInt16U;
+import org.openmuc.openiec61850.BdaInt32;
+import org.openmuc.openiec61850.BdaInt32U;
+import org.openmuc.openiec61850.BdaInt64;
+import org.openmuc.openiec61850.BdaInt8;
+import org.openmuc.openiec61850.BdaInt8U;
+import org.openmuc.openiec61850.BdaOctetString;
+import org.openmuc.openiec61850.BdaOptFlds;
+import org.openmuc.openiec61850.BdaQuality;
+import org.openmuc.openiec61850.BdaReasonForInclusion;
+import org.openmuc.openiec61850.BdaTapCommand;
+import org.openmuc.openiec61850.BdaTimestamp;
+import org.openmuc.openiec61850.BdaTriggerConditions;
+import org.openmuc.openiec61850.BdaType;
+import org.openmuc.openiec61850.BdaUnicodeString;
+import org.openmuc.openiec61850.BdaVisibleString;
+import org.openmuc.openiec61850.Brcb;
+import org.openmuc.openiec61850.ConstructedDataAttribute;
+import org.openmuc.openiec61850.DataSet;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcDataObject;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.LogicalDevice;
+import org.openmuc.openiec61850.LogicalNode;
+import org.openmuc.openiec61850.ModelNode;
+import org.openmuc.openiec61850.ObjectReference;
+import org.openmuc.openiec61850.ServerModel;
+import org.openmuc.openiec61850.Urcb;
+
+/**
+ * Binary encoding of a {@link ServerModelSnapshot}. Only the structure of the
+ * model is stored (logical devices, logical nodes, data objects, data
+ * attributes, report control blocks and data sets), values are not.
+ */
+public final class ServerModelSnapshotCodec {
+
+    static final int MAGIC = 0x4f534d53;
+    static final int VERSION = 1;
+
+    private static final byte NODE_DATA_OBJECT = 1;
+    private static final byte NODE_CONSTRUCTED_DATA_ATTRIBUTE = 2;
+    private static final byte NODE_ARRAY = 3;
+    private static final byte NODE_BRCB = 4;
+    private static final byte NODE_URCB = 5;
+    private static final byte NODE_BASIC_DATA_ATTRIBUTE = 6;
+
+    private static final Set<BdaType> SUPPORTED_TYPES = EnumSet.of(BdaType.BOOLEAN, BdaType.INT8, BdaType.INT16,
+            BdaType.INT32, BdaType.INT64, BdaType.INT8U, BdaType.INT16U, BdaType.INT32U, BdaType.FLOAT32,
+            BdaType.FLOAT64, BdaType.OCTET_STRING, BdaType.VISIBLE_STRING, BdaType.UNICODE_STRING, BdaType.TIMESTAMP,
+            BdaType.ENTRY_TIME, BdaType.DOUBLE_BIT_POS, BdaType.TAP_COMMAND, BdaType.QUALITY, BdaType.CHECK,
+            BdaType.REASON_FOR_INCLUSION, BdaType.OPTFLDS, BdaType.TRIGGER_CONDITIONS);
+
+    private ServerModelSnapshotCodec() {
+        // Only static methods.
+    }
+
+    public static void encode(final ServerModelSnapshot snapshot, final DataOutputStream out) throws IOException {
+        final ServerModel serverModel = snapshot.getServerModel();
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeNullableString(snapshot.getConfigRev(), out);
+
+        final Collection<ModelNode> logicalDevices = serverModel.getChildren();
+        out.writeInt(logicalDevices.size());
+        for (final ModelNode logicalDevice : logicalDevices) {
+            out.writeUTF(logicalDevice.getReference().toString());
+            final Collection<ModelNode> logicalNodes = logicalDevice.getChildren();
+            out.writeInt(logicalNodes.size());
+            for (final ModelNode logicalNode : logicalNodes) {
+                out.writeUTF(logicalNode.getReference().toString());
+                writeChildren(logicalNode, out);
+            }
+        }
+
+        final Collection<DataSet> dataSets = serverModel.getDataSets();
+        out.writeInt(dataSets.size());
+        for (final DataSet dataSet : dataSets) {
+            out.writeUTF(dataSet.getReferenceStr());
+            out.writeBoolean(dataSet.isDeletable());
+            final List<FcModelNode> members = dataSet.getMembers();
+            out.writeInt(members.size());
+            for (final FcModelNode member : members) {
+                out.writeUTF(member.getReference().toString());
+                out.writeUTF(member.getFc().name());
+            }
+        }
+    }
+
+    public static ServerModelSnapshot decode(final DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a ServerModel snapshot");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ServerModel snapshot version: " + version);
+        }
+        final String configRev = readNullableString(in);
+
+        final int numberOfLogicalDevices = readCount(in);
+        final List<LogicalDevice> logicalDevices = new ArrayList<>();
+        for (int i = 0; i < numberOfLogicalDevices; i++) {
+            final ObjectReference logicalDeviceReference = new ObjectReference(in.readUTF());
+            final int numberOfLogicalNodes = readCount(in);
+            final List<LogicalNode> logicalNodes = new ArrayList<>();
+            for (int j = 0; j < numberOfLogicalNodes; j++) {
+                final ObjectReference logicalNodeReference = new ObjectReference(in.readUTF());
+                final List<FcDataObject> dataObjects = new ArrayList<>();
+                for (final FcModelNode child : readChildren(in)) {
+                    dataObjects.add((FcDataObject) child);
+                }
+                logicalNodes.add(new LogicalNode(logicalNodeReference, dataObjects));
+            }
+            logicalDevices.add(new LogicalDevice(logicalDeviceReference, logicalNodes));
+        }
+
+        // Data set members have to be nodes of the model itself, so they are
+        // looked up in a model without data sets first.
+        final ServerModel modelWithoutDataSets = new ServerModel(logicalDevices, Collections.<DataSet> emptyList());
+        final int numberOfDataSets = readCount(in);
+        final List<DataSet> dataSets = new ArrayList<>();
+        for (int i = 0; i < numberOfDataSets; i++) {
+            final String dataSetReference = in.readUTF();
+            final boolean deletable = in.readBoolean();
+            final int numberOfMembers = readCount(in);
+            final List<FcModelNode> members = new ArrayList<>();
+            for (int j = 0; j < numberOfMembers; j++) {
+                final String memberReference = in.readUTF();
+                final Fc fc = Fc.valueOf(in.readUTF());
+                final FcModelNode member = (FcModelNode) modelWithoutDataSets.findModelNode(memberReference, fc);
+                if (member == null) {
+                    throw new IOException(
+                            "Member " + memberReference + "[" + fc + "] of data set " + dataSetReference + " not found");
+                }
+                members.add(member);
+            }
+            dataSets.add(new DataSet(dataSetReference, members, deletable));
+        }
+
+        if (in.read() != -1) {
+            throw new IOException("Unexpected data after ServerModel snapshot");
+        }
+        return new ServerModelSnapshot(new ServerModel(logicalDevices, dataSets), configRev);
+    }
+
+    private static void writeChildren(final ModelNode node, final DataOutputStream out) throws IOException {
+        final Collection<ModelNode> children = node.getChildren();
+        if (children == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(children.size());
+        for (final ModelNode child : children) {
+            writeNode((FcModelNode) child, out);
+        }
+    }
+
+    private static List<FcModelNode> readChildren(final DataInputStream in) throws IOException {
+        final int numberOfChildren = readCount(in);
+        final List<FcModelNode> children = new ArrayList<>();
+        for (int i = 0; i < numberOfChildren; i++) {
+            children.add(readNode(in));
+        }
+        return children;
+    }
+
+    private static void writeNode(final FcModelNode node, final DataOutputStream out) throws IOException {
+        if (node instanceof BasicDataAttribute) {
+            out.writeByte(NODE_BASIC_DATA_ATTRIBUTE);
+            writeBasicDataAttribute((BasicDataAttribute) node, out);
+            return;
+        }
+
+        // Report control blocks are data objects as well, so check for them
+        // first.
+        if (node instanceof Brcb) {
+            out.writeByte(NODE_BRCB);
+        } else if (node instanceof Urcb) {
+            out.writeByte(NODE_URCB);
+        } else if (node instanceof FcDataObject) {
+            out.writeByte(NODE_DATA_OBJECT);
+        } else if (node instanceof ConstructedDataAttribute) {
+            out.writeByte(NODE_CONSTRUCTED_DATA_ATTRIBUTE);
+        } else if (node instanceof Array) {
+            out.writeByte(NODE_ARRAY);
+        } else {
+            throw new IOException("Unsupported node type " + node.getClass().getName() + " for " + node.getReference());
+        }
+        out.writeUTF(node.getReference().toString());
+        out.writeUTF(node.getFc().name());
+        writeChildren(node, out);
+    }
+
+    private static FcModelNode readNode(final DataInputStream in) throws IOException {
+        final byte nodeType = in.readByte();
+        if (nodeType == NODE_BASIC_DATA_ATTRIBUTE) {
+            return readBasicDataAttribute(in);
+        }
+
+        final ObjectReference reference = new ObjectReference(in.readUTF());
+        final Fc fc = Fc.valueOf(in.readUTF());
+        final List<FcModelNode> children = readChildren(in);
+        switch (nodeType) {
+        case NODE_BRCB:
+            return new Brcb(reference, children);
+        case NODE_URCB:
+            return new Urcb(reference, children);
+        case NODE_DATA_OBJECT:
+            return new FcDataObject(reference, fc, children);
+        case NODE_CONSTRUCTED_DATA_ATTRIBUTE:
+            return new ConstructedDataAttribute(reference, fc, children);
+        case NODE_ARRAY:
+            return new Array(reference, fc, children);
+        default:
+            throw new IOException("Unknown node type " + nodeType + " for " + reference);
+        }
+    }
+
+    private static void writeBasicDataAttribute(final BasicDataAttribute bda, final DataOutputStream out)
+            throws IOException {
+        if (!SUPPORTED_TYPES.contains(bda.getBasicType())) {
+            throw new IOException(
+                    "Unsupported basic data attribute type " + bda.getBasicType() + " for " + bda.getReference());
+        }
+        out.writeUTF(bda.getBasicType().name());
+        out.writeUTF(bda.getReference().toString());
+        out.writeUTF(bda.getFc().name());
+        writeNullableString(bda.getSAddr(), out);
+        out.writeBoolean(bda.getDchg());
+        out.writeBoolean(bda.getDupd());
+        out.writeBoolean(bda.getQchg());
+
+        final int maxLength;
+        if (bda instanceof BdaVisibleString) {
+            maxLength = ((BdaVisibleString) bda).getMaxLength();
+        } else if (bda instanceof BdaOctetString) {
+            maxLength = ((BdaOctetString) bda).getMaxLength();
+        } else if (bda instanceof BdaUnicodeString) {
+            maxLength = ((BdaUnicodeString) bda).getMaxLength();
+        } else {
+            maxLength = 0;
+        }
+        out.writeInt(maxLength);
+    }
+
+    private static BasicDataAttribute readBasicDataAttribute(final DataInputStream in) throws IOException {
+        final BdaType type = BdaType.valueOf(in.readUTF());
+        final ObjectReference reference = new ObjectReference(in.readUTF());
+        final Fc fc = Fc.valueOf(in.readUTF());
+        final String sAddr = readNullableString(in);
+        final boolean dchg = in.readBoolean();
+        final boolean dupd = in.readBoolean();
+        final boolean qchg = in.readBoolean();
+        final int maxLength = in.readInt();
+
+        switch (type) {
+        case BOOLEAN:
+            return new BdaBoolean(reference, fc, sAddr, dchg, dupd);
+        case INT8:
+            return new BdaInt8(reference, fc, sAddr, dchg, dupd);
+        case INT16:
+            return new BdaInt16(reference, fc, sAddr, dchg, dupd);
+        case INT32:
+            return new BdaInt32(reference, fc, sAddr, dchg, dupd);
+        case INT64:
+            return new BdaInt64(reference, fc, sAddr, dchg, dupd);
+        case INT8U:
+            return new BdaInt8U(reference, fc, sAddr, dchg, dupd);
+        case INT16U:
+            return new BdaInt16U(reference, fc, sAddr, dchg, dupd);
+        case INT32U:
+            return new BdaInt32U(reference, fc, sAddr, dchg, dupd);
+        case FLOAT32:
+            return new BdaFloat32(reference, fc, sAddr, dchg, dupd);
+        case FLOAT64:
+            return new BdaFloat64(reference, fc, sAddr, dchg, dupd);
+        case OCTET_STRING:
+            return new BdaOctetString(reference, fc, sAddr, maxLength, dchg, dupd);
+        case VISIBLE_STRING:
+            return new BdaVisibleString(reference, fc, sAddr, maxLength, dchg, dupd);
+        case UNICODE_STRING:
+            return new BdaUnicodeString(reference, fc, sAddr, maxLength, dchg, dupd);
+        case TIMESTAMP:
+            return new BdaTimestamp(reference, fc, sAddr, dchg, dupd);
+        case ENTRY_TIME:
+            return new BdaEntryTime(reference, fc, sAddr, dchg, dupd);
+        case DOUBLE_BIT_POS:
+            return new BdaDoubleBitPos(reference, fc, sAddr, dchg, dupd);
+        case TAP_COMMAND:
+            return new BdaTapCommand(reference, fc, sAddr, dchg, dupd);
+        case QUALITY:
+            return new BdaQuality(reference, fc, sAddr, qchg);
+        case CHECK:
+            return new BdaCheck(reference);
+        case REASON_FOR_INCLUSION:
+            return new BdaReasonForInclusion(reference);
+        case OPTFLDS:
+            return new BdaOptFlds(reference, fc);
+        case TRIGGER_CONDITIONS:
+            return new BdaTriggerConditions(reference, fc);
+        default:
+            throw new IOException("Unsupported basic data attribute type " + type + " for " + reference);
+        }
+    }
+
+    /**
+     * Reads a number of elements. The lists are not sized up front, so a
+     * corrupted count ends in an EOFException instead of a huge allocation.
+     */
+    private static int readCount(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid number of elements: " + count);
+        }
+        return count;
+    }
+
+    private static void writeNullableString(final String value, final DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
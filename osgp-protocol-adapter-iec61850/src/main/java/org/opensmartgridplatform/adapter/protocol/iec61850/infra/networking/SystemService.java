@@ -7,9 +7,20 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
 
+import java.util.Collection;
+
+import org.openmuc.openiec61850.FcModelNode;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuReadCommand;
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuReadCommandFactory;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalDevice;
 import org.opensmartgridplatform.dto.valueobjects.microgrids.GetDataSystemIdentifierDto;
+import org.opensmartgridplatform.dto.valueobjects.microgrids.MeasurementDto;
+import org.opensmartgridplatform.dto.valueobjects.microgrids.MeasurementFilterDto;
+import org.opensmartgridplatform.dto.valueobjects.microgrids.ProfileDto;
+import org.opensmartgridplatform.dto.valueobjects.microgrids.ProfileFilterDto;
 import org.opensmartgridplatform.dto.valueobjects.microgrids.SetDataSystemIdentifierDto;
 import org.opensmartgridplatform.dto.valueobjects.microgrids.SystemFilterDto;
 
@@ -17,6 +28,67 @@ public interface SystemService {
     GetDataSystemIdentifierDto getData(SystemFilterDto systemFilter, final Iec61850Client client,
             final DeviceConnection connection) throws NodeException;
 
+    /**
+     * @return The logical device of the system, or null if the nodes read by
+     *         {@link #getData} are not known in advance.
+     */
+    default LogicalDevice getLogicalDevice() {
+        return null;
+    }
+
+    /**
+     * @return The factory of the commands {@link #getData} uses to read the
+     *         measurements from the device.
+     */
+    default RtuReadCommandFactory<MeasurementDto, MeasurementFilterDto> getMeasurementCommandFactory(
+            final DeviceConnection connection) {
+        return null;
+    }
+
+    /**
+     * @return The factory of the commands {@link #getData} uses to read the
+     *         profiles from the device, or null if profiles are not read.
+     */
+    default RtuReadCommandFactory<ProfileDto, ProfileFilterDto> getProfileCommandFactory() {
+        return null;
+    }
+
+    /**
+     * Adds the nodes read by {@link #getData} for the given filter to the
+     * given nodes, so they can be read at once before getting the data. The
+     * nodes are those of the commands for the measurement and profile filters,
+     * systems without a logical device are read one by one.
+     */
+    default void collectNodes(final SystemFilterDto systemFilter, final DeviceConnection connection,
+            final Collection<FcModelNode> nodes) throws NodeException {
+        final LogicalDevice logicalDevice = this.getLogicalDevice();
+        if (logicalDevice == null) {
+            return;
+        }
+        final int logicalDeviceIndex = systemFilter.getId();
+
+        final RtuReadCommandFactory<MeasurementDto, MeasurementFilterDto> measurementCommandFactory = this
+                .getMeasurementCommandFactory(connection);
+        for (final MeasurementFilterDto filter : systemFilter.getMeasurementFilters()) {
+            final RtuReadCommand<MeasurementDto> command = measurementCommandFactory.getCommand(filter);
+            if (command != null) {
+                nodes.add(command.getNode(connection, logicalDevice, logicalDeviceIndex).getFcmodelNode());
+            }
+        }
+
+        final RtuReadCommandFactory<ProfileDto, ProfileFilterDto> profileCommandFactory = this
+                .getProfileCommandFactory();
+        if (profileCommandFactory == null) {
+            return;
+        }
+        for (final ProfileFilterDto filter : systemFilter.getProfileFilters()) {
+            final RtuReadCommand<ProfileDto> command = profileCommandFactory.getCommand(filter);
+            if (command != null) {
+                nodes.add(command.getNode(connection, logicalDevice, logicalDeviceIndex).getFcmodelNode());
+            }
+        }
+    }
+
     void setData(SetDataSystemIdentifierDto systemIdentifier, final Iec61850Client client, DeviceConnection connection)
             throws NodeException;
 }
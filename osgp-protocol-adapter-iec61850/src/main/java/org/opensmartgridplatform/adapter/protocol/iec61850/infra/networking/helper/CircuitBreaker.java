@@ -0,0 +1,105 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+/**
+ * Circuit breaker for the communication with a single device.
+ * <p>
+ * The circuit opens after a number of consecutive failures. While open, no
+ * calls are permitted. After the open duration a single call is permitted to
+ * probe the device (half-open). When that call succeeds the circuit closes,
+ * when it fails the circuit opens again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedTime;
+    private boolean probeInProgress;
+
+    /**
+     * @param failureThreshold
+     *            The number of consecutive failures after which the circuit
+     *            opens.
+     * @param openDuration
+     *            The time in milliseconds the circuit stays open before a
+     *            probe is permitted.
+     */
+    public CircuitBreaker(final int failureThreshold, final long openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Checks if a call is permitted at the given time. When a probe is
+     * permitted, the caller must report the result with {@link #success()} or
+     * {@link #failure(long)}.
+     *
+     * @return true if the call is permitted.
+     */
+    public synchronized boolean tryAcquire(final long now) {
+        switch (this.state) {
+        case CLOSED:
+            return true;
+        case OPEN:
+            if (now - this.openedTime < this.openDuration) {
+                return false;
+            }
+            this.state = State.HALF_OPEN;
+            this.probeInProgress = true;
+            return true;
+        case HALF_OPEN:
+            if (this.probeInProgress) {
+                return false;
+            }
+            this.probeInProgress = true;
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    public synchronized void success() {
+        this.state = State.CLOSED;
+        this.consecutiveFailures = 0;
+        this.probeInProgress = false;
+    }
+
+    public synchronized void failure(final long now) {
+        this.consecutiveFailures++;
+        this.probeInProgress = false;
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedTime = now;
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return this.consecutiveFailures;
+    }
+
+    /**
+     * @return The time the circuit last opened, 0 if it never opened.
+     */
+    public synchronized long getOpenedTime() {
+        return this.openedTime;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+/**
+ * The part of a device request that is executed once the connection to the
+ * device has been set up.
+ */
+public interface ConnectedRequest {
+
+    /**
+     * Executes the request using the connection, and hands the response to
+     * the response handler of the request.
+     */
+    void execute(DeviceConnection deviceConnection) throws Exception;
+}
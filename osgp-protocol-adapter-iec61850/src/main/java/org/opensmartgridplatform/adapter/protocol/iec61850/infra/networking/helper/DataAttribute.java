@@ -7,6 +7,10 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Contains a list of Data attributes of the IEC61850 Device.
  */
@@ -339,6 +343,15 @@ public enum DataAttribute {
      */
     VOLTAGE_DIPS("OpCntRs");
 
+    private static final Map<String, DataAttribute> BY_DESCRIPTION = new HashMap<>();
+
+    static {
+        for (final DataAttribute da : DataAttribute.values()) {
+            BY_DESCRIPTION.put(da.description, da);
+            BY_DESCRIPTION.putIfAbsent(da.description.toUpperCase(Locale.ROOT), da);
+        }
+    }
+
     private String description;
 
     DataAttribute(final String description) {
@@ -352,10 +365,14 @@ public enum DataAttribute {
     public static DataAttribute fromString(final String description) {
 
         if (description != null) {
-            for (final DataAttribute da : DataAttribute.values()) {
-                if (description.equalsIgnoreCase(da.description)) {
-                    return da;
-                }
+            // Most descriptions are passed as defined, only fall back to
+            // ignoring the case if needed.
+            DataAttribute da = BY_DESCRIPTION.get(description);
+            if (da == null) {
+                da = BY_DESCRIPTION.get(description.toUpperCase(Locale.ROOT));
+            }
+            if (da != null) {
+                return da;
             }
         }
         throw new IllegalArgumentException("No DataAttribute constant with description " + description + " found.");
@@ -7,6 +7,11 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 import org.openmuc.openiec61850.Fc;
 import org.openmuc.openiec61850.FcModelNode;
 import org.openmuc.openiec61850.ObjectReference;
@@ -21,9 +26,10 @@ public class DeviceConnection {
     private static final Logger LOGGER = LoggerFactory.getLogger(DeviceConnection.class);
 
     private final String serverName;
-    private final Iec61850Connection connection;
+    private volatile Iec61850Connection connection;
     private final String deviceIdentification;
     private final String organisationIdentification;
+    private volatile Set<FcModelNode> prefetchedNodes = Collections.emptySet();
 
     public static final String LOGICAL_NODE_SEPARATOR = "/";
     public static final String DATA_ATTRIBUTE_SEPARATOR = ".";
@@ -44,17 +50,7 @@ public class DeviceConnection {
      */
     public NodeContainer getFcModelNode(final LogicalDevice logicalDevice, final LogicalNode logicalNode,
             final DataAttribute dataAttribute, final Fc fc) throws NodeNotFoundException {
-        final ObjectReference objectReference = this.createObjectReference(logicalDevice, logicalNode, dataAttribute);
-        final FcModelNode fcModelNode = (FcModelNode) this.connection.getServerModel().findModelNode(objectReference,
-                fc);
-        if (fcModelNode == null) {
-            LOGGER.error("FcModelNode is null, most likely the data attribute: {} does not exist",
-                    dataAttribute.getDescription());
-            throw new NodeNotFoundException(
-                    String.format("FcModelNode with objectReference %s does not exist", objectReference));
-        }
-
-        return new NodeContainer(this, fcModelNode);
+        return this.getFcModelNode(logicalDevice, NodeIndex.NO_LOGICAL_DEVICE_INDEX, logicalNode, dataAttribute, fc);
     }
 
     /**
@@ -66,34 +62,34 @@ public class DeviceConnection {
     public NodeContainer getFcModelNode(final LogicalDevice logicalDevice, final int logicalDeviceIndex,
             final LogicalNode logicalNode, final DataAttribute dataAttribute, final Fc fc)
             throws NodeNotFoundException {
+        final Iec61850Connection iec61850Connection = this.connection;
+        final NodeIndex nodeIndex = iec61850Connection.getNodeIndex();
+        FcModelNode fcModelNode = nodeIndex.get(this.serverName, logicalDevice, logicalDeviceIndex, logicalNode,
+                dataAttribute, fc);
+        if (fcModelNode == null) {
+            fcModelNode = this.findFcModelNode(iec61850Connection, logicalDevice, logicalDeviceIndex, logicalNode,
+                    dataAttribute, fc);
+            nodeIndex.put(this.serverName, logicalDevice, logicalDeviceIndex, logicalNode, dataAttribute, fc,
+                    fcModelNode);
+        }
+
+        return new NodeContainer(this, fcModelNode);
+    }
+
+    private FcModelNode findFcModelNode(final Iec61850Connection iec61850Connection,
+            final LogicalDevice logicalDevice, final int logicalDeviceIndex, final LogicalNode logicalNode,
+            final DataAttribute dataAttribute, final Fc fc) throws NodeNotFoundException {
         final ObjectReference objectReference = this.createObjectReference(logicalDevice, logicalDeviceIndex,
                 logicalNode, dataAttribute);
-        final FcModelNode fcModelNode = (FcModelNode) this.connection.getServerModel().findModelNode(objectReference,
-                fc);
+        final FcModelNode fcModelNode = (FcModelNode) iec61850Connection.getServerModel()
+                .findModelNode(objectReference, fc);
         if (fcModelNode == null) {
             LOGGER.error("FcModelNode is null, most likely the data attribute: {} does not exist",
                     dataAttribute.getDescription());
             throw new NodeNotFoundException(
                     String.format("FcModelNode with objectReference %s does not exist", objectReference));
         }
-
-        return new NodeContainer(this, fcModelNode);
-    }
-
-    /**
-     * Creates a correct ObjectReference.
-     */
-    private ObjectReference createObjectReference(final LogicalDevice logicalDevice, final LogicalNode logicalNode,
-            final DataAttribute dataAttribute) {
-        final String logicalDevicePrefix = this.serverName + logicalDevice.getDescription();
-
-        final String objectReference = logicalDevicePrefix.concat(LOGICAL_NODE_SEPARATOR)
-                .concat(logicalNode.getDescription()).concat(DATA_ATTRIBUTE_SEPARATOR)
-                .concat(dataAttribute.getDescription());
-
-        LOGGER.info("Device: {}, ObjectReference: {}", this.deviceIdentification, objectReference);
-
-        return new ObjectReference(objectReference);
+        return fcModelNode;
     }
 
     /**
@@ -101,13 +97,16 @@ public class DeviceConnection {
      */
     private ObjectReference createObjectReference(final LogicalDevice logicalDevice, final int logicalDeviceIndex,
             final LogicalNode logicalNode, final DataAttribute dataAttribute) {
-        final String logicalDevicePrefix = this.serverName + logicalDevice.getDescription() + logicalDeviceIndex;
+        String logicalDevicePrefix = this.serverName + logicalDevice.getDescription();
+        if (logicalDeviceIndex != NodeIndex.NO_LOGICAL_DEVICE_INDEX) {
+            logicalDevicePrefix += logicalDeviceIndex;
+        }
 
         final String objectReference = logicalDevicePrefix.concat(LOGICAL_NODE_SEPARATOR)
                 .concat(logicalNode.getDescription()).concat(DATA_ATTRIBUTE_SEPARATOR)
                 .concat(dataAttribute.getDescription());
 
-        LOGGER.info("Device: {}, ObjectReference: {}", this.deviceIdentification, objectReference);
+        LOGGER.debug("Device: {}, ObjectReference: {}", this.deviceIdentification, objectReference);
 
         return new ObjectReference(objectReference);
     }
@@ -125,4 +124,32 @@ public class DeviceConnection {
     public Iec61850Connection getConnection() {
         return this.connection;
     }
+
+    /**
+     * Registers the nodes that have been read for the current request, so
+     * they are not read again one by one.
+     */
+    public void setPrefetchedNodes(final Collection<FcModelNode> nodes) {
+        final Set<FcModelNode> prefetched = Collections.newSetFromMap(new IdentityHashMap<>());
+        prefetched.addAll(nodes);
+        this.prefetchedNodes = prefetched;
+    }
+
+    public void clearPrefetchedNodes() {
+        this.prefetchedNodes = Collections.emptySet();
+    }
+
+    /**
+     * @return true if the node has been read for the current request.
+     */
+    public boolean isPrefetched(final FcModelNode node) {
+        return this.prefetchedNodes.contains(node);
+    }
+
+    /**
+     * Replaces a broken connection with a new connection to the same device.
+     */
+    public void setConnection(final Iec61850Connection connection) {
+        this.connection = connection;
+    }
 }
@@ -7,6 +7,10 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Contains the name of the Logical Device.
  */
@@ -68,6 +72,15 @@ public enum LogicalDevice {
      */
     PQ("PQ");
 
+    private static final Map<String, LogicalDevice> BY_DESCRIPTION = new HashMap<>();
+
+    static {
+        for (final LogicalDevice ld : LogicalDevice.values()) {
+            BY_DESCRIPTION.put(ld.description, ld);
+            BY_DESCRIPTION.putIfAbsent(ld.description.toUpperCase(Locale.ROOT), ld);
+        }
+    }
+
     private String description;
 
     private LogicalDevice(final String description) {
@@ -81,10 +94,14 @@ public enum LogicalDevice {
     public static LogicalDevice fromString(final String description) {
 
         if (description != null) {
-            for (final LogicalDevice ld : LogicalDevice.values()) {
-                if (description.equalsIgnoreCase(ld.description)) {
-                    return ld;
-                }
+            // Most descriptions are passed as defined, only fall back to
+            // ignoring the case if needed.
+            LogicalDevice ld = BY_DESCRIPTION.get(description);
+            if (ld == null) {
+                ld = BY_DESCRIPTION.get(description.toUpperCase(Locale.ROOT));
+            }
+            if (ld != null) {
+                return ld;
             }
         }
         throw new IllegalArgumentException("No LogicalDevice constant with description " + description + " found.");
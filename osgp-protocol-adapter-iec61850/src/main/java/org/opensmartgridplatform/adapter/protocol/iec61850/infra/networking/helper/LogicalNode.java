@@ -7,6 +7,10 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Contains a list of all Logical nodes of the IEC61850 Device
  */
@@ -169,6 +173,15 @@ public enum LogicalNode {
      */
     QVVR1("QVVR1");
 
+    private static final Map<String, LogicalNode> BY_DESCRIPTION = new HashMap<>();
+
+    static {
+        for (final LogicalNode ln : LogicalNode.values()) {
+            BY_DESCRIPTION.put(ln.description, ln);
+            BY_DESCRIPTION.putIfAbsent(ln.description.toUpperCase(Locale.ROOT), ln);
+        }
+    }
+
     private final String description;
 
     private LogicalNode(final String description) {
@@ -222,10 +235,14 @@ public enum LogicalNode {
     public static LogicalNode fromString(final String description) {
 
         if (description != null) {
-            for (final LogicalNode ln : LogicalNode.values()) {
-                if (description.equalsIgnoreCase(ln.description)) {
-                    return ln;
-                }
+            // Most descriptions are passed as defined, only fall back to
+            // ignoring the case if needed.
+            LogicalNode ln = BY_DESCRIPTION.get(description);
+            if (ln == null) {
+                ln = BY_DESCRIPTION.get(description.toUpperCase(Locale.ROOT));
+            }
+            if (ln != null) {
+                return ln;
             }
         }
         throw new IllegalArgumentException("No LogicalNode constant with description " + description + " found.");
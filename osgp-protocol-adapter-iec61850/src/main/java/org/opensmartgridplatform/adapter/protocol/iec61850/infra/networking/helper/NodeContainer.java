@@ -30,7 +30,9 @@ import org.openmuc.openiec61850.ServiceError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.opensmartgridplatform.adapter.protocol.iec61850.application.config.BeanUtil;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeWriteException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ReadCache;
 
 public class NodeContainer {
 
@@ -283,6 +285,8 @@ public class NodeContainer {
      * Writes the new data of the node to the device.
      */
     private void writeNode(final FcModelNode node) throws NodeWriteException {
+        // Values read earlier may no longer be valid, also if the write fails.
+        BeanUtil.getBean(Iec61850ReadCache.class).written(this.deviceIdentification, node);
         try {
             this.connection.getConnection().getClientAssociation().setDataValues(node);
         } catch (final ServiceError e) {
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcModelNode;
+
+/**
+ * Index of the nodes of a ServerModel by the server name and constants used to
+ * find them, so a node only has to be looked up by object reference in the
+ * ServerModel the first time it is used.
+ */
+public class NodeIndex {
+
+    /**
+     * Index of nodes in logical devices without a number, e.g. LIGHTING.
+     */
+    public static final int NO_LOGICAL_DEVICE_INDEX = -1;
+
+    private static final class Key {
+        private final String serverName;
+        private final LogicalDevice logicalDevice;
+        private final int logicalDeviceIndex;
+        private final LogicalNode logicalNode;
+        private final DataAttribute dataAttribute;
+        private final Fc fc;
+
+        Key(final String serverName, final LogicalDevice logicalDevice, final int logicalDeviceIndex,
+                final LogicalNode logicalNode, final DataAttribute dataAttribute, final Fc fc) {
+            this.serverName = serverName;
+            this.logicalDevice = logicalDevice;
+            this.logicalDeviceIndex = logicalDeviceIndex;
+            this.logicalNode = logicalNode;
+            this.dataAttribute = dataAttribute;
+            this.fc = fc;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return Objects.equals(this.serverName, other.serverName) && this.logicalDevice == other.logicalDevice
+                    && this.logicalDeviceIndex == other.logicalDeviceIndex && this.logicalNode == other.logicalNode
+                    && this.dataAttribute == other.dataAttribute && this.fc == other.fc;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(this.serverName);
+            result = 31 * result + Objects.hashCode(this.logicalDevice);
+            result = 31 * result + this.logicalDeviceIndex;
+            result = 31 * result + Objects.hashCode(this.logicalNode);
+            result = 31 * result + Objects.hashCode(this.dataAttribute);
+            return 31 * result + Objects.hashCode(this.fc);
+        }
+    }
+
+    private final ConcurrentHashMap<Key, FcModelNode> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * @return The indexed node, or null if the node has not been indexed yet.
+     */
+    public FcModelNode get(final String serverName, final LogicalDevice logicalDevice, final int logicalDeviceIndex,
+            final LogicalNode logicalNode, final DataAttribute dataAttribute, final Fc fc) {
+        return this.nodes
+                .get(new Key(serverName, logicalDevice, logicalDeviceIndex, logicalNode, dataAttribute, fc));
+    }
+
+    public void put(final String serverName, final LogicalDevice logicalDevice, final int logicalDeviceIndex,
+            final LogicalNode logicalNode, final DataAttribute dataAttribute, final Fc fc, final FcModelNode node) {
+        this.nodes.put(new Key(serverName, logicalDevice, logicalDeviceIndex, logicalNode, dataAttribute, fc),
+                node);
+    }
+
+    public int size() {
+        return this.nodes.size();
+    }
+}
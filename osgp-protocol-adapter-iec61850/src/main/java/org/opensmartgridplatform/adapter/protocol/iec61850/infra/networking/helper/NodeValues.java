@@ -0,0 +1,57 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import java.util.List;
+
+import org.openmuc.openiec61850.BasicDataAttribute;
+import org.openmuc.openiec61850.FcModelNode;
+
+/**
+ * Copies values between nodes with the same structure, for instance between a
+ * node kept from an earlier read and the node of the current ServerModel.
+ */
+public class NodeValues {
+
+    private NodeValues() {
+        // Hide public constructor for class with only static methods
+    }
+
+    /**
+     * @return A key identifying the node by object reference and functional
+     *         constraint, e.g. LD0/LLN0.NamPlt[DC].
+     */
+    public static String getKey(final FcModelNode node) {
+        return node.getReference() + "[" + node.getFc() + "]";
+    }
+
+    /**
+     * Copies the values of all basic data attributes of the source node into
+     * the target node.
+     *
+     * @return false if the nodes do not have the same attributes, in which
+     *         case nothing is copied.
+     */
+    public static boolean copy(final FcModelNode source, final FcModelNode target) {
+        final List<BasicDataAttribute> sourceAttributes = source.getBasicDataAttributes();
+        final List<BasicDataAttribute> targetAttributes = target.getBasicDataAttributes();
+        if (sourceAttributes.size() != targetAttributes.size()) {
+            return false;
+        }
+        for (int i = 0; i < sourceAttributes.size(); i++) {
+            final String sourceReference = sourceAttributes.get(i).getReference().toString();
+            if (!sourceReference.equals(targetAttributes.get(i).getReference().toString())) {
+                return false;
+            }
+        }
+        for (int i = 0; i < sourceAttributes.size(); i++) {
+            targetAttributes.get(i).setValueFrom(sourceAttributes.get(i));
+        }
+        return true;
+    }
+}
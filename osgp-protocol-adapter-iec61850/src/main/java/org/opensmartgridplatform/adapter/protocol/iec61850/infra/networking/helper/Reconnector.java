@@ -0,0 +1,20 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
+
+/**
+ * Replaces a broken connection with a new connection, so a {@link Function}
+ * can be retried.
+ */
+@FunctionalInterface
+public interface Reconnector {
+
+    void reconnect() throws ConnectionFailureException;
+}
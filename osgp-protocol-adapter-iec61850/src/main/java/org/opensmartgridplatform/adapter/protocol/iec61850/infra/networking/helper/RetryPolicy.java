@@ -0,0 +1,95 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines how often, and after how much time, a failed command is retried.
+ * <p>
+ * The backoff before a retry doubles with every retry, starting at the initial
+ * backoff, up to the maximum backoff. A random jitter is applied so retries of
+ * commands that failed at the same time are spread out. All retries of a
+ * command have to start before its deadline.
+ */
+public class RetryPolicy {
+
+    private final int maxRetries;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final double jitter;
+    private final long deadline;
+
+    /**
+     * @param maxRetries
+     *            The maximum number of retries after the first attempt.
+     * @param initialBackoff
+     *            The backoff in milliseconds before the first retry.
+     * @param maxBackoff
+     *            The maximum backoff in milliseconds.
+     * @param jitter
+     *            The fraction of the backoff by which it may randomly vary,
+     *            e.g. 0.2 for 20%.
+     * @param deadline
+     *            The time in milliseconds after the first attempt after which
+     *            no retries are started.
+     */
+    public RetryPolicy(final int maxRetries, final long initialBackoff, final long maxBackoff, final double jitter,
+            final long deadline) {
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitter = jitter;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return The backoff in milliseconds before the given retry, the first
+     *         retry being 1.
+     */
+    public long getBackoff(final int retry) {
+        return this.getBackoff(retry, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param random
+     *            A random value between 0 (inclusive) and 1 (exclusive)
+     *            determining the jitter.
+     * @return The backoff in milliseconds before the given retry, the first
+     *         retry being 1.
+     */
+    public long getBackoff(final int retry, final double random) {
+        long backoff = this.initialBackoff;
+        for (int i = 1; i < retry && backoff < this.maxBackoff; i++) {
+            backoff *= 2;
+        }
+        backoff = Math.min(backoff, this.maxBackoff);
+        return (long) (backoff * (1 - this.jitter + random * 2 * this.jitter));
+    }
+
+    /**
+     * @param retry
+     *            The retry, the first retry being 1.
+     * @param startTime
+     *            The time of the first attempt.
+     * @param retryTime
+     *            The time the retry would start.
+     * @return true if the retry is allowed.
+     */
+    public boolean isRetryAllowed(final int retry, final long startTime, final long retryTime) {
+        return retry <= this.maxRetries && retryTime - startTime <= this.deadline;
+    }
+
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    public long getDeadline() {
+        return this.deadline;
+    }
+}
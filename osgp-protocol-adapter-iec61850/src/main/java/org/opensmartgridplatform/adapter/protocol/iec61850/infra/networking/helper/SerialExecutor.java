@@ -0,0 +1,105 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes tasks one at a time, in the order they were submitted, on threads
+ * of a shared executor. Tasks of different serial executors sharing the same
+ * executor run in parallel.
+ */
+public class SerialExecutor implements Executor {
+
+    private final Executor executor;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private Runnable active;
+
+    private volatile Thread activeThread;
+
+    public SerialExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the task, to be run after all previously submitted tasks have
+     * finished.
+     *
+     * @throws RejectedExecutionException
+     *             If the shared executor does not accept tasks anymore.
+     */
+    @Override
+    public synchronized void execute(final Runnable task) {
+        this.tasks.add(task);
+        if (this.active == null) {
+            this.scheduleNext();
+        }
+    }
+
+    /**
+     * @return true if the current thread is running a task of this serial
+     *         executor.
+     */
+    public boolean isCurrentThread() {
+        return this.activeThread == Thread.currentThread();
+    }
+
+    /**
+     * @return The number of tasks waiting to be run.
+     */
+    public synchronized int getQueueSize() {
+        return this.tasks.size();
+    }
+
+    public synchronized boolean isIdle() {
+        return this.active == null;
+    }
+
+    private void run(final Runnable task) {
+        this.activeThread = Thread.currentThread();
+        try {
+            task.run();
+        } finally {
+            this.activeThread = null;
+            this.scheduleNext();
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        this.active = this.tasks.poll();
+        if (this.active == null) {
+            return;
+        }
+        final Runnable task = this.active;
+        try {
+            this.executor.execute(() -> this.run(task));
+        } catch (final RejectedExecutionException e) {
+            // The shared executor is shutting down, none of the queued tasks
+            // will run. Cancel them, so no one waits for them forever.
+            cancel(task);
+            for (final Runnable queuedTask : this.tasks) {
+                cancel(queuedTask);
+            }
+            this.active = null;
+            this.tasks.clear();
+            throw e;
+        }
+    }
+
+    private static void cancel(final Runnable task) {
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+}
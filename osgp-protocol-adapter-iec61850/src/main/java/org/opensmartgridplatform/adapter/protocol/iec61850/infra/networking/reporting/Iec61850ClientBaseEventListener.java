@@ -7,14 +7,9 @@
  */
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
 
-import java.nio.charset.Charset;
-import java.util.Arrays;
-import java.util.List;
+import java.util.function.Supplier;
 
-import org.joda.time.DateTime;
-import org.openmuc.openiec61850.BdaReasonForInclusion;
 import org.openmuc.openiec61850.ClientEventListener;
-import org.openmuc.openiec61850.HexConverter;
 import org.openmuc.openiec61850.Report;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +34,29 @@ public abstract class Iec61850ClientBaseEventListener implements ClientEventList
      */
     protected static final long IEC61850_ENTRY_TIME_OFFSET = 441763200000L;
 
+    private volatile long lastReportTime;
+
+    /**
+     * Description of a report for log messages, formatted only when it is
+     * actually logged, and at most once.
+     */
+    protected static final class ReportDescription {
+        private final Supplier<String> formatter;
+        private String description;
+
+        public ReportDescription(final Supplier<String> formatter) {
+            this.formatter = formatter;
+        }
+
+        @Override
+        public String toString() {
+            if (this.description == null) {
+                this.description = this.formatter.get();
+            }
+            return this.description;
+        }
+    }
+
     public Iec61850ClientBaseEventListener(final String deviceIdentification,
             final DeviceManagementService deviceManagementService, final Class<?> loggerClass) {
         this.deviceManagementService = deviceManagementService;
@@ -50,6 +68,22 @@ public abstract class Iec61850ClientBaseEventListener implements ClientEventList
         return this.deviceIdentification;
     }
 
+    /**
+     * @return the time in milliseconds at which the last report was received,
+     *         or 0 if no report has been received yet.
+     */
+    public long getLastReportTime() {
+        return this.lastReportTime;
+    }
+
+    /**
+     * Registers that a report has been received, so a connection that is
+     * still used for reporting is not considered to be idle.
+     */
+    protected void reportReceived() {
+        this.lastReportTime = System.currentTimeMillis();
+    }
+
     /**
      * Before enabling reporting on the device, set the SqNum of the buffered
      * report data to be able to check if incoming reports have been received
@@ -68,43 +102,7 @@ public abstract class Iec61850ClientBaseEventListener implements ClientEventList
      * part. This method is intended for the default part.
      */
     public void logDefaultReportDetails(final StringBuilder sb, final Report report) {
-        sb.append("\t             RptId:\t").append(report.getRptId()).append(System.lineSeparator());
-        sb.append("\t        DataSetRef:\t").append(report.getDataSetRef()).append(System.lineSeparator());
-        sb.append("\t           ConfRev:\t").append(report.getConfRev()).append(System.lineSeparator());
-        if (report.getBufOvfl() == null) {
-            sb.append("\t           BufOvfl:\tnull").append(System.lineSeparator());
-        } else {
-            sb.append("\t           BufOvfl:\t").append(report.getBufOvfl()).append(System.lineSeparator());
-        }
-
-        sb.append("\t           EntryId:\t").append(report.getEntryId()).append(System.lineSeparator());
-        if (report.getEntryId() != null) {
-            sb.append("\t                   \t(")
-                    .append(new String(report.getEntryId().getValue(), Charset.forName("UTF-8"))).append(")")
-                    .append(System.lineSeparator());
-        }
-        sb.append("\tInclusionBitString:\t").append(Arrays.toString(report.getInclusionBitString()))
-                .append(System.lineSeparator());
-        sb.append("\tMoreSegmentsFollow:\t").append(report.isMoreSegmentsFollow()).append(System.lineSeparator());
-        sb.append("\t             SqNum:\t").append(report.getSqNum()).append(System.lineSeparator());
-        sb.append("\t          SubSqNum:\t").append(report.getSubSqNum()).append(System.lineSeparator());
-        sb.append("\t       TimeOfEntry:\t").append(report.getTimeOfEntry()).append(System.lineSeparator());
-        if (report.getTimeOfEntry() != null) {
-            sb.append("\t                   \t(")
-                    .append(new DateTime(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET))
-                    .append(')').append(System.lineSeparator());
-        }
-        final List<BdaReasonForInclusion> reasonCodes = report.getReasonCodes();
-        if ((reasonCodes != null) && !reasonCodes.isEmpty()) {
-            sb.append("\t       ReasonCodes:").append(System.lineSeparator());
-            for (final BdaReasonForInclusion reasonCode : reasonCodes) {
-                sb.append("\t                   \t")
-                        .append(reasonCode.getReference() == null ? HexConverter.toHexString(reasonCode.getValue())
-                                : reasonCode)
-                        .append("\t(").append(new Iec61850BdaReasonForInclusionHelper(reasonCode).getInfo()).append(')')
-                        .append(System.lineSeparator());
-            }
-        }
+        Iec61850ReportTrace.appendReportDetails(sb, report);
     }
 
 }
@@ -39,13 +39,17 @@ public class Iec61850ClientDaRTUEventListener extends Iec61850ClientBaseEventLis
 
     @Override
     public void newReport(final Report report) {
+        this.reportReceived();
+
         final DateTime timeOfEntry = report.getTimeOfEntry() == null ? null
                 : new DateTime(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET);
 
-        final String reportDescription = this.getReportDescription(report, timeOfEntry);
+        final ReportDescription reportDescription = this.getReportDescription(report, timeOfEntry);
 
-        this.logger.info("newReport for {}", reportDescription);
-        this.logReportDetails(report);
+        this.logger.debug("newReport for {}", reportDescription);
+        if (this.logger.isDebugEnabled()) {
+            this.logReportDetails(report);
+        }
         try {
             this.processReport(report, reportDescription);
         } catch (final ProtocolAdapterException e) {
@@ -53,7 +57,8 @@ public class Iec61850ClientDaRTUEventListener extends Iec61850ClientBaseEventLis
         }
     }
 
-    private void processReport(final Report report, final String reportDescription) throws ProtocolAdapterException {
+    private void processReport(final Report report, final ReportDescription reportDescription)
+            throws ProtocolAdapterException {
         final List<FcModelNode> dataSetMembers = report.getValues();
         final List<LogicalDevice> logicalDevices = new ArrayList<>();
 
@@ -216,11 +221,11 @@ public class Iec61850ClientDaRTUEventListener extends Iec61850ClientBaseEventLis
         }
     }
 
-    private String getReportDescription(final Report report, final DateTime timeOfEntry) {
-        return String.format("device: %s, reportId: %s, timeOfEntry: %s, sqNum: %s%s%s", this.deviceIdentification,
-                report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry, report.getSqNum(),
-                report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
-                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : "");
+    private ReportDescription getReportDescription(final Report report, final DateTime timeOfEntry) {
+        return new ReportDescription(() -> String.format("device: %s, reportId: %s, timeOfEntry: %s, sqNum: %s%s%s",
+                this.deviceIdentification, report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry,
+                report.getSqNum(), report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
+                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : ""));
     }
 
     private void logReportDetails(final Report report) {
@@ -231,7 +236,7 @@ public class Iec61850ClientDaRTUEventListener extends Iec61850ClientBaseEventLis
         final List<FcModelNode> dataSetMembers = report.getValues();
         this.logDataSetMembersDetails(report, dataSetMembers, sb);
 
-        this.logger.info(sb.append(System.lineSeparator()).toString());
+        this.logger.debug(sb.append(System.lineSeparator()).toString());
     }
 
     private void logDataSetMembersDetails(final Report report, final List<FcModelNode> dataSetMembers,
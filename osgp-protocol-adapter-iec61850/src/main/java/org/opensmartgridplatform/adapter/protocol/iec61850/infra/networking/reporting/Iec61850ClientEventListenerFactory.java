@@ -13,8 +13,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.DeviceManagementService;
+import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.LightMeasurementDeviceRegistry;
 import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.ReportingService;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850LastValueStore;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
 
 @Component
@@ -28,16 +30,29 @@ public class Iec61850ClientEventListenerFactory {
     @Autowired
     private ReportingService reportingService;
 
+    @Autowired
+    private LightMeasurementDeviceRegistry lightMeasurementDeviceRegistry;
+
+    @Autowired
+    private Iec61850LastValueStore iec61850LastValueStore;
+
+    @Autowired
+    private Iec61850ReportSequenceStatistics iec61850ReportSequenceStatistics;
+
+    @Autowired
+    private int reportResyncMinInterval;
+
     public Iec61850ClientBaseEventListener getEventListener(final IED ied, final String deviceIdentification)
             throws ProtocolAdapterException {
         switch (ied) {
         case FLEX_OVL:
             return new Iec61850ClientSSLDEventListener(deviceIdentification, this.deviceManagementService);
         case ABB_RTU:
-            return new Iec61850ClientLMDEventListener(deviceIdentification, this.deviceManagementService);
+            return new Iec61850ClientLMDEventListener(deviceIdentification, this.deviceManagementService,
+                    this.lightMeasurementDeviceRegistry);
         case ZOWN_RTU:
             return new Iec61850ClientRTUEventListener(deviceIdentification, this.deviceManagementService,
-                    this.reportingService);
+                    this.reportingService, this.iec61850LastValueStore, this.createSequenceTracker());
         case DA_RTU:
             return new Iec61850ClientDaRTUEventListener(deviceIdentification, this.deviceManagementService);
         default:
@@ -45,4 +60,8 @@ public class Iec61850ClientEventListenerFactory {
             return null;
         }
     }
+
+    private Iec61850ReportSequenceTracker createSequenceTracker() {
+        return new Iec61850ReportSequenceTracker(this.reportResyncMinInterval, this.iec61850ReportSequenceStatistics);
+    }
 }
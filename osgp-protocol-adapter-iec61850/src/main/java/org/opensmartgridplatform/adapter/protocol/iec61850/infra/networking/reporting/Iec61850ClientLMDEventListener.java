@@ -9,7 +9,7 @@ package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.rep
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,8 +21,8 @@ import org.openmuc.openiec61850.Report;
 import org.springframework.util.CollectionUtils;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.DeviceManagementService;
+import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.LightMeasurementDeviceRegistry;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
-import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalNode;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.SubDataAttribute;
 import org.opensmartgridplatform.core.db.api.iec61850.entities.LightMeasurementDevice;
 import org.opensmartgridplatform.dto.valueobjects.EventNotificationDto;
@@ -30,19 +30,26 @@ import org.opensmartgridplatform.dto.valueobjects.EventTypeDto;
 
 public class Iec61850ClientLMDEventListener extends Iec61850ClientBaseEventListener {
 
+    private static final String SPGGIO_PREFIX = "SPGGIO";
+
+    private final LightMeasurementDeviceRegistry lightMeasurementDeviceRegistry;
+
     public Iec61850ClientLMDEventListener(final String deviceIdentification,
-            final DeviceManagementService deviceManagementService) throws ProtocolAdapterException {
+            final DeviceManagementService deviceManagementService,
+            final LightMeasurementDeviceRegistry lightMeasurementDeviceRegistry) throws ProtocolAdapterException {
         super(deviceIdentification, deviceManagementService, Iec61850ClientLMDEventListener.class);
+        this.lightMeasurementDeviceRegistry = lightMeasurementDeviceRegistry;
     }
 
     @Override
     public void newReport(final Report report) {
+        this.reportReceived();
 
         final DateTime timeOfEntry = this.getTimeOfEntry(report);
 
-        final String reportDescription = this.getReportDescription(report, timeOfEntry);
+        final ReportDescription reportDescription = this.getReportDescription(report, timeOfEntry);
 
-        this.logger.info("newReport for {}", reportDescription);
+        this.logger.debug("newReport for {}", reportDescription);
 
         if (Boolean.TRUE.equals(report.getBufOvfl())) {
             this.logger.warn("Buffer Overflow reported for {} - entries within the buffer may have been lost.",
@@ -53,7 +60,9 @@ public class Iec61850ClientLMDEventListener extends Iec61850ClientBaseEventListe
             this.logger.warn("report.getSqNum() < this.firstNewSqNum, report.getSqNum() = {}, this.firstNewSqNum = {}",
                     report.getSqNum(), this.firstNewSqNum);
         }
-        this.logReportDetails(report);
+        if (this.logger.isDebugEnabled()) {
+            this.logReportDetails(report);
+        }
 
         if (CollectionUtils.isEmpty(report.getValues())) {
             this.logger.warn("No dataSet members available for {}", reportDescription);
@@ -82,41 +91,63 @@ public class Iec61850ClientLMDEventListener extends Iec61850ClientBaseEventListe
 
     private Map<LightMeasurementDevice, FcModelNode> processReportedDataForLightMeasurementDevices(
             final List<FcModelNode> dataSetMembers) {
-        final Map<LightMeasurementDevice, FcModelNode> result = new HashMap<>();
-
-        this.logger.info("Trying to find light measurement devices...");
-        final List<LightMeasurementDevice> lmds = this.deviceManagementService.findRealLightMeasurementDevices();
-        this.logger.info("Found {} light measurement devices.", lmds == null ? "null" : lmds.size());
+        final Map<LightMeasurementDevice, FcModelNode> result = new LinkedHashMap<>();
 
-        for (final LightMeasurementDevice lmd : lmds) {
-            final String nodeName = LogicalNode.getSpggioByIndex(lmd.getDigitalInput()).getDescription().concat(".");
-
-            for (final FcModelNode member : dataSetMembers) {
-                if (member.getReference().toString().contains(nodeName)) {
-                    result.put(lmd, member);
-                }
+        for (final FcModelNode member : dataSetMembers) {
+            final List<LightMeasurementDevice> lmds = this.lightMeasurementDeviceRegistry
+                    .get(this.getDigitalInput(member.getReference().toString()));
+            if (lmds.isEmpty()) {
+                this.logger.debug("No light measurement device for DataSet member {}", member.getReference());
+            }
+            for (final LightMeasurementDevice lmd : lmds) {
+                result.put(lmd, member);
             }
         }
 
-        this.logger.info("Returning {} results.", result.size());
+        this.logger.debug("Found {} light measurement devices for {} DataSet members.", result.size(),
+                dataSetMembers.size());
 
         return result;
     }
 
+    /**
+     * Returns the number of the SPGGIO logical node in the reference, e.g. 2
+     * for LD0/SPGGIO2.Ind.stVal, which is the digital input the light
+     * measurement device is connected to.
+     *
+     * @return The digital input, or -1 if the reference is not in a SPGGIO
+     *         logical node.
+     */
+    private int getDigitalInput(final String reference) {
+        final int logicalNodeStart = reference.indexOf('/') + 1;
+        if (!reference.startsWith(SPGGIO_PREFIX, logicalNodeStart)) {
+            return -1;
+        }
+        int logicalNodeEnd = reference.indexOf('.', logicalNodeStart);
+        if (logicalNodeEnd < 0) {
+            logicalNodeEnd = reference.length();
+        }
+        try {
+            return Integer.parseInt(reference.substring(logicalNodeStart + SPGGIO_PREFIX.length(), logicalNodeEnd));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private DateTime getTimeOfEntry(final Report report) {
         return report.getTimeOfEntry() == null ? DateTime.now(DateTimeZone.UTC)
                 : new DateTime(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET);
     }
 
-    private String getReportDescription(final Report report, final DateTime timeOfEntry) {
-        return String.format("reportId: %s, timeOfEntry: %s, sqNum: %s%s%s", report.getRptId(),
-                timeOfEntry == null ? "-" : timeOfEntry, report.getSqNum(),
+    private ReportDescription getReportDescription(final Report report, final DateTime timeOfEntry) {
+        return new ReportDescription(() -> String.format("reportId: %s, timeOfEntry: %s, sqNum: %s%s%s",
+                report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry, report.getSqNum(),
                 report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
-                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : "");
+                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : ""));
     }
 
     private EventNotificationDto getEventNotificationForReportedData(final FcModelNode evnRpn,
-            final DateTime timeOfEntry, final String reportDescription, final String deviceIdentification,
+            final DateTime timeOfEntry, final ReportDescription reportDescription, final String deviceIdentification,
             final Integer index) {
         EventTypeDto eventType;
         final boolean lightSensorValue = this.determineLightSensorValue(evnRpn, reportDescription);
@@ -131,10 +162,11 @@ public class Iec61850ClientLMDEventListener extends Iec61850ClientBaseEventListe
         } else {
             eventType = EventTypeDto.LIGHT_SENSOR_REPORTS_LIGHT;
         }
-        return new EventNotificationDto(deviceIdentification, timeOfEntry, eventType, reportDescription, index);
+        return new EventNotificationDto(deviceIdentification, timeOfEntry, eventType, reportDescription.toString(),
+                index);
     }
 
-    private boolean determineLightSensorValue(final FcModelNode evnRpn, final String reportDescription) {
+    private boolean determineLightSensorValue(final FcModelNode evnRpn, final ReportDescription reportDescription) {
         final String dataObjectName = SubDataAttribute.STATE.getDescription();
         final BdaBoolean stVal = (BdaBoolean) evnRpn.getChild(dataObjectName);
         if (stVal == null) {
@@ -144,7 +176,7 @@ public class Iec61850ClientLMDEventListener extends Iec61850ClientBaseEventListe
     }
 
     private IllegalArgumentException childNodeNotAvailableException(final FcModelNode evnRpn,
-            final String childNodeName, final String reportDescription) {
+            final String childNodeName, final ReportDescription reportDescription) {
         return new IllegalArgumentException("No '" + childNodeName + "' child in DataSet member "
                 + evnRpn.getReference() + " from " + reportDescription);
     }
@@ -157,7 +189,7 @@ public class Iec61850ClientLMDEventListener extends Iec61850ClientBaseEventListe
         final List<FcModelNode> dataSetMembers = report.getValues();
         this.logDataSetMembersDetails(report, dataSetMembers, sb);
 
-        this.logger.info(sb.append(System.lineSeparator()).toString());
+        this.logger.debug(sb.append(System.lineSeparator()).toString());
     }
 
     private void logDataSetMembersDetails(final Report report, final List<FcModelNode> dataSetMembers,
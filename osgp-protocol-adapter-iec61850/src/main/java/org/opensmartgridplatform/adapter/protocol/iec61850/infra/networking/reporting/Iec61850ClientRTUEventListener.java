@@ -8,12 +8,13 @@
 package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,8 +27,10 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.application.config.Be
 import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.DeviceManagementService;
 import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.ReportingService;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Device;
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850ReportEntry;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceRepository;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850LastValueStore;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ReadOnlyNodeContainer;
 import org.opensmartgridplatform.dto.valueobjects.microgrids.GetDataResponseDto;
 import org.opensmartgridplatform.dto.valueobjects.microgrids.GetDataSystemIdentifierDto;
@@ -41,55 +44,106 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
     private static final Pattern REPORT_PATTERN = Pattern
             .compile("\\A(.*)" + NODE_NAMES + "([1-9]\\d*+)/LLN0\\.(Status|Measurements|Heartbeat)\\Z");
 
-    private static final Map<String, Class<? extends Iec61850ReportHandler>> REPORT_HANDLERS_MAP = new HashMap<>();
+    private static final Map<String, IntFunction<Iec61850ReportHandler>> REPORT_HANDLERS_MAP = new HashMap<>();
+
+    private static final String LOAD_NODE = "LOAD";
 
     private ReportingService reportingService;
 
+    private Iec61850LastValueStore lastValueStore;
+
+    private final Iec61850ReportSequenceTracker sequenceTracker;
+
+    /**
+     * Report handlers by data set reference. Handlers do not keep state
+     * between reports, so a handler is created once and used for all reports
+     * of its data set. Data sets without handler are cached as empty.
+     */
+    private final Map<String, Optional<Iec61850ReportHandler>> reportHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * Whether LOAD data sets are handled as combined load, null until it is
+     * needed for the first LOAD data set or set by
+     * {@link #setUseCombinedLoad(boolean)}.
+     */
+    private volatile Boolean useCombinedLoad;
+
     static {
-        REPORT_HANDLERS_MAP.put("RTU", Iec61850RtuReportHandler.class);
-        REPORT_HANDLERS_MAP.put("PV", Iec61850PvReportHandler.class);
-        REPORT_HANDLERS_MAP.put("BATTERY", Iec61850BatteryReportHandler.class);
-        REPORT_HANDLERS_MAP.put("ENGINE", Iec61850EngineReportHandler.class);
-        REPORT_HANDLERS_MAP.put("LOAD", Iec61850LoadReportHandler.class);
-        REPORT_HANDLERS_MAP.put("LOAD_COMBINED", Iec61850CombinedLoadReportHandler.class);
-        REPORT_HANDLERS_MAP.put("CHP", Iec61850ChpReportHandler.class);
-        REPORT_HANDLERS_MAP.put("HEAT_BUFFER", Iec61850HeatBufferReportHandler.class);
-        REPORT_HANDLERS_MAP.put("GAS_FURNACE", Iec61850GasFurnaceReportHandler.class);
-        REPORT_HANDLERS_MAP.put("HEAT_PUMP", Iec61850HeatPumpReportHandler.class);
-        REPORT_HANDLERS_MAP.put("BOILER", Iec61850BoilerReportHandler.class);
-        REPORT_HANDLERS_MAP.put("WIND", Iec61850WindReportHandler.class);
-        REPORT_HANDLERS_MAP.put("PQ", Iec61850PqReportHandler.class);
+        REPORT_HANDLERS_MAP.put("RTU", Iec61850RtuReportHandler::new);
+        REPORT_HANDLERS_MAP.put("PV", Iec61850PvReportHandler::new);
+        REPORT_HANDLERS_MAP.put("BATTERY", Iec61850BatteryReportHandler::new);
+        REPORT_HANDLERS_MAP.put("ENGINE", Iec61850EngineReportHandler::new);
+        REPORT_HANDLERS_MAP.put("LOAD", Iec61850LoadReportHandler::new);
+        REPORT_HANDLERS_MAP.put("LOAD_COMBINED", Iec61850CombinedLoadReportHandler::new);
+        REPORT_HANDLERS_MAP.put("CHP", Iec61850ChpReportHandler::new);
+        REPORT_HANDLERS_MAP.put("HEAT_BUFFER", Iec61850HeatBufferReportHandler::new);
+        REPORT_HANDLERS_MAP.put("GAS_FURNACE", Iec61850GasFurnaceReportHandler::new);
+        REPORT_HANDLERS_MAP.put("HEAT_PUMP", Iec61850HeatPumpReportHandler::new);
+        REPORT_HANDLERS_MAP.put("BOILER", Iec61850BoilerReportHandler::new);
+        REPORT_HANDLERS_MAP.put("WIND", Iec61850WindReportHandler::new);
+        REPORT_HANDLERS_MAP.put("PQ", Iec61850PqReportHandler::new);
     }
 
     public Iec61850ClientRTUEventListener(final String deviceIdentification,
-            final DeviceManagementService deviceManagementService, final ReportingService reportingService) {
+            final DeviceManagementService deviceManagementService, final ReportingService reportingService,
+            final Iec61850LastValueStore lastValueStore, final Iec61850ReportSequenceTracker sequenceTracker) {
         super(deviceIdentification, deviceManagementService, Iec61850ClientRTUEventListener.class);
         this.reportingService = reportingService;
+        this.lastValueStore = lastValueStore;
+        this.sequenceTracker = sequenceTracker;
     }
 
     private Iec61850ReportHandler getReportHandler(final String dataSetRef) {
+        return this.reportHandlers.computeIfAbsent(dataSetRef, this::createReportHandler).orElse(null);
+    }
+
+    private Optional<Iec61850ReportHandler> createReportHandler(final String dataSetRef) {
         final Matcher reportMatcher = REPORT_PATTERN.matcher(dataSetRef);
-        if (reportMatcher.matches()) {
-            String node = reportMatcher.group(2);
+        if (!reportMatcher.matches()) {
+            return Optional.empty();
+        }
+        String node = reportMatcher.group(2);
 
-            if ("LOAD".equals(node) && this.useCombinedLoad()) {
-                node += "_COMBINED";
-            }
+        if (LOAD_NODE.equals(node) && this.isUseCombinedLoad()) {
+            node += "_COMBINED";
+        }
 
-            final int systemId = Integer.parseInt(reportMatcher.group(3));
-            final Class<?> clazz = REPORT_HANDLERS_MAP.get(node);
-            try {
-                final Constructor<?> ctor = clazz.getConstructor(int.class);
-                return (Iec61850ReportHandler) ctor.newInstance(systemId);
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-                    | InvocationTargetException | NoSuchMethodException ex) {
-                this.logger.error("Unable to instantiate Iec61850ReportHandler ", ex);
-            }
+        final IntFunction<Iec61850ReportHandler> reportHandlerFactory = REPORT_HANDLERS_MAP.get(node);
+        if (reportHandlerFactory == null) {
+            this.logger.warn("No report handler for node {} of data set {} of device {}", node, dataSetRef,
+                    this.deviceIdentification);
+            return Optional.empty();
+        }
+        final int systemId = Integer.parseInt(reportMatcher.group(3));
+        return Optional.of(reportHandlerFactory.apply(systemId));
+    }
+
+    /**
+     * Sets whether LOAD data sets are handled as combined load, e.g. when the
+     * device has been read from the database again while enabling reporting.
+     * When it has changed, the handlers of LOAD data sets are created again.
+     */
+    public void setUseCombinedLoad(final boolean useCombinedLoad) {
+        final Boolean previous = this.useCombinedLoad;
+        this.useCombinedLoad = useCombinedLoad;
+        if (previous != null && previous != useCombinedLoad) {
+            this.reportHandlers.keySet().removeIf(dataSetRef -> {
+                final Matcher reportMatcher = REPORT_PATTERN.matcher(dataSetRef);
+                return reportMatcher.matches() && LOAD_NODE.equals(reportMatcher.group(2));
+            });
+        }
+    }
+
+    private boolean isUseCombinedLoad() {
+        Boolean current = this.useCombinedLoad;
+        if (current == null) {
+            current = this.readUseCombinedLoad();
+            this.useCombinedLoad = current;
         }
-        return null;
+        return current;
     }
 
-    private boolean useCombinedLoad() {
+    private boolean readUseCombinedLoad() {
         final Iec61850DeviceRepository repository = BeanUtil.getBean(Iec61850DeviceRepository.class);
         final Iec61850Device device = repository.findByDeviceIdentification(this.deviceIdentification);
         if (device != null) {
@@ -100,13 +154,14 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
 
     @Override
     public void newReport(final Report report) {
+        this.reportReceived();
 
         final DateTime timeOfEntry = report.getTimeOfEntry() == null ? null
                 : new DateTime(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET);
 
-        final String reportDescription = this.getReportDescription(report, timeOfEntry);
+        final ReportDescription reportDescription = this.getReportDescription(report, timeOfEntry);
 
-        this.logger.info("newReport for {}", reportDescription);
+        this.logger.debug("newReport for {}", reportDescription);
 
         if (Boolean.TRUE.equals(report.getBufOvfl())) {
             this.logger.warn("Buffer Overflow reported for {} - entries within the buffer may have been lost.",
@@ -119,9 +174,18 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
             return;
         }
 
-        this.logReportDetails(report);
+        final Iec61850ReportSequenceTracker.Result sequence = this.sequenceTracker.track(report,
+                System.currentTimeMillis());
+        if (!this.checkSequence(report, reportDescription, sequence)) {
+            return;
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logReportDetails(report);
+        }
         try {
-            this.processReport(report, reportDescription, reportHandler);
+            this.processReport(report, reportDescription, reportHandler,
+                    sequence != Iec61850ReportSequenceTracker.Result.OUT_OF_ORDER);
         } catch (final ProtocolAdapterException e) {
             this.logger.warn("Unable to process report, discarding report", e);
         } catch (final Exception e) {
@@ -130,15 +194,64 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
 
     }
 
-    private String getReportDescription(final Report report, final DateTime timeOfEntry) {
-        return String.format("device: %s, reportId: %s, timeOfEntry: %s, sqNum: %s%s%s", this.deviceIdentification,
-                report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry, report.getSqNum(),
-                report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
-                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : "");
+    private ReportDescription getReportDescription(final Report report, final DateTime timeOfEntry) {
+        return new ReportDescription(() -> String.format("device: %s, reportId: %s, timeOfEntry: %s, sqNum: %s%s%s",
+                this.deviceIdentification, report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry,
+                report.getSqNum(), report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
+                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : ""));
+    }
+
+    /**
+     * @return false if the report should not be processed.
+     */
+    private boolean checkSequence(final Report report, final ReportDescription reportDescription,
+            final Iec61850ReportSequenceTracker.Result sequence) {
+        switch (sequence) {
+        case DUPLICATE:
+            this.logger.info("Skipping duplicate report {}", reportDescription);
+            return false;
+        case RESYNC:
+            // The report is processed now, if the resync succeeds the copy
+            // sent again is skipped as duplicate.
+            this.resync(report, reportDescription);
+            return true;
+        case GAP:
+            this.logger.warn("Missed reports before {}", reportDescription);
+            return true;
+        case OUT_OF_ORDER:
+            this.logger.warn("Report received out of order {}", reportDescription);
+            return true;
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * Resyncs the buffered report from the last report entry stored before
+     * the missed reports, so the device sends the missed reports and this
+     * report again.
+     */
+    private void resync(final Report report, final ReportDescription reportDescription) {
+        final Iec61850ReportEntry reportEntry = this.reportingService.retrieveReportEntry(this.deviceIdentification,
+                report.getRptId());
+        if (reportEntry == null) {
+            this.logger.warn("Missed reports before {}, resync not possible, no last report entry found",
+                    reportDescription);
+            return;
+        }
+        this.logger.warn("Missed reports before {}, resync with last report entry: {}", reportDescription,
+                reportEntry);
+        BeanUtil.getBean(Iec61850RtuDeviceReportingService.class).resyncBufferedReport(this.deviceIdentification,
+                report.getRptId(), reportEntry.getEntryId());
     }
 
-    private void processReport(final Report report, final String reportDescription,
-            final Iec61850ReportHandler reportHandler) throws ProtocolAdapterException {
+    /**
+     * @param isLatestReport
+     *            false for a report older than the reports received before,
+     *            which is not stored as last report entry.
+     */
+    private void processReport(final Report report, final ReportDescription reportDescription,
+            final Iec61850ReportHandler reportHandler, final boolean isLatestReport) throws ProtocolAdapterException {
         final List<FcModelNode> dataSetMembers = report.getValues();
         if (CollectionUtils.isEmpty(dataSetMembers)) {
             this.logger.warn("No dataSet members available for {}", reportDescription);
@@ -148,6 +261,8 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
         final List<MeasurementDto> measurements = this.processMeasurements(reportHandler, reportDescription,
                 dataSetMembers);
 
+        this.storeLastValues(report, dataSetMembers);
+
         final GetDataSystemIdentifierDto systemResult = reportHandler.createResult(measurements);
         final List<GetDataSystemIdentifierDto> systems = new ArrayList<>();
         systems.add(systemResult);
@@ -159,11 +274,26 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
         this.deviceManagementService.sendMeasurements(this.deviceIdentification,
                 new GetDataResponseDto(systems, reportDto));
 
-        this.reportingService.storeLastReportEntry(report, this.deviceIdentification);
+        if (isLatestReport) {
+            this.reportingService.storeLastReportEntry(report, this.deviceIdentification);
+        }
+    }
+
+    /**
+     * Keeps the reported values, so GetData requests can use them instead of
+     * reading the device. A time of entry later than the current time, caused
+     * by a difference between the clocks, is not used.
+     */
+    private void storeLastValues(final Report report, final List<FcModelNode> dataSetMembers) {
+        long time = System.currentTimeMillis();
+        if (report.getTimeOfEntry() != null) {
+            time = Math.min(time, report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET);
+        }
+        this.lastValueStore.put(this.deviceIdentification, dataSetMembers, time);
     }
 
     private List<MeasurementDto> processMeasurements(final Iec61850ReportHandler reportHandler,
-            final String reportDescription, final List<FcModelNode> members) {
+            final ReportDescription reportDescription, final List<FcModelNode> members) {
         final List<MeasurementDto> measurements = new ArrayList<>();
         for (final FcModelNode member : members) {
             if (member == null) {
@@ -171,7 +301,7 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
                 continue;
             }
 
-            this.logger.info("Handle member {} for {}", member.getReference(), reportDescription);
+            this.logger.debug("Handle member {} for {}", member.getReference(), reportDescription);
             try {
                 final List<MeasurementDto> memberMeasurements = reportHandler
                         .handleMember(new ReadOnlyNodeContainer(this.deviceIdentification, member));
@@ -197,7 +327,7 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
         final List<FcModelNode> dataSetMembers = report.getValues();
         this.logDataSetMembersDetails(report, dataSetMembers, sb);
 
-        this.logger.info(sb.append(System.lineSeparator()).toString());
+        this.logger.debug(sb.append(System.lineSeparator()).toString());
     }
 
     private void logDataSetMembersDetails(final Report report, final List<FcModelNode> dataSetMembers,
@@ -219,6 +349,9 @@ public class Iec61850ClientRTUEventListener extends Iec61850ClientBaseEventListe
     public void associationClosed(final IOException e) {
         this.logger.info("associationClosed for device: {}, {}", this.deviceIdentification,
                 e == null ? "no IOException" : "IOException: " + e.getMessage());
+        // Values are no longer reported, do not use the last values any more.
+        this.lastValueStore.remove(this.deviceIdentification);
+        this.sequenceTracker.reset();
     }
 
 }
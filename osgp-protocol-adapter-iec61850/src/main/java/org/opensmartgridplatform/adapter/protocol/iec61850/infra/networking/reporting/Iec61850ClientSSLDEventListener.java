@@ -84,12 +84,13 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
 
     @Override
     public void newReport(final Report report) {
+        this.reportReceived();
 
         final DateTime timeOfEntry = this.getTimeOfEntry(report);
 
-        final String reportDescription = this.getReportDescription(report, timeOfEntry);
+        final ReportDescription reportDescription = this.getReportDescription(report, timeOfEntry);
 
-        this.logger.info("newReport for {}", reportDescription);
+        this.logger.debug("newReport for {}", reportDescription);
         boolean skipRecordBecauseOfOldSqNum = false;
 
         if (Boolean.TRUE.equals(report.getBufOvfl())) {
@@ -100,7 +101,9 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
         if (this.firstNewSqNum != null && report.getSqNum() != null && report.getSqNum() < this.firstNewSqNum) {
             skipRecordBecauseOfOldSqNum = true;
         }
-        this.logReportDetails(report);
+        if (this.logger.isDebugEnabled()) {
+            this.logReportDetails(report);
+        }
 
         final List<FcModelNode> dataSetMembers = report.getValues();
         if (CollectionUtils.isEmpty(dataSetMembers)) {
@@ -114,7 +117,7 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
                 this.logger.warn("Member == null in DataSet for {}", reportDescription);
                 continue;
             }
-            this.logger.info("Handle member {} for {}", member.getReference(), reportDescription);
+            this.logger.debug("Handle member {} for {}", member.getReference(), reportDescription);
             try {
                 if (skipRecordBecauseOfOldSqNum) {
                     this.logger.warn(
@@ -135,15 +138,15 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
                 : new DateTime(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET);
     }
 
-    private String getReportDescription(final Report report, final DateTime timeOfEntry) {
-        return String.format("device: %s, reportId: %s, timeOfEntry: %s, sqNum: %s%s%s", this.deviceIdentification,
-                report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry, report.getSqNum(),
-                report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
-                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : "");
+    private ReportDescription getReportDescription(final Report report, final DateTime timeOfEntry) {
+        return new ReportDescription(() -> String.format("device: %s, reportId: %s, timeOfEntry: %s, sqNum: %s%s%s",
+                this.deviceIdentification, report.getRptId(), timeOfEntry == null ? "-" : timeOfEntry,
+                report.getSqNum(), report.getSubSqNum() == null ? "" : " subSqNum: " + report.getSubSqNum(),
+                report.isMoreSegmentsFollow() ? " (more segments follow for this sqNum)" : ""));
     }
 
     private void addEventNotificationForReportedData(final FcModelNode evnRpn, final DateTime timeOfEntry,
-            final String reportDescription) throws ProtocolAdapterException {
+            final ReportDescription reportDescription) throws ProtocolAdapterException {
 
         final EventTypeDto eventType = this.determineEventType(evnRpn, reportDescription);
         final Integer index = this.determineRelayIndex(evnRpn, reportDescription);
@@ -157,7 +160,7 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
         }
     }
 
-    private EventTypeDto determineEventType(final FcModelNode evnRpn, final String reportDescription) {
+    private EventTypeDto determineEventType(final FcModelNode evnRpn, final ReportDescription reportDescription) {
 
         final BdaInt8U evnTypeNode = (BdaInt8U) evnRpn.getChild(EVENT_NODE_EVENT_TYPE);
         if (evnTypeNode == null) {
@@ -170,7 +173,7 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
         return eventType.getOsgpEventType();
     }
 
-    private Integer determineRelayIndex(final FcModelNode evnRpn, final String reportDescription)
+    private Integer determineRelayIndex(final FcModelNode evnRpn, final ReportDescription reportDescription)
             throws ProtocolAdapterException {
 
         final BdaInt8U swNumNode = (BdaInt8U) evnRpn.getChild(EVENT_NODE_SWITCH_NUMBER);
@@ -257,7 +260,7 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
     }
 
     private IllegalArgumentException childNodeNotAvailableException(final FcModelNode evnRpn,
-            final String childNodeName, final String reportDescription) {
+            final String childNodeName, final ReportDescription reportDescription) {
         return new IllegalArgumentException("No '" + childNodeName + "' child in DataSet member "
                 + evnRpn.getReference() + " from " + reportDescription);
     }
@@ -270,7 +273,7 @@ public class Iec61850ClientSSLDEventListener extends Iec61850ClientBaseEventList
         final List<FcModelNode> dataSetMembers = report.getValues();
         this.logDataSetMembersDetails(report, dataSetMembers, sb);
 
-        this.logger.info(sb.append(System.lineSeparator()).toString());
+        this.logger.debug(sb.append(System.lineSeparator()).toString());
     }
 
     private void logDataSetMembersDetails(final Report report, final List<FcModelNode> dataSetMembers,
@@ -0,0 +1,366 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.openmuc.openiec61850.ClientEventListener;
+import org.openmuc.openiec61850.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes the reports of devices on a shared pool of threads, instead of on
+ * the thread receiving the MMS messages of the association. Parsing reports,
+ * storing report entries and sending the results can therefore not stall the
+ * communication with the device.
+ * <p>
+ * Reports of a device are processed one at a time, in the order they were
+ * received, while reports of different devices are processed in parallel. The
+ * number of reports waiting per device is limited. When the limit is reached
+ * the configured {@link OverflowPolicy} applies. The notification that the
+ * association has been closed is never discarded, and is processed after the
+ * reports received before it.
+ */
+@Component
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=ReportDispatcher",
+        description = "Queues and processing of the reports received from IEC61850 devices")
+public class Iec61850ReportDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ReportDispatcher.class);
+
+    /**
+     * What to do with a report when the queue of its device is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until there is room in the queue. The device is slowed down,
+         * as no MMS messages are received while waiting, but no reports are
+         * lost.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest waiting report.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the received report.
+         */
+        DROP_NEWEST
+    }
+
+    @Autowired
+    private TaskExecutor iec61850ReportTaskExecutor;
+
+    @Autowired
+    private Iec61850ReportTrace iec61850ReportTrace;
+
+    @Autowired
+    private int reportQueueCapacity;
+
+    @Autowired
+    private String reportQueueOverflowPolicy;
+
+    private OverflowPolicy overflowPolicy;
+
+    private final ConcurrentHashMap<String, DeviceQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicLong processedReports = new AtomicLong();
+    private final AtomicLong droppedReports = new AtomicLong();
+    private final AtomicLong processingTime = new AtomicLong();
+    private final AtomicLong maxProcessingTime = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        try {
+            this.overflowPolicy = OverflowPolicy.valueOf(this.reportQueueOverflowPolicy.trim());
+        } catch (final IllegalArgumentException e) {
+            LOGGER.warn("Unknown report queue overflow policy: {}, using {}", this.reportQueueOverflowPolicy,
+                    OverflowPolicy.BLOCK, e);
+            this.overflowPolicy = OverflowPolicy.BLOCK;
+        }
+        LOGGER.info("Processing reports with a queue capacity of {} per device, overflow policy: {}",
+                this.reportQueueCapacity, this.overflowPolicy);
+    }
+
+    /**
+     * Wraps the listener of a device, so the reports for the listener are
+     * processed by this dispatcher.
+     *
+     * @return The listener to pass to the association, or null if the given
+     *         listener is null.
+     */
+    public ClientEventListener decorate(final String deviceIdentification, final ClientEventListener listener) {
+        if (listener == null) {
+            return null;
+        }
+        return new ClientEventListener() {
+
+            @Override
+            public void newReport(final Report report) {
+                Iec61850ReportDispatcher.this.iec61850ReportTrace.add(deviceIdentification, report);
+                Iec61850ReportDispatcher.this.dispatch(deviceIdentification, () -> listener.newReport(report), true);
+            }
+
+            @Override
+            public void associationClosed(final IOException e) {
+                Iec61850ReportDispatcher.this.iec61850ReportTrace.clear(deviceIdentification);
+                Iec61850ReportDispatcher.this.dispatch(deviceIdentification, () -> listener.associationClosed(e),
+                        false);
+            }
+        };
+    }
+
+    private void dispatch(final String deviceIdentification, final Runnable task, final boolean isReport) {
+        try {
+            // A queue that has just been released does not accept tasks, in
+            // that case the task is added to a new queue.
+            while (!this.queues.computeIfAbsent(deviceIdentification, DeviceQueue::new).add(task, isReport)) {
+                LOGGER.debug("Report queue of device: {} released, retrying", deviceIdentification);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.droppedReports.incrementAndGet();
+            LOGGER.warn("Interrupted while waiting for room in the report queue of device: {}, report discarded",
+                    deviceIdentification);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Unable to process report of device: {}, executor shut down", deviceIdentification, e);
+        }
+    }
+
+    /**
+     * @return The number of reports waiting for the device.
+     */
+    @ManagedOperation(description = "Number of reports waiting for the device")
+    @ManagedOperationParameter(name = "deviceIdentification", description = "The device identification")
+    public int getQueueSize(final String deviceIdentification) {
+        final DeviceQueue queue = this.queues.get(deviceIdentification);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * @return The number of reports waiting for all devices.
+     */
+    @ManagedAttribute(description = "Number of reports waiting for all devices")
+    public int getQueueSize() {
+        return this.queues.values().stream().mapToInt(DeviceQueue::size).sum();
+    }
+
+    /**
+     * @return The number of processed reports and association closed
+     *         notifications.
+     */
+    @ManagedAttribute(description = "Number of processed reports and association closed notifications")
+    public long getProcessedReports() {
+        return this.processedReports.get();
+    }
+
+    /**
+     * @return The number of reports discarded because of a full queue.
+     */
+    @ManagedAttribute(description = "Number of reports discarded because of a full queue")
+    public long getDroppedReports() {
+        return this.droppedReports.get();
+    }
+
+    /**
+     * @return The total time in milliseconds spent on processing.
+     */
+    @ManagedAttribute(description = "Total time in milliseconds spent on processing")
+    public long getProcessingTime() {
+        return this.processingTime.get();
+    }
+
+    /**
+     * @return The longest time in milliseconds spent on processing a single
+     *         report.
+     */
+    @ManagedAttribute(description = "Longest time in milliseconds spent on processing a single report")
+    public long getMaxProcessingTime() {
+        return this.maxProcessingTime.get();
+    }
+
+    private void process(final String deviceIdentification, final Runnable task) {
+        final long startTime = System.currentTimeMillis();
+        try {
+            task.run();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Exception while processing report of device: {}", deviceIdentification, e);
+        } finally {
+            final long duration = System.currentTimeMillis() - startTime;
+            this.processedReports.incrementAndGet();
+            this.processingTime.addAndGet(duration);
+            this.maxProcessingTime.accumulateAndGet(duration, Math::max);
+        }
+    }
+
+    private void releaseIfIdle(final String deviceIdentification) {
+        this.queues.computeIfPresent(deviceIdentification,
+                (key, deviceQueue) -> deviceQueue.release() ? null : deviceQueue);
+    }
+
+    /**
+     * Bounded queue of the tasks of a device, run one at a time on the shared
+     * executor.
+     */
+    private class DeviceQueue {
+        private final String deviceIdentification;
+
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        private int waitingReports;
+
+        private boolean active;
+
+        private boolean released;
+
+        DeviceQueue(final String deviceIdentification) {
+            this.deviceIdentification = deviceIdentification;
+        }
+
+        /**
+         * @return false if the queue has been released, and does not accept
+         *         tasks anymore.
+         */
+        synchronized boolean add(final Runnable task, final boolean isReport) throws InterruptedException {
+            if (this.released) {
+                return false;
+            }
+            if (isReport && !this.makeRoom()) {
+                return true;
+            }
+            this.tasks.add(isReport ? new ReportTask(task) : task);
+            if (isReport) {
+                this.waitingReports++;
+            }
+            if (!this.active) {
+                this.scheduleNext();
+            }
+            return true;
+        }
+
+        /**
+         * @return false if the report has to be discarded.
+         */
+        private boolean makeRoom() throws InterruptedException {
+            if (this.waitingReports < Iec61850ReportDispatcher.this.reportQueueCapacity) {
+                return true;
+            }
+            Iec61850ReportDispatcher.this.droppedReports.incrementAndGet();
+            switch (Iec61850ReportDispatcher.this.overflowPolicy) {
+            case DROP_NEWEST:
+                LOGGER.warn("Report queue of device: {} is full, discarding received report",
+                        this.deviceIdentification);
+                return false;
+            case DROP_OLDEST:
+                LOGGER.warn("Report queue of device: {} is full, discarding oldest report", this.deviceIdentification);
+                this.removeOldestReport();
+                return true;
+            default:
+                // Not dropped after all.
+                Iec61850ReportDispatcher.this.droppedReports.decrementAndGet();
+                LOGGER.warn("Report queue of device: {} is full, waiting for room", this.deviceIdentification);
+                while (this.waitingReports >= Iec61850ReportDispatcher.this.reportQueueCapacity) {
+                    this.wait();
+                }
+                return true;
+            }
+        }
+
+        private void removeOldestReport() {
+            for (final Runnable task : this.tasks) {
+                if (task instanceof ReportTask) {
+                    this.tasks.remove(task);
+                    this.waitingReports--;
+                    return;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return this.tasks.size();
+        }
+
+        /**
+         * @return true if the queue is idle, and has been released.
+         */
+        synchronized boolean release() {
+            this.released = !this.active && this.tasks.isEmpty();
+            return this.released;
+        }
+
+        private void run(final Runnable task) {
+            try {
+                Iec61850ReportDispatcher.this.process(this.deviceIdentification, task);
+            } finally {
+                final boolean idle;
+                synchronized (this) {
+                    this.scheduleNext();
+                    idle = !this.active;
+                }
+                if (idle) {
+                    Iec61850ReportDispatcher.this.releaseIfIdle(this.deviceIdentification);
+                }
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            final Runnable task = this.tasks.poll();
+            this.active = task != null;
+            if (task == null) {
+                return;
+            }
+            if (task instanceof ReportTask) {
+                this.waitingReports--;
+                this.notifyAll();
+            }
+            try {
+                Iec61850ReportDispatcher.this.iec61850ReportTaskExecutor.execute(() -> this.run(task));
+            } catch (final RejectedExecutionException e) {
+                // The executor is shutting down, none of the queued tasks
+                // will run.
+                this.active = false;
+                this.tasks.clear();
+                this.waitingReports = 0;
+                this.notifyAll();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Marks a task processing a report, as opposed to other notifications,
+     * which are never discarded.
+     */
+    private static class ReportTask implements Runnable {
+        private final Runnable task;
+
+        ReportTask(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            this.task.run();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the irregularities in the report sequences of all devices, as
+ * detected by {@link Iec61850ReportSequenceTracker}.
+ */
+@Component
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=ReportSequenceStatistics",
+        description = "Gaps, duplicates and overflows in the reports received from IEC61850 devices")
+public class Iec61850ReportSequenceStatistics {
+
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong missedReports = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong outOfOrderReports = new AtomicLong();
+    private final AtomicLong wraparounds = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    void gap(final int missed) {
+        this.gaps.incrementAndGet();
+        this.missedReports.addAndGet(missed);
+    }
+
+    void duplicate() {
+        this.duplicates.incrementAndGet();
+    }
+
+    void outOfOrder() {
+        this.outOfOrderReports.incrementAndGet();
+    }
+
+    void wraparound() {
+        this.wraparounds.incrementAndGet();
+    }
+
+    void overflow() {
+        this.overflows.incrementAndGet();
+    }
+
+    void resync() {
+        this.resyncs.incrementAndGet();
+    }
+
+    /**
+     * @return The number of times one or more reports were missed.
+     */
+    @ManagedAttribute(description = "Number of times one or more reports were missed")
+    public long getGaps() {
+        return this.gaps.get();
+    }
+
+    /**
+     * @return The number of missed reports, according to the sequence
+     *         numbers.
+     */
+    @ManagedAttribute(description = "Number of missed reports")
+    public long getMissedReports() {
+        return this.missedReports.get();
+    }
+
+    /**
+     * @return The number of reports received more than once.
+     */
+    @ManagedAttribute(description = "Number of reports received more than once")
+    public long getDuplicates() {
+        return this.duplicates.get();
+    }
+
+    /**
+     * @return The number of reports older than the report received before.
+     */
+    @ManagedAttribute(description = "Number of reports older than the report received before")
+    public long getOutOfOrderReports() {
+        return this.outOfOrderReports.get();
+    }
+
+    /**
+     * @return The number of times a sequence number wrapped around to 0.
+     */
+    @ManagedAttribute(description = "Number of times a sequence number wrapped around to 0")
+    public long getWraparounds() {
+        return this.wraparounds.get();
+    }
+
+    /**
+     * @return The number of reports indicating that the buffer of the device
+     *         overflowed.
+     */
+    @ManagedAttribute(description = "Number of reports indicating a buffer overflow on the device")
+    public long getOverflows() {
+        return this.overflows.get();
+    }
+
+    /**
+     * @return The number of resyncs started because of missed buffered
+     *         reports.
+     */
+    @ManagedAttribute(description = "Number of resyncs started because of missed buffered reports")
+    public long getResyncs() {
+        return this.resyncs.get();
+    }
+}
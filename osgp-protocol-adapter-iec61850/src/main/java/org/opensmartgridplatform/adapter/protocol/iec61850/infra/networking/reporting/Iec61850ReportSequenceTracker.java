@@ -0,0 +1,214 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.openmuc.openiec61850.HexConverter;
+import org.openmuc.openiec61850.Report;
+
+/**
+ * Follows the sequence numbers of the reports of each report control block of
+ * a device, to detect missed and duplicate reports.
+ * <p>
+ * Sequence numbers of buffered reports are 16 bit and those of unbuffered
+ * reports 8 bit unsigned integers, which wrap around to 0 after their maximum
+ * value. A sequence number more than one ahead of the previous one means
+ * reports have been missed, for buffered reports the missed reports can be
+ * sent again by resyncing the report control block. A sequence number behind
+ * the previous one is a report that arrives out of order, unless its EntryID
+ * has been seen before, in which case it is a duplicate, e.g. sent again
+ * after a resync.
+ * <p>
+ * Only the EntryID of the last report is kept, except after a resync: from
+ * the report that started the resync, the EntryIDs of the reports received
+ * are kept until the report received last is sent again, or until the
+ * minimum time between resyncs has passed.
+ */
+public class Iec61850ReportSequenceTracker {
+
+    private static final int BUFFERED_SQ_NUM_MODULUS = 65536;
+    private static final int UNBUFFERED_SQ_NUM_MODULUS = 256;
+
+    public enum Result {
+        /**
+         * The report follows the previous report, or is the first report.
+         */
+        IN_SEQUENCE,
+        /**
+         * Reports before this report have been missed.
+         */
+        GAP,
+        /**
+         * Buffered reports before this report have been missed, and the
+         * report control block should be resynced, so they are sent again.
+         * This report will be sent again as well, and is then recognized as
+         * {@link #DUPLICATE}.
+         */
+        RESYNC,
+        /**
+         * The report has been received before.
+         */
+        DUPLICATE,
+        /**
+         * The report is older than the previous report.
+         */
+        OUT_OF_ORDER
+    }
+
+    private static class RcbState {
+        private Integer lastSqNum;
+        private Integer lastSubSqNum;
+        private long nextResyncTime;
+        private String lastEntryId;
+        /**
+         * EntryIDs received since the last resync, null when the reports sent
+         * again after the resync have all been received.
+         */
+        private Set<String> entryIdsSinceResync;
+
+        void accept(final Integer sqNum, final Integer subSqNum) {
+            this.lastSqNum = sqNum;
+            this.lastSubSqNum = subSqNum;
+        }
+
+        boolean isDuplicate(final String entryId, final long now) {
+            if (this.entryIdsSinceResync != null && now >= this.nextResyncTime) {
+                this.entryIdsSinceResync = null;
+            }
+            if (entryId.equals(this.lastEntryId)) {
+                // The reports sent again have caught up.
+                this.entryIdsSinceResync = null;
+                return true;
+            }
+            return this.entryIdsSinceResync != null && this.entryIdsSinceResync.contains(entryId);
+        }
+
+        void remember(final String entryId, final Result result) {
+            if (result == Result.RESYNC) {
+                this.entryIdsSinceResync = new HashSet<>();
+            }
+            if (this.entryIdsSinceResync != null) {
+                this.entryIdsSinceResync.add(entryId);
+            }
+            if (result != Result.OUT_OF_ORDER) {
+                this.lastEntryId = entryId;
+            }
+        }
+    }
+
+    private final long resyncMinInterval;
+
+    private final Iec61850ReportSequenceStatistics statistics;
+
+    private final Map<String, RcbState> states = new HashMap<>();
+
+    /**
+     * @param resyncMinInterval
+     *            The minimum time in milliseconds between resyncs of a report
+     *            control block. Gaps detected within this time after a resync
+     *            are reported as {@link Result#GAP}.
+     * @param statistics
+     *            The counters updated for every tracked report.
+     */
+    public Iec61850ReportSequenceTracker(final long resyncMinInterval,
+            final Iec61850ReportSequenceStatistics statistics) {
+        this.resyncMinInterval = resyncMinInterval;
+        this.statistics = statistics;
+    }
+
+    public Result track(final Report report, final long now) {
+        final String entryId = report.getEntryId() == null ? null
+                : HexConverter.toHexString(report.getEntryId().getValue());
+        return this.track(report.getRptId(), report.getSqNum(), report.getSubSqNum(), entryId, report.getBufOvfl(),
+                now);
+    }
+
+    /**
+     * Determines how the report relates to the reports received before with
+     * the same report ID.
+     *
+     * @param entryId
+     *            The EntryID of a buffered report, or null for an unbuffered
+     *            report.
+     */
+    public synchronized Result track(final String reportId, final Integer sqNum, final Integer subSqNum,
+            final String entryId, final Boolean bufOvfl, final long now) {
+        if (Boolean.TRUE.equals(bufOvfl)) {
+            this.statistics.overflow();
+        }
+
+        final RcbState state = this.states.computeIfAbsent(reportId, key -> new RcbState());
+        if (entryId != null && state.isDuplicate(entryId, now)) {
+            this.statistics.duplicate();
+            return Result.DUPLICATE;
+        }
+
+        final Result result = this.determineResult(state, sqNum, subSqNum, entryId, now);
+        if (entryId != null && result != Result.DUPLICATE) {
+            state.remember(entryId, result);
+        }
+        return result;
+    }
+
+    private Result determineResult(final RcbState state, final Integer sqNum, final Integer subSqNum,
+            final String entryId, final long now) {
+        if (sqNum == null || state.lastSqNum == null) {
+            state.accept(sqNum, subSqNum);
+            return Result.IN_SEQUENCE;
+        }
+
+        final int modulus = entryId == null ? UNBUFFERED_SQ_NUM_MODULUS : BUFFERED_SQ_NUM_MODULUS;
+        final int distance = Math.floorMod(sqNum - state.lastSqNum, modulus);
+
+        if (distance == 0) {
+            // Segments of a report share the sequence number.
+            if (subSqNum != null && (state.lastSubSqNum == null || subSqNum > state.lastSubSqNum)) {
+                state.accept(sqNum, subSqNum);
+                return Result.IN_SEQUENCE;
+            }
+            this.statistics.duplicate();
+            return Result.DUPLICATE;
+        }
+
+        if (distance == 1) {
+            if (sqNum < state.lastSqNum) {
+                this.statistics.wraparound();
+            }
+            state.accept(sqNum, subSqNum);
+            return Result.IN_SEQUENCE;
+        }
+
+        if (distance < modulus / 2) {
+            this.statistics.gap(distance - 1);
+            if (entryId != null && now >= state.nextResyncTime) {
+                // The reports after the resync start a new sequence.
+                state.nextResyncTime = now + this.resyncMinInterval;
+                state.accept(null, null);
+                this.statistics.resync();
+                return Result.RESYNC;
+            }
+            state.accept(sqNum, subSqNum);
+            return Result.GAP;
+        }
+
+        this.statistics.outOfOrder();
+        return Result.OUT_OF_ORDER;
+    }
+
+    /**
+     * Forgets the sequences of all report control blocks, e.g. when the
+     * association has been closed.
+     */
+    public synchronized void reset() {
+        this.states.clear();
+    }
+}
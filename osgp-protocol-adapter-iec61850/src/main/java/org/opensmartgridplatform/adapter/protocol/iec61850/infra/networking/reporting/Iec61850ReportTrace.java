@@ -0,0 +1,488 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.joda.time.DateTime;
+import org.openmuc.openiec61850.BasicDataAttribute;
+import org.openmuc.openiec61850.BdaBitString;
+import org.openmuc.openiec61850.BdaBoolean;
+import org.openmuc.openiec61850.BdaEntryTime;
+import org.openmuc.openiec61850.BdaFloat32;
+import org.openmuc.openiec61850.BdaFloat64;
+import org.openmuc.openiec61850.BdaInt16;
+import org.openmuc.openiec61850.BdaInt16U;
+import org.openmuc.openiec61850.BdaInt32;
+import org.openmuc.openiec61850.BdaInt32U;
+import org.openmuc.openiec61850.BdaInt64;
+import org.openmuc.openiec61850.BdaInt8;
+import org.openmuc.openiec61850.BdaInt8U;
+import org.openmuc.openiec61850.BdaOctetString;
+import org.openmuc.openiec61850.BdaReasonForInclusion;
+import org.openmuc.openiec61850.BdaTimestamp;
+import org.openmuc.openiec61850.BdaUnicodeString;
+import org.openmuc.openiec61850.BdaVisibleString;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.HexConverter;
+import org.openmuc.openiec61850.Report;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the last reports received from each device, so the details of recent
+ * reports can be inspected over JMX without logging every report.
+ * <p>
+ * The header fields and data set member values of a report are kept as a
+ * compact binary record, per device in a ring buffer of the configured size,
+ * instead of the {@link Report} itself, which references the nodes of the
+ * data set. Formatting only takes place when the trace is requested. The trace
+ * of a device is removed when its association is closed. A size of 0 disables
+ * the trace.
+ */
+@Component
+@ManagedResource(objectName = "org.opensmartgridplatform.adapter.protocol.iec61850:name=ReportTrace",
+        description = "Last reports received from IEC61850 devices")
+public class Iec61850ReportTrace {
+
+    /**
+     * The EntryTime from IEC61850 has timestamp values relative to 01-01-1984.
+     */
+    private static final long IEC61850_ENTRY_TIME_OFFSET = 441763200000L;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_BOOLEAN = 1;
+    private static final byte VALUE_INTEGER = 2;
+    private static final byte VALUE_FLOAT = 3;
+    private static final byte VALUE_TIMESTAMP = 4;
+    private static final byte VALUE_STRING = 5;
+    private static final byte VALUE_BYTES = 6;
+    private static final byte VALUE_OTHER = 7;
+
+    @Autowired
+    private int reportTraceSize;
+
+    private final ConcurrentHashMap<String, RingBuffer> traces = new ConcurrentHashMap<>();
+
+    private static class RingBuffer {
+        private final byte[][] records;
+        private int next;
+        private int count;
+
+        RingBuffer(final int size) {
+            this.records = new byte[size][];
+        }
+
+        synchronized void add(final byte[] record) {
+            this.records[this.next] = record;
+            this.next = (this.next + 1) % this.records.length;
+            this.count = Math.min(this.count + 1, this.records.length);
+        }
+
+        synchronized void appendTo(final StringBuilder sb) {
+            final int first = (this.next - this.count + this.records.length) % this.records.length;
+            for (int i = 0; i < this.count; i++) {
+                appendRecord(sb, this.records[(first + i) % this.records.length]);
+                sb.append(System.lineSeparator());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.reportTraceSize > 0;
+    }
+
+    /**
+     * Adds a received report to the trace of the device, replacing the oldest
+     * report when the trace is full.
+     */
+    public void add(final String deviceIdentification, final Report report) {
+        if (!this.isEnabled()) {
+            return;
+        }
+        final byte[] record = encode(System.currentTimeMillis(), report);
+        this.traces.computeIfAbsent(deviceIdentification, key -> new RingBuffer(this.reportTraceSize)).add(record);
+    }
+
+    @ManagedOperation(description = "Returns the details of the last reports received from the device")
+    public String getReportTrace(final String deviceIdentification) {
+        final RingBuffer trace = this.traces.get(deviceIdentification);
+        if (trace == null) {
+            return "No reports received from device " + deviceIdentification;
+        }
+        final StringBuilder sb = new StringBuilder("Last reports for device ").append(deviceIdentification)
+                .append(System.lineSeparator());
+        trace.appendTo(sb);
+        return sb.toString();
+    }
+
+    @ManagedAttribute(description = "Devices of which reports have been received")
+    public String[] getTracedDevices() {
+        return this.traces.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Removes the reports received from the device, e.g. when its association
+     * has been closed.
+     */
+    @ManagedOperation(description = "Removes the reports received from the device")
+    public void clear(final String deviceIdentification) {
+        this.traces.remove(deviceIdentification);
+    }
+
+    private static byte[] encode(final long receivedTime, final Report report) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(receivedTime);
+            writeNullableString(report.getRptId(), out);
+            writeNullableString(report.getDataSetRef(), out);
+            writeNullableLong(report.getConfRev(), out);
+            writeNullableLong(report.getBufOvfl() == null ? null : (report.getBufOvfl() ? 1L : 0L), out);
+            writeNullableBytes(report.getEntryId() == null ? null : report.getEntryId().getValue(), out);
+            writeNullableBytes(toBytes(report.getInclusionBitString()), out);
+            out.writeBoolean(report.isMoreSegmentsFollow());
+            writeNullableLong(report.getSqNum() == null ? null : report.getSqNum().longValue(), out);
+            writeNullableLong(report.getSubSqNum() == null ? null : report.getSubSqNum().longValue(), out);
+            writeNullableLong(report.getTimeOfEntry() == null ? null : report.getTimeOfEntry().getTimestampValue(),
+                    out);
+            writeReasonCodes(report.getReasonCodes(), out);
+            writeDataSetMembers(report.getValues(), out);
+        } catch (final IOException e) {
+            // Not thrown when writing to a byte array.
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeReasonCodes(final List<BdaReasonForInclusion> reasonCodes, final DataOutputStream out)
+            throws IOException {
+        out.writeInt(reasonCodes == null ? 0 : reasonCodes.size());
+        if (reasonCodes == null) {
+            return;
+        }
+        for (final BdaReasonForInclusion reasonCode : reasonCodes) {
+            writeNullableString(reasonCode.getReference() == null ? null : reasonCode.getReference().toString(), out);
+            writeNullableBytes(reasonCode.getValue(), out);
+        }
+    }
+
+    private static void writeDataSetMembers(final List<FcModelNode> dataSetMembers, final DataOutputStream out)
+            throws IOException {
+        out.writeInt(dataSetMembers == null ? -1 : dataSetMembers.size());
+        if (dataSetMembers == null) {
+            return;
+        }
+        for (final FcModelNode member : dataSetMembers) {
+            if (member == null) {
+                writeNullableString(null, out);
+                continue;
+            }
+            final String memberReference = member.getReference().toString();
+            writeNullableString(memberReference, out);
+            final List<BasicDataAttribute> attributes = member.getBasicDataAttributes();
+            out.writeInt(attributes.size());
+            for (final BasicDataAttribute attribute : attributes) {
+                final String reference = attribute.getReference().toString();
+                out.writeUTF(reference.startsWith(memberReference) ? reference.substring(memberReference.length())
+                        : reference);
+                writeValue(attribute, out);
+            }
+        }
+    }
+
+    private static void writeValue(final BasicDataAttribute attribute, final DataOutputStream out)
+            throws IOException {
+        switch (attribute.getBasicType()) {
+        case BOOLEAN:
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean(((BdaBoolean) attribute).getValue());
+            break;
+        case INT8:
+            writeInteger(((BdaInt8) attribute).getValue(), out);
+            break;
+        case INT16:
+            writeInteger(((BdaInt16) attribute).getValue(), out);
+            break;
+        case INT32:
+            writeInteger(((BdaInt32) attribute).getValue(), out);
+            break;
+        case INT64:
+            writeInteger(((BdaInt64) attribute).getValue(), out);
+            break;
+        case INT8U:
+            writeInteger(((BdaInt8U) attribute).getValue(), out);
+            break;
+        case INT16U:
+            writeInteger(((BdaInt16U) attribute).getValue(), out);
+            break;
+        case INT32U:
+            writeInteger(((BdaInt32U) attribute).getValue(), out);
+            break;
+        case FLOAT32:
+            writeFloat(((BdaFloat32) attribute).getFloat(), out);
+            break;
+        case FLOAT64:
+            writeFloat(((BdaFloat64) attribute).getDouble(), out);
+            break;
+        case TIMESTAMP:
+            final Date date = ((BdaTimestamp) attribute).getDate();
+            if (date == null) {
+                out.writeByte(VALUE_NULL);
+            } else {
+                out.writeByte(VALUE_TIMESTAMP);
+                out.writeLong(date.getTime());
+            }
+            break;
+        case VISIBLE_STRING:
+            writeBytes(VALUE_STRING, ((BdaVisibleString) attribute).getValue(), out);
+            break;
+        case UNICODE_STRING:
+            writeBytes(VALUE_STRING, ((BdaUnicodeString) attribute).getValue(), out);
+            break;
+        case OCTET_STRING:
+            writeBytes(VALUE_BYTES, ((BdaOctetString) attribute).getValue(), out);
+            break;
+        case ENTRY_TIME:
+            writeBytes(VALUE_BYTES, ((BdaEntryTime) attribute).getValue(), out);
+            break;
+        default:
+            if (attribute instanceof BdaBitString) {
+                writeBytes(VALUE_BYTES, ((BdaBitString) attribute).getValue(), out);
+            } else {
+                out.writeByte(VALUE_OTHER);
+                out.writeUTF(String.valueOf(attribute));
+            }
+            break;
+        }
+    }
+
+    private static void writeInteger(final long value, final DataOutputStream out) throws IOException {
+        out.writeByte(VALUE_INTEGER);
+        out.writeLong(value);
+    }
+
+    private static void writeFloat(final Number value, final DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+            return;
+        }
+        out.writeByte(VALUE_FLOAT);
+        out.writeDouble(value.doubleValue());
+    }
+
+    private static void writeBytes(final byte type, final byte[] value, final DataOutputStream out)
+            throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+            return;
+        }
+        out.writeByte(type);
+        writeNullableBytes(value, out);
+    }
+
+    private static void writeNullableString(final String value, final DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeNullableLong(final Long value, final DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeNullableBytes(final byte[] value, final DataOutputStream out) throws IOException {
+        out.writeInt(value == null ? -1 : value.length);
+        if (value != null) {
+            out.write(value);
+        }
+    }
+
+    private static byte[] toBytes(final boolean[] bits) {
+        if (bits == null) {
+            return null;
+        }
+        final byte[] bytes = new byte[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            bytes[i] = (byte) (bits[i] ? 1 : 0);
+        }
+        return bytes;
+    }
+
+    private static void appendRecord(final StringBuilder sb, final byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            sb.append("Received: ").append(new DateTime(in.readLong())).append(System.lineSeparator());
+            sb.append("\t             RptId:\t").append(readNullableString(in)).append(System.lineSeparator());
+            sb.append("\t        DataSetRef:\t").append(readNullableString(in)).append(System.lineSeparator());
+            sb.append("\t           ConfRev:\t").append(readNullableLong(in)).append(System.lineSeparator());
+            final Long bufOvfl = readNullableLong(in);
+            sb.append("\t           BufOvfl:\t").append(bufOvfl == null ? null : bufOvfl == 1L)
+                    .append(System.lineSeparator());
+            final byte[] entryId = readNullableBytes(in);
+            sb.append("\t           EntryId:\t").append(entryId == null ? null : HexConverter.toHexString(entryId))
+                    .append(System.lineSeparator());
+            final byte[] inclusionBitString = readNullableBytes(in);
+            sb.append("\tInclusionBitString:\t").append(Arrays.toString(inclusionBitString))
+                    .append(System.lineSeparator());
+            sb.append("\tMoreSegmentsFollow:\t").append(in.readBoolean()).append(System.lineSeparator());
+            sb.append("\t             SqNum:\t").append(readNullableLong(in)).append(System.lineSeparator());
+            sb.append("\t          SubSqNum:\t").append(readNullableLong(in)).append(System.lineSeparator());
+            final Long timeOfEntry = readNullableLong(in);
+            sb.append("\t       TimeOfEntry:\t")
+                    .append(timeOfEntry == null ? null : new DateTime(timeOfEntry + IEC61850_ENTRY_TIME_OFFSET))
+                    .append(System.lineSeparator());
+            appendReasonCodes(sb, in);
+            appendDataSetMembers(sb, in);
+        } catch (final IOException e) {
+            sb.append("\tUnable to read trace record: ").append(e.getMessage()).append(System.lineSeparator());
+        }
+    }
+
+    private static void appendReasonCodes(final StringBuilder sb, final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count == 0) {
+            return;
+        }
+        sb.append("\t       ReasonCodes:").append(System.lineSeparator());
+        for (int i = 0; i < count; i++) {
+            final String reference = readNullableString(in);
+            final byte[] value = readNullableBytes(in);
+            sb.append("\t                   \t").append(reference == null ? "" : reference + ": ")
+                    .append(value == null ? null : HexConverter.toHexString(value)).append(System.lineSeparator());
+        }
+    }
+
+    private static void appendDataSetMembers(final StringBuilder sb, final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            sb.append("\t   DataSet members:\tnull").append(System.lineSeparator());
+            return;
+        }
+        sb.append("\t   DataSet members:\t").append(count).append(System.lineSeparator());
+        for (int i = 0; i < count; i++) {
+            final String memberReference = readNullableString(in);
+            sb.append("\t            member:\t").append(memberReference).append(System.lineSeparator());
+            if (memberReference == null) {
+                continue;
+            }
+            final int attributes = in.readInt();
+            for (int j = 0; j < attributes; j++) {
+                sb.append("\t                   \t").append(memberReference).append(in.readUTF()).append(": ");
+                appendValue(sb, in);
+                sb.append(System.lineSeparator());
+            }
+        }
+    }
+
+    private static void appendValue(final StringBuilder sb, final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+        case VALUE_BOOLEAN:
+            sb.append(in.readBoolean());
+            break;
+        case VALUE_INTEGER:
+            sb.append(in.readLong());
+            break;
+        case VALUE_FLOAT:
+            sb.append(in.readDouble());
+            break;
+        case VALUE_TIMESTAMP:
+            sb.append(new DateTime(in.readLong()));
+            break;
+        case VALUE_STRING:
+            sb.append(new String(readNullableBytes(in), StandardCharsets.UTF_8));
+            break;
+        case VALUE_BYTES:
+            sb.append(HexConverter.toHexString(readNullableBytes(in)));
+            break;
+        case VALUE_OTHER:
+            sb.append(in.readUTF());
+            break;
+        default:
+            sb.append("null");
+            break;
+        }
+    }
+
+    private static String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Long readNullableLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static byte[] readNullableBytes(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+
+    /**
+     * Appends the report header fields, one per line.
+     */
+    public static void appendReportDetails(final StringBuilder sb, final Report report) {
+        sb.append("\t             RptId:\t").append(report.getRptId()).append(System.lineSeparator());
+        sb.append("\t        DataSetRef:\t").append(report.getDataSetRef()).append(System.lineSeparator());
+        sb.append("\t           ConfRev:\t").append(report.getConfRev()).append(System.lineSeparator());
+        if (report.getBufOvfl() == null) {
+            sb.append("\t           BufOvfl:\tnull").append(System.lineSeparator());
+        } else {
+            sb.append("\t           BufOvfl:\t").append(report.getBufOvfl()).append(System.lineSeparator());
+        }
+
+        sb.append("\t           EntryId:\t").append(report.getEntryId()).append(System.lineSeparator());
+        if (report.getEntryId() != null) {
+            sb.append("\t                   \t(")
+                    .append(new String(report.getEntryId().getValue(), Charset.forName("UTF-8"))).append(")")
+                    .append(System.lineSeparator());
+        }
+        sb.append("\tInclusionBitString:\t").append(Arrays.toString(report.getInclusionBitString()))
+                .append(System.lineSeparator());
+        sb.append("\tMoreSegmentsFollow:\t").append(report.isMoreSegmentsFollow()).append(System.lineSeparator());
+        sb.append("\t             SqNum:\t").append(report.getSqNum()).append(System.lineSeparator());
+        sb.append("\t          SubSqNum:\t").append(report.getSubSqNum()).append(System.lineSeparator());
+        sb.append("\t       TimeOfEntry:\t").append(report.getTimeOfEntry()).append(System.lineSeparator());
+        if (report.getTimeOfEntry() != null) {
+            sb.append("\t                   \t(")
+                    .append(new DateTime(report.getTimeOfEntry().getTimestampValue() + IEC61850_ENTRY_TIME_OFFSET))
+                    .append(')').append(System.lineSeparator());
+        }
+        final List<BdaReasonForInclusion> reasonCodes = report.getReasonCodes();
+        if ((reasonCodes != null) && !reasonCodes.isEmpty()) {
+            sb.append("\t       ReasonCodes:").append(System.lineSeparator());
+            for (final BdaReasonForInclusion reasonCode : reasonCodes) {
+                sb.append("\t                   \t")
+                        .append(reasonCode.getReference() == null ? HexConverter.toHexString(reasonCode.getValue())
+                                : reasonCode)
+                        .append("\t(").append(new Iec61850BdaReasonForInclusionHelper(reasonCode).getInfo()).append(')')
+                        .append(System.lineSeparator());
+            }
+        }
+    }
+}
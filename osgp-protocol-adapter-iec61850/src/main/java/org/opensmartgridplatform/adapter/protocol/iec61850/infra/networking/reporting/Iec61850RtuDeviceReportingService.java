@@ -10,6 +10,7 @@ package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.rep
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.openmuc.openiec61850.Brcb;
 import org.openmuc.openiec61850.ClientAssociation;
@@ -21,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.ReportingService;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Device;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850DeviceReportGroup;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Report;
@@ -28,14 +30,18 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850ReportGroup;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceReportGroupRepository;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceRepository;
-import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850ReportEntryRepository;
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceConnectionParameters;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeReadException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeWriteException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850DeviceExecutor;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ReadCache;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.NodeContainer;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.SubDataAttribute;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services.Iec61850ConnectionPool;
 
 @Service
 public class Iec61850RtuDeviceReportingService {
@@ -49,11 +55,20 @@ public class Iec61850RtuDeviceReportingService {
     private Iec61850DeviceReportGroupRepository iec61850DeviceReportRepository;
 
     @Autowired
-    private Iec61850ReportEntryRepository iec61850ReportEntryRepository;
+    private ReportingService reportingService;
 
     @Autowired
     private Iec61850Client client;
 
+    @Autowired
+    private Iec61850ConnectionPool iec61850ConnectionPool;
+
+    @Autowired
+    private Iec61850DeviceExecutor iec61850DeviceExecutor;
+
+    @Autowired
+    private Iec61850ReadCache iec61850ReadCache;
+
     public void enableReportingForDevice(final DeviceConnection connection, final String deviceIdentification,
             final String serverName) {
         if (connection.getConnection().getIed() != null && IED.FLEX_OVL.equals(connection.getConnection().getIed())) {
@@ -66,6 +81,12 @@ public class Iec61850RtuDeviceReportingService {
             final Iec61850Device device = this.iec61850DeviceRepository
                     .findByDeviceIdentification(deviceIdentification);
 
+            final Iec61850ClientBaseEventListener reportListener = connection.getConnection()
+                    .getIec61850ClientAssociation().getReportListener();
+            if (reportListener instanceof Iec61850ClientRTUEventListener) {
+                ((Iec61850ClientRTUEventListener) reportListener).setUseCombinedLoad(device.isUseCombinedLoad());
+            }
+
             if (device.isEnableAllReportsOnConnect()) {
                 this.enableAllReports(connection, deviceIdentification);
             } else {
@@ -129,8 +150,8 @@ public class Iec61850RtuDeviceReportingService {
 
         LOGGER.debug("Resync reporting for report {} on device {}", reportId, deviceIdentification);
 
-        final Iec61850ReportEntry reportEntry = this.iec61850ReportEntryRepository
-                .findByDeviceIdentificationAndReportId(deviceIdentification, reportId);
+        final Iec61850ReportEntry reportEntry = this.reportingService.retrieveReportEntry(deviceIdentification,
+                reportId);
         if (reportEntry == null) {
             LOGGER.info("Resync reporting for report {} on device {} not possible, no last report entry found",
                     reportId, deviceIdentification);
@@ -147,6 +168,95 @@ public class Iec61850RtuDeviceReportingService {
         }
     }
 
+    /**
+     * Resyncs the buffered report with the given report ID on the open
+     * connection with the device, so the device sends the buffered reports
+     * after the given entry again, e.g. when reports have been missed. The
+     * resync takes place after the operations for the device started before.
+     */
+    public void resyncBufferedReport(final String deviceIdentification, final String reportId,
+            final byte[] entryId) {
+        try {
+            this.iec61850DeviceExecutor.submit(deviceIdentification,
+                    () -> this.resyncBufferedReportOnConnection(deviceIdentification, reportId, entryId));
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Resync reporting for report {} on device {} not possible, executor shut down", reportId,
+                    deviceIdentification);
+        }
+    }
+
+    private void resyncBufferedReportOnConnection(final String deviceIdentification, final String reportId,
+            final byte[] entryId) {
+        final Iec61850Connection iec61850Connection = this.iec61850ConnectionPool.get(deviceIdentification);
+        if (iec61850Connection == null) {
+            LOGGER.warn("Resync reporting for report {} on device {} not possible, no open connection", reportId,
+                    deviceIdentification);
+            return;
+        }
+        final DeviceConnectionParameters parameters = iec61850Connection.getConnectionParameters();
+        final DeviceConnection connection = new DeviceConnection(iec61850Connection, deviceIdentification, null,
+                parameters == null ? null : parameters.getServerName());
+
+        final Brcb brcb = this.findBrcb(connection, reportId);
+        if (brcb == null) {
+            LOGGER.warn("Resync reporting for report {} on device {} not possible, report not found", reportId,
+                    deviceIdentification);
+            return;
+        }
+
+        // The EntryID can only be written while reporting is disabled.
+        final NodeContainer node = new NodeContainer(connection, brcb);
+        try {
+            node.writeBoolean(SubDataAttribute.ENABLE_REPORTING, false);
+        } catch (final NodeWriteException e) {
+            LOGGER.debug("NodeWriteException", e);
+            LOGGER.error("Resync reporting for report {} on device {} failed, unable to disable reporting: {}",
+                    reportId, deviceIdentification, e.getMessage());
+            return;
+        }
+        try {
+            node.writeOctetString(SubDataAttribute.ENTRY_ID, entryId);
+            LOGGER.info("Resynced reporting for report {} on device {} after missed reports", reportId,
+                    deviceIdentification);
+        } catch (final NodeWriteException e) {
+            LOGGER.debug("NodeWriteException", e);
+            LOGGER.error("Resync reporting for report {} on device {} failed with exception: {}", reportId,
+                    deviceIdentification, e.getMessage());
+        } finally {
+            try {
+                node.writeBoolean(SubDataAttribute.ENABLE_REPORTING, true);
+            } catch (final NodeWriteException e) {
+                LOGGER.debug("NodeWriteException", e);
+                LOGGER.error("Enable reporting for report {} on device {} failed with exception: {}", reportId,
+                        deviceIdentification, e.getMessage());
+            }
+        }
+    }
+
+    private Brcb findBrcb(final DeviceConnection connection, final String reportId) {
+        final Collection<Brcb> brcbs = connection.getConnection().getServerModel().getBrcbs();
+        for (final Brcb brcb : brcbs) {
+            if (reportId.equals(new NodeContainer(connection, brcb).getString(SubDataAttribute.REPORT_ID))) {
+                return brcb;
+            }
+        }
+        // Report control blocks that have been enabled without reading them
+        // may not have the report ID yet.
+        final ClientAssociation clientAssociation = connection.getConnection().getClientAssociation();
+        for (final Brcb brcb : brcbs) {
+            try {
+                this.client.readNodeDataValues(clientAssociation, brcb);
+            } catch (final NodeReadException e) {
+                LOGGER.debug("NodeReadException", e);
+                continue;
+            }
+            if (reportId.equals(new NodeContainer(connection, brcb).getString(SubDataAttribute.REPORT_ID))) {
+                return brcb;
+            }
+        }
+        return null;
+    }
+
     private void enableSpecificReports(final DeviceConnection connection, final String deviceIdentification,
             final String serverName) {
 
@@ -198,6 +308,8 @@ public class Iec61850RtuDeviceReportingService {
 
     private void enableRcb(final String deviceIdentification, final ClientAssociation clientAssociation,
             final Rcb rcb) {
+        // Enabling reporting writes the values of the report control block.
+        this.iec61850ReadCache.written(deviceIdentification, rcb);
         try {
             clientAssociation.enableReporting(rcb);
         } catch (final IOException e) {
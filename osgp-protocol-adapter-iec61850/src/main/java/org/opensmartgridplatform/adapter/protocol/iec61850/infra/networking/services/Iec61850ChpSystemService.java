@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuReadCommand;
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuReadCommandFactory;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeWriteException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
@@ -62,6 +63,17 @@ public class Iec61850ChpSystemService implements SystemService {
         return new GetDataSystemIdentifierDto(systemFilter.getId(), systemFilter.getSystemType(), measurements);
     }
 
+    @Override
+    public LogicalDevice getLogicalDevice() {
+        return DEVICE;
+    }
+
+    @Override
+    public RtuReadCommandFactory<MeasurementDto, MeasurementFilterDto> getMeasurementCommandFactory(
+            final DeviceConnection connection) {
+        return this.iec61850ChpCommandFactory;
+    }
+
     @Override
     public void setData(final SetDataSystemIdentifierDto systemIdentifier, final Iec61850Client client,
             final DeviceConnection connection) throws NodeWriteException {
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of connection attempts in progress per subnet.
+ * <p>
+ * Connection attempts to devices in an unreachable subnet all take the full
+ * connect time-out. Without a limit they would occupy every thread of the
+ * connect executor, and connection attempts to devices in other subnets would
+ * have to wait for them. Attempts over the limit wait in a queue per subnet,
+ * without occupying a thread, and are started when an attempt for the same
+ * subnet finishes.
+ * <p>
+ * The subnet of an IPv4 address is its /24 network, any other address is a
+ * subnet of its own.
+ */
+public class Iec61850ConnectionAttemptLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ConnectionAttemptLimiter.class);
+
+    private final Executor executor;
+
+    private final int maxAttemptsPerSubnet;
+
+    /**
+     * Number of attempts started per subnet, only contains subnets with
+     * attempts in progress.
+     */
+    private final Map<String, Integer> attemptsInProgress = new HashMap<>();
+
+    private final Map<String, Deque<Runnable>> waitingAttempts = new HashMap<>();
+
+    public Iec61850ConnectionAttemptLimiter(final Executor executor, final int maxAttemptsPerSubnet) {
+        this.executor = executor;
+        this.maxAttemptsPerSubnet = maxAttemptsPerSubnet;
+    }
+
+    /**
+     * Runs the connection attempt on the executor, or queues it when the
+     * maximum number of attempts for the subnet of the IP address are in
+     * progress. Queued attempts that are a {@link Future} which has been
+     * cancelled in the mean time, finish immediately when started.
+     *
+     * @throws RuntimeException
+     *             When the executor rejects the attempt, e.g. because it is
+     *             shutting down.
+     */
+    public void execute(final String ipAddress, final Runnable attempt) {
+        final String subnet = getSubnet(ipAddress);
+        synchronized (this) {
+            final int inProgress = this.attemptsInProgress.getOrDefault(subnet, 0);
+            if (this.maxAttemptsPerSubnet > 0 && inProgress >= this.maxAttemptsPerSubnet) {
+                LOGGER.debug("{} connection attempts in progress for subnet {}, queueing attempt", inProgress,
+                        subnet);
+                this.waitingAttempts.computeIfAbsent(subnet, key -> new ArrayDeque<>()).add(attempt);
+                return;
+            }
+            this.attemptsInProgress.put(subnet, inProgress + 1);
+        }
+        this.start(subnet, attempt);
+    }
+
+    /**
+     * @return The number of connection attempts waiting for an attempt for the
+     *         same subnet to finish.
+     */
+    public synchronized int getWaitingAttempts() {
+        return this.waitingAttempts.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private void start(final String subnet, final Runnable attempt) {
+        try {
+            this.executor.execute(() -> {
+                try {
+                    attempt.run();
+                } finally {
+                    this.finished(subnet);
+                }
+            });
+        } catch (final RuntimeException e) {
+            this.finished(subnet);
+            throw e;
+        }
+    }
+
+    private void finished(final String subnet) {
+        final Runnable next;
+        synchronized (this) {
+            final Deque<Runnable> waiting = this.waitingAttempts.get(subnet);
+            next = waiting == null ? null : waiting.poll();
+            if (waiting != null && waiting.isEmpty()) {
+                this.waitingAttempts.remove(subnet);
+            }
+            if (next == null) {
+                this.attemptsInProgress.computeIfPresent(subnet, (key, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+        if (next == null) {
+            return;
+        }
+        try {
+            this.start(subnet, next);
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to start queued connection attempt for subnet {}", subnet, e);
+            if (next instanceof Future) {
+                ((Future<?>) next).cancel(false);
+            }
+        }
+    }
+
+    static String getSubnet(final String ipAddress) {
+        if (ipAddress == null || ipAddress.indexOf(':') >= 0) {
+            return String.valueOf(ipAddress);
+        }
+        final int lastDot = ipAddress.lastIndexOf('.');
+        return lastDot < 0 ? ipAddress : ipAddress.substring(0, lastDot);
+    }
+}
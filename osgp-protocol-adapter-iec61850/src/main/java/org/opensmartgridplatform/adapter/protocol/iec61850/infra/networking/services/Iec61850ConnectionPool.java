@@ -0,0 +1,407 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.openmuc.openiec61850.ClientAssociation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ClientBaseEventListener;
+
+/**
+ * Keeps the open connections to devices, at most one per device.
+ * <p>
+ * The pool has a maximum size and optional quotas per {@link IED} type. When a
+ * limit is exceeded, the least recently used connection (of that IED type) is
+ * closed. Connections that have not been used, and have not received reports,
+ * for longer than the idle timeout are closed periodically.
+ * <p>
+ * Connections of devices that are leased, because an operation is using the
+ * connection, are never evicted. When a limit is exceeded while the least
+ * recently used connections are leased, the limit is enforced again when the
+ * last lease is released.
+ */
+@Component
+public class Iec61850ConnectionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ConnectionPool.class);
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private int connectionPoolMaxSize;
+
+    @Autowired
+    private int connectionPoolIdleTimeout;
+
+    @Autowired
+    private int connectionPoolEvictionInterval;
+
+    @Autowired
+    private int connectionPoolQuotaFlexOvl;
+
+    @Autowired
+    private int connectionPoolQuotaZownRtu;
+
+    @Autowired
+    private int connectionPoolQuotaDaRtu;
+
+    private final Object lock = new Object();
+
+    /**
+     * Entries in access order, the least recently used entry comes first.
+     */
+    private final LinkedHashMap<String, PooledConnection> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<IED, Integer> sizePerIed = new EnumMap<>(IED.class);
+
+    private final Map<IED, Integer> quotaPerIed = new EnumMap<>(IED.class);
+
+    /**
+     * Number of leases per device, only contains devices with leases.
+     */
+    private final Map<String, Integer> leases = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong lruEvictions = new AtomicLong();
+    private final AtomicLong idleEvictions = new AtomicLong();
+    private final AtomicLong quotaEvictions = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        this.quotaPerIed.put(IED.FLEX_OVL, this.connectionPoolQuotaFlexOvl);
+        this.quotaPerIed.put(IED.ZOWN_RTU, this.connectionPoolQuotaZownRtu);
+        this.quotaPerIed.put(IED.DA_RTU, this.connectionPoolQuotaDaRtu);
+
+        LOGGER.info("Connection pool maxSize: {}, idleTimeout: {}, evictionInterval: {}, quotaPerIed: {}",
+                this.connectionPoolMaxSize, this.connectionPoolIdleTimeout, this.connectionPoolEvictionInterval,
+                this.quotaPerIed);
+
+        if (this.connectionPoolEvictionInterval > 0) {
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(this::evictIdleConnections,
+                    this.connectionPoolEvictionInterval);
+        }
+    }
+
+    /**
+     * Returns the pooled connection for the given device, and marks it as
+     * recently used.
+     *
+     * @return The connection, or null if no connection is pooled for the
+     *         device.
+     */
+    public Iec61850Connection get(final String deviceIdentification) {
+        final PooledConnection entry;
+        synchronized (this.lock) {
+            entry = this.entries.get(deviceIdentification);
+            if (entry != null) {
+                entry.lastUsedTime = System.currentTimeMillis();
+            }
+        }
+        if (entry == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+        this.hits.incrementAndGet();
+        return entry.connection;
+    }
+
+    /**
+     * Adds the connection for the given device to the pool. A connection that
+     * was pooled for the device before is closed, as are connections that
+     * have to make room for the new connection.
+     */
+    public void put(final String deviceIdentification, final Iec61850Connection connection) {
+        final List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (this.lock) {
+            final PooledConnection previous = this.entries.put(deviceIdentification,
+                    new PooledConnection(deviceIdentification, connection));
+            if (previous != null) {
+                this.decrementSize(previous.connection.getIed());
+                if (previous.connection != connection) {
+                    evicted.add(previous);
+                }
+            }
+            this.incrementSize(connection.getIed());
+            this.enforceQuota(deviceIdentification, connection.getIed(), evicted);
+            this.enforceMaxSize(deviceIdentification, evicted);
+        }
+        this.close(evicted, "replaced or evicted to make room");
+    }
+
+    /**
+     * Leases the connection of the device, so it is not evicted while it is
+     * being used. Every lease has to be released with
+     * {@link #release(String)}. The device does not need to have a pooled
+     * connection yet, the lease also applies to a connection put in the pool
+     * while leased.
+     */
+    public void lease(final String deviceIdentification) {
+        synchronized (this.lock) {
+            this.leases.merge(deviceIdentification, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Releases a lease obtained with {@link #lease(String)}. When the last
+     * lease of the device is released, connections that could not be evicted
+     * before because they were leased are evicted if the pool is still over
+     * its limits.
+     */
+    public void release(final String deviceIdentification) {
+        final List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (this.lock) {
+            final Integer remaining = this.leases.computeIfPresent(deviceIdentification,
+                    (key, count) -> count > 1 ? count - 1 : null);
+            if (remaining == null) {
+                final PooledConnection entry = this.entries.get(deviceIdentification);
+                if (entry != null) {
+                    this.enforceQuota(null, entry.connection.getIed(), evicted);
+                }
+                this.enforceMaxSize(null, evicted);
+            }
+        }
+        this.close(evicted, "evicted after its lease was released");
+    }
+
+    /**
+     * @return true if the connection of the device is leased.
+     */
+    public boolean isLeased(final String deviceIdentification) {
+        synchronized (this.lock) {
+            return this.leases.containsKey(deviceIdentification);
+        }
+    }
+
+    /**
+     * Removes the connection for the given device from the pool, without
+     * closing it.
+     *
+     * @return The removed connection, or null if no connection was pooled.
+     */
+    public Iec61850Connection remove(final String deviceIdentification) {
+        synchronized (this.lock) {
+            final PooledConnection removed = this.entries.remove(deviceIdentification);
+            if (removed == null) {
+                return null;
+            }
+            this.decrementSize(removed.connection.getIed());
+            return removed.connection;
+        }
+    }
+
+    /**
+     * Removes the given connection for the device from the pool, without
+     * closing it, if it is still the pooled connection for the device.
+     *
+     * @return true if the connection was removed.
+     */
+    public boolean remove(final String deviceIdentification, final Iec61850Connection connection) {
+        synchronized (this.lock) {
+            final PooledConnection entry = this.entries.get(deviceIdentification);
+            if (entry == null || entry.connection != connection) {
+                return false;
+            }
+            this.entries.remove(deviceIdentification);
+            this.decrementSize(connection.getIed());
+            return true;
+        }
+    }
+
+    /**
+     * Returns a copy of the pooled connections by device identification,
+     * without marking them as used.
+     */
+    public Map<String, Iec61850Connection> getConnections() {
+        synchronized (this.lock) {
+            final Map<String, Iec61850Connection> connections = new LinkedHashMap<>();
+            for (final PooledConnection entry : this.entries.values()) {
+                connections.put(entry.deviceIdentification, entry.connection);
+            }
+            return connections;
+        }
+    }
+
+    public int size() {
+        synchronized (this.lock) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Closes all pooled connections without sending a release request, and
+     * empties the pool.
+     */
+    public void closeAll() {
+        final List<PooledConnection> closed;
+        synchronized (this.lock) {
+            closed = new ArrayList<>(this.entries.values());
+            this.entries.clear();
+            this.sizePerIed.clear();
+        }
+        LOGGER.warn("Closing connections for {} devices", closed.size());
+        for (final PooledConnection entry : closed) {
+            final ClientAssociation clientAssociation = entry.connection.getClientAssociation();
+            if (clientAssociation != null) {
+                clientAssociation.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the connections that have not been used and have not received
+     * reports for longer than the idle timeout, unless they are leased, and
+     * logs the statistics of the pool.
+     */
+    public void evictIdleConnections() {
+        final List<PooledConnection> evicted = new ArrayList<>();
+        if (this.connectionPoolIdleTimeout > 0) {
+            final long idleSince = System.currentTimeMillis() - this.connectionPoolIdleTimeout;
+            synchronized (this.lock) {
+                final Iterator<PooledConnection> iterator = this.entries.values().iterator();
+                while (iterator.hasNext()) {
+                    final PooledConnection entry = iterator.next();
+                    if (entry.getLastActivityTime() < idleSince
+                            && !this.leases.containsKey(entry.deviceIdentification)) {
+                        iterator.remove();
+                        this.decrementSize(entry.connection.getIed());
+                        evicted.add(entry);
+                    }
+                }
+            }
+            this.idleEvictions.addAndGet(evicted.size());
+            this.close(evicted, "idle for more than " + this.connectionPoolIdleTimeout + " ms");
+        }
+        LOGGER.info("{}", this.getStatistics());
+    }
+
+    public Iec61850ConnectionPoolStatistics getStatistics() {
+        final int size;
+        final Map<IED, Integer> sizes;
+        synchronized (this.lock) {
+            size = this.entries.size();
+            sizes = new EnumMap<>(this.sizePerIed);
+        }
+        return new Iec61850ConnectionPoolStatistics(size, this.connectionPoolMaxSize, sizes, this.hits.get(),
+                this.misses.get(), this.lruEvictions.get(), this.idleEvictions.get(), this.quotaEvictions.get());
+    }
+
+    /**
+     * Evicts the least recently used connections of the given IED type while
+     * the quota for the type is exceeded. The connection of the given device,
+     * if any, and leased connections are kept. Must be called holding the
+     * lock.
+     */
+    private void enforceQuota(final String deviceIdentification, final IED ied,
+            final List<PooledConnection> evicted) {
+        final Integer quota = ied == null ? null : this.quotaPerIed.get(ied);
+        if (quota == null || quota <= 0) {
+            return;
+        }
+        final Iterator<PooledConnection> iterator = this.entries.values().iterator();
+        while (this.sizePerIed.getOrDefault(ied, 0) > quota && iterator.hasNext()) {
+            final PooledConnection entry = iterator.next();
+            if (ied == entry.connection.getIed() && this.isEvictable(entry, deviceIdentification)) {
+                iterator.remove();
+                this.decrementSize(ied);
+                evicted.add(entry);
+                this.quotaEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used connections while the maximum size of
+     * the pool is exceeded. The connection of the given device, if any, and
+     * leased connections are kept. Must be called holding the lock.
+     */
+    private void enforceMaxSize(final String deviceIdentification, final List<PooledConnection> evicted) {
+        final Iterator<PooledConnection> iterator = this.entries.values().iterator();
+        while (this.entries.size() > this.connectionPoolMaxSize && iterator.hasNext()) {
+            final PooledConnection entry = iterator.next();
+            if (this.isEvictable(entry, deviceIdentification)) {
+                iterator.remove();
+                this.decrementSize(entry.connection.getIed());
+                evicted.add(entry);
+                this.lruEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isEvictable(final PooledConnection entry, final String keptDeviceIdentification) {
+        return !entry.deviceIdentification.equals(keptDeviceIdentification)
+                && !this.leases.containsKey(entry.deviceIdentification);
+    }
+
+    private void incrementSize(final IED ied) {
+        if (ied != null) {
+            this.sizePerIed.merge(ied, 1, Integer::sum);
+        }
+    }
+
+    private void decrementSize(final IED ied) {
+        if (ied != null) {
+            this.sizePerIed.computeIfPresent(ied, (key, value) -> value > 1 ? value - 1 : null);
+        }
+    }
+
+    private void close(final List<PooledConnection> evicted, final String reason) {
+        for (final PooledConnection entry : evicted) {
+            LOGGER.info("Closing pooled connection for device: {}, {}", entry.deviceIdentification, reason);
+            try {
+                final ClientAssociation clientAssociation = entry.connection.getClientAssociation();
+                if (clientAssociation != null) {
+                    clientAssociation.disconnect();
+                }
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Unexpected exception closing connection for device: {}", entry.deviceIdentification,
+                        e);
+            }
+        }
+    }
+
+    private static class PooledConnection {
+        private final String deviceIdentification;
+        private final Iec61850Connection connection;
+        private volatile long lastUsedTime;
+
+        PooledConnection(final String deviceIdentification, final Iec61850Connection connection) {
+            this.deviceIdentification = deviceIdentification;
+            this.connection = connection;
+            this.lastUsedTime = System.currentTimeMillis();
+        }
+
+        long getLastActivityTime() {
+            final Iec61850ClientBaseEventListener reportListener = this.connection
+                    .getIec61850ClientAssociation() == null ? null
+                            : this.connection.getIec61850ClientAssociation().getReportListener();
+            if (reportListener == null) {
+                return this.lastUsedTime;
+            }
+            return Math.max(this.lastUsedTime, reportListener.getLastReportTime());
+        }
+    }
+}
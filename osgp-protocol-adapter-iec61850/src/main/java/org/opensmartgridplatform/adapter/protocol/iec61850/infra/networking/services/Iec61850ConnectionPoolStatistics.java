@@ -0,0 +1,82 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
+
+/**
+ * Snapshot of the statistics of the {@link Iec61850ConnectionPool}.
+ */
+public class Iec61850ConnectionPoolStatistics {
+
+    private final int size;
+    private final int maxSize;
+    private final Map<IED, Integer> sizePerIed;
+    private final long hits;
+    private final long misses;
+    private final long lruEvictions;
+    private final long idleEvictions;
+    private final long quotaEvictions;
+
+    public Iec61850ConnectionPoolStatistics(final int size, final int maxSize, final Map<IED, Integer> sizePerIed,
+            final long hits, final long misses, final long lruEvictions, final long idleEvictions,
+            final long quotaEvictions) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.sizePerIed = Collections.unmodifiableMap(new EnumMap<>(sizePerIed));
+        this.hits = hits;
+        this.misses = misses;
+        this.lruEvictions = lruEvictions;
+        this.idleEvictions = idleEvictions;
+        this.quotaEvictions = quotaEvictions;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public Map<IED, Integer> getSizePerIed() {
+        return this.sizePerIed;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public long getLruEvictions() {
+        return this.lruEvictions;
+    }
+
+    public long getIdleEvictions() {
+        return this.idleEvictions;
+    }
+
+    public long getQuotaEvictions() {
+        return this.quotaEvictions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Iec61850ConnectionPoolStatistics[size=%d, maxSize=%d, sizePerIed=%s, hits=%d, misses=%d, lruEvictions=%d, idleEvictions=%d, quotaEvictions=%d]",
+                this.size, this.maxSize, this.sizePerIed, this.hits, this.misses, this.lruEvictions,
+                this.idleEvictions, this.quotaEvictions);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.PostConstruct;
+
+import org.openmuc.openiec61850.ClientAssociation;
+import org.openmuc.openiec61850.FcModelNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeReadException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ConnectionHealth;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850DeviceExecutor;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ClientBaseEventListener;
+
+/**
+ * Checks the pooled connections in the background, so requests do not have to
+ * check a connection before using it.
+ * <p>
+ * A connection is checked by reading LLN0.NamPlt of its first logical device.
+ * Received reports also prove a connection is alive. After every successful
+ * check the interval until the next check is doubled, up to a maximum, and a
+ * random jitter is applied so checks of connections established at the same
+ * time are spread out. Connections that fail a check are removed from the pool
+ * and closed.
+ */
+@Component
+public class Iec61850ConnectionProber {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ConnectionProber.class);
+
+    private static final long TICK_INTERVAL = 1000;
+    private static final double JITTER = 0.2;
+
+    @Autowired
+    private Iec61850ConnectionPool iec61850ConnectionPool;
+
+    @Autowired
+    private Iec61850Client iec61850Client;
+
+    @Autowired
+    private Iec61850DeviceExecutor iec61850DeviceExecutor;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private TaskExecutor iec61850ProbeExecutor;
+
+    @Autowired
+    private boolean isConnectionProbeEnabled;
+
+    @Autowired
+    private int connectionProbeMinInterval;
+
+    @Autowired
+    private int connectionProbeMaxInterval;
+
+    @PostConstruct
+    private void init() {
+        if (this.isConnectionProbeEnabled) {
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(this::probeDueConnections, TICK_INTERVAL);
+        }
+    }
+
+    /**
+     * Starts a check for every pooled connection for which a check is due.
+     */
+    public void probeDueConnections() {
+        final long now = System.currentTimeMillis();
+        for (final Map.Entry<String, Iec61850Connection> entry : this.iec61850ConnectionPool.getConnections()
+                .entrySet()) {
+            final String deviceIdentification = entry.getKey();
+            final Iec61850Connection connection = entry.getValue();
+            final Iec61850ConnectionHealth health = connection.getHealth();
+            if (!health.startProbeIfDue(now)) {
+                continue;
+            }
+
+            if (this.hasReceivedReportSinceLastCheck(connection)) {
+                this.alive(health, this.getLastReportTime(connection));
+                continue;
+            }
+
+            try {
+                this.iec61850ProbeExecutor.execute(() -> this.probe(deviceIdentification, connection));
+            } catch (final TaskRejectedException e) {
+                LOGGER.debug("Unable to check connection for device: {} now, trying again later",
+                        deviceIdentification, e);
+                health.probeCancelled();
+            }
+        }
+    }
+
+    /**
+     * Registers that the given connection has just been found alive outside
+     * of the background checks, e.g. because it has just been established.
+     */
+    public void connectionVerified(final Iec61850Connection connection) {
+        this.alive(connection.getHealth(), System.currentTimeMillis());
+    }
+
+    private void probe(final String deviceIdentification, final Iec61850Connection connection) {
+        final Iec61850ConnectionHealth health = connection.getHealth();
+        final FcModelNode probeNode = connection.getProbeNode();
+        final ClientAssociation clientAssociation = connection.getClientAssociation();
+        if (probeNode == null || clientAssociation == null) {
+            // Without a node to read, requests keep checking the connection
+            // themselves.
+            health.postpone(System.currentTimeMillis() + this.withJitter(this.connectionProbeMaxInterval));
+            return;
+        }
+
+        try {
+            // Wait for commands using the connection, instead of interleaving
+            // the check with them.
+            this.iec61850DeviceExecutor.execute(deviceIdentification, () -> {
+                this.iec61850Client.readNodeDataValues(clientAssociation, probeNode);
+                return null;
+            });
+            this.alive(health, System.currentTimeMillis());
+            LOGGER.debug("Connection is alive for device: {}", deviceIdentification);
+        } catch (final NodeReadException e) {
+            health.broken();
+            LOGGER.warn("Background check failed, closing connection for device: {}", deviceIdentification, e);
+            if (this.iec61850ConnectionPool.remove(deviceIdentification, connection)) {
+                clientAssociation.close();
+            }
+        } catch (final ConnectionFailureException e) {
+            health.probeCancelled();
+            LOGGER.debug("Unable to check connection for device: {} now, trying again later", deviceIdentification,
+                    e);
+        } catch (final RuntimeException e) {
+            health.probeCancelled();
+            LOGGER.error("Unexpected exception checking connection for device: {}", deviceIdentification, e);
+        }
+    }
+
+    private void alive(final Iec61850ConnectionHealth health, final long aliveTime) {
+        final long interval = health.getProbeInterval() == 0 ? this.connectionProbeMinInterval
+                : Math.min(health.getProbeInterval() * 2, this.connectionProbeMaxInterval);
+        health.alive(aliveTime, interval, this.withJitter(interval));
+    }
+
+    private long withJitter(final long interval) {
+        final double factor = 1 - JITTER + ThreadLocalRandom.current().nextDouble() * 2 * JITTER;
+        return (long) (interval * factor);
+    }
+
+    private boolean hasReceivedReportSinceLastCheck(final Iec61850Connection connection) {
+        return this.getLastReportTime(connection) > connection.getHealth().getLastAliveTime();
+    }
+
+    private long getLastReportTime(final Iec61850Connection connection) {
+        if (connection.getIec61850ClientAssociation() == null) {
+            return 0;
+        }
+        final Iec61850ClientBaseEventListener reportListener = connection.getIec61850ClientAssociation()
+                .getReportListener();
+        return reportListener == null ? 0 : reportListener.getLastReportTime();
+    }
+}
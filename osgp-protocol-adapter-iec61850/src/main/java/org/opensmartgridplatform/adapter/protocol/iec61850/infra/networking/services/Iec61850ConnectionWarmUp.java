@@ -0,0 +1,308 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Device;
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceRepository;
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceConnectionParameters;
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ServerModelTemplateCache;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalDevice;
+import org.opensmartgridplatform.core.db.api.iec61850.application.services.DeviceDataService;
+import org.opensmartgridplatform.core.db.api.iec61850.entities.Device;
+
+/**
+ * Optional warm-up after the application has started.
+ * <p>
+ * The ServerModel templates of all ICD files configured in the
+ * {@link Iec61850Device} table are parsed, and connections are set up to the
+ * devices of the configured device types. Connections are set up in parallel,
+ * limited by a maximum number of concurrent connection attempts and a maximum
+ * number of new connection attempts per second.
+ */
+@Component
+public class Iec61850ConnectionWarmUp implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850ConnectionWarmUp.class);
+
+    private static final int QUERY_BATCH_SIZE = 1000;
+    private static final int PROGRESS_LOG_INTERVAL = 100;
+
+    @Autowired
+    private Iec61850DeviceRepository iec61850DeviceRepository;
+
+    @Autowired
+    private DeviceDataService deviceDataService;
+
+    @Autowired
+    private Iec61850DeviceConnectionService iec61850DeviceConnectionService;
+
+    @Autowired
+    private Iec61850ServerModelTemplateCache serverModelTemplateCache;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private boolean isWarmUpEnabled;
+
+    @Autowired
+    private String warmUpConnectDeviceTypes;
+
+    @Autowired
+    private int warmUpMaxConcurrentConnects;
+
+    @Autowired
+    private int warmUpConnectsPerSecond;
+
+    @Autowired
+    private String icdFilesFolder;
+
+    @Autowired
+    private String icdFilePath;
+
+    @Autowired
+    private boolean isIcdFileUsed;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        // The event is published for every (re)freshed context, warm up only
+        // once.
+        if (this.isWarmUpEnabled && this.started.compareAndSet(false, true)) {
+            this.iec61850TaskScheduler.schedule(this::warmUp, new Date());
+        }
+    }
+
+    private void warmUp() {
+        try {
+            final List<Iec61850Device> iec61850Devices = this.iec61850DeviceRepository.findAll();
+            LOGGER.info("Starting warm-up for {} IEC61850 devices", iec61850Devices.size());
+
+            this.preloadServerModelTemplates(iec61850Devices);
+
+            final Queue<DeviceConnectionParameters> devicesToConnect = this.getDevicesToConnect(iec61850Devices);
+            if (devicesToConnect.isEmpty()) {
+                LOGGER.info("Warm-up finished, no devices to connect to");
+                return;
+            }
+            new ConnectRun(devicesToConnect).start();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unexpected exception during warm-up", e);
+        }
+    }
+
+    private void preloadServerModelTemplates(final List<Iec61850Device> iec61850Devices) {
+        final Set<String> filePaths = new LinkedHashSet<>();
+        if (this.isIcdFileUsed && StringUtils.isNotBlank(this.icdFilePath)) {
+            filePaths.add(this.icdFilePath);
+        }
+        if (StringUtils.isNotBlank(this.icdFilesFolder)) {
+            for (final Iec61850Device iec61850Device : iec61850Devices) {
+                if (StringUtils.isNotBlank(iec61850Device.getIcdFilename())) {
+                    filePaths.add(Paths.get(this.icdFilesFolder, iec61850Device.getIcdFilename()).toString());
+                }
+            }
+        }
+
+        int preloaded = 0;
+        for (final String filePath : filePaths) {
+            try {
+                this.serverModelTemplateCache.preload(filePath);
+                preloaded++;
+            } catch (final ProtocolAdapterException e) {
+                LOGGER.warn("Unable to preload ServerModel from SCL / ICD file: {}", filePath, e);
+            }
+        }
+        LOGGER.info("Warm-up preloaded {} of {} ServerModel templates", preloaded, filePaths.size());
+    }
+
+    private Queue<DeviceConnectionParameters> getDevicesToConnect(final List<Iec61850Device> iec61850Devices) {
+        final Queue<DeviceConnectionParameters> devicesToConnect = new ConcurrentLinkedQueue<>();
+        final Map<String, IED> iedPerDeviceType = this.parseConnectDeviceTypes();
+        if (iedPerDeviceType.isEmpty()) {
+            return devicesToConnect;
+        }
+
+        int withoutNetworkAddress = 0;
+        for (int start = 0; start < iec61850Devices.size(); start += QUERY_BATCH_SIZE) {
+            final Map<String, Iec61850Device> batch = new HashMap<>();
+            for (final Iec61850Device iec61850Device : iec61850Devices.subList(start,
+                    Math.min(start + QUERY_BATCH_SIZE, iec61850Devices.size()))) {
+                batch.put(iec61850Device.getDeviceIdentification(), iec61850Device);
+            }
+            for (final Device device : this.deviceDataService.findDevices(batch.keySet())) {
+                final IED ied = iedPerDeviceType.get(device.getDeviceType());
+                if (ied == null) {
+                    continue;
+                }
+                if (StringUtils.isBlank(device.getNetworkAddress())) {
+                    withoutNetworkAddress++;
+                    continue;
+                }
+                devicesToConnect.add(this.createConnectionParameters(
+                        batch.get(device.getDeviceIdentification()), device.getNetworkAddress(), ied));
+            }
+        }
+        if (withoutNetworkAddress > 0) {
+            LOGGER.info("Warm-up skips {} devices without network address", withoutNetworkAddress);
+        }
+        return devicesToConnect;
+    }
+
+    /**
+     * Uses the same connection parameters as the device services, so requests
+     * find the connections set up during warm-up.
+     */
+    private DeviceConnectionParameters createConnectionParameters(final Iec61850Device iec61850Device,
+            final String ipAddress, final IED ied) {
+        final String serverName;
+        final String logicalDevice;
+        if (IED.ABB_RTU.equals(ied)) {
+            serverName = ied.getDescription();
+            logicalDevice = LogicalDevice.LD0.getDescription();
+        } else {
+            serverName = iec61850Device.getServerName() != null ? iec61850Device.getServerName()
+                    : ied.getDescription();
+            logicalDevice = LogicalDevice.RTU.getDescription() + 1;
+        }
+        return DeviceConnectionParameters.newBuilder().ipAddress(ipAddress)
+                .deviceIdentification(iec61850Device.getDeviceIdentification()).ied(ied).serverName(serverName)
+                .logicalDevice(logicalDevice).build();
+    }
+
+    /**
+     * Parses the configured device types to connect to, formatted as
+     * comma-separated deviceType:IED pairs, e.g. RTU:ZOWN_RTU,LMD:ABB_RTU.
+     */
+    private Map<String, IED> parseConnectDeviceTypes() {
+        final Map<String, IED> iedPerDeviceType = new HashMap<>();
+        for (final String pair : StringUtils.split(StringUtils.defaultString(this.warmUpConnectDeviceTypes), ',')) {
+            final String[] deviceTypeAndIed = StringUtils.split(pair, ':');
+            if (deviceTypeAndIed.length != 2) {
+                LOGGER.warn("Ignoring warm-up device type: {}, expected deviceType:IED", pair);
+                continue;
+            }
+            try {
+                final IED ied = IED.valueOf(deviceTypeAndIed[1].trim());
+                if (IED.FLEX_OVL.equals(ied)) {
+                    LOGGER.warn("Ignoring warm-up device type: {}, connections to {} are not kept open", pair, ied);
+                    continue;
+                }
+                iedPerDeviceType.put(deviceTypeAndIed[0].trim(), ied);
+            } catch (final IllegalArgumentException e) {
+                LOGGER.warn("Ignoring warm-up device type: {}, unknown IED", pair, e);
+            }
+        }
+        return iedPerDeviceType;
+    }
+
+    /**
+     * Sets up the connections. Every tick of the scheduler starts at most one
+     * connection attempt, which limits the number of new connection attempts
+     * per second.
+     */
+    private class ConnectRun implements Runnable {
+        private final Queue<DeviceConnectionParameters> pending;
+        private final int total;
+        private final Semaphore permits;
+        private final AtomicInteger connected = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<String> failedDevices = new ArrayList<>();
+        private final long startTime = System.currentTimeMillis();
+        private volatile ScheduledFuture<?> ticks;
+
+        ConnectRun(final Queue<DeviceConnectionParameters> pending) {
+            this.pending = pending;
+            this.total = pending.size();
+            this.permits = new Semaphore(Math.max(1, Iec61850ConnectionWarmUp.this.warmUpMaxConcurrentConnects));
+        }
+
+        void start() {
+            final int connectsPerSecond = Iec61850ConnectionWarmUp.this.warmUpConnectsPerSecond;
+            final long period = connectsPerSecond > 0 ? Math.max(1, 1000 / connectsPerSecond) : 1;
+            LOGGER.info("Warm-up connecting to {} devices, at most {} at a time and {} per second", this.total,
+                    this.permits.availablePermits(), connectsPerSecond > 0 ? connectsPerSecond : "unlimited");
+            this.ticks = Iec61850ConnectionWarmUp.this.iec61850TaskScheduler.scheduleAtFixedRate(this,
+                    new Date(System.currentTimeMillis() + period), period);
+        }
+
+        @Override
+        public void run() {
+            if (this.connected.get() + this.failed.get() == this.total) {
+                final ScheduledFuture<?> scheduledTicks = this.ticks;
+                if (scheduledTicks != null) {
+                    scheduledTicks.cancel(false);
+                }
+                return;
+            }
+            if (this.pending.isEmpty() || !this.permits.tryAcquire()) {
+                return;
+            }
+            final DeviceConnectionParameters deviceConnectionParameters = this.pending.poll();
+            try {
+                Iec61850ConnectionWarmUp.this.iec61850DeviceConnectionService
+                        .connectAsync(deviceConnectionParameters, "")
+                        .whenComplete((deviceConnection, t) -> this.finished(deviceConnectionParameters, t));
+            } catch (final RuntimeException e) {
+                // An exception would end the scheduled ticks.
+                this.finished(deviceConnectionParameters, e);
+            }
+        }
+
+        private void finished(final DeviceConnectionParameters deviceConnectionParameters, final Throwable t) {
+            this.permits.release();
+            if (t == null) {
+                this.connected.incrementAndGet();
+            } else {
+                LOGGER.warn("Warm-up failed to connect to device: {}, {}",
+                        deviceConnectionParameters.getDeviceIdentification(), t.getMessage());
+                synchronized (this.failedDevices) {
+                    this.failedDevices.add(deviceConnectionParameters.getDeviceIdentification());
+                }
+                this.failed.incrementAndGet();
+            }
+
+            final int done = this.connected.get() + this.failed.get();
+            if (done == this.total) {
+                LOGGER.info("Warm-up finished in {} ms, connected to {} of {} devices, failed devices: {}",
+                        System.currentTimeMillis() - this.startTime, this.connected.get(), this.total,
+                        this.failedDevices);
+            } else if (done % PROGRESS_LOG_INTERVAL == 0) {
+                LOGGER.info("Warm-up progress: {} of {} devices done, {} connected, {} failed", done, this.total,
+                        this.connected.get(), this.failed.get());
+            }
+        }
+    }
+}
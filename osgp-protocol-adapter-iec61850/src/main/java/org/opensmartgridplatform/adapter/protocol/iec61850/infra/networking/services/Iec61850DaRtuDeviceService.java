@@ -11,8 +11,6 @@ import java.io.Serializable;
 
 import javax.jms.JMSException;
 
-import org.openmuc.openiec61850.ClientAssociation;
-import org.openmuc.openiec61850.ServerModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,12 +26,9 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.device.ssld.responses
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Device;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceRepository;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceConnectionParameters;
-import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.messaging.DaRtuDeviceRequestMessageProcessor;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
-import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ClientAssociation;
-import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.Function;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
@@ -56,33 +51,13 @@ public class Iec61850DaRtuDeviceService implements DaRtuDeviceService {
     @Override
     public void getData(final DaDeviceRequest deviceRequest, final DeviceResponseHandler deviceResponseHandler,
             final DaRtuDeviceRequestMessageProcessor messageProcessor) throws JMSException {
+        final DeviceConnectionParameters deviceConnectionParameters;
         try {
             final String serverName = this.getServerName(deviceRequest);
-            final ServerModel serverModel = this.connectAndRetrieveServerModel(deviceRequest, serverName);
-
-            final ClientAssociation clientAssociation = this.iec61850DeviceConnectionService
-                    .getClientAssociation(deviceRequest.getDeviceIdentification());
-
-            final Serializable dataResponse = this
-                    .handleGetData(
-                            new DeviceConnection(
-                                    new Iec61850Connection(new Iec61850ClientAssociation(clientAssociation, null),
-                                            serverModel),
-                                    deviceRequest.getDeviceIdentification(),
-                                    deviceRequest.getOrganisationIdentification(), serverName),
-                            deviceRequest, messageProcessor);
-
-            final DaDeviceResponse deviceResponse = new DaDeviceResponse(deviceRequest, DeviceMessageStatus.OK,
-                    dataResponse);
-
-            deviceResponseHandler.handleResponse(deviceResponse);
-        } catch (final ConnectionFailureException se) {
-            LOGGER.error("Could not connect to device after all retries", se);
-
-            final EmptyDeviceResponse deviceResponse = new EmptyDeviceResponse(deviceRequest,
-                    DeviceMessageStatus.FAILURE);
-
-            deviceResponseHandler.handleConnectionFailure(se, deviceResponse);
+            deviceConnectionParameters = DeviceConnectionParameters.newBuilder()
+                    .ipAddress(deviceRequest.getIpAddress())
+                    .deviceIdentification(deviceRequest.getDeviceIdentification()).ied(IED.DA_RTU)
+                    .serverName(serverName).logicalDevice(LogicalDevice.RTU.getDescription() + 1).build();
         } catch (final Exception e) {
             LOGGER.error("Unexpected exception during Get Data", e);
 
@@ -90,23 +65,19 @@ public class Iec61850DaRtuDeviceService implements DaRtuDeviceService {
                     DeviceMessageStatus.FAILURE);
 
             deviceResponseHandler.handleException(e, deviceResponse);
+            return;
         }
-    }
-
-    // ======================================
-    // PRIVATE DEVICE COMMUNICATION METHODS =
-    // ======================================
 
-    private ServerModel connectAndRetrieveServerModel(final DeviceRequest deviceRequest, final String serverName)
-            throws ProtocolAdapterException {
+        this.iec61850DeviceConnectionService.executeWhenConnected(deviceConnectionParameters, deviceRequest,
+                deviceResponseHandler, deviceConnection -> {
+                    final Serializable dataResponse = this.handleGetData(deviceConnection, deviceRequest,
+                            messageProcessor);
 
-        final DeviceConnectionParameters deviceConnectionParameters = DeviceConnectionParameters.newBuilder()
-                .ipAddress(deviceRequest.getIpAddress()).deviceIdentification(deviceRequest.getDeviceIdentification())
-                .ied(IED.DA_RTU).serverName(serverName).logicalDevice(LogicalDevice.RTU.getDescription() + 1).build();
+                    final DaDeviceResponse deviceResponse = new DaDeviceResponse(deviceRequest,
+                            DeviceMessageStatus.OK, dataResponse);
 
-        this.iec61850DeviceConnectionService.connect(deviceConnectionParameters,
-                deviceRequest.getOrganisationIdentification());
-        return this.iec61850DeviceConnectionService.getServerModel(deviceRequest.getDeviceIdentification());
+                    deviceResponseHandler.handleResponse(deviceResponse);
+                });
     }
 
     // ========================
@@ -116,7 +87,7 @@ public class Iec61850DaRtuDeviceService implements DaRtuDeviceService {
     private <T> T handleGetData(final DeviceConnection connection, final DaDeviceRequest deviceRequest,
             final DaRtuDeviceRequestMessageProcessor messageProcessor) throws ProtocolAdapterException {
         final Function<T> function = messageProcessor.getDataFunction(this.iec61850Client, connection, deviceRequest);
-        return this.iec61850Client.sendCommandWithRetry(function, deviceRequest.getDeviceIdentification());
+        return this.iec61850DeviceConnectionService.sendCommandWithRetry(function, connection);
     }
 
     private String getServerName(final DeviceRequest deviceRequest) {
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2018 Smart Society Services B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850DeviceExecutor;
+
+/**
+ * Deletes data sets that have been created on devices for recurring reads,
+ * once they have not been used for a while. Data sets of closed connections
+ * disappear together with the association.
+ */
+@Component
+public class Iec61850DataSetCacheCleaner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850DataSetCacheCleaner.class);
+
+    private static final long MIN_CLEANUP_INTERVAL = 1000;
+
+    @Autowired
+    private Iec61850ConnectionPool iec61850ConnectionPool;
+
+    @Autowired
+    private Iec61850Client iec61850Client;
+
+    @Autowired
+    private Iec61850DeviceExecutor iec61850DeviceExecutor;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
+    @Autowired
+    private int dataSetCacheMaxSize;
+
+    @Autowired
+    private int dataSetCacheIdleTimeout;
+
+    @PostConstruct
+    private void init() {
+        if (this.dataSetCacheMaxSize > 0) {
+            this.iec61850TaskScheduler.scheduleWithFixedDelay(this::deleteUnusedDataSets,
+                    Math.max(MIN_CLEANUP_INTERVAL, this.dataSetCacheIdleTimeout / 2));
+        }
+    }
+
+    /**
+     * Deletes the unused data sets of all pooled connections. The data sets
+     * are deleted in turn with the other operations for the device.
+     */
+    public void deleteUnusedDataSets() {
+        final long now = System.currentTimeMillis();
+        for (final Map.Entry<String, Iec61850Connection> entry : this.iec61850ConnectionPool.getConnections()
+                .entrySet()) {
+            final String deviceIdentification = entry.getKey();
+            final Iec61850Connection connection = entry.getValue();
+            if (!connection.getDataSetCache().hasUnused(now, this.dataSetCacheIdleTimeout)) {
+                continue;
+            }
+            try {
+                this.iec61850DeviceExecutor.submit(deviceIdentification,
+                        () -> this.iec61850Client.deleteUnusedDataSets(connection, this.dataSetCacheIdleTimeout));
+            } catch (final RejectedExecutionException e) {
+                LOGGER.debug("Unable to delete unused data sets for device: {} now, trying again later",
+                        deviceIdentification, e);
+            }
+        }
+    }
+}
@@ -10,29 +10,49 @@ package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.ser
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.jms.JMSException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
+import org.openmuc.openiec61850.BdaVisibleString;
 import org.openmuc.openiec61850.ClientAssociation;
 import org.openmuc.openiec61850.Fc;
 import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.ModelNode;
 import org.openmuc.openiec61850.ServerModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.DeviceMessageStatus;
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.DeviceRequest;
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.DeviceResponseHandler;
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.ssld.responses.EmptyDeviceResponse;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61850Device;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceRepository;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceConnectionParameters;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeReadException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850CircuitBreaker;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ClientAssociation;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850DeviceExecutor;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ReadCache;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ServerModelSnapshotStore;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ConnectedRequest;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ConnectionState;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DataAttribute;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.Function;
@@ -47,13 +67,26 @@ public class Iec61850DeviceConnectionService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Iec61850DeviceConnectionService.class);
 
-    private static ConcurrentHashMap<String, Iec61850Connection> cache = new ConcurrentHashMap<>();
-
     private static final int IEC61850_DEFAULT_PORT = 102;
 
+    private static final String CONFIG_REVISION = "configRev";
+
+    /**
+     * Connection attempts in progress by device identification. Concurrent
+     * requests for the same device wait for the attempt in progress instead
+     * of setting up an association of their own.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Iec61850Connection>> connectionAttempts = new ConcurrentHashMap<>();
+
     @Autowired
     private Iec61850DeviceRepository iec61850DeviceRepository;
 
+    @Autowired
+    private Iec61850ConnectionPool iec61850ConnectionPool;
+
+    @Autowired
+    private Iec61850ConnectionProber iec61850ConnectionProber;
+
     @Autowired
     private Iec61850RtuDeviceReportingService iec61850RtuDeviceReportingService;
 
@@ -63,15 +96,42 @@ public class Iec61850DeviceConnectionService {
     @Autowired
     private Iec61850Client iec61850Client;
 
+    @Autowired
+    private Iec61850CircuitBreaker iec61850CircuitBreaker;
+
+    @Autowired
+    private Iec61850DeviceExecutor iec61850DeviceExecutor;
+
+    @Autowired
+    private Iec61850ReadCache iec61850ReadCache;
+
+    @Autowired
+    private Iec61850ServerModelSnapshotStore iec61850ServerModelSnapshotStore;
+
     @Autowired
     private int iec61850SsldPortServer;
 
     @Autowired
     private int iec61850RtuPortServer;
 
+    @Autowired
+    private Iec61850ConnectionAttemptLimiter iec61850ConnectionAttemptLimiter;
+
+    @Autowired
+    private TaskScheduler iec61850TaskScheduler;
+
     @Autowired
     private int responseTimeout;
 
+    @Autowired
+    private int connectionTimeout;
+
+    @Autowired
+    private boolean isConnectionProbeEnabled;
+
+    @Autowired
+    private int connectionProbeMaxAge;
+
     @Autowired
     private String icdFilesFolder;
 
@@ -96,18 +156,229 @@ public class Iec61850DeviceConnectionService {
 
         final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
         final String serverName = deviceConnectionParameters.getServerName();
-        final IED ied = deviceConnectionParameters.getIed();
         // When connection-caching is used, check if a connection is available
         // an usable for the given deviceIdentification.
+        if (cacheConnection && this.isCachedConnectionUsable(deviceConnectionParameters)) {
+            return new DeviceConnection(this.fetchIec61850Connection(deviceIdentification), deviceIdentification,
+                    organisationIdentification, serverName);
+        }
+
+        if (!cacheConnection) {
+            return this.establishConnection(deviceConnectionParameters, organisationIdentification, false);
+        }
+
+        final Iec61850Connection iec61850Connection = this.awaitConnectionAttempt(
+                this.startConnectionAttempt(deviceConnectionParameters, organisationIdentification, true),
+                deviceIdentification);
+        return new DeviceConnection(iec61850Connection, deviceIdentification, organisationIdentification, serverName);
+    }
+
+    /**
+     * Connects to the device like {@link #connect(DeviceConnectionParameters,
+     * String)}, without blocking the calling thread while a new association is
+     * set up.
+     * <p>
+     * New associations are set up on the connect executor, with a limited
+     * number of attempts in progress per subnet. A connection attempt that
+     * does not complete within the connect time-out, including the time spent
+     * waiting for other attempts for the same subnet, is cancelled and the
+     * future completes exceptionally with a
+     * {@link ConnectionFailureException}.
+     */
+    public CompletableFuture<DeviceConnection> connectAsync(
+            final DeviceConnectionParameters deviceConnectionParameters, final String organisationIdentification) {
+
+        final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
+        final String serverName = deviceConnectionParameters.getServerName();
+        if (this.isCachedConnectionUsable(deviceConnectionParameters)) {
+            return CompletableFuture.completedFuture(new DeviceConnection(
+                    this.fetchIec61850Connection(deviceIdentification), deviceIdentification,
+                    organisationIdentification, serverName));
+        }
+
+        return this.startConnectionAttempt(deviceConnectionParameters, organisationIdentification, true)
+                .thenApply(iec61850Connection -> new DeviceConnection(iec61850Connection, deviceIdentification,
+                        organisationIdentification, serverName));
+    }
+
+    /**
+     * Connects to the device, and runs the request on the device executor once
+     * connected.
+     * <p>
+     * The calling thread waits until the request has been executed, so the
+     * request message is only acknowledged once the device has been handled.
+     * This keeps unfinished requests on the broker when the adapter stops,
+     * and limits the requests in progress to the number of message
+     * consumers. The wait for a new association is limited by the connect
+     * time-out.
+     * <p>
+     * When connecting fails or the request throws a
+     * {@link ConnectionFailureException}, the response handler decides if the
+     * request message is redelivered. Other exceptions thrown by the request
+     * are passed to the response handler.
+     *
+     * @throws JMSException
+     *             To have the request message redelivered by the broker.
+     */
+    public void executeWhenConnected(final DeviceConnectionParameters deviceConnectionParameters,
+            final DeviceRequest deviceRequest, final DeviceResponseHandler deviceResponseHandler,
+            final ConnectedRequest request) throws JMSException {
+
+        final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
         try {
-            if (cacheConnection && this.testIfConnectionIsCachedAndAlive(deviceIdentification, ied, serverName,
-                    deviceConnectionParameters.getLogicalDevice())) {
-                return new DeviceConnection(this.fetchIec61850Connection(deviceIdentification), deviceIdentification,
-                        organisationIdentification, serverName);
-            }
+            final DeviceConnection deviceConnection = this.connect(deviceConnectionParameters,
+                    deviceRequest.getOrganisationIdentification());
+            this.iec61850DeviceExecutor.execute(deviceIdentification, () -> {
+                request.execute(deviceConnection);
+                return null;
+            });
+        } catch (final ConnectionFailureException e) {
+            LOGGER.error("Could not connect to device after all retries", e);
+            deviceResponseHandler.handleConnectionFailure(e,
+                    new EmptyDeviceResponse(deviceRequest, DeviceMessageStatus.FAILURE));
+        } catch (final Exception e) {
+            LOGGER.error("Unexpected exception during {} for device: {}", deviceRequest.getMessageType(),
+                    deviceIdentification, e);
+            deviceResponseHandler.handleException(e,
+                    new EmptyDeviceResponse(deviceRequest, DeviceMessageStatus.FAILURE));
+        }
+    }
+
+    private boolean isCachedConnectionUsable(final DeviceConnectionParameters deviceConnectionParameters) {
+        final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
+        try {
+            return this.testIfConnectionIsCachedAndAlive(deviceIdentification, deviceConnectionParameters.getIed(),
+                    deviceConnectionParameters.getServerName(), deviceConnectionParameters.getLogicalDevice());
         } catch (final ProtocolAdapterException e) {
             this.logProtocolAdapterException(deviceIdentification, e);
+            return false;
+        }
+    }
+
+    /**
+     * Starts a new connection attempt on the connect executor, or returns the
+     * attempt in progress for the device. Concurrent requests for the same
+     * device share the attempt instead of setting up an association of their
+     * own.
+     *
+     * @param guarded
+     *            Whether a new attempt is guarded by the circuit breaker of the
+     *            device. Not needed when the attempt is part of an operation
+     *            that is already guarded.
+     */
+    private CompletableFuture<Iec61850Connection> startConnectionAttempt(
+            final DeviceConnectionParameters deviceConnectionParameters, final String organisationIdentification,
+            final boolean guarded) {
+
+        final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
+        final CompletableFuture<Iec61850Connection> connectionAttempt = new CompletableFuture<>();
+        final CompletableFuture<Iec61850Connection> connectionAttemptInProgress = this.connectionAttempts
+                .putIfAbsent(deviceIdentification, connectionAttempt);
+        if (connectionAttemptInProgress != null) {
+            LOGGER.info("Using connection attempt in progress for deviceIdentification: {}", deviceIdentification);
+            return connectionAttemptInProgress;
         }
+        connectionAttempt.whenComplete(
+                (connection, t) -> this.connectionAttempts.remove(deviceIdentification, connectionAttempt));
+
+        final FutureTask<Void> task = new FutureTask<>(() -> this.runConnectionAttempt(deviceConnectionParameters,
+                organisationIdentification, connectionAttempt, guarded), null);
+        try {
+            this.iec61850ConnectionAttemptLimiter.execute(deviceConnectionParameters.getIpAddress(), task);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Connect executor unavailable, not connecting to deviceIdentification: {}",
+                    deviceIdentification);
+            connectionAttempt.completeExceptionally(new ConnectionFailureException(
+                    "Connect executor unavailable, unable to connect to deviceIdentification: " + deviceIdentification,
+                    e));
+            return connectionAttempt;
+        }
+
+        final ScheduledFuture<?> timeout = this.iec61850TaskScheduler.schedule(() -> {
+            final ConnectionFailureException timedOut = new ConnectionFailureException(
+                    "Connection attempt timed out after " + this.connectionTimeout
+                            + " ms for deviceIdentification: " + deviceIdentification);
+            if (connectionAttempt.completeExceptionally(timedOut)) {
+                LOGGER.warn("Connection attempt timed out for deviceIdentification: {}", deviceIdentification);
+                task.cancel(true);
+            }
+        }, new Date(System.currentTimeMillis() + this.connectionTimeout));
+        connectionAttempt.whenComplete((connection, t) -> timeout.cancel(false));
+
+        return connectionAttempt;
+    }
+
+    private void runConnectionAttempt(final DeviceConnectionParameters deviceConnectionParameters,
+            final String organisationIdentification, final CompletableFuture<Iec61850Connection> connectionAttempt,
+            final boolean guarded) {
+
+        final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
+        if (connectionAttempt.isDone()) {
+            // Timed out while waiting for a thread or another attempt for the
+            // same subnet.
+            return;
+        }
+        try {
+            // Another attempt may have finished between the cache check and
+            // starting this attempt.
+            final Iec61850Connection justConnected = this.fetchIec61850Connection(deviceIdentification);
+            if (justConnected != null && justConnected.getHealth().isHealthy(System.currentTimeMillis(),
+                    this.connectionProbeMaxAge)) {
+                connectionAttempt.complete(justConnected);
+                return;
+            }
+
+            final DeviceConnection deviceConnection = guarded
+                    ? this.establishConnection(deviceConnectionParameters, organisationIdentification, true)
+                    : this.createConnection(deviceConnectionParameters, organisationIdentification, true);
+            if (!connectionAttempt.complete(deviceConnection.getConnection())) {
+                // The association is pooled, so it is used by the next request
+                // for the device, even though this attempt was too late.
+                LOGGER.info("Connected to deviceIdentification: {} after the connection attempt timed out",
+                        deviceIdentification);
+            }
+        } catch (final ConnectionFailureException | RuntimeException e) {
+            connectionAttempt.completeExceptionally(e);
+        }
+    }
+
+    private Iec61850Connection awaitConnectionAttempt(final CompletableFuture<Iec61850Connection> connectionAttempt,
+            final String deviceIdentification) throws ConnectionFailureException {
+        try {
+            return connectionAttempt.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionFailureException(
+                    "Interrupted while waiting for connection to deviceIdentification: " + deviceIdentification, e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof ConnectionFailureException) {
+                throw (ConnectionFailureException) e.getCause();
+            }
+            throw new ConnectionFailureException("Connection attempt failed for deviceIdentification: "
+                    + deviceIdentification + ", " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Sets up a new association with the device, unless the circuit breaker
+     * for the device is open.
+     */
+    private DeviceConnection establishConnection(final DeviceConnectionParameters deviceConnectionParameters,
+            final String organisationIdentification, final boolean cacheConnection) throws ConnectionFailureException {
+        return this.iec61850CircuitBreaker.execute(deviceConnectionParameters.getDeviceIdentification(),
+                () -> this.createConnection(deviceConnectionParameters, organisationIdentification, cacheConnection));
+    }
+
+    /**
+     * Sets up a new association with the device, reads the ServerModel and
+     * enables reporting.
+     */
+    private DeviceConnection createConnection(final DeviceConnectionParameters deviceConnectionParameters,
+            final String organisationIdentification, final boolean cacheConnection) throws ConnectionFailureException {
+
+        final String deviceIdentification = deviceConnectionParameters.getDeviceIdentification();
+        final String serverName = deviceConnectionParameters.getServerName();
+        final IED ied = deviceConnectionParameters.getIed();
 
         final InetAddress inetAddress = this.convertIpAddress(deviceConnectionParameters.getIpAddress());
 
@@ -129,6 +400,10 @@ public class Iec61850DeviceConnectionService {
 
         final int port = this.determinePortForIec61850Device(ied, iec61850Device);
 
+        // Values read over an earlier association may have changed in the
+        // mean time, for instance when the device has restarted.
+        this.iec61850ReadCache.remove(deviceIdentification);
+
         // Try to connect and receive the ClientAssociation.
         final Iec61850ClientAssociation iec61850ClientAssociation = this.iec61850Client.connect(deviceIdentification,
                 inetAddress, eventListener, port);
@@ -142,13 +417,16 @@ public class Iec61850DeviceConnectionService {
         } catch (final ProtocolAdapterException e) {
             LOGGER.error("ProtocolAdapterException: unable to read ServerModel for deviceIdentification "
                     + deviceIdentification, e);
+            clientAssociation.close();
             throw new ConnectionFailureException(e.getMessage(), e);
         }
 
         // Cache the connection.
         final Iec61850Connection iec61850Connection = new Iec61850Connection(iec61850ClientAssociation, serverModel,
                 startTime, ied);
+        iec61850Connection.setConnectionParameters(deviceConnectionParameters);
         if (cacheConnection) {
+            this.iec61850ConnectionProber.connectionVerified(iec61850Connection);
             this.cacheIec61850Connection(deviceIdentification, iec61850Connection);
         }
 
@@ -160,15 +438,34 @@ public class Iec61850DeviceConnectionService {
                 "Connected to device: {}, fetched server model. Start time: {}, end time: {}, total time in milliseconds: {}",
                 deviceIdentification, startTime, endTime, endTime.minus(startTime.getMillis()).getMillis());
 
-        this.iec61850RtuDeviceReportingService.enableReportingForDevice(connection, deviceIdentification, serverName);
+        this.enableReporting(connection, deviceIdentification, serverName);
 
         return connection;
     }
 
+    /**
+     * Enables reporting on the device executor, so writing the report control
+     * blocks cannot interleave with commands that already use the pooled
+     * connection.
+     * <p>
+     * The connect does not wait for reporting to be enabled. A command that
+     * reconnects waits for the connect inside its turn on the device
+     * executor, so waiting for a task queued after that turn would never end.
+     * Requests for the device that are queued after the connect, run after
+     * reporting has been enabled.
+     */
+    void enableReporting(final DeviceConnection connection, final String deviceIdentification,
+            final String serverName) {
+        try {
+            this.iec61850DeviceExecutor.submit(deviceIdentification, () -> this.iec61850RtuDeviceReportingService
+                    .enableReportingForDevice(connection, deviceIdentification, serverName));
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Unable to enable reporting for deviceIdentification: {}", deviceIdentification, e);
+        }
+    }
+
     public void closeAllConnections() {
-        LOGGER.warn("Closing connections for {} devices", cache.size());
-        cache.values().forEach(c -> c.getClientAssociation().close());
-        cache.clear();
+        this.iec61850ConnectionPool.closeAll();
     }
 
     private void logProtocolAdapterException(final String deviceIdentification, final ProtocolAdapterException e) {
@@ -204,6 +501,15 @@ public class Iec61850DeviceConnectionService {
             if (iec61850Connection != null) {
                 // Already connected, check if connection is still usable.
                 LOGGER.info("Connection found for deviceIdentification: {}", deviceIdentification);
+                if (this.isConnectionProbeEnabled && ied != null && logicalDevice != null && iec61850Connection
+                        .getHealth().isHealthy(System.currentTimeMillis(), this.connectionProbeMaxAge)) {
+                    // A recent background check (or report) proved the
+                    // connection is alive. Without ied and logical device all
+                    // values are read below, which callers may depend on.
+                    LOGGER.info("Connection has recently been checked for deviceIdentification: {}",
+                            deviceIdentification);
+                    return true;
+                }
                 // Read physical name node (only), which is much faster, but
                 // requires manual reads of remote data.
                 if (ied != null && logicalDevice != null) {
@@ -213,15 +519,22 @@ public class Iec61850DeviceConnectionService {
                             DataAttribute.NAME_PLATE.getDescription(), deviceIdentification);
 
                     final FcModelNode modelNode = this.getModelNode(logicalDevice, iec61850Connection, description);
-                    this.iec61850Client.readNodeDataValues(iec61850Connection.getClientAssociation(), modelNode);
+                    this.iec61850DeviceExecutor.execute(deviceIdentification, () -> {
+                        this.iec61850Client.readNodeDataValues(iec61850Connection.getClientAssociation(), modelNode);
+                        return null;
+                    });
                 } else {
                     // Read all data values, which is much slower, but requires
                     // no manual reads of remote data.
                     LOGGER.info("Testing if connection is alive using readAllDataValues() for deviceIdentification: {}",
                             deviceIdentification);
-                    this.iec61850Client.readAllDataValues(iec61850Connection.getClientAssociation());
+                    this.iec61850DeviceExecutor.execute(deviceIdentification, () -> {
+                        this.iec61850Client.readAllDataValues(iec61850Connection.getClientAssociation());
+                        return null;
+                    });
                 }
                 LOGGER.info("Connection is still active for deviceIdentification: {}", deviceIdentification);
+                this.iec61850ConnectionProber.connectionVerified(iec61850Connection);
                 return true;
             }
         } catch (final NodeReadException e) {
@@ -280,8 +593,65 @@ public class Iec61850DeviceConnectionService {
         } catch (final ProtocolAdapterException e) {
             LOGGER.warn("Ignore exception reading server model based on configured ICD file.", e);
         }
-        LOGGER.info("Reading ServerModel from device: {} using readServerModelFromDevice()", deviceIdentification);
-        return this.iec61850Client.readServerModelFromDevice(clientAssociation);
+        return this.readServerModelFromSnapshotOrDevice(clientAssociation, deviceIdentification);
+    }
+
+    private ServerModel readServerModelFromSnapshotOrDevice(final ClientAssociation clientAssociation,
+            final String deviceIdentification) throws ProtocolAdapterException {
+
+        return this.iec61850ServerModelSnapshotStore.getServerModel(deviceIdentification,
+                new Iec61850ServerModelSnapshotStore.ServerModelSource() {
+
+                    @Override
+                    public void useServerModel(final ServerModel serverModel) {
+                        clientAssociation.setServerModel(serverModel);
+                    }
+
+                    @Override
+                    public String readConfigRev(final ServerModel serverModel) throws ProtocolAdapterException {
+                        return Iec61850DeviceConnectionService.this.readConfigRev(clientAssociation, serverModel,
+                                deviceIdentification);
+                    }
+
+                    @Override
+                    public ServerModel retrieveServerModel() throws ProtocolAdapterException {
+                        return Iec61850DeviceConnectionService.this.iec61850Client
+                                .readServerModelFromDevice(clientAssociation);
+                    }
+                });
+    }
+
+    /**
+     * Reads LLN0.NamPlt.configRev of the first logical device in the given
+     * ServerModel from the device.
+     *
+     * @return The configuration revision, or null if it is not available.
+     */
+    private String readConfigRev(final ClientAssociation clientAssociation, final ServerModel serverModel,
+            final String deviceIdentification) throws ProtocolAdapterException {
+
+        if (serverModel.getChildren().isEmpty()) {
+            return null;
+        }
+        final ModelNode logicalDevice = serverModel.getChildren().iterator().next();
+        final String objRef = logicalDevice.getName() + "/" + LogicalNode.LOGICAL_NODE_ZERO.getDescription() + "."
+                + DataAttribute.NAME_PLATE.getDescription();
+        final FcModelNode namePlate = (FcModelNode) serverModel.findModelNode(objRef, Fc.DC);
+        if (namePlate == null || !(namePlate.getChild(CONFIG_REVISION) instanceof BdaVisibleString)) {
+            return null;
+        }
+
+        try {
+            this.iec61850Client.readNodeDataValues(clientAssociation, namePlate);
+        } catch (final NodeReadException e) {
+            if (ConnectionState.BROKEN.equals(e.getConnectionState())) {
+                throw new ProtocolAdapterException("Unable to read " + objRef + " for device: " + deviceIdentification,
+                        e);
+            }
+            LOGGER.warn("Unable to read {} for device: {}", objRef, deviceIdentification, e);
+            return null;
+        }
+        return ((BdaVisibleString) namePlate.getChild(CONFIG_REVISION)).getStringValue();
     }
 
     private ServerModel readServerModelConfiguredForDevice(final ClientAssociation clientAssociation,
@@ -323,10 +693,11 @@ public class Iec61850DeviceConnectionService {
      */
     public void disconnect(final String deviceIdentification) {
         LOGGER.info("Trying to disconnect from deviceIdentification: {}", deviceIdentification);
-        final Iec61850Connection iec61850Connection = this.fetchIec61850Connection(deviceIdentification);
+        this.iec61850ReadCache.remove(deviceIdentification);
+        final Iec61850Connection iec61850Connection = this.removeIec61850Connection(deviceIdentification);
         if (iec61850Connection != null) {
             iec61850Connection.getClientAssociation().disconnect();
-            this.removeIec61850Connection(deviceIdentification);
+            this.iec61850DeviceExecutor.release(deviceIdentification);
             LOGGER.info("Disconnected from deviceIdentification: {}", deviceIdentification);
         } else {
             LOGGER.info("Unable to disconnect from deviceIdentification: {}, no cached connection was found",
@@ -335,8 +706,13 @@ public class Iec61850DeviceConnectionService {
     }
 
     public void disconnect(final DeviceConnection deviceConnection, final DeviceRequest deviceRequest) {
+        this.iec61850ReadCache.remove(deviceConnection.getDeviceIdentification());
         try {
+            // Do not keep a disconnected association in the pool.
+            this.iec61850ConnectionPool.remove(deviceConnection.getDeviceIdentification(),
+                    deviceConnection.getConnection());
             deviceConnection.getConnection().getIec61850ClientAssociation().getClientAssociation().disconnect();
+            this.iec61850DeviceExecutor.release(deviceConnection.getDeviceIdentification());
             this.logDuration(deviceConnection, deviceRequest);
         } catch (final NullPointerException e) {
             LOGGER.debug("NullPointerException during disconnect()", e);
@@ -393,14 +769,25 @@ public class Iec61850DeviceConnectionService {
         this.iec61850Client.readAllDataValues(clientAssociation);
     }
 
+    /**
+     * Reads the node from the device, also if values read earlier are kept,
+     * as the values may be read to be changed and written back.
+     */
     public void readNodeDataValues(final String deviceIdentification, final FcModelNode fcModelNode)
-            throws NodeReadException {
+            throws NodeReadException, ConnectionFailureException {
         final Iec61850Connection iec61850Connection = this.fetchIec61850Connection(deviceIdentification);
         if (iec61850Connection == null) {
             return;
         }
         final ClientAssociation clientAssociation = iec61850Connection.getClientAssociation();
-        this.iec61850Client.readNodeDataValues(clientAssociation, fcModelNode);
+        // Keep the read values on the device thread, so a write queued after
+        // the read cannot be followed by the values from before the write.
+        this.iec61850DeviceExecutor.execute(deviceIdentification,
+                () -> this.iec61850CircuitBreaker.execute(deviceIdentification, () -> {
+                    this.iec61850Client.readNodeDataValues(clientAssociation, fcModelNode);
+                    this.iec61850ReadCache.put(deviceIdentification, fcModelNode, System.currentTimeMillis());
+                    return null;
+                }));
     }
 
     public <T> T sendCommandWithRetry(final Function<T> function, final String deviceIdentification)
@@ -408,21 +795,66 @@ public class Iec61850DeviceConnectionService {
         return this.iec61850Client.sendCommandWithRetry(function, deviceIdentification);
     }
 
+    /**
+     * Executes the function with retries. When the connection with the device
+     * breaks, the device connection is reconnected before retrying, so the
+     * function has to get the connection from the device connection every
+     * time it is applied.
+     */
+    public <T> T sendCommandWithRetry(final Function<T> function, final DeviceConnection deviceConnection)
+            throws ProtocolAdapterException {
+        return this.iec61850Client.sendCommandWithRetry(function, deviceConnection.getDeviceIdentification(),
+                () -> this.reconnect(deviceConnection));
+    }
+
+    /**
+     * Replaces the broken connection of the device connection with a new
+     * pooled connection, using the parameters the broken connection was set
+     * up with.
+     */
+    private void reconnect(final DeviceConnection deviceConnection) throws ConnectionFailureException {
+        final String deviceIdentification = deviceConnection.getDeviceIdentification();
+        final Iec61850Connection brokenConnection = deviceConnection.getConnection();
+        final DeviceConnectionParameters deviceConnectionParameters = brokenConnection.getConnectionParameters();
+        if (deviceConnectionParameters == null) {
+            throw new ConnectionFailureException(
+                    "Unable to reconnect, connection parameters unknown for deviceIdentification: "
+                            + deviceIdentification);
+        }
+
+        LOGGER.info("Reconnecting to deviceIdentification: {}", deviceIdentification);
+        this.iec61850ConnectionPool.remove(deviceIdentification, brokenConnection);
+        brokenConnection.getHealth().broken();
+        final ClientAssociation clientAssociation = brokenConnection.getClientAssociation();
+        if (clientAssociation != null) {
+            clientAssociation.close();
+        }
+
+        // The reconnect is part of a command that has been let through by the
+        // circuit breaker of the device. The connection attempt runs on
+        // another thread, where the breaker does not know about the command,
+        // so a half-open breaker would reject it.
+        deviceConnection.setConnection(this.awaitConnectionAttempt(
+                this.startConnectionAttempt(deviceConnectionParameters,
+                        deviceConnection.getOrganisationIdentification(), false),
+                deviceIdentification));
+    }
+
     private void cacheIec61850Connection(final String deviceIdentification,
             final Iec61850Connection iec61850Connection) {
-        cache.put(deviceIdentification, iec61850Connection);
+        this.iec61850ConnectionPool.put(deviceIdentification, iec61850Connection);
     }
 
     private Iec61850Connection fetchIec61850Connection(final String deviceIdentification) {
-        final Iec61850Connection iec61850Connection = cache.get(deviceIdentification);
+        final Iec61850Connection iec61850Connection = this.iec61850ConnectionPool.get(deviceIdentification);
         if (iec61850Connection == null) {
             LOGGER.info("No connection found for device: {}", deviceIdentification);
         }
         return iec61850Connection;
     }
 
-    private void removeIec61850Connection(final String deviceIdentification) {
-        cache.remove(deviceIdentification);
+    private Iec61850Connection removeIec61850Connection(final String deviceIdentification) {
+        return this.iec61850ConnectionPool.remove(deviceIdentification);
     }
 
     private InetAddress convertIpAddress(final String ipAddress) throws ConnectionFailureException {
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuReadCommand;
+import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuReadCommandFactory;
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.rtu.RtuWriteCommand;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
@@ -78,6 +79,22 @@ public class Iec61850EngineSystemService implements SystemService {
                 profiles);
     }
 
+    @Override
+    public LogicalDevice getLogicalDevice() {
+        return DEVICE;
+    }
+
+    @Override
+    public RtuReadCommandFactory<MeasurementDto, MeasurementFilterDto> getMeasurementCommandFactory(
+            final DeviceConnection connection) {
+        return this.iec61850EngineCommandFactory;
+    }
+
+    @Override
+    public RtuReadCommandFactory<ProfileDto, ProfileFilterDto> getProfileCommandFactory() {
+        return Iec61850RtuReadProfileCommandFactory.getInstance();
+    }
+
     @Override
     public void setData(final SetDataSystemIdentifierDto systemIdentifier, final Iec61850Client client,
             final DeviceConnection connection) throws NodeException {
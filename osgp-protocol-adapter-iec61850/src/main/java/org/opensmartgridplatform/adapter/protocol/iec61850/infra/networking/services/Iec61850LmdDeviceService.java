@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import org.opensmartgridplatform.adapter.protocol.iec61850.application.services.LightMeasurementDeviceRegistry;
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.DeviceMessageStatus;
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.DeviceRequest;
 import org.opensmartgridplatform.adapter.protocol.iec61850.device.DeviceResponseHandler;
@@ -47,17 +48,32 @@ public class Iec61850LmdDeviceService implements LmdDeviceService {
     @Autowired
     private LmdDataService lmdDataService;
 
+    @Autowired
+    private LightMeasurementDeviceRegistry lightMeasurementDeviceRegistry;
+
     @Autowired
     private Boolean isBufferedReportingEnabled;
 
     @Override
     public void getStatus(final DeviceRequest deviceRequest, final DeviceResponseHandler deviceResponseHandler)
             throws JMSException {
-        DeviceConnection devCon = null;
-        try {
-            final DeviceConnection deviceConnection = this.connectToDevice(deviceRequest);
-            devCon = deviceConnection;
+        final DeviceConnectionParameters deviceConnectionParameters = DeviceConnectionParameters.newBuilder()
+                .ipAddress(deviceRequest.getIpAddress()).deviceIdentification(deviceRequest.getDeviceIdentification())
+                .ied(IED.ABB_RTU).serverName(IED.ABB_RTU.getDescription())
+                .logicalDevice(LogicalDevice.LD0.getDescription()).build();
 
+        this.iec61850DeviceConnectionService.executeWhenConnected(deviceConnectionParameters, deviceRequest,
+                deviceResponseHandler, deviceConnection -> this.getStatus(deviceConnection, deviceRequest,
+                        deviceResponseHandler));
+    }
+
+    // ======================================
+    // PRIVATE DEVICE COMMUNICATION METHODS =
+    // ======================================
+
+    private void getStatus(final DeviceConnection deviceConnection, final DeviceRequest deviceRequest,
+            final DeviceResponseHandler deviceResponseHandler) throws ConnectionFailureException {
+        try {
             final LightMeasurementDevice lmd = this.lmdDataService.findDevice(deviceRequest.getDeviceIdentification());
 
             LOGGER.info("Iec61850LmdDeviceService.getStatus() called for LMD: {}", lmd);
@@ -71,29 +87,16 @@ public class Iec61850LmdDeviceService implements LmdDeviceService {
 
             this.enableReporting(deviceConnection, deviceRequest);
         } catch (final ConnectionFailureException se) {
-            this.handleConnectionFailureException(deviceRequest, deviceResponseHandler, se);
-            this.iec61850DeviceConnectionService.disconnect(devCon, deviceRequest);
+            // Handled by the connection service, which may have the request
+            // redelivered.
+            this.iec61850DeviceConnectionService.disconnect(deviceConnection, deviceRequest);
+            throw se;
         } catch (final Exception e) {
             this.handleException(deviceRequest, deviceResponseHandler, e);
-            this.iec61850DeviceConnectionService.disconnect(devCon, deviceRequest);
+            this.iec61850DeviceConnectionService.disconnect(deviceConnection, deviceRequest);
         }
     }
 
-    // ======================================
-    // PRIVATE DEVICE COMMUNICATION METHODS =
-    // ======================================
-
-    private DeviceConnection connectToDevice(final DeviceRequest deviceRequest) throws ConnectionFailureException {
-
-        final DeviceConnectionParameters deviceConnectionParameters = DeviceConnectionParameters.newBuilder()
-                .ipAddress(deviceRequest.getIpAddress()).deviceIdentification(deviceRequest.getDeviceIdentification())
-                .ied(IED.ABB_RTU).serverName(IED.ABB_RTU.getDescription())
-                .logicalDevice(LogicalDevice.LD0.getDescription()).build();
-
-        return this.iec61850DeviceConnectionService.connect(deviceConnectionParameters,
-                deviceRequest.getOrganisationIdentification());
-    }
-
     // ========================
     // PRIVATE HELPER METHODS =
     // ========================
@@ -103,15 +106,6 @@ public class Iec61850LmdDeviceService implements LmdDeviceService {
         return new EmptyDeviceResponse(deviceRequest, deviceMessageStatus);
     }
 
-    private void handleConnectionFailureException(final DeviceRequest deviceRequest,
-            final DeviceResponseHandler deviceResponseHandler,
-            final ConnectionFailureException connectionFailureException) throws JMSException {
-        LOGGER.error("Could not connect to device", connectionFailureException);
-        final EmptyDeviceResponse deviceResponse = this.createDefaultResponse(deviceRequest,
-                DeviceMessageStatus.FAILURE);
-        deviceResponseHandler.handleConnectionFailure(connectionFailureException, deviceResponse);
-    }
-
     private void handleException(final DeviceRequest deviceRequest, final DeviceResponseHandler deviceResponseHandler,
             final Exception exception) {
         LOGGER.error("Unexpected exception", exception);
@@ -123,6 +117,9 @@ public class Iec61850LmdDeviceService implements LmdDeviceService {
     private void enableReporting(final DeviceConnection deviceConnection, final DeviceRequest deviceRequest)
             throws NodeException {
         LOGGER.info("Trying to enable reporting for device: {}", deviceRequest.getDeviceIdentification());
+        // Reports will follow, make sure they are routed to the current
+        // light measurement devices.
+        this.lightMeasurementDeviceRegistry.invalidate();
         if (this.isBufferedReportingEnabled) {
             new Iec61850EnableReportingCommand().enableBufferedReportingOnLightMeasurementDevice(this.iec61850Client,
                     deviceConnection);
@@ -12,8 +12,7 @@ import java.util.List;
 
 import javax.jms.JMSException;
 
-import org.openmuc.openiec61850.ClientAssociation;
-import org.openmuc.openiec61850.ServerModel;
+import org.openmuc.openiec61850.FcModelNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,12 +30,11 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.domain.entities.Iec61
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850DeviceRepository;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceConnectionParameters;
 import org.opensmartgridplatform.adapter.protocol.iec61850.domain.valueobjects.DeviceMessageLog;
-import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
-import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ClientAssociation;
-import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850LastValueStore;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.SystemService;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.ConnectedRequest;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.Function;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
@@ -62,23 +60,17 @@ public class Iec61850RtuDeviceService implements RtuDeviceService {
     @Autowired
     private Iec61850Client iec61850Client;
 
+    @Autowired
+    private Iec61850LastValueStore iec61850LastValueStore;
+
     @Autowired
     private Iec61850DeviceRepository iec61850DeviceRepository;
 
     @Override
     public void getData(final GetDataDeviceRequest deviceRequest, final DeviceResponseHandler deviceResponseHandler)
             throws JMSException {
-        try {
-            final String serverName = this.getServerName(deviceRequest);
-            final ServerModel serverModel = this.connectAndRetrieveServerModel(deviceRequest, serverName);
-
-            final ClientAssociation clientAssociation = this.iec61850DeviceConnectionService
-                    .getClientAssociation(deviceRequest.getDeviceIdentification());
-
-            final GetDataResponseDto getDataResponse = this.handleGetData(new DeviceConnection(
-                    new Iec61850Connection(new Iec61850ClientAssociation(clientAssociation, null), serverModel),
-                    deviceRequest.getDeviceIdentification(), deviceRequest.getOrganisationIdentification(), serverName),
-                    deviceRequest);
+        this.executeWhenConnected(deviceRequest, deviceResponseHandler, deviceConnection -> {
+            final GetDataResponseDto getDataResponse = this.handleGetData(deviceConnection, deviceRequest);
 
             if (getDataResponse == null) {
                 throw new ProtocolAdapterException("No valid response received during GetData");
@@ -88,71 +80,49 @@ public class Iec61850RtuDeviceService implements RtuDeviceService {
                     DeviceMessageStatus.OK, getDataResponse);
 
             deviceResponseHandler.handleResponse(deviceResponse);
-        } catch (final ConnectionFailureException se) {
-            LOGGER.error("Could not connect to device after all retries", se);
-
-            final EmptyDeviceResponse deviceResponse = new EmptyDeviceResponse(deviceRequest,
-                    DeviceMessageStatus.FAILURE);
-
-            deviceResponseHandler.handleConnectionFailure(se, deviceResponse);
-        } catch (final Exception e) {
-            LOGGER.error("Unexpected exception during Get Data", e);
-
-            final EmptyDeviceResponse deviceResponse = new EmptyDeviceResponse(deviceRequest,
-                    DeviceMessageStatus.FAILURE);
-
-            deviceResponseHandler.handleException(e, deviceResponse);
-        }
+        });
     }
 
     @Override
     public void setData(final SetDataDeviceRequest deviceRequest, final DeviceResponseHandler deviceResponseHandler)
             throws JMSException {
-        try {
-            final String serverName = this.getServerName(deviceRequest);
-            final ServerModel serverModel = this.connectAndRetrieveServerModel(deviceRequest, serverName);
-            final ClientAssociation clientAssociation = this.iec61850DeviceConnectionService
-                    .getClientAssociation(deviceRequest.getDeviceIdentification());
-
-            this.handleSetData(new DeviceConnection(
-                    new Iec61850Connection(new Iec61850ClientAssociation(clientAssociation, null), serverModel),
-                    deviceRequest.getDeviceIdentification(), deviceRequest.getOrganisationIdentification(), serverName),
-                    deviceRequest);
+        this.executeWhenConnected(deviceRequest, deviceResponseHandler, deviceConnection -> {
+            this.handleSetData(deviceConnection, deviceRequest);
 
             final EmptyDeviceResponse deviceResponse = new EmptyDeviceResponse(deviceRequest, DeviceMessageStatus.OK);
 
             deviceResponseHandler.handleResponse(deviceResponse);
-        } catch (final ConnectionFailureException se) {
-            LOGGER.error("Could not connect to device after all retries", se);
+        });
+    }
 
-            final EmptyDeviceResponse deviceResponse = new EmptyDeviceResponse(deviceRequest,
-                    DeviceMessageStatus.FAILURE);
+    // ======================================
+    // PRIVATE DEVICE COMMUNICATION METHODS =
+    // ======================================
 
-            deviceResponseHandler.handleConnectionFailure(se, deviceResponse);
+    /**
+     * Connects to the device, and executes the request once connected.
+     */
+    private void executeWhenConnected(final DeviceRequest deviceRequest,
+            final DeviceResponseHandler deviceResponseHandler, final ConnectedRequest request) throws JMSException {
+        final DeviceConnectionParameters deviceConnectionParameters;
+        try {
+            final String serverName = this.getServerName(deviceRequest);
+            deviceConnectionParameters = DeviceConnectionParameters.newBuilder()
+                    .ipAddress(deviceRequest.getIpAddress())
+                    .deviceIdentification(deviceRequest.getDeviceIdentification()).ied(IED.ZOWN_RTU)
+                    .serverName(serverName).logicalDevice(LogicalDevice.RTU.getDescription() + 1).build();
         } catch (final Exception e) {
-            LOGGER.error("Unexpected exception during Set Data", e);
+            LOGGER.error("Unexpected exception during {}", deviceRequest.getMessageType(), e);
 
             final EmptyDeviceResponse deviceResponse = new EmptyDeviceResponse(deviceRequest,
                     DeviceMessageStatus.FAILURE);
 
             deviceResponseHandler.handleException(e, deviceResponse);
+            return;
         }
-    }
-
-    // ======================================
-    // PRIVATE DEVICE COMMUNICATION METHODS =
-    // ======================================
-
-    private ServerModel connectAndRetrieveServerModel(final DeviceRequest deviceRequest, final String serverName)
-            throws ProtocolAdapterException {
-
-        final DeviceConnectionParameters deviceConnectionParameters = DeviceConnectionParameters.newBuilder()
-                .ipAddress(deviceRequest.getIpAddress()).deviceIdentification(deviceRequest.getDeviceIdentification())
-                .ied(IED.ZOWN_RTU).serverName(serverName).logicalDevice(LogicalDevice.RTU.getDescription() + 1).build();
 
-        this.iec61850DeviceConnectionService.connect(deviceConnectionParameters,
-                deviceRequest.getOrganisationIdentification());
-        return this.iec61850DeviceConnectionService.getServerModel(deviceRequest.getDeviceIdentification());
+        this.iec61850DeviceConnectionService.executeWhenConnected(deviceConnectionParameters, deviceRequest,
+                deviceResponseHandler, request);
     }
 
     // ========================
@@ -169,20 +139,38 @@ public class Iec61850RtuDeviceService implements RtuDeviceService {
             @Override
             public GetDataResponseDto apply(final DeviceMessageLog deviceMessageLog) throws ProtocolAdapterException {
 
-                final List<GetDataSystemIdentifierDto> identifiers = new ArrayList<>();
-                for (final SystemFilterDto systemFilter : requestedData.getSystemFilters()) {
-                    final SystemService systemService = Iec61850RtuDeviceService.this.systemServiceFactory
-                            .getSystemService(systemFilter);
-                    final GetDataSystemIdentifierDto getDataSystemIdentifier = systemService.getData(systemFilter,
-                            Iec61850RtuDeviceService.this.iec61850Client, connection);
-                    identifiers.add(getDataSystemIdentifier);
+                Iec61850RtuDeviceService.this.prefetchNodes(connection, requestedData);
+                try {
+                    final List<GetDataSystemIdentifierDto> identifiers = new ArrayList<>();
+                    for (final SystemFilterDto systemFilter : requestedData.getSystemFilters()) {
+                        final SystemService systemService = Iec61850RtuDeviceService.this.systemServiceFactory
+                                .getSystemService(systemFilter);
+                        final GetDataSystemIdentifierDto getDataSystemIdentifier = systemService.getData(systemFilter,
+                                Iec61850RtuDeviceService.this.iec61850Client, connection);
+                        identifiers.add(getDataSystemIdentifier);
+                    }
+
+                    return new GetDataResponseDto(identifiers, null);
+                } finally {
+                    connection.clearPrefetchedNodes();
                 }
-
-                return new GetDataResponseDto(identifiers, null);
             }
         };
 
-        return this.iec61850Client.sendCommandWithRetry(function, deviceRequest.getDeviceIdentification());
+        return this.iec61850DeviceConnectionService.sendCommandWithRetry(function, connection);
+    }
+
+    /**
+     * Reads the nodes needed for all system filters at once, instead of one
+     * round trip per measurement.
+     */
+    private void prefetchNodes(final DeviceConnection connection, final GetDataRequestDto requestedData)
+            throws ProtocolAdapterException {
+        final List<FcModelNode> nodes = new ArrayList<>();
+        for (final SystemFilterDto systemFilter : requestedData.getSystemFilters()) {
+            this.systemServiceFactory.getSystemService(systemFilter).collectNodes(systemFilter, connection, nodes);
+        }
+        this.iec61850Client.prefetchNodeDataValues(connection, nodes);
     }
 
     private void handleSetData(final DeviceConnection connection, final SetDataDeviceRequest deviceRequest)
@@ -194,19 +182,26 @@ public class Iec61850RtuDeviceService implements RtuDeviceService {
             @Override
             public Void apply(final DeviceMessageLog deviceMessageLog) throws ProtocolAdapterException {
 
-                for (final SetDataSystemIdentifierDto identifier : setDataRequest.getSetDataSystemIdentifiers()) {
+                try {
+                    for (final SetDataSystemIdentifierDto identifier : setDataRequest
+                            .getSetDataSystemIdentifiers()) {
 
-                    final SystemService systemService = Iec61850RtuDeviceService.this.systemServiceFactory
-                            .getSystemService(identifier.getSystemType());
+                        final SystemService systemService = Iec61850RtuDeviceService.this.systemServiceFactory
+                                .getSystemService(identifier.getSystemType());
 
-                    systemService.setData(identifier, Iec61850RtuDeviceService.this.iec61850Client, connection);
+                        systemService.setData(identifier, Iec61850RtuDeviceService.this.iec61850Client, connection);
+                    }
+                } finally {
+                    // Written values may not be reported, read them from the
+                    // device again.
+                    Iec61850RtuDeviceService.this.iec61850LastValueStore.remove(connection.getDeviceIdentification());
                 }
 
                 return null;
             }
         };
 
-        this.iec61850Client.sendCommandWithRetry(function, deviceRequest.getDeviceIdentification());
+        this.iec61850DeviceConnectionService.sendCommandWithRetry(function, connection);
     }
 
     private String getServerName(final DeviceRequest deviceRequest) {
@@ -43,6 +43,7 @@ import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.Connection
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.NodeException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Client;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ReadCache;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
 import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.LogicalDevice;
@@ -89,6 +90,9 @@ public class Iec61850SsldDeviceService implements SsldDeviceService {
     @Autowired
     private Iec61850Client iec61850Client;
 
+    @Autowired
+    private Iec61850ReadCache iec61850ReadCache;
+
     @Autowired
     private Iec61850Mapper mapper;
 
@@ -320,6 +324,8 @@ public class Iec61850SsldDeviceService implements SsldDeviceService {
         } catch (final Exception e) {
             this.handleException(deviceRequest, deviceResponseHandler, e);
         }
+        // The configuration of the device may have changed.
+        this.iec61850ReadCache.remove(deviceRequest.getDeviceIdentification());
         this.iec61850DeviceConnectionService.disconnect(deviceConnection, deviceRequest);
     }
 
@@ -484,6 +490,8 @@ public class Iec61850SsldDeviceService implements SsldDeviceService {
         } catch (final Exception e) {
             this.handleException(deviceRequest, deviceResponseHandler, e);
         }
+        // The configuration of the device may have changed.
+        this.iec61850ReadCache.remove(deviceRequest.getDeviceIdentification());
         this.iec61850DeviceConnectionService.disconnect(deviceConnection, deviceRequest);
     }
 
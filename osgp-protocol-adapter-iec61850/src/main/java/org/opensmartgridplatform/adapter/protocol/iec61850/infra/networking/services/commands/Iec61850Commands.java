@@ -48,8 +48,7 @@ public class Iec61850Commands {
 
         final NodeContainer masterControl = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING, logicalNode,
                 DataAttribute.MASTER_CONTROL, Fc.CF);
-        iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                masterControl.getFcmodelNode());
+        iec61850Client.readNodeDataValues(deviceConnection, masterControl.getFcmodelNode());
 
         final BdaBoolean enbOper = masterControl.getBoolean(SubDataAttribute.ENABLE_OPERATION);
         if (enbOper.getValue()) {
@@ -90,8 +90,7 @@ public class Iec61850GetConfigurationCommand {
                 LOGGER.info("Reading the software configuration values");
                 final NodeContainer softwareConfiguration = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
                         LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.SOFTWARE_CONFIGURATION, Fc.CF);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        softwareConfiguration.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, softwareConfiguration.getFcmodelNode());
 
                 String lightTypeValue = softwareConfiguration.getString(SubDataAttribute.LIGHT_TYPE);
                 // Fix for Kaifa bug KI-31
@@ -126,8 +125,7 @@ public class Iec61850GetConfigurationCommand {
                 LOGGER.info("Reading the registration configuration values");
                 final NodeContainer registration = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
                         LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.REGISTRATION, Fc.CF);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        registration.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, registration.getFcmodelNode());
 
                 final String serverAddress = registration.getString(SubDataAttribute.SERVER_ADDRESS);
                 final int serverPort = registration.getInteger(SubDataAttribute.SERVER_PORT).getValue();
@@ -144,8 +142,7 @@ public class Iec61850GetConfigurationCommand {
                 LOGGER.info("Reading the IP configuration values");
                 final NodeContainer ipConfiguration = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
                         LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.IP_CONFIGURATION, Fc.CF);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        ipConfiguration.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, ipConfiguration.getFcmodelNode());
 
                 final String deviceFixedIpAddress = ipConfiguration.getString(SubDataAttribute.IP_ADDRESS);
                 final String deviceFixedIpNetmask = ipConfiguration.getString(SubDataAttribute.NETMASK);
@@ -175,8 +172,7 @@ public class Iec61850GetConfigurationCommand {
                 LOGGER.info("Reading the clock configuration values");
                 final NodeContainer clock = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
                         LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.CLOCK, Fc.CF);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        clock.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, clock.getFcmodelNode());
 
                 final int timeSyncFrequency = clock.getUnsignedShort(SubDataAttribute.TIME_SYNC_FREQUENCY).getValue();
                 final boolean automaticSummerTimingEnabled = clock
@@ -247,8 +243,7 @@ public class Iec61850GetConfigurationCommand {
         final LogicalNode logicalNode = LogicalNode.getSwitchComponentByIndex(deviceOutputSetting.getInternalId());
         final NodeContainer switchType = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING, logicalNode,
                 DataAttribute.SWITCH_TYPE, Fc.ST);
-        iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                switchType.getFcmodelNode());
+        iec61850Client.readNodeDataValues(deviceConnection, switchType.getFcmodelNode());
 
         final int switchTypeValue = switchType.getByte(SubDataAttribute.STATE).getValue();
         if (expectedSwType != switchTypeValue) {
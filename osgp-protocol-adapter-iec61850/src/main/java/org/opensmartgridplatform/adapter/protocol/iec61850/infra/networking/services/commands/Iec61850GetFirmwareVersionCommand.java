@@ -45,8 +45,7 @@ public class Iec61850GetFirmwareVersionCommand {
                 LOGGER.info("Reading the functional firmware version");
                 final NodeContainer functionalFirmwareNode = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
                         LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.FUNCTIONAL_FIRMWARE, Fc.ST);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        functionalFirmwareNode.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, functionalFirmwareNode.getFcmodelNode());
                 final String functionalFirmwareVersion = functionalFirmwareNode
                         .getString(SubDataAttribute.CURRENT_VERSION);
 
@@ -60,8 +59,7 @@ public class Iec61850GetFirmwareVersionCommand {
                 LOGGER.info("Reading the security firmware version");
                 final NodeContainer securityFirmwareNode = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
                         LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.SECURITY_FIRMWARE, Fc.ST);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        securityFirmwareNode.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, securityFirmwareNode.getFcmodelNode());
                 final String securityFirmwareVersion = securityFirmwareNode.getString(SubDataAttribute.CURRENT_VERSION);
 
                 // Adding it to the list
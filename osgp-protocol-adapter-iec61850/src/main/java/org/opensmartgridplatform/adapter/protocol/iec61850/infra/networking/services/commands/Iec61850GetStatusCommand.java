@@ -13,6 +13,7 @@ import java.util.Set;
 
 import org.openmuc.openiec61850.BdaBoolean;
 import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcModelNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,16 +47,50 @@ public class Iec61850GetStatusCommand {
 
             @Override
             public DeviceStatusDto apply(final DeviceMessageLog deviceMessageLog) throws ProtocolAdapterException {
+                final List<NodeContainer> positions = new ArrayList<>();
+                for (final DeviceOutputSetting deviceOutputSetting : ssld.getOutputSettings()) {
+                    final LogicalNode logicalNode = LogicalNode
+                            .getSwitchComponentByIndex(deviceOutputSetting.getInternalId());
+                    positions.add(deviceConnection.getFcModelNode(LogicalDevice.LIGHTING, logicalNode,
+                            DataAttribute.POSITION, Fc.ST));
+                }
+                final NodeContainer eventBuffer = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
+                        LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.EVENT_BUFFER, Fc.CF);
+                final NodeContainer softwareConfiguration = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
+                        LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.SOFTWARE_CONFIGURATION, Fc.CF);
+
+                // The relay positions do not depend on each other, read them
+                // at once. The connection is not kept between requests, so
+                // they are read with a temporary data set, which only pays
+                // off for enough relays. The CF nodes are read one by one,
+                // as not all devices accept data sets with mixed FCs.
+                if (positions.size() >= Iec61850Client.MIN_NODES_FOR_TEMPORARY_DATA_SET) {
+                    final List<FcModelNode> nodes = new ArrayList<>();
+                    for (final NodeContainer position : positions) {
+                        nodes.add(position.getFcmodelNode());
+                    }
+                    iec61850Client.prefetchNodeDataValues(deviceConnection, nodes);
+                }
+
+                try {
+                    return this.getStatus(deviceMessageLog, positions, eventBuffer, softwareConfiguration);
+                } finally {
+                    deviceConnection.clearPrefetchedNodes();
+                }
+            }
+
+            private DeviceStatusDto getStatus(final DeviceMessageLog deviceMessageLog,
+                    final List<NodeContainer> positions, final NodeContainer eventBuffer,
+                    final NodeContainer softwareConfiguration) throws ProtocolAdapterException {
                 // getting the light relay values
                 final List<LightValueDto> lightValues = new ArrayList<>();
 
+                int index = 0;
                 for (final DeviceOutputSetting deviceOutputSetting : ssld.getOutputSettings()) {
                     final LogicalNode logicalNode = LogicalNode
                             .getSwitchComponentByIndex(deviceOutputSetting.getInternalId());
-                    final NodeContainer position = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING, logicalNode,
-                            DataAttribute.POSITION, Fc.ST);
-                    iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                            position.getFcmodelNode());
+                    final NodeContainer position = positions.get(index++);
+                    iec61850Client.readNodeDataValues(deviceConnection, position.getFcmodelNode());
                     final BdaBoolean state = position.getBoolean(SubDataAttribute.STATE);
                     final boolean on = state.getValue();
                     lightValues.add(new LightValueDto(deviceOutputSetting.getExternalId(), on, null));
@@ -66,10 +101,7 @@ public class Iec61850GetStatusCommand {
                     deviceMessageLog.addVariable(logicalNode, DataAttribute.POSITION, Fc.ST, Boolean.toString(on));
                 }
 
-                final NodeContainer eventBuffer = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
-                        LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.EVENT_BUFFER, Fc.CF);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        eventBuffer.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, eventBuffer.getFcmodelNode());
                 final String filter = eventBuffer.getString(SubDataAttribute.EVENT_BUFFER_FILTER);
                 LOGGER.info("Got EvnBuf.enbEvnType filter {}", filter);
 
@@ -82,10 +114,7 @@ public class Iec61850GetStatusCommand {
                     eventNotificationsMask |= notificationType.getValue();
                 }
 
-                final NodeContainer softwareConfiguration = deviceConnection.getFcModelNode(LogicalDevice.LIGHTING,
-                        LogicalNode.STREET_LIGHT_CONFIGURATION, DataAttribute.SOFTWARE_CONFIGURATION, Fc.CF);
-                iec61850Client.readNodeDataValues(deviceConnection.getConnection().getClientAssociation(),
-                        softwareConfiguration.getFcmodelNode());
+                iec61850Client.readNodeDataValues(deviceConnection, softwareConfiguration.getFcmodelNode());
                 String lightTypeValue = softwareConfiguration.getString(SubDataAttribute.LIGHT_TYPE);
                 // Fix for Kaifa bug KI-31
                 if (lightTypeValue == null || lightTypeValue.isEmpty()) {
@@ -0,0 +1,92 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.application.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+
+import org.opensmartgridplatform.core.db.api.iec61850.entities.LightMeasurementDevice;
+
+public class LightMeasurementDeviceRegistryTest {
+
+    private final DeviceManagementService deviceManagementService = mock(DeviceManagementService.class);
+
+    private final LightMeasurementDeviceRegistry registry = new LightMeasurementDeviceRegistry();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(this.registry, "deviceManagementService", this.deviceManagementService);
+    }
+
+    @Test
+    public void testDevicesSharingDigitalInputAreAllReturned() {
+        final LightMeasurementDevice lmd1 = this.lightMeasurementDevice(2);
+        final LightMeasurementDevice lmd2 = this.lightMeasurementDevice(2);
+        final LightMeasurementDevice lmd3 = this.lightMeasurementDevice(3);
+        when(this.deviceManagementService.findRealLightMeasurementDevices())
+                .thenReturn(Arrays.asList(lmd1, lmd2, lmd3));
+
+        assertEquals(Arrays.asList(lmd1, lmd2), this.registry.get(2));
+        assertEquals(Arrays.asList(lmd3), this.registry.get(3));
+        assertTrue(this.registry.get(4).isEmpty());
+        assertTrue(this.registry.get(17).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentLookupsAfterInvalidateLoadOnce() throws InterruptedException {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(this.deviceManagementService.findRealLightMeasurementDevices()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Arrays.asList(this.lightMeasurementDevice(1));
+        });
+        this.registry.invalidate();
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final Thread thread = new Thread(() -> this.registry.get(1));
+            threads.add(thread);
+            thread.start();
+        }
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        // Give the other threads the time to wait for the load in progress.
+        Thread.sleep(100);
+        release.countDown();
+        for (final Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        verify(this.deviceManagementService, times(1)).findRealLightMeasurementDevices();
+        assertEquals(1, this.registry.getRefreshes());
+    }
+
+    @Test
+    public void testRefreshReloadsDevices() {
+        when(this.deviceManagementService.findRealLightMeasurementDevices())
+                .thenReturn(Arrays.asList(this.lightMeasurementDevice(1)));
+        this.registry.get(1);
+
+        this.registry.refresh();
+
+        verify(this.deviceManagementService, times(2)).findRealLightMeasurementDevices();
+    }
+
+    private LightMeasurementDevice lightMeasurementDevice(final int digitalInput) {
+        final LightMeasurementDevice lmd = mock(LightMeasurementDevice.class);
+        when(lmd.getDigitalInput()).thenReturn((short) digitalInput);
+        return lmd;
+    }
+}
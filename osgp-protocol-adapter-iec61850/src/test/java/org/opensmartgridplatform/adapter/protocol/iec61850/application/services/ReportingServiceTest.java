@@ -0,0 +1,157 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.application.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.openmuc.openiec61850.BdaEntryTime;
+import org.openmuc.openiec61850.BdaOctetString;
+import org.openmuc.openiec61850.Report;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.domain.repositories.Iec61850ReportEntryRepository;
+
+public class ReportingServiceTest {
+
+    private static final String DEVICE_1 = "TST-01";
+    private static final String DEVICE_2 = "TST-02";
+    private static final String REPORT_ID = "Report";
+
+    private static final int ENTRY_ID_INDEX = 4;
+
+    /**
+     * Records the batches written, and fails while failing is set.
+     */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        private final List<List<Object[]>> batches = new ArrayList<>();
+        private boolean failing;
+        private Runnable duringWrite;
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            if (this.duringWrite != null) {
+                this.duringWrite.run();
+            }
+            if (this.failing) {
+                throw new DataAccessResourceFailureException("Database not available");
+            }
+            this.batches.add(batchArgs);
+            return new int[batchArgs.size()];
+        }
+    }
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+
+    private final Iec61850ReportEntryRepository repository = mock(Iec61850ReportEntryRepository.class);
+
+    private final ReportingService reportingService = new ReportingService();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(this.reportingService, "iec61850JdbcTemplate", this.jdbcTemplate);
+        Whitebox.setInternalState(this.reportingService, "iec61850ReportEntryRepository", this.repository);
+        Whitebox.setInternalState(this.reportingService, "transactionManager",
+                mock(PlatformTransactionManager.class));
+        Whitebox.setInternalState(this.reportingService, "reportEntryFlushInterval", 1000);
+    }
+
+    @Test
+    public void testEntryWrittenImmediatelyWithoutFlushInterval() {
+        Whitebox.setInternalState(this.reportingService, "reportEntryFlushInterval", 0);
+
+        this.reportingService.storeLastReportEntry(this.report(1), DEVICE_1);
+
+        assertEquals(1, this.jdbcTemplate.batches.size());
+        assertEquals(0, this.reportingService.getPendingEntryCount());
+    }
+
+    @Test
+    public void testEntriesKeptUntilFlush() {
+        this.reportingService.storeLastReportEntry(this.report(1), DEVICE_1);
+
+        assertTrue(this.jdbcTemplate.batches.isEmpty());
+        assertEquals(1, this.reportingService.getPendingEntryCount());
+        assertArrayEquals(new byte[] { 1 },
+                this.reportingService.retrieveReportEntry(DEVICE_1, REPORT_ID).getEntryId());
+    }
+
+    @Test
+    public void testFlushWritesLatestEntryPerReportInOneBatch() {
+        this.reportingService.storeLastReportEntry(this.report(1), DEVICE_1);
+        this.reportingService.storeLastReportEntry(this.report(2), DEVICE_1);
+        this.reportingService.storeLastReportEntry(this.report(3), DEVICE_1);
+        this.reportingService.storeLastReportEntry(this.report(7), DEVICE_2);
+
+        this.reportingService.flush();
+
+        assertEquals(1, this.jdbcTemplate.batches.size());
+        final List<Object[]> batch = this.jdbcTemplate.batches.get(0);
+        assertEquals(2, batch.size());
+        for (final Object[] row : batch) {
+            final byte[] expectedEntryId = DEVICE_1.equals(row[2]) ? new byte[] { 3 } : new byte[] { 7 };
+            assertArrayEquals(expectedEntryId, (byte[]) row[ENTRY_ID_INDEX]);
+        }
+        assertEquals(0, this.reportingService.getPendingEntryCount());
+    }
+
+    @Test
+    public void testFlushWithoutEntriesDoesNotWrite() {
+        this.reportingService.flush();
+
+        assertTrue(this.jdbcTemplate.batches.isEmpty());
+    }
+
+    @Test
+    public void testEntriesKeptWhenWriteFails() {
+        this.reportingService.storeLastReportEntry(this.report(1), DEVICE_1);
+        this.reportingService.storeLastReportEntry(this.report(2), DEVICE_2);
+        this.jdbcTemplate.failing = true;
+
+        this.reportingService.flush();
+
+        assertEquals(2, this.reportingService.getPendingEntryCount());
+
+        this.jdbcTemplate.failing = false;
+        this.reportingService.flush();
+
+        assertEquals(1, this.jdbcTemplate.batches.size());
+        assertEquals(2, this.jdbcTemplate.batches.get(0).size());
+        assertEquals(0, this.reportingService.getPendingEntryCount());
+    }
+
+    @Test
+    public void testLaterEntryNotReplacedWhenWriteFails() {
+        this.reportingService.storeLastReportEntry(this.report(1), DEVICE_1);
+        this.jdbcTemplate.failing = true;
+        this.jdbcTemplate.duringWrite = () -> this.reportingService.storeLastReportEntry(this.report(2), DEVICE_1);
+
+        this.reportingService.flush();
+
+        assertEquals(1, this.reportingService.getPendingEntryCount());
+        assertArrayEquals(new byte[] { 2 },
+                this.reportingService.retrieveReportEntry(DEVICE_1, REPORT_ID).getEntryId());
+    }
+
+    private Report report(final int entryId) {
+        final BdaOctetString bdaEntryId = mock(BdaOctetString.class);
+        when(bdaEntryId.getValue()).thenReturn(new byte[] { (byte) entryId });
+        final BdaEntryTime timeOfEntry = mock(BdaEntryTime.class);
+        when(timeOfEntry.getTimestampValue()).thenReturn((long) entryId);
+
+        final Report report = mock(Report.class);
+        when(report.getRptId()).thenReturn(REPORT_ID);
+        when(report.getEntryId()).thenReturn(bdaEntryId);
+        when(report.getTimeOfEntry()).thenReturn(timeOfEntry);
+        return report;
+    }
+}
@@ -0,0 +1,43 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class Iec61850DataSetCacheTest {
+
+    private final Iec61850DataSetCache dataSetCache = new Iec61850DataSetCache();
+
+    @Test
+    public void testFirstReadIsNotCached() {
+        assertFalse(this.dataSetCache.countRead("A"));
+    }
+
+    @Test
+    public void testRecurringReadIsCached() {
+        this.dataSetCache.countRead("A");
+
+        assertTrue(this.dataSetCache.countRead("A"));
+        assertTrue(this.dataSetCache.countRead("A"));
+    }
+
+    @Test
+    public void testReadsAreCountedPerKey() {
+        this.dataSetCache.countRead("A");
+
+        assertFalse(this.dataSetCache.countRead("B"));
+    }
+
+    @Test
+    public void testOneOffReadsDoNotDisplaceRecurringReads() {
+        this.dataSetCache.countRead("A");
+        for (int i = 0; i < 100; i++) {
+            this.dataSetCache.countRead("Once" + i);
+            this.dataSetCache.countRead("A");
+        }
+
+        assertTrue(this.dataSetCache.countRead("A"));
+        assertFalse(this.dataSetCache.countRead("Once0"));
+    }
+}
@@ -0,0 +1,147 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.springframework.core.task.TaskExecutor;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ConnectionFailureException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.exceptions.ProtocolAdapterException;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services.Iec61850ConnectionPool;
+
+public class Iec61850DeviceExecutorTest {
+
+    private static final String DEVICE_1 = "TST-01";
+    private static final String DEVICE_2 = "TST-02";
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    private final Iec61850ConnectionPool connectionPool = new Iec61850ConnectionPool();
+
+    private final Iec61850DeviceExecutor deviceExecutor = new Iec61850DeviceExecutor();
+
+    @Before
+    public void setUp() {
+        final TaskExecutor taskExecutor = this.executorService::execute;
+        Whitebox.setInternalState(this.deviceExecutor, "iec61850DeviceTaskExecutor", taskExecutor);
+        Whitebox.setInternalState(this.deviceExecutor, "iec61850ConnectionPool", this.connectionPool);
+        Whitebox.setInternalState(this.connectionPool, "connectionPoolMaxSize", 10);
+    }
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void testOperationRunsOnOtherThread() throws ConnectionFailureException {
+        final Thread caller = Thread.currentThread();
+
+        final Thread thread = this.deviceExecutor.execute(DEVICE_1, Thread::currentThread);
+
+        assertNotSame(caller, thread);
+    }
+
+    @Test
+    public void testNestedOperationForSameDeviceRunsImmediately() throws ConnectionFailureException {
+        final List<String> executed = new ArrayList<>();
+
+        this.deviceExecutor.execute(DEVICE_1, () -> {
+            executed.add("outer");
+            return this.deviceExecutor.execute(DEVICE_1, () -> executed.add("inner"));
+        });
+
+        assertEquals("[outer, inner]", executed.toString());
+    }
+
+    @Test
+    public void testOperationsForSameDeviceDoNotOverlap() throws InterruptedException {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final int callers = 8;
+        final CountDownLatch done = new CountDownLatch(callers);
+        for (int i = 0; i < callers; i++) {
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < 20; j++) {
+                        this.deviceExecutor.execute(DEVICE_1, () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            return running.decrementAndGet();
+                        });
+                    }
+                } catch (final ConnectionFailureException e) {
+                    fail(e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testOperationsForOtherDevicesRunInParallel() throws Exception {
+        final CountDownLatch blocking = new CountDownLatch(1);
+        this.deviceExecutor.submit(DEVICE_1, () -> {
+            try {
+                blocking.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        final String result = this.deviceExecutor.execute(DEVICE_2, () -> DEVICE_2);
+
+        assertEquals(DEVICE_2, result);
+        assertEquals(0, this.deviceExecutor.getQueueSize(DEVICE_1));
+        blocking.countDown();
+    }
+
+    @Test
+    public void testExceptionOfOperationIsRethrown() throws ConnectionFailureException {
+        final ProtocolAdapterException thrown = new ProtocolAdapterException("Operation failed");
+        try {
+            this.deviceExecutor.execute(DEVICE_1, () -> {
+                throw thrown;
+            });
+            fail("Expected the exception of the operation");
+        } catch (final ProtocolAdapterException e) {
+            assertSame(thrown, e);
+        }
+    }
+
+    @Test
+    public void testConnectionIsLeasedWhileOperationRuns() throws ConnectionFailureException {
+        final boolean leased = this.deviceExecutor.execute(DEVICE_1, () -> this.connectionPool.isLeased(DEVICE_1));
+
+        assertTrue(leased);
+        assertFalse(this.connectionPool.isLeased(DEVICE_1));
+    }
+
+    @Test
+    public void testOperationAfterReleaseStillRuns() throws ConnectionFailureException {
+        this.deviceExecutor.execute(DEVICE_1, () -> null);
+        this.deviceExecutor.release(DEVICE_1);
+
+        assertEquals(DEVICE_1, this.deviceExecutor.execute(DEVICE_1, () -> DEVICE_1));
+    }
+}
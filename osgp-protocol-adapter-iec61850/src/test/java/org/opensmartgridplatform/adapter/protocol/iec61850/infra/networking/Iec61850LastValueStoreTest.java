@@ -0,0 +1,131 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.openmuc.openiec61850.BdaFloat32;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcDataObject;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.ObjectReference;
+
+public class Iec61850LastValueStoreTest {
+
+    private static final String DEVICE_IDENTIFICATION = "RTU-01";
+
+    private static final int MAX_AGE = 60000;
+
+    private static final long TIME = 1000000;
+
+    private final Iec61850LastValueStore store = new Iec61850LastValueStore();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(this.store, "lastValueMaxAge", MAX_AGE);
+        Whitebox.setInternalState(this.store, "lastValueMaxEntriesPerDevice", 10);
+    }
+
+    @Test
+    public void testRecentValueIsCopied() {
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(12.5f)), TIME);
+
+        final FcDataObject node = totW(0);
+        assertTrue(this.store.copyTo(DEVICE_IDENTIFICATION, node, TIME + MAX_AGE));
+        assertEquals(12.5f, ((BdaFloat32) node.getChild("f")).getFloat(), 0);
+    }
+
+    @Test
+    public void testExpiredValueIsNotCopied() {
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(12.5f)), TIME);
+
+        assertFalse(this.store.copyTo(DEVICE_IDENTIFICATION, totW(0), TIME + MAX_AGE + 1));
+        assertEquals(1, this.store.getMisses());
+    }
+
+    @Test
+    public void testExpiredValuesAreRemoved() {
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(12.5f)), TIME);
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(dataObject("RTU1/MMXU1.TotVAr", 1f)), TIME + 10);
+
+        this.store.removeExpired(TIME + MAX_AGE + 1);
+
+        assertEquals(1, this.store.size());
+        assertFalse(this.store.copyTo(DEVICE_IDENTIFICATION, totW(0), TIME + MAX_AGE + 1));
+
+        this.store.removeExpired(TIME + MAX_AGE + 11);
+
+        assertEquals(0, this.store.size());
+        assertTrue(((Map<?, ?>) Whitebox.getInternalState(this.store, "lastValues")).isEmpty());
+    }
+
+    @Test
+    public void testMaxAgePerAttributeIsUsedForRemoval() {
+        Whitebox.setInternalState(this.store, "maxAgePerName", Collections.singletonMap("TotW", 1000));
+        this.store.put(DEVICE_IDENTIFICATION,
+                Arrays.asList(totW(12.5f), dataObject("RTU1/MMXU1.TotVAr", 1f)), TIME);
+
+        this.store.removeExpired(TIME + 1001);
+
+        assertEquals(1, this.store.size());
+    }
+
+    @Test
+    public void testValuesWithoutMaxAgeAreNotKept() {
+        Whitebox.setInternalState(this.store, "maxAgePerName", Collections.singletonMap("TotW", 0));
+
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(12.5f)), TIME);
+
+        assertEquals(0, this.store.size());
+    }
+
+    @Test
+    public void testNewValuesAreDroppedAtMaxEntriesPerDevice() {
+        Whitebox.setInternalState(this.store, "lastValueMaxEntriesPerDevice", 2);
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(12.5f), dataObject("RTU1/MMXU1.TotVAr", 1f),
+                dataObject("RTU1/MMXU1.TotVA", 2f)), TIME);
+
+        assertEquals(2, this.store.size());
+        assertEquals(1, this.store.getDropped());
+
+        // Values that are kept are still updated.
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(13f)), TIME + 1);
+        final FcDataObject node = totW(0);
+        assertTrue(this.store.copyTo(DEVICE_IDENTIFICATION, node, TIME + 1));
+        assertEquals(13f, ((BdaFloat32) node.getChild("f")).getFloat(), 0);
+
+        // Other devices have their own maximum.
+        this.store.put("RTU-02", Arrays.asList(totW(12.5f)), TIME);
+        assertEquals(3, this.store.size());
+    }
+
+    @Test
+    public void testRoomIsMadeByRemovingExpiredValues() {
+        Whitebox.setInternalState(this.store, "lastValueMaxEntriesPerDevice", 1);
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(totW(12.5f)), TIME);
+
+        this.store.removeExpired(TIME + MAX_AGE + 1);
+        this.store.put(DEVICE_IDENTIFICATION, Arrays.asList(dataObject("RTU1/MMXU1.TotVAr", 1f)),
+                TIME + MAX_AGE + 1);
+
+        assertEquals(1, this.store.size());
+        assertEquals(0, this.store.getDropped());
+    }
+
+    private static FcDataObject totW(final float value) {
+        return dataObject("RTU1/MMXU1.TotW", value);
+    }
+
+    private static FcDataObject dataObject(final String reference, final float value) {
+        final BdaFloat32 f = new BdaFloat32(new ObjectReference(reference + ".f"), Fc.MX, null, false, false);
+        f.setFloat(value);
+        return new FcDataObject(new ObjectReference(reference), Fc.MX, Arrays.<FcModelNode> asList(f));
+    }
+}
@@ -0,0 +1,106 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.openmuc.openiec61850.BdaFloat32;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcDataObject;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.ObjectReference;
+
+public class Iec61850ReadCacheTest {
+
+    private static final String DEVICE_IDENTIFICATION = "RTU-01";
+
+    private static final int TIME_TO_LIVE = 60000;
+
+    private static final long TIME = 1000000;
+
+    private final Iec61850ReadCache cache = new Iec61850ReadCache();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ((Map<Fc, Integer>) Whitebox.getInternalState(this.cache, "timeToLivePerFc")).put(Fc.CF, TIME_TO_LIVE);
+    }
+
+    @Test
+    public void testValueIsCopiedBeforeTimeToLive() {
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 12.5f), TIME);
+
+        final FcDataObject node = dataObject("RTU1/MMXU1.TotW", Fc.CF, 0);
+        assertTrue(this.cache.copyTo(DEVICE_IDENTIFICATION, node, TIME + TIME_TO_LIVE - 1));
+        assertEquals(12.5f, ((BdaFloat32) node.getChild("f")).getFloat(), 0);
+        assertEquals(1, this.cache.getHits());
+    }
+
+    @Test
+    public void testExpiredValueIsNotCopied() {
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 12.5f), TIME);
+
+        assertFalse(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 0),
+                TIME + TIME_TO_LIVE));
+        assertEquals(1, this.cache.getMisses());
+    }
+
+    @Test
+    public void testExpiredValuesAreRemoved() {
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 12.5f), TIME);
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotVAr", Fc.CF, 1f), TIME + 10);
+
+        this.cache.removeExpired(TIME + TIME_TO_LIVE);
+
+        assertFalse(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 0), TIME));
+        assertTrue(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotVAr", Fc.CF, 0), TIME));
+
+        this.cache.removeExpired(TIME + TIME_TO_LIVE + 10);
+
+        assertTrue(((Map<?, ?>) Whitebox.getInternalState(this.cache, "entries")).isEmpty());
+    }
+
+    @Test
+    public void testValuesWithoutTimeToLiveAreNotKept() {
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.MX, 12.5f), TIME);
+
+        assertFalse(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.MX, 0), TIME));
+        assertTrue(((Map<?, ?>) Whitebox.getInternalState(this.cache, "entries")).isEmpty());
+    }
+
+    @Test
+    public void testWriteRemovesValuesOfLogicalNode() {
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 12.5f), TIME);
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotVAr", Fc.CF, 1f), TIME);
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU10.TotW", Fc.CF, 2f), TIME);
+
+        this.cache.written(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 13f));
+
+        assertFalse(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 0), TIME));
+        assertFalse(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotVAr", Fc.CF, 0), TIME));
+        assertTrue(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU10.TotW", Fc.CF, 0), TIME));
+    }
+
+    @Test
+    public void testRemoveOnlyRemovesValuesOfDevice() {
+        this.cache.put(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 12.5f), TIME);
+        this.cache.put("RTU-02", dataObject("RTU1/MMXU1.TotW", Fc.CF, 12.5f), TIME);
+
+        this.cache.remove(DEVICE_IDENTIFICATION);
+
+        assertFalse(this.cache.copyTo(DEVICE_IDENTIFICATION, dataObject("RTU1/MMXU1.TotW", Fc.CF, 0), TIME));
+        assertTrue(this.cache.copyTo("RTU-02", dataObject("RTU1/MMXU1.TotW", Fc.CF, 0), TIME));
+    }
+
+    private static FcDataObject dataObject(final String reference, final Fc fc, final float value) {
+        final BdaFloat32 f = new BdaFloat32(new ObjectReference(reference + ".f"), fc, null, false, false);
+        f.setFloat(value);
+        return new FcDataObject(new ObjectReference(reference), fc, Arrays.<FcModelNode> asList(f));
+    }
+}
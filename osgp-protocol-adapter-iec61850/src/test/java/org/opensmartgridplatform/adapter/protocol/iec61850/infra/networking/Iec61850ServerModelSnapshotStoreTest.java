@@ -0,0 +1,175 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.openmuc.openiec61850.ServerModel;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ServerModelSnapshotStore.ServerModelSource;
+
+public class Iec61850ServerModelSnapshotStoreTest {
+
+    private static final String DEVICE_IDENTIFICATION = "RTU-01";
+
+    private static final String OTHER_CONFIG_REV = "2018-02";
+
+    /**
+     * Reports a fixed configRev, and counts the models retrieved from the
+     * device.
+     */
+    private static class DeviceServerModelSource implements ServerModelSource {
+        private final ServerModel deviceModel = ServerModelSnapshotCodecTest.createServerModel();
+        private String configRev = ServerModelSnapshotCodecTest.CONFIG_REV;
+        private ServerModel usedModel;
+        private int retrieved;
+
+        @Override
+        public void useServerModel(final ServerModel serverModel) {
+            this.usedModel = serverModel;
+        }
+
+        @Override
+        public String readConfigRev(final ServerModel serverModel) {
+            return this.configRev;
+        }
+
+        @Override
+        public ServerModel retrieveServerModel() {
+            this.retrieved++;
+            return this.deviceModel;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Iec61850ServerModelSnapshotStore store = new Iec61850ServerModelSnapshotStore();
+
+    private final DeviceServerModelSource device = new DeviceServerModelSource();
+
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(this.store, "serverModelSnapshotFolder", this.folder.getRoot().getPath());
+        this.snapshotFile = this.folder.getRoot().toPath().resolve(DEVICE_IDENTIFICATION + ".model");
+    }
+
+    @Test
+    public void testModelRetrievedFromDeviceIsStored() throws Exception {
+        final ServerModel serverModel = this.store.getServerModel(DEVICE_IDENTIFICATION, this.device);
+
+        assertSame(this.device.deviceModel, serverModel);
+        assertEquals(1, this.device.retrieved);
+        assertTrue(Files.exists(this.snapshotFile));
+        assertEquals(ServerModelSnapshotCodecTest.CONFIG_REV,
+                this.store.load(DEVICE_IDENTIFICATION).getConfigRev());
+    }
+
+    @Test
+    public void testSnapshotUsedWhenConfigRevMatches() throws Exception {
+        this.storeSnapshot();
+
+        final ServerModel serverModel = this.store.getServerModel(DEVICE_IDENTIFICATION, this.device);
+
+        assertEquals(0, this.device.retrieved);
+        assertSame(this.device.usedModel, serverModel);
+    }
+
+    @Test
+    public void testModelRetrievedWhenConfigRevChanged() throws Exception {
+        this.storeSnapshot();
+        this.device.configRev = OTHER_CONFIG_REV;
+
+        final ServerModel serverModel = this.store.getServerModel(DEVICE_IDENTIFICATION, this.device);
+
+        assertSame(this.device.deviceModel, serverModel);
+        assertEquals(1, this.device.retrieved);
+        assertEquals(OTHER_CONFIG_REV, this.store.load(DEVICE_IDENTIFICATION).getConfigRev());
+    }
+
+    @Test
+    public void testModelRetrievedWhenConfigRevNotAvailable() throws Exception {
+        this.storeSnapshot();
+        this.device.configRev = null;
+
+        final ServerModel serverModel = this.store.getServerModel(DEVICE_IDENTIFICATION, this.device);
+
+        assertSame(this.device.deviceModel, serverModel);
+        assertEquals(1, this.device.retrieved);
+        assertFalse(Files.exists(this.snapshotFile));
+    }
+
+    @Test
+    public void testModelRetrievedWhenSnapshotTruncated() throws Exception {
+        final byte[] encoded = this.storeSnapshot();
+        Files.write(this.snapshotFile, Arrays.copyOf(encoded, encoded.length / 2));
+
+        this.assertRetrievedAndStoredAgain();
+    }
+
+    @Test
+    public void testModelRetrievedWhenSnapshotCorrupted() throws Exception {
+        final byte[] encoded = this.storeSnapshot();
+        // Replaces the number of logical devices by a negative number.
+        final int countOffset = 4 + 4 + 1 + 2 + ServerModelSnapshotCodecTest.CONFIG_REV.length();
+        encoded[countOffset] = (byte) 0xff;
+        Files.write(this.snapshotFile, encoded);
+
+        this.assertRetrievedAndStoredAgain();
+    }
+
+    @Test
+    public void testModelRetrievedWhenSnapshotHasOtherVersion() throws Exception {
+        Files.write(this.snapshotFile,
+                ServerModelSnapshotCodecTest.snapshotHeader(ServerModelSnapshotCodec.VERSION + 1));
+
+        this.assertRetrievedAndStoredAgain();
+    }
+
+    @Test
+    public void testUnreadableSnapshotIsRemoved() throws Exception {
+        Files.write(this.snapshotFile, new byte[] { 1, 2, 3 });
+
+        assertNull(this.store.load(DEVICE_IDENTIFICATION));
+        assertFalse(Files.exists(this.snapshotFile));
+    }
+
+    @Test
+    public void testNothingStoredWhenDisabled() throws Exception {
+        Whitebox.setInternalState(this.store, "serverModelSnapshotFolder", "");
+
+        this.store.getServerModel(DEVICE_IDENTIFICATION, this.device);
+
+        assertEquals(1, this.device.retrieved);
+        assertFalse(Files.exists(this.snapshotFile));
+    }
+
+    private byte[] storeSnapshot() throws IOException {
+        this.store.store(DEVICE_IDENTIFICATION, new ServerModelSnapshot(
+                ServerModelSnapshotCodecTest.createServerModel(), ServerModelSnapshotCodecTest.CONFIG_REV));
+        return Files.readAllBytes(this.snapshotFile);
+    }
+
+    private void assertRetrievedAndStoredAgain() throws Exception {
+        final ServerModel serverModel = this.store.getServerModel(DEVICE_IDENTIFICATION, this.device);
+
+        assertSame(this.device.deviceModel, serverModel);
+        assertEquals(1, this.device.retrieved);
+        assertNotNull(this.store.load(DEVICE_IDENTIFICATION));
+    }
+}
@@ -0,0 +1,286 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openmuc.openiec61850.Array;
+import org.openmuc.openiec61850.BasicDataAttribute;
+import org.openmuc.openiec61850.BdaBoolean;
+import org.openmuc.openiec61850.BdaEntryTime;
+import org.openmuc.openiec61850.BdaFloat32;
+import org.openmuc.openiec61850.BdaInt16U;
+import org.openmuc.openiec61850.BdaInt32U;
+import org.openmuc.openiec61850.BdaOctetString;
+import org.openmuc.openiec61850.BdaOptFlds;
+import org.openmuc.openiec61850.BdaQuality;
+import org.openmuc.openiec61850.BdaTimestamp;
+import org.openmuc.openiec61850.BdaTriggerConditions;
+import org.openmuc.openiec61850.BdaVisibleString;
+import org.openmuc.openiec61850.Brcb;
+import org.openmuc.openiec61850.ConstructedDataAttribute;
+import org.openmuc.openiec61850.DataSet;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcDataObject;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.LogicalDevice;
+import org.openmuc.openiec61850.LogicalNode;
+import org.openmuc.openiec61850.ModelNode;
+import org.openmuc.openiec61850.ObjectReference;
+import org.openmuc.openiec61850.ServerModel;
+import org.openmuc.openiec61850.Urcb;
+
+public class ServerModelSnapshotCodecTest {
+
+    static final String CONFIG_REV = "2018-01";
+
+    private static final String DATA_SET_REFERENCE = "RTU1/LLN0.Measurements";
+
+    @Test
+    public void testRoundTripKeepsNodeTree() throws IOException {
+        final ServerModel serverModel = createServerModel();
+
+        final ServerModelSnapshot decoded = decode(encode(new ServerModelSnapshot(serverModel, CONFIG_REV)));
+
+        assertEquals(CONFIG_REV, decoded.getConfigRev());
+        assertEquals(describeNodes(serverModel), describeNodes(decoded.getServerModel()));
+    }
+
+    @Test
+    public void testRoundTripKeepsReportControlBlocks() throws IOException {
+        final ServerModel serverModel = createServerModel();
+
+        final ServerModel decoded = decode(encode(new ServerModelSnapshot(serverModel, CONFIG_REV))).getServerModel();
+
+        assertEquals(references(serverModel.getBrcbs()), references(decoded.getBrcbs()));
+        assertEquals(references(serverModel.getUrcbs()), references(decoded.getUrcbs()));
+        final Brcb brcb = decoded.getBrcbs().iterator().next();
+        assertEquals(Fc.BR, brcb.getFc());
+        assertEquals(129, ((BdaVisibleString) brcb.getChild("RptID")).getMaxLength());
+        assertEquals(8, ((BdaOctetString) brcb.getChild("EntryID")).getMaxLength());
+    }
+
+    @Test
+    public void testRoundTripKeepsDataSetMembers() throws IOException {
+        final ServerModel serverModel = createServerModel();
+
+        final ServerModel decoded = decode(encode(new ServerModelSnapshot(serverModel, CONFIG_REV))).getServerModel();
+
+        assertEquals(1, decoded.getDataSets().size());
+        final DataSet dataSet = decoded.getDataSet(DATA_SET_REFERENCE);
+        assertEquals(serverModel.getDataSet(DATA_SET_REFERENCE).isDeletable(), dataSet.isDeletable());
+        assertEquals(describeMembers(serverModel.getDataSet(DATA_SET_REFERENCE)), describeMembers(dataSet));
+        // Members are the nodes of the decoded model itself.
+        for (final FcModelNode member : dataSet.getMembers()) {
+            assertSame(decoded.findModelNode(member.getReference(), member.getFc()), member);
+        }
+    }
+
+    @Test
+    public void testRoundTripWithoutConfigRev() throws IOException {
+        final ServerModelSnapshot decoded = decode(encode(new ServerModelSnapshot(createServerModel(), null)));
+
+        assertEquals(null, decoded.getConfigRev());
+    }
+
+    @Test
+    public void testTruncatedSnapshotIsRejected() throws IOException {
+        final byte[] encoded = encode(new ServerModelSnapshot(createServerModel(), CONFIG_REV));
+
+        for (final int length : new int[] { 0, 6, 12, encoded.length / 2, encoded.length - 1 }) {
+            assertRejected(Arrays.copyOf(encoded, length));
+        }
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsRejected() throws IOException {
+        final byte[] encoded = encode(new ServerModelSnapshot(createServerModel(), CONFIG_REV));
+
+        final byte[] wrongMagic = encoded.clone();
+        wrongMagic[0] ^= 0xff;
+        assertRejected(wrongMagic);
+
+        final byte[] trailingData = Arrays.copyOf(encoded, encoded.length + 1);
+        assertRejected(trailingData);
+
+        // A corrupted number of logical devices.
+        final byte[] wrongCount = encoded.clone();
+        final int countOffset = 4 + 4 + 1 + 2 + CONFIG_REV.length();
+        wrongCount[countOffset] = (byte) 0x7f;
+        assertRejected(wrongCount);
+    }
+
+    @Test
+    public void testOtherVersionIsRejected() throws IOException {
+        assertRejected(snapshotHeader(ServerModelSnapshotCodec.VERSION + 1));
+    }
+
+    /**
+     * @return A model with an RTU logical device containing measurements, a
+     *         constructed attribute, an array, report control blocks and a
+     *         data set.
+     */
+    static ServerModel createServerModel() {
+        final String mmxu = "RTU1/MMXU1";
+        final FcDataObject totW = new FcDataObject(new ObjectReference(mmxu + ".TotW"), Fc.MX,
+                Arrays.<FcModelNode> asList(
+                        new ConstructedDataAttribute(new ObjectReference(mmxu + ".TotW.mag"), Fc.MX,
+                                Arrays.<FcModelNode> asList(new BdaFloat32(new ObjectReference(mmxu + ".TotW.mag.f"),
+                                        Fc.MX, "sAddr1", true, false))),
+                        new BdaQuality(new ObjectReference(mmxu + ".TotW.q"), Fc.MX, null, true),
+                        new BdaTimestamp(new ObjectReference(mmxu + ".TotW.t"), Fc.MX, null, false, false)));
+        final FcDataObject phv = new FcDataObject(new ObjectReference(mmxu + ".PhV"), Fc.MX,
+                Arrays.<FcModelNode> asList(new Array(new ObjectReference(mmxu + ".PhV.val"), Fc.MX,
+                        Arrays.<FcModelNode> asList(
+                                new BdaFloat32(new ObjectReference(mmxu + ".PhV.val(0)"), Fc.MX, null, false, false),
+                                new BdaFloat32(new ObjectReference(mmxu + ".PhV.val(1)"), Fc.MX, null, false,
+                                        false)))));
+        final FcDataObject namPlt = new FcDataObject(new ObjectReference("RTU1/LLN0.NamPlt"), Fc.DC,
+                Arrays.<FcModelNode> asList(new BdaVisibleString(new ObjectReference("RTU1/LLN0.NamPlt.configRev"),
+                        Fc.DC, null, 255, false, false)));
+
+        final LogicalNode lln0 = new LogicalNode(new ObjectReference("RTU1/LLN0"),
+                Arrays.asList(namPlt, createBrcb("RTU1/LLN0.brcbMeasurements01"),
+                        createUrcb("RTU1/LLN0.urcbMeasurements01")));
+        final LogicalNode mmxu1 = new LogicalNode(new ObjectReference(mmxu), Arrays.asList(totW, phv));
+        final LogicalDevice rtu1 = new LogicalDevice(new ObjectReference("RTU1"), Arrays.asList(lln0, mmxu1));
+
+        final ServerModel modelWithoutDataSets = new ServerModel(Arrays.asList(rtu1),
+                Collections.<DataSet> emptyList());
+        final List<FcModelNode> members = Arrays.asList(
+                (FcModelNode) modelWithoutDataSets.findModelNode(mmxu + ".TotW", Fc.MX),
+                (FcModelNode) modelWithoutDataSets.findModelNode(mmxu + ".PhV", Fc.MX));
+        return new ServerModel(Arrays.asList(rtu1),
+                Arrays.asList(new DataSet(DATA_SET_REFERENCE, members, false)));
+    }
+
+    static byte[] encode(final ServerModelSnapshot snapshot) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ServerModelSnapshotCodec.encode(snapshot, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] snapshotHeader(final int version) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(ServerModelSnapshotCodec.MAGIC);
+            out.writeInt(version);
+            out.writeBoolean(false);
+            out.writeInt(0);
+            out.writeInt(0);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Brcb createBrcb(final String reference) {
+        return new Brcb(new ObjectReference(reference), Arrays.<FcModelNode> asList(
+                new BdaVisibleString(new ObjectReference(reference + ".RptID"), Fc.BR, null, 129, false, false),
+                new BdaBoolean(new ObjectReference(reference + ".RptEna"), Fc.BR, null, false, false),
+                new BdaVisibleString(new ObjectReference(reference + ".DatSet"), Fc.BR, null, 129, false, false),
+                new BdaInt32U(new ObjectReference(reference + ".ConfRev"), Fc.BR, null, false, false),
+                new BdaOptFlds(new ObjectReference(reference + ".OptFlds"), Fc.BR),
+                new BdaInt32U(new ObjectReference(reference + ".BufTm"), Fc.BR, null, false, false),
+                new BdaInt16U(new ObjectReference(reference + ".SqNum"), Fc.BR, null, false, false),
+                new BdaTriggerConditions(new ObjectReference(reference + ".TrgOps"), Fc.BR),
+                new BdaInt32U(new ObjectReference(reference + ".IntgPd"), Fc.BR, null, false, false),
+                new BdaBoolean(new ObjectReference(reference + ".GI"), Fc.BR, null, false, false),
+                new BdaBoolean(new ObjectReference(reference + ".PurgeBuf"), Fc.BR, null, false, false),
+                new BdaOctetString(new ObjectReference(reference + ".EntryID"), Fc.BR, null, 8, false, false),
+                new BdaEntryTime(new ObjectReference(reference + ".TimeofEntry"), Fc.BR, null, false, false)));
+    }
+
+    private static Urcb createUrcb(final String reference) {
+        return new Urcb(new ObjectReference(reference), Arrays.<FcModelNode> asList(
+                new BdaVisibleString(new ObjectReference(reference + ".RptID"), Fc.RP, null, 129, false, false),
+                new BdaBoolean(new ObjectReference(reference + ".RptEna"), Fc.RP, null, false, false),
+                new BdaBoolean(new ObjectReference(reference + ".Resv"), Fc.RP, null, false, false),
+                new BdaVisibleString(new ObjectReference(reference + ".DatSet"), Fc.RP, null, 129, false, false),
+                new BdaInt32U(new ObjectReference(reference + ".ConfRev"), Fc.RP, null, false, false),
+                new BdaOptFlds(new ObjectReference(reference + ".OptFlds"), Fc.RP),
+                new BdaTriggerConditions(new ObjectReference(reference + ".TrgOps"), Fc.RP)));
+    }
+
+    private static ServerModelSnapshot decode(final byte[] encoded) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            return ServerModelSnapshotCodec.decode(in);
+        }
+    }
+
+    private static void assertRejected(final byte[] encoded) {
+        try {
+            decode(encoded);
+            fail("Snapshot of " + encoded.length + " bytes should be rejected");
+        } catch (final IOException e) {
+            // Expected.
+        }
+    }
+
+    /**
+     * @return A line per node of the model, with the attributes kept in a
+     *         snapshot.
+     */
+    private static List<String> describeNodes(final ServerModel serverModel) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final ModelNode logicalDevice : serverModel.getChildren()) {
+            descriptions.add(logicalDevice.getClass().getSimpleName() + " " + logicalDevice.getReference());
+            for (final ModelNode logicalNode : logicalDevice.getChildren()) {
+                descriptions.add(logicalNode.getClass().getSimpleName() + " " + logicalNode.getReference());
+                describeChildren(logicalNode, descriptions);
+            }
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    private static void describeChildren(final ModelNode node, final List<String> descriptions) {
+        if (node.getChildren() == null) {
+            return;
+        }
+        for (final ModelNode child : node.getChildren()) {
+            final FcModelNode fcChild = (FcModelNode) child;
+            String description = child.getClass().getSimpleName() + " " + child.getReference() + " ["
+                    + fcChild.getFc() + "]";
+            if (child instanceof BasicDataAttribute) {
+                final BasicDataAttribute bda = (BasicDataAttribute) child;
+                description += " " + bda.getBasicType() + " sAddr=" + bda.getSAddr() + " dchg=" + bda.getDchg()
+                        + " dupd=" + bda.getDupd() + " qchg=" + bda.getQchg();
+            }
+            if (child instanceof BdaVisibleString) {
+                description += " maxLength=" + ((BdaVisibleString) child).getMaxLength();
+            }
+            descriptions.add(description);
+            describeChildren(child, descriptions);
+        }
+    }
+
+    private static List<String> describeMembers(final DataSet dataSet) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final FcModelNode member : dataSet.getMembers()) {
+            descriptions.add(member.getReference() + " [" + member.getFc() + "]");
+        }
+        return descriptions;
+    }
+
+    private static List<String> references(final Collection<? extends ModelNode> nodes) {
+        final List<String> references = new ArrayList<>();
+        for (final ModelNode node : nodes) {
+            references.add(node.getReference().toString());
+        }
+        Collections.sort(references);
+        return references;
+    }
+}
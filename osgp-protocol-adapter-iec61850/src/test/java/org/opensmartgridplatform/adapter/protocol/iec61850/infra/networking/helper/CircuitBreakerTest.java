@@ -0,0 +1,76 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_DURATION = 1000;
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION);
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        this.circuitBreaker.failure(0);
+        this.circuitBreaker.failure(0);
+        assertEquals(CircuitBreaker.State.CLOSED, this.circuitBreaker.getState());
+        assertTrue(this.circuitBreaker.tryAcquire(0));
+
+        this.circuitBreaker.failure(0);
+        assertEquals(CircuitBreaker.State.OPEN, this.circuitBreaker.getState());
+        assertFalse(this.circuitBreaker.tryAcquire(OPEN_DURATION - 1));
+    }
+
+    @Test
+    public void testSuccessResetsFailures() {
+        this.circuitBreaker.failure(0);
+        this.circuitBreaker.failure(0);
+        this.circuitBreaker.success();
+        this.circuitBreaker.failure(0);
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.circuitBreaker.getState());
+        assertEquals(1, this.circuitBreaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void testHalfOpenPermitsSingleProbe() {
+        this.open(0);
+
+        assertTrue(this.circuitBreaker.tryAcquire(OPEN_DURATION));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, this.circuitBreaker.getState());
+        assertFalse(this.circuitBreaker.tryAcquire(OPEN_DURATION));
+    }
+
+    @Test
+    public void testSuccessfulProbeCloses() {
+        this.open(0);
+        this.circuitBreaker.tryAcquire(OPEN_DURATION);
+
+        this.circuitBreaker.success();
+
+        assertEquals(CircuitBreaker.State.CLOSED, this.circuitBreaker.getState());
+        assertTrue(this.circuitBreaker.tryAcquire(OPEN_DURATION));
+    }
+
+    @Test
+    public void testFailedProbeOpensAgain() {
+        this.open(0);
+        this.circuitBreaker.tryAcquire(OPEN_DURATION);
+
+        this.circuitBreaker.failure(OPEN_DURATION);
+
+        assertEquals(CircuitBreaker.State.OPEN, this.circuitBreaker.getState());
+        assertFalse(this.circuitBreaker.tryAcquire(2 * OPEN_DURATION - 1));
+        assertTrue(this.circuitBreaker.tryAcquire(2 * OPEN_DURATION));
+    }
+
+    private void open(final long now) {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            this.circuitBreaker.failure(now);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+    private static final int MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF = 100;
+    private static final long MAX_BACKOFF = 1000;
+    private static final long DEADLINE = 5000;
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(MAX_RETRIES, INITIAL_BACKOFF, MAX_BACKOFF, 0.2,
+            DEADLINE);
+
+    @Test
+    public void testBackoffDoubles() {
+        final RetryPolicy noJitter = new RetryPolicy(MAX_RETRIES, INITIAL_BACKOFF, MAX_BACKOFF, 0, DEADLINE);
+
+        assertEquals(100, noJitter.getBackoff(1, 0.5));
+        assertEquals(200, noJitter.getBackoff(2, 0.5));
+        assertEquals(400, noJitter.getBackoff(3, 0.5));
+        assertEquals(800, noJitter.getBackoff(4, 0.5));
+    }
+
+    @Test
+    public void testBackoffIsCapped() {
+        final RetryPolicy noJitter = new RetryPolicy(MAX_RETRIES, INITIAL_BACKOFF, MAX_BACKOFF, 0, DEADLINE);
+
+        assertEquals(MAX_BACKOFF, noJitter.getBackoff(5, 0.5));
+        assertEquals(MAX_BACKOFF, noJitter.getBackoff(100, 0.5));
+    }
+
+    @Test
+    public void testJitterBounds() {
+        assertEquals(80, this.retryPolicy.getBackoff(1, 0));
+        assertEquals(100, this.retryPolicy.getBackoff(1, 0.5));
+        assertTrue(this.retryPolicy.getBackoff(1, 0.999) < 120);
+
+        for (int i = 0; i < 100; i++) {
+            final long backoff = this.retryPolicy.getBackoff(1);
+            assertTrue(backoff >= 80 && backoff <= 120);
+        }
+    }
+
+    @Test
+    public void testMaxRetries() {
+        assertTrue(this.retryPolicy.isRetryAllowed(MAX_RETRIES, 0, 0));
+        assertFalse(this.retryPolicy.isRetryAllowed(MAX_RETRIES + 1, 0, 0));
+    }
+
+    @Test
+    public void testDeadline() {
+        assertTrue(this.retryPolicy.isRetryAllowed(1, 1000, 1000 + DEADLINE));
+        assertFalse(this.retryPolicy.isRetryAllowed(1, 1000, 1001 + DEADLINE));
+    }
+}
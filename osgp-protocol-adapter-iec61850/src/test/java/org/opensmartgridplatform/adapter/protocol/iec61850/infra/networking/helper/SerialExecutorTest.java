@@ -0,0 +1,132 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SerialExecutorTest {
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    private boolean rejecting;
+
+    private final SerialExecutor serialExecutor = new SerialExecutor(task -> {
+        if (this.rejecting) {
+            throw new RejectedExecutionException("Shut down");
+        }
+        this.scheduled.add(task);
+    });
+
+    @Test
+    public void testTasksRunOneAtATimeInOrder() {
+        final List<String> executed = new ArrayList<>();
+        this.serialExecutor.execute(() -> executed.add("a"));
+        this.serialExecutor.execute(() -> executed.add("b"));
+        this.serialExecutor.execute(() -> executed.add("c"));
+
+        assertEquals(1, this.scheduled.size());
+        assertEquals(2, this.serialExecutor.getQueueSize());
+
+        this.scheduled.get(0).run();
+        assertEquals(2, this.scheduled.size());
+        this.scheduled.get(1).run();
+        this.scheduled.get(2).run();
+
+        assertEquals("[a, b, c]", executed.toString());
+        assertTrue(this.serialExecutor.isIdle());
+    }
+
+    @Test
+    public void testIsCurrentThreadOnlyWhileRunningTask() {
+        final List<Boolean> currentThread = new ArrayList<>();
+        this.serialExecutor.execute(() -> currentThread.add(this.serialExecutor.isCurrentThread()));
+
+        assertFalse(this.serialExecutor.isCurrentThread());
+        this.scheduled.get(0).run();
+
+        assertEquals("[true]", currentThread.toString());
+        assertFalse(this.serialExecutor.isCurrentThread());
+    }
+
+    @Test
+    public void testNextTaskRunsAfterTaskFails() {
+        final List<String> executed = new ArrayList<>();
+        this.serialExecutor.execute(() -> {
+            throw new IllegalStateException("Task failed");
+        });
+        this.serialExecutor.execute(() -> executed.add("b"));
+
+        try {
+            this.scheduled.get(0).run();
+            fail("Expected the exception of the task");
+        } catch (final IllegalStateException e) {
+            // Expected.
+        }
+        this.scheduled.get(1).run();
+
+        assertEquals("[b]", executed.toString());
+    }
+
+    @Test
+    public void testQueuedTasksAreCancelledWhenExecutorRejects() {
+        final FutureTask<Void> first = new FutureTask<>(() -> null);
+        final FutureTask<Void> second = new FutureTask<>(() -> null);
+        final FutureTask<Void> third = new FutureTask<>(() -> null);
+        this.serialExecutor.execute(first);
+        this.serialExecutor.execute(second);
+        this.serialExecutor.execute(third);
+        this.rejecting = true;
+
+        try {
+            this.scheduled.get(0).run();
+            fail("Expected the executor to reject the next task");
+        } catch (final RejectedExecutionException e) {
+            // Expected.
+        }
+
+        assertTrue(first.isDone());
+        assertFalse(first.isCancelled());
+        assertTrue(second.isCancelled());
+        assertTrue(third.isCancelled());
+        assertTrue(this.serialExecutor.isIdle());
+        assertEquals(0, this.serialExecutor.getQueueSize());
+    }
+
+    @Test
+    public void testTasksDoNotOverlapOnSharedThreads() throws InterruptedException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final SerialExecutor executor = new SerialExecutor(executorService);
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger maxRunning = new AtomicInteger();
+            final int tasks = 200;
+            final CountDownLatch done = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.yield();
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(1, maxRunning.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.openmuc.openiec61850.ClientEventListener;
+import org.openmuc.openiec61850.Report;
+import org.springframework.core.task.TaskExecutor;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ReportDispatcher.OverflowPolicy;
+
+public class Iec61850ReportDispatcherTest {
+
+    private static final String DEVICE_1 = "TST-01";
+    private static final String DEVICE_2 = "TST-02";
+
+    private static final String CLOSED = "closed";
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    /**
+     * Tasks submitted to the executor, run by the test one at a time.
+     */
+    private final ConcurrentLinkedQueue<Runnable> executorTasks = new ConcurrentLinkedQueue<>();
+
+    private final List<Object> processed = Collections.synchronizedList(new ArrayList<>());
+
+    private final Iec61850ReportDispatcher dispatcher = new Iec61850ReportDispatcher();
+
+    private final Iec61850ReportTrace reportTrace = mock(Iec61850ReportTrace.class);
+
+    private ClientEventListener listener;
+
+    @Before
+    public void setUp() {
+        final TaskExecutor taskExecutor = this.executorTasks::add;
+        Whitebox.setInternalState(this.dispatcher, "iec61850ReportTaskExecutor", taskExecutor);
+        Whitebox.setInternalState(this.dispatcher, "iec61850ReportTrace", this.reportTrace);
+        Whitebox.setInternalState(this.dispatcher, "reportQueueCapacity", QUEUE_CAPACITY);
+        this.setOverflowPolicy(OverflowPolicy.BLOCK);
+
+        this.listener = this.dispatcher.decorate(DEVICE_1, new ClientEventListener() {
+
+            @Override
+            public void newReport(final Report report) {
+                Iec61850ReportDispatcherTest.this.processed.add(report);
+            }
+
+            @Override
+            public void associationClosed(final IOException e) {
+                Iec61850ReportDispatcherTest.this.processed.add(CLOSED);
+            }
+        });
+    }
+
+    @Test
+    public void testReportsOfDeviceProcessedOneAtATimeInOrder() {
+        final Report report1 = mock(Report.class);
+        final Report report2 = mock(Report.class);
+        final Report report3 = mock(Report.class);
+
+        this.listener.newReport(report1);
+        this.listener.newReport(report2);
+        this.listener.newReport(report3);
+
+        assertEquals(1, this.executorTasks.size());
+        this.runAllTasks();
+
+        assertEquals(Arrays.asList(report1, report2, report3), this.processed);
+        assertEquals(3, this.dispatcher.getProcessedReports());
+    }
+
+    @Test
+    public void testReportsOfDevicesProcessedInParallel() {
+        final ClientEventListener otherListener = this.dispatcher.decorate(DEVICE_2, mock(ClientEventListener.class));
+
+        this.listener.newReport(mock(Report.class));
+        otherListener.newReport(mock(Report.class));
+
+        assertEquals(2, this.executorTasks.size());
+    }
+
+    @Test
+    public void testQueueReleasedWhenIdle() {
+        this.listener.newReport(mock(Report.class));
+        this.listener.newReport(mock(Report.class));
+
+        assertEquals(1, this.dispatcher.getQueueSize(DEVICE_1));
+        this.runAllTasks();
+
+        assertEquals(0, this.dispatcher.getQueueSize());
+        assertTrue(((Map<?, ?>) Whitebox.getInternalState(this.dispatcher, "queues")).isEmpty());
+
+        // A report after the release gets a new queue.
+        final Report report = mock(Report.class);
+        this.listener.newReport(report);
+        this.runAllTasks();
+        assertEquals(report, this.processed.get(this.processed.size() - 1));
+    }
+
+    @Test
+    public void testDropNewestDiscardsReceivedReport() {
+        this.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+        final Report active = mock(Report.class);
+        final Report waiting1 = mock(Report.class);
+        final Report waiting2 = mock(Report.class);
+        final Report overflow = mock(Report.class);
+
+        this.listener.newReport(active);
+        this.listener.newReport(waiting1);
+        this.listener.newReport(waiting2);
+        this.listener.newReport(overflow);
+        this.runAllTasks();
+
+        assertEquals(Arrays.asList(active, waiting1, waiting2), this.processed);
+        assertEquals(1, this.dispatcher.getDroppedReports());
+    }
+
+    @Test
+    public void testDropOldestDiscardsOldestWaitingReport() {
+        this.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+        final Report active = mock(Report.class);
+        final Report waiting1 = mock(Report.class);
+        final Report waiting2 = mock(Report.class);
+        final Report overflow = mock(Report.class);
+
+        this.listener.newReport(active);
+        this.listener.newReport(waiting1);
+        this.listener.newReport(waiting2);
+        this.listener.newReport(overflow);
+        this.runAllTasks();
+
+        assertEquals(Arrays.asList(active, waiting2, overflow), this.processed);
+        assertEquals(1, this.dispatcher.getDroppedReports());
+    }
+
+    @Test
+    public void testAssociationClosedNeverDiscarded() {
+        this.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+        final Report active = mock(Report.class);
+        final Report waiting1 = mock(Report.class);
+        final Report waiting2 = mock(Report.class);
+
+        this.listener.newReport(active);
+        this.listener.newReport(waiting1);
+        this.listener.newReport(waiting2);
+        this.listener.associationClosed(new IOException());
+        this.runAllTasks();
+
+        assertEquals(Arrays.asList(active, waiting1, waiting2, CLOSED), this.processed);
+        assertEquals(0, this.dispatcher.getDroppedReports());
+    }
+
+    @Test
+    public void testTraceReleasedWhenAssociationClosed() {
+        this.listener.associationClosed(new IOException());
+
+        verify(this.reportTrace).clear(DEVICE_1);
+    }
+
+    @Test
+    public void testBlockWaitsForRoomInQueue() throws InterruptedException {
+        final Report active = mock(Report.class);
+        final Report waiting1 = mock(Report.class);
+        final Report waiting2 = mock(Report.class);
+        final Report blocked = mock(Report.class);
+
+        this.listener.newReport(active);
+        this.listener.newReport(waiting1);
+        this.listener.newReport(waiting2);
+        final Thread receiver = new Thread(() -> this.listener.newReport(blocked));
+        receiver.start();
+        receiver.join(200);
+        assertTrue(receiver.isAlive());
+
+        // Processing the active report makes room for the blocked report.
+        this.executorTasks.poll().run();
+        receiver.join(5000);
+        assertFalse(receiver.isAlive());
+        this.runAllTasks();
+
+        assertEquals(Arrays.asList(active, waiting1, waiting2, blocked), this.processed);
+        assertEquals(0, this.dispatcher.getDroppedReports());
+    }
+
+    @Test
+    public void testExceptionDoesNotStopProcessing() {
+        final ClientEventListener failingListener = this.dispatcher.decorate(DEVICE_2, new ClientEventListener() {
+
+            @Override
+            public void newReport(final Report report) {
+                Iec61850ReportDispatcherTest.this.processed.add(report);
+                throw new IllegalStateException("Failing listener");
+            }
+
+            @Override
+            public void associationClosed(final IOException e) {
+                // Not used.
+            }
+        });
+        final Report report1 = mock(Report.class);
+        final Report report2 = mock(Report.class);
+
+        failingListener.newReport(report1);
+        failingListener.newReport(report2);
+        this.runAllTasks();
+
+        assertEquals(Arrays.asList(report1, report2), this.processed);
+        assertEquals(2, this.dispatcher.getProcessedReports());
+    }
+
+    private void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        Whitebox.setInternalState(this.dispatcher, "overflowPolicy", overflowPolicy);
+    }
+
+    private void runAllTasks() {
+        Runnable task;
+        while ((task = this.executorTasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850ReportSequenceTracker.Result;
+
+public class Iec61850ReportSequenceTrackerTest {
+
+    private static final long RESYNC_MIN_INTERVAL = 60000;
+
+    private static final String BUFFERED_REPORT_ID = "BufferedReport";
+    private static final String UNBUFFERED_REPORT_ID = "UnbufferedReport";
+
+    private final Iec61850ReportSequenceStatistics statistics = new Iec61850ReportSequenceStatistics();
+
+    private final Iec61850ReportSequenceTracker tracker = new Iec61850ReportSequenceTracker(RESYNC_MIN_INTERVAL,
+            this.statistics);
+
+    @Test
+    public void testReportsInSequence() {
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(10, "0A", 0));
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(11, "0B", 0));
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(12, "0C", 0));
+
+        assertEquals(0, this.statistics.getGaps());
+        assertEquals(0, this.statistics.getDuplicates());
+    }
+
+    @Test
+    public void testGapInBufferedReportsStartsResync() {
+        this.trackBuffered(10, "0A", 0);
+
+        assertEquals(Result.RESYNC, this.trackBuffered(13, "0D", 0));
+
+        assertEquals(1, this.statistics.getGaps());
+        assertEquals(2, this.statistics.getMissedReports());
+        assertEquals(1, this.statistics.getResyncs());
+    }
+
+    @Test
+    public void testReportsSentAgainAfterResync() {
+        this.trackBuffered(10, "0A", 0);
+        this.trackBuffered(13, "0D", 0);
+        // Received before the resync took place, starts the new sequence.
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(14, "0E", 0));
+
+        assertEquals(Result.OUT_OF_ORDER, this.trackBuffered(11, "0B", 0));
+        assertEquals(Result.OUT_OF_ORDER, this.trackBuffered(12, "0C", 0));
+        // Processed when it started the resync.
+        assertEquals(Result.DUPLICATE, this.trackBuffered(13, "0D", 0));
+        assertEquals(Result.DUPLICATE, this.trackBuffered(14, "0E", 0));
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(15, "0F", 0));
+
+        assertEquals(2, this.statistics.getDuplicates());
+    }
+
+    @Test
+    public void testEntryIdsForgottenWhenReportsSentAgainCaughtUp() {
+        this.trackBuffered(10, "0A", 0);
+        this.trackBuffered(13, "0D", 0);
+        this.trackBuffered(14, "0E", 0);
+        this.trackBuffered(11, "0B", 0);
+        this.trackBuffered(12, "0C", 0);
+        this.trackBuffered(13, "0D", 0);
+        this.trackBuffered(14, "0E", 0);
+
+        assertEquals(Result.OUT_OF_ORDER, this.trackBuffered(13, "0D", 0));
+    }
+
+    @Test
+    public void testEntryIdsForgottenAfterMinimumInterval() {
+        this.trackBuffered(10, "0A", 0);
+        this.trackBuffered(13, "0D", 0);
+        this.trackBuffered(14, "0E", 0);
+
+        assertEquals(Result.DUPLICATE, this.trackBuffered(13, "0D", RESYNC_MIN_INTERVAL - 1));
+        assertEquals(Result.OUT_OF_ORDER, this.trackBuffered(13, "0D", RESYNC_MIN_INTERVAL));
+        assertEquals(Result.DUPLICATE, this.trackBuffered(14, "0E", RESYNC_MIN_INTERVAL));
+    }
+
+    @Test
+    public void testLastEntryIdIsDuplicate() {
+        this.trackBuffered(10, "0A", 0);
+
+        assertEquals(Result.DUPLICATE, this.trackBuffered(0, "0A", 0));
+    }
+
+    @Test
+    public void testNoResyncWithinMinimumInterval() {
+        this.trackBuffered(10, "0A", 0);
+        this.trackBuffered(13, "0D", 0);
+        this.trackBuffered(14, "0E", 0);
+
+        assertEquals(Result.GAP, this.trackBuffered(16, "10", RESYNC_MIN_INTERVAL - 1));
+        assertEquals(Result.RESYNC, this.trackBuffered(18, "12", RESYNC_MIN_INTERVAL));
+
+        assertEquals(3, this.statistics.getGaps());
+        assertEquals(2, this.statistics.getResyncs());
+    }
+
+    @Test
+    public void testGapInUnbufferedReportsDoesNotStartResync() {
+        this.trackUnbuffered(10);
+
+        assertEquals(Result.GAP, this.trackUnbuffered(12));
+        assertEquals(Result.IN_SEQUENCE, this.trackUnbuffered(13));
+
+        assertEquals(1, this.statistics.getMissedReports());
+        assertEquals(0, this.statistics.getResyncs());
+    }
+
+    @Test
+    public void testBufferedSequenceNumberWrapsAround() {
+        this.trackBuffered(65535, "0A", 0);
+
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(0, "0B", 0));
+
+        assertEquals(1, this.statistics.getWraparounds());
+        assertEquals(0, this.statistics.getGaps());
+    }
+
+    @Test
+    public void testUnbufferedSequenceNumberWrapsAround() {
+        this.trackUnbuffered(255);
+
+        assertEquals(Result.IN_SEQUENCE, this.trackUnbuffered(0));
+        assertEquals(Result.GAP, this.trackUnbuffered(2));
+
+        assertEquals(1, this.statistics.getWraparounds());
+    }
+
+    @Test
+    public void testGapAcrossWraparound() {
+        this.trackUnbuffered(254);
+
+        assertEquals(Result.GAP, this.trackUnbuffered(1));
+
+        assertEquals(2, this.statistics.getMissedReports());
+    }
+
+    @Test
+    public void testSameSequenceNumberIsDuplicate() {
+        this.trackUnbuffered(10);
+
+        assertEquals(Result.DUPLICATE, this.trackUnbuffered(10));
+    }
+
+    @Test
+    public void testSegmentsShareSequenceNumber() {
+        assertEquals(Result.IN_SEQUENCE, this.tracker.track(UNBUFFERED_REPORT_ID, 10, 0, null, null, 0));
+        assertEquals(Result.IN_SEQUENCE, this.tracker.track(UNBUFFERED_REPORT_ID, 10, 1, null, null, 0));
+        assertEquals(Result.DUPLICATE, this.tracker.track(UNBUFFERED_REPORT_ID, 10, 1, null, null, 0));
+        assertEquals(Result.IN_SEQUENCE, this.tracker.track(UNBUFFERED_REPORT_ID, 11, 0, null, null, 0));
+    }
+
+    @Test
+    public void testOlderReportIsOutOfOrder() {
+        this.trackUnbuffered(10);
+
+        assertEquals(Result.OUT_OF_ORDER, this.trackUnbuffered(8));
+        assertEquals(Result.IN_SEQUENCE, this.trackUnbuffered(11));
+
+        assertEquals(1, this.statistics.getOutOfOrderReports());
+    }
+
+    @Test
+    public void testSequencesPerReport() {
+        this.trackBuffered(10, "0A", 0);
+        this.trackUnbuffered(100);
+
+        assertEquals(Result.IN_SEQUENCE, this.trackBuffered(11, "0B", 0));
+        assertEquals(Result.IN_SEQUENCE, this.trackUnbuffered(101));
+    }
+
+    @Test
+    public void testBufferOverflowIsCounted() {
+        this.tracker.track(BUFFERED_REPORT_ID, 10, null, "0A", true, 0);
+        this.tracker.track(BUFFERED_REPORT_ID, 11, null, "0B", false, 0);
+
+        assertEquals(1, this.statistics.getOverflows());
+    }
+
+    @Test
+    public void testResetStartsNewSequence() {
+        this.trackUnbuffered(10);
+
+        this.tracker.reset();
+
+        assertEquals(Result.IN_SEQUENCE, this.trackUnbuffered(0));
+    }
+
+    private Result trackBuffered(final int sqNum, final String entryId, final long now) {
+        return this.tracker.track(BUFFERED_REPORT_ID, sqNum, null, entryId, null, now);
+    }
+
+    private Result trackUnbuffered(final int sqNum) {
+        return this.tracker.track(UNBUFFERED_REPORT_ID, sqNum, null, null, null, 0);
+    }
+}
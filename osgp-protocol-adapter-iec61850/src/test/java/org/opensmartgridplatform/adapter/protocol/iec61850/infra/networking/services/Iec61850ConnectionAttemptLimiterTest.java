@@ -0,0 +1,124 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+public class Iec61850ConnectionAttemptLimiterTest {
+
+    private final List<Runnable> started = new ArrayList<>();
+
+    private final List<String> attempts = new ArrayList<>();
+
+    private boolean rejecting;
+
+    private final Executor executor = task -> {
+        if (this.rejecting) {
+            throw new RejectedExecutionException("Shut down");
+        }
+        this.started.add(task);
+    };
+
+    private final Iec61850ConnectionAttemptLimiter limiter = new Iec61850ConnectionAttemptLimiter(this.executor, 2);
+
+    @Test
+    public void testAttemptsOverLimitWaitForSameSubnet() {
+        this.limiter.execute("10.0.0.1", this.attempt("a"));
+        this.limiter.execute("10.0.0.2", this.attempt("b"));
+        this.limiter.execute("10.0.0.3", this.attempt("c"));
+
+        assertEquals(2, this.started.size());
+        assertEquals(1, this.limiter.getWaitingAttempts());
+
+        this.runStarted(0);
+
+        assertEquals(3, this.started.size());
+        assertEquals(0, this.limiter.getWaitingAttempts());
+    }
+
+    @Test
+    public void testOtherSubnetIsNotBlocked() {
+        this.limiter.execute("10.0.0.1", this.attempt("a"));
+        this.limiter.execute("10.0.0.2", this.attempt("b"));
+        this.limiter.execute("10.0.0.3", this.attempt("c"));
+
+        this.limiter.execute("10.0.1.1", this.attempt("d"));
+
+        assertEquals(3, this.started.size());
+        this.runStarted(2);
+        assertEquals("d", this.attempts.get(0));
+    }
+
+    @Test
+    public void testWaitingAttemptsStartInOrder() {
+        this.limiter.execute("10.0.0.1", this.attempt("a"));
+        this.limiter.execute("10.0.0.2", this.attempt("b"));
+        this.limiter.execute("10.0.0.3", this.attempt("c"));
+        this.limiter.execute("10.0.0.4", this.attempt("d"));
+
+        this.runStarted(0);
+        this.runStarted(1);
+        this.runStarted(2);
+        this.runStarted(3);
+
+        assertEquals("[a, b, c, d]", this.attempts.toString());
+    }
+
+    @Test
+    public void testCancelledWaitingAttemptReleasesItsSlot() {
+        this.limiter.execute("10.0.0.1", this.attempt("a"));
+        this.limiter.execute("10.0.0.2", this.attempt("b"));
+        final FutureTask<Void> cancelled = new FutureTask<>(this.attempt("c"), null);
+        this.limiter.execute("10.0.0.3", cancelled);
+        this.limiter.execute("10.0.0.4", this.attempt("d"));
+        cancelled.cancel(false);
+
+        this.runStarted(0);
+        this.runStarted(2);
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals(4, this.started.size());
+        this.runStarted(3);
+        assertEquals("[a, d]", this.attempts.toString());
+    }
+
+    @Test
+    public void testRejectedAttemptReleasesItsSlot() {
+        final Iec61850ConnectionAttemptLimiter singleAttemptLimiter = new Iec61850ConnectionAttemptLimiter(
+                this.executor, 1);
+        this.rejecting = true;
+        try {
+            singleAttemptLimiter.execute("10.0.0.1", this.attempt("a"));
+        } catch (final RejectedExecutionException e) {
+            // Expected.
+        }
+        this.rejecting = false;
+
+        singleAttemptLimiter.execute("10.0.0.2", this.attempt("b"));
+
+        assertEquals(1, this.started.size());
+        assertEquals(0, singleAttemptLimiter.getWaitingAttempts());
+    }
+
+    @Test
+    public void testSubnetOfAddresses() {
+        assertEquals("192.168.1", Iec61850ConnectionAttemptLimiter.getSubnet("192.168.1.10"));
+        assertEquals("fe80::1", Iec61850ConnectionAttemptLimiter.getSubnet("fe80::1"));
+        assertEquals("localhost", Iec61850ConnectionAttemptLimiter.getSubnet("localhost"));
+    }
+
+    private Runnable attempt(final String name) {
+        return () -> this.attempts.add(name);
+    }
+
+    private void runStarted(final int index) {
+        this.started.get(index).run();
+    }
+}
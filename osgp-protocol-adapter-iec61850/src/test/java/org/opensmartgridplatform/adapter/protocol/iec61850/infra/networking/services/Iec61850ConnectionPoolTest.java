@@ -0,0 +1,104 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850Connection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.IED;
+
+public class Iec61850ConnectionPoolTest {
+
+    private static final String DEVICE_1 = "TST-01";
+    private static final String DEVICE_2 = "TST-02";
+    private static final String DEVICE_3 = "TST-03";
+
+    private final Iec61850ConnectionPool pool = new Iec61850ConnectionPool();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(this.pool, "connectionPoolMaxSize", 2);
+        Whitebox.setInternalState(this.pool, "connectionPoolIdleTimeout", 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedConnectionIsEvicted() {
+        this.pool.put(DEVICE_1, createConnection());
+        this.pool.put(DEVICE_2, createConnection());
+        this.pool.get(DEVICE_1);
+
+        this.pool.put(DEVICE_3, createConnection());
+
+        assertEquals(2, this.pool.size());
+        assertNotNull(this.pool.get(DEVICE_1));
+        assertNull(this.pool.get(DEVICE_2));
+        assertEquals(1, this.pool.getStatistics().getLruEvictions());
+    }
+
+    @Test
+    public void testLeasedConnectionIsNotEvicted() {
+        this.pool.lease(DEVICE_1);
+        this.pool.put(DEVICE_1, createConnection());
+        this.pool.put(DEVICE_2, createConnection());
+
+        this.pool.put(DEVICE_3, createConnection());
+
+        assertNotNull(this.pool.get(DEVICE_1));
+        assertNull(this.pool.get(DEVICE_2));
+        assertNotNull(this.pool.get(DEVICE_3));
+    }
+
+    @Test
+    public void testEvictionIsDeferredUntilLeaseIsReleased() {
+        Whitebox.setInternalState(this.pool, "connectionPoolMaxSize", 1);
+        this.pool.lease(DEVICE_1);
+        this.pool.put(DEVICE_1, createConnection());
+        this.pool.lease(DEVICE_2);
+        this.pool.put(DEVICE_2, createConnection());
+
+        assertEquals(2, this.pool.size());
+
+        this.pool.release(DEVICE_1);
+
+        assertEquals(1, this.pool.size());
+        assertNull(this.pool.get(DEVICE_1));
+        assertNotNull(this.pool.get(DEVICE_2));
+    }
+
+    @Test
+    public void testLeaseIsHeldUntilAllLeasesAreReleased() {
+        this.pool.lease(DEVICE_1);
+        this.pool.lease(DEVICE_1);
+
+        this.pool.release(DEVICE_1);
+        assertTrue(this.pool.isLeased(DEVICE_1));
+
+        this.pool.release(DEVICE_1);
+        assertFalse(this.pool.isLeased(DEVICE_1));
+    }
+
+    @Test
+    public void testLeasedIdleConnectionIsNotEvicted() throws InterruptedException {
+        Whitebox.setInternalState(this.pool, "connectionPoolIdleTimeout", 1);
+        this.pool.put(DEVICE_1, createConnection());
+        this.pool.put(DEVICE_2, createConnection());
+        this.pool.lease(DEVICE_1);
+        Thread.sleep(10);
+
+        this.pool.evictIdleConnections();
+
+        assertNotNull(this.pool.get(DEVICE_1));
+        assertNull(this.pool.get(DEVICE_2));
+        assertEquals(1, this.pool.getStatistics().getIdleEvictions());
+    }
+
+    private static Iec61850Connection createConnection() {
+        return new Iec61850Connection(null, null, null, IED.FLEX_OVL);
+    }
+}
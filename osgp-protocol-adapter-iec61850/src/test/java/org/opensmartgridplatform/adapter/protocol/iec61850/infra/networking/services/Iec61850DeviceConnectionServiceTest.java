@@ -0,0 +1,121 @@
+package org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.openmuc.openiec61850.BdaFloat32;
+import org.openmuc.openiec61850.Fc;
+import org.openmuc.openiec61850.FcDataObject;
+import org.openmuc.openiec61850.FcModelNode;
+import org.openmuc.openiec61850.ObjectReference;
+import org.springframework.core.task.TaskExecutor;
+
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850DeviceExecutor;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.Iec61850ReadCache;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.helper.DeviceConnection;
+import org.opensmartgridplatform.adapter.protocol.iec61850.infra.networking.reporting.Iec61850RtuDeviceReportingService;
+
+public class Iec61850DeviceConnectionServiceTest {
+
+    private static final String DEVICE_IDENTIFICATION = "RTU-01";
+    private static final String SERVER_NAME = "RTU_1";
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    private final Iec61850ConnectionPool connectionPool = new Iec61850ConnectionPool();
+
+    private final Iec61850DeviceExecutor deviceExecutor = new Iec61850DeviceExecutor();
+
+    private final Iec61850RtuDeviceReportingService reportingService = mock(
+            Iec61850RtuDeviceReportingService.class);
+
+    private final Iec61850ReadCache readCache = new Iec61850ReadCache();
+
+    private final Iec61850DeviceConnectionService connectionService = new Iec61850DeviceConnectionService();
+
+    private final DeviceConnection deviceConnection = new DeviceConnection(null, DEVICE_IDENTIFICATION, "",
+            SERVER_NAME);
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        final TaskExecutor taskExecutor = this.executorService::execute;
+        Whitebox.setInternalState(this.deviceExecutor, "iec61850DeviceTaskExecutor", taskExecutor);
+        Whitebox.setInternalState(this.deviceExecutor, "iec61850ConnectionPool", this.connectionPool);
+        Whitebox.setInternalState(this.connectionPool, "connectionPoolMaxSize", 10);
+        Whitebox.setInternalState(this.connectionService, "iec61850DeviceExecutor", this.deviceExecutor);
+        Whitebox.setInternalState(this.connectionService, "iec61850RtuDeviceReportingService",
+                this.reportingService);
+        Whitebox.setInternalState(this.connectionService, "iec61850ConnectionPool", this.connectionPool);
+        Whitebox.setInternalState(this.connectionService, "iec61850ReadCache", this.readCache);
+
+        doAnswer(invocation -> this.executed.add("reporting enabled")).when(this.reportingService)
+                .enableReportingForDevice(this.deviceConnection, DEVICE_IDENTIFICATION, SERVER_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void testReconnectFromDeviceTaskDoesNotWaitForReporting() throws Exception {
+        // Like a command that reconnects, the device task waits for the
+        // connect running on another thread.
+        this.deviceExecutor.execute(DEVICE_IDENTIFICATION, () -> {
+            final Thread connectThread = new Thread(() -> this.connectionService
+                    .enableReporting(this.deviceConnection, DEVICE_IDENTIFICATION, SERVER_NAME));
+            connectThread.start();
+            connectThread.join(5000);
+            this.executed.add(connectThread.isAlive() ? "reconnect timed out" : "reconnected");
+            return null;
+        });
+        // Waits for the tasks queued by the device task.
+        this.deviceExecutor.execute(DEVICE_IDENTIFICATION, () -> null);
+
+        assertEquals("[reconnected, reporting enabled]", this.executed.toString());
+    }
+
+    @Test
+    public void testReportingEnabledBeforeLaterDeviceTasks() throws Exception {
+        this.connectionService.enableReporting(this.deviceConnection, DEVICE_IDENTIFICATION, SERVER_NAME);
+
+        this.deviceExecutor.execute(DEVICE_IDENTIFICATION, () -> this.executed.add("request"));
+
+        assertEquals("[reporting enabled, request]", this.executed.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDisconnectRemovesReadValues() {
+        ((Map<Fc, Integer>) Whitebox.getInternalState(this.readCache, "timeToLivePerFc")).put(Fc.CF, 60000);
+        final long now = System.currentTimeMillis();
+        this.readCache.put(DEVICE_IDENTIFICATION, dataObject(), now);
+        assertTrue(this.readCache.copyTo(DEVICE_IDENTIFICATION, dataObject(), now));
+
+        this.connectionService.disconnect(this.deviceConnection, null);
+
+        assertFalse(this.readCache.copyTo(DEVICE_IDENTIFICATION, dataObject(), now));
+    }
+
+    private static FcDataObject dataObject() {
+        final BdaFloat32 f = new BdaFloat32(new ObjectReference("RTU1/DGEN1.MaxWPhs.f"), Fc.CF, null, false,
+                false);
+        return new FcDataObject(new ObjectReference("RTU1/DGEN1.MaxWPhs"), Fc.CF, Arrays.<FcModelNode> asList(f));
+    }
+}